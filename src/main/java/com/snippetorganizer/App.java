@@ -1,14 +1,25 @@
 package com.snippetorganizer;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import com.snippetorganizer.core.KeywordBatchMatch;
+import com.snippetorganizer.core.RegexMatch;
+import com.snippetorganizer.core.ScoredSnippet;
 import com.snippetorganizer.core.Snippet;
 import com.snippetorganizer.core.SnippetAnalyzer;
 import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.core.SnippetPage;
 import com.snippetorganizer.export.SnippetExporter;
+import com.snippetorganizer.index.CompletionIndex;
+import com.snippetorganizer.index.FuzzyIndex;
 
 /**
  * Main application class for the Snippet Organizer.
@@ -18,6 +29,12 @@ import com.snippetorganizer.export.SnippetExporter;
  * 
  */
 public class App {
+
+    /** The number of search results printed before asking to continue */
+    private static final int PAGE_SIZE = 10;
+
+    /** The minimum code similarity of snippets reported as near-duplicates */
+    private static final double DUPLICATE_THRESHOLD = 0.8;
     
     /**
      * Main entry point for the Snippet Organizer application.
@@ -62,6 +79,11 @@ public class App {
         } catch (Exception e) {
             System.out.println("A critical error occurred: " + e.getMessage());
         } finally {
+            try {
+                manager.close();
+            } catch (Exception e) {
+                System.out.println("Failed to save pending changes: " + e.getMessage());
+            }
             System.out.println("Exiting the application.");
         }
     }
@@ -127,6 +149,10 @@ public class App {
             System.out.println("Search options:");
             System.out.println("1. Search by keyword");
             System.out.println("2. Search by tag");
+            System.out.println("3. Search with a query (e.g. lang:java AND tag:concurrency NOT title:test)");
+            System.out.println("4. Ranked search (best 10 matches)");
+            System.out.println("5. Search code with a regular expression");
+            System.out.println("6. Search for several keywords at once (comma-separated)");
             System.out.print("Select search type (or blank to cancel): ");
             String input = scanner.nextLine().trim();
             if (input.isEmpty()) return;
@@ -136,20 +162,159 @@ public class App {
                     case 1 -> {
                         System.out.print("Enter search keyword: ");
                         String keyword = scanner.nextLine();
-                        manager.searchSnippets(keyword);
+                        if (printPages(scanner, manager.streamMatches(keyword), System.out::println) == 0) {
+                            System.out.println("No snippets found containing: " + keyword);
+                        }
                         return;
                     }
                     case 2 -> {
-                        System.out.print("Enter tag to search: ");
-                        String tag = scanner.nextLine();
-                        manager.searchByTag(tag);
+                        System.out.print("Enter tag to search (end with * to list matching tags): ");
+                        String tag = scanner.nextLine().trim();
+                        if (tag.endsWith("*")) {
+                            List<CompletionIndex.Completion> completions =
+                                manager.complete(CompletionIndex.Field.TAG, tag.substring(0, tag.length() - 1), 10);
+                            if (completions.isEmpty()) {
+                                System.out.println("No tags start with: " + tag.substring(0, tag.length() - 1));
+                            }
+                            completions.forEach(completion -> System.out.println("  " + completion));
+                            continue;
+                        }
+                        if (printPages(scanner, manager.streamByTag(tag), Snippet::display) == 0) {
+                            System.out.println("No snippets found with tag: " + tag);
+                            List<FuzzyIndex.Suggestion> suggestions =
+                                manager.suggest(FuzzyIndex.Field.TAG, tag, FuzzyIndex.MAX_DISTANCE);
+                            if (!suggestions.isEmpty()) {
+                                System.out.println("Did you mean: " + String.join(", ",
+                                    suggestions.stream().limit(5).map(FuzzyIndex.Suggestion::getTerm).toList()) + "?");
+                            }
+                        }
+                        return;
+                    }
+                    case 3 -> {
+                        System.out.print("Enter query: ");
+                        String query = scanner.nextLine();
+                        List<Snippet> results = manager.query(query);
+                        if (results.isEmpty()) {
+                            System.out.println("No snippets match: " + query);
+                        }
+                        for (Snippet snippet : results) {
+                            System.out.println();
+                            snippet.display();
+                            System.out.println("---------------------------");
+                        }
                         return;
                     }
-                    default -> System.out.println("Invalid search option. Please enter 1 or 2.");
+                    case 4 -> {
+                        System.out.print("Enter search words: ");
+                        String words = scanner.nextLine();
+                        List<ScoredSnippet> results = manager.rankedSearch(words, 10);
+                        if (results.isEmpty()) {
+                            System.out.println("No snippets found containing: " + words);
+                        }
+                        for (ScoredSnippet result : results) {
+                            System.out.println("\nScore: " + String.format("%.2f", result.getScore()));
+                            result.getSnippet().display();
+                            System.out.println("---------------------------");
+                        }
+                        return;
+                    }
+                    case 5 -> {
+                        System.out.print("Enter regular expression: ");
+                        String regex = scanner.nextLine();
+                        List<RegexMatch> results = manager.regexSearch(regex);
+                        if (results.isEmpty()) {
+                            System.out.println("No snippet code matches: " + regex);
+                        }
+                        for (RegexMatch result : results) {
+                            Snippet snippet = result.getSnippet();
+                            System.out.println("\nID: " + snippet.getId() + " - " + snippet.getTitle());
+                            String[] lines = snippet.getCode().split("\n", -1);
+                            for (int line : result.getLineNumbers()) {
+                                System.out.println(String.format("%4d: %s", line, lines[line - 1]));
+                            }
+                            System.out.println("---------------------------");
+                        }
+                        return;
+                    }
+                    case 6 -> {
+                        System.out.print("Enter keywords separated by commas: ");
+                        List<String> keywords = Arrays.stream(scanner.nextLine().split(","))
+                            .map(String::trim)
+                            .filter(keyword -> !keyword.isEmpty())
+                            .toList();
+                        List<KeywordBatchMatch> results = manager.searchKeywords(keywords);
+                        if (results.isEmpty()) {
+                            System.out.println("No snippets contain any of: " + String.join(", ", keywords));
+                        }
+                        for (KeywordBatchMatch result : results) {
+                            Snippet snippet = result.getSnippet();
+                            System.out.println("\nID: " + snippet.getId() + " - " + snippet.getTitle());
+                            result.getCounts().forEach((keyword, count) -> System.out.println("  " + keyword + ": " + count
+                                + (count == 1 ? " occurrence" : " occurrences")));
+                            System.out.println("---------------------------");
+                        }
+                        return;
+                    }
+                    default -> System.out.println("Invalid search option. Please enter a number from 1 to 6.");
                 }
             } catch (NumberFormatException e) {
-                System.out.println("Please enter a valid number (1 or 2).");
+                System.out.println("Please enter a valid number (1 to 6).");
+            }
+        }
+    }
+
+    /**
+     * Prints search results a page at a time, asking before each further page.
+     * Results after the last printed page are never looked up.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param results the lazily produced results
+     * @param printer prints one result
+     * @return the number of results printed
+     */
+    private static <T> int printPages(Scanner scanner, Stream<T> results, Consumer<T> printer) {
+        Iterator<T> iterator = results.iterator();
+        int printed = 0;
+        while (iterator.hasNext()) {
+            if (printed > 0 && printed % PAGE_SIZE == 0) {
+                System.out.print("Show more results? (y/N): ");
+                if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                    break;
+                }
+            }
+            System.out.println();
+            printer.accept(iterator.next());
+            System.out.println("---------------------------");
+            printed++;
+        }
+        return printed;
+    }
+
+    /**
+     * Lists the snippets a page at a time, asking before each further page.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param manager the SnippetManager instance to list snippets from
+     */
+    private static void listSnippetPages(Scanner scanner, SnippetManager manager) {
+        SnippetPage page = manager.listSnippets(SnippetPage.FIRST, PAGE_SIZE);
+        if (page.getSnippets().isEmpty()) {
+            System.out.println("No snippets available.");
+            return;
+        }
+        while (true) {
+            for (Snippet snippet : page.getSnippets()) {
+                snippet.display();
+                System.out.println("---------------------------");
             }
+            if (!page.hasMore()) {
+                return;
+            }
+            System.out.print("Show more snippets? (y/N): ");
+            if (!scanner.nextLine().trim().equalsIgnoreCase("y")) {
+                return;
+            }
+            page = manager.listSnippets(page.getNextCursor(), PAGE_SIZE);
         }
     }
 
@@ -161,7 +326,7 @@ public class App {
      */
     @SuppressWarnings("UseSpecificCatch")
     private static void handleEditSnippet(Scanner scanner, SnippetManager manager) {
-        manager.listSnippets();
+        listSnippetPages(scanner, manager);
         Snippet snippetToEdit = null;
         while (snippetToEdit == null) {
             System.out.print("Enter snippet ID to edit (or blank to cancel): ");
@@ -169,12 +334,7 @@ public class App {
             if (input.isEmpty()) return;
             try {
                 int snippetId = Integer.parseInt(input);
-                for (Snippet snippet : manager.getAllSnippets()) {
-                    if (snippet.getId() == snippetId) {
-                        snippetToEdit = snippet;
-                        break;
-                    }
-                }
+                snippetToEdit = manager.findById(snippetId);
                 if (snippetToEdit == null) {
                     System.out.println("No snippet found with ID: " + snippetId);
                 }
@@ -266,8 +426,7 @@ public class App {
         }
         if (changed) {
             try {
-                manager.getClass().getDeclaredMethod("saveSnippets").setAccessible(true);
-                manager.getClass().getDeclaredMethod("saveSnippets").invoke(manager);
+                manager.updateSnippet(snippetToEdit);
                 System.out.println("Snippet edited successfully!");
             } catch (Exception e) {
                 System.out.println("Error saving snippet: " + e.getMessage());
@@ -284,24 +443,19 @@ public class App {
      * @param manager the SnippetManager instance for deleting snippets
      */
     private static void handleDeleteSnippet(Scanner scanner, SnippetManager manager) {
-        manager.listSnippets();
+        listSnippetPages(scanner, manager);
         while (true) {
             System.out.print("Enter snippet ID to delete (or blank to cancel): ");
             String input = scanner.nextLine().trim();
             if (input.isEmpty()) return;
             try {
                 int snippetId = Integer.parseInt(input);
-                boolean found = false;
-                for (Snippet snippet : manager.getAllSnippets()) {
-                    if (snippet.getId() == snippetId) {
-                        manager.deleteSnippet(snippetId);
-                        System.out.println("Snippet deleted successfully!");
-                        return;
-                    }
-                }
-                if (!found) {
-                    System.out.println("No snippet found with ID: " + snippetId);
+                if (manager.findById(snippetId) != null) {
+                    manager.deleteSnippet(snippetId);
+                    System.out.println("Snippet deleted successfully!");
+                    return;
                 }
+                System.out.println("No snippet found with ID: " + snippetId);
             } catch (NumberFormatException e) {
                 System.out.println("Please enter a valid number.");
             } catch (IllegalArgumentException e) {
@@ -344,6 +498,7 @@ public class App {
         offerLanguageAnalysis(scanner, manager);
         offerDescriptionAnalysis(scanner, manager);
         offerCodeLengthAnalysis(scanner, manager);
+        offerDuplicateAnalysis(scanner, manager);
         offerExportOptions(scanner, manager);
     }
 
@@ -394,7 +549,7 @@ public class App {
      */
     @SuppressWarnings("UseSpecificCatch")
     private static void handleAddTagToSnippet(Scanner scanner, SnippetManager manager) {
-        manager.listSnippets();
+        listSnippetPages(scanner, manager);
         Snippet snippetToEdit = null;
         while (snippetToEdit == null) {
             System.out.print("Enter snippet ID (or blank to cancel): ");
@@ -402,12 +557,7 @@ public class App {
             if (input.isEmpty()) return;
             try {
                 int snippetId = Integer.parseInt(input);
-                for (Snippet snippet : manager.getAllSnippets()) {
-                    if (snippet.getId() == snippetId) {
-                        snippetToEdit = snippet;
-                        break;
-                    }
-                }
+                snippetToEdit = manager.findById(snippetId);
                 if (snippetToEdit == null) {
                     System.out.println("No snippet found with ID: " + snippetId);
                 }
@@ -425,8 +575,7 @@ public class App {
             }
             snippetToEdit.addTag(tagToAdd);
             try {
-                manager.getClass().getDeclaredMethod("saveSnippets").setAccessible(true);
-                manager.getClass().getDeclaredMethod("saveSnippets").invoke(manager);
+                manager.updateSnippet(snippetToEdit);
                 System.out.println("Tag added successfully!");
             } catch (Exception e) {
                 System.out.println("Error saving tag: " + e.getMessage());
@@ -443,7 +592,7 @@ public class App {
      */
     @SuppressWarnings("UseSpecificCatch")
     private static void handleRemoveTagFromSnippet(Scanner scanner, SnippetManager manager) {
-        manager.listSnippets();
+        listSnippetPages(scanner, manager);
         Snippet snippetToEdit = null;
         while (snippetToEdit == null) {
             System.out.print("Enter snippet ID (or blank to cancel): ");
@@ -451,12 +600,7 @@ public class App {
             if (input.isEmpty()) return;
             try {
                 int snippetId = Integer.parseInt(input);
-                for (Snippet snippet : manager.getAllSnippets()) {
-                    if (snippet.getId() == snippetId) {
-                        snippetToEdit = snippet;
-                        break;
-                    }
-                }
+                snippetToEdit = manager.findById(snippetId);
                 if (snippetToEdit == null) {
                     System.out.println("No snippet found with ID: " + snippetId);
                 }
@@ -479,8 +623,7 @@ public class App {
             }
             snippetToEdit.removeTag(tagToRemove);
             try {
-                manager.getClass().getDeclaredMethod("saveSnippets").setAccessible(true);
-                manager.getClass().getDeclaredMethod("saveSnippets").invoke(manager);
+                manager.updateSnippet(snippetToEdit);
                 System.out.println("Tag removed successfully!");
             } catch (Exception e) {
                 System.out.println("Error saving tag: " + e.getMessage());
@@ -575,6 +718,37 @@ public class App {
         }
     }
 
+    /**
+     * Offers a report of the groups of near-duplicate snippets.
+     *
+     * @param scanner the Scanner object for reading user input
+     * @param manager the SnippetManager instance for accessing snippets
+     */
+    private static void offerDuplicateAnalysis(Scanner scanner, SnippetManager manager) {
+        while (true) {
+            System.out.print("\nWould you like to see near-duplicate snippets (80%+ similar code)? (y/n): ");
+            String showDuplicates = scanner.nextLine().trim();
+            if (showDuplicates.equalsIgnoreCase("y")) {
+                List<List<Snippet>> clusters = manager.findDuplicateClusters(DUPLICATE_THRESHOLD);
+                if (clusters.isEmpty()) {
+                    System.out.println("No near-duplicate snippets found.");
+                } else {
+                    System.out.println("Found " + clusters.size() + " groups of near-duplicate snippets:");
+                    for (List<Snippet> cluster : clusters) {
+                        System.out.println("  Group of " + cluster.size() + ":");
+                        cluster.forEach(snippet ->
+                            System.out.println("    - [" + snippet.getId() + "] " + snippet.getTitle()));
+                    }
+                }
+                break;
+            } else if (showDuplicates.equalsIgnoreCase("n")) {
+                break;
+            } else {
+                System.out.println("Please enter 'y' or 'n'.");
+            }
+        }
+    }
+
     /**
      * Offers export options for analysis results.
      * 
@@ -0,0 +1,118 @@
+package com.snippetorganizer.cache;
+
+/**
+ * A snapshot of the statistics of a {@link QueryCache}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see QueryCache#getStats()
+ */
+public final class CacheStats {
+
+    /** The number of lookups answered from the cache */
+    private final long hits;
+
+    /** The number of lookups that had to compute the result */
+    private final long misses;
+
+    /** The number of entries removed to respect the bounds */
+    private final long evictions;
+
+    /** The number of entries found outdated by a mutation */
+    private final long invalidations;
+
+    /** The number of entries */
+    private final int entries;
+
+    /** The estimated size of all entries, in bytes */
+    private final long bytes;
+
+    /**
+     * Constructs a new CacheStats.
+     *
+     * @param hits the number of lookups answered from the cache
+     * @param misses the number of lookups that had to compute the result
+     * @param evictions the number of entries removed to respect the bounds
+     * @param invalidations the number of entries found outdated by a mutation
+     * @param entries the number of entries
+     * @param bytes the estimated size of all entries, in bytes
+     */
+    public CacheStats(long hits, long misses, long evictions, long invalidations, int entries, long bytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.invalidations = invalidations;
+        this.entries = entries;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache.
+     *
+     * @return the hit count
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups that had to compute the result, including invalidated ones.
+     *
+     * @return the miss count
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries removed to respect the bounds.
+     *
+     * @return the eviction count
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the number of entries found outdated by a mutation.
+     *
+     * @return the invalidation count
+     */
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the entry count
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * Gets the estimated size of all entries.
+     *
+     * @return the size in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit rate between 0 and 1, or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d (%.1f%% hit rate), evictions=%d, invalidations=%d, entries=%d, bytes=%d",
+            hits, misses, getHitRate() * 100, evictions, invalidations, entries, bytes);
+    }
+}
@@ -0,0 +1,222 @@
+package com.snippetorganizer.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Bounded cache of query results, evicting the least recently used entries.
+ *
+ * <p>Keys are normalized query strings such as {@code tag:java}. A result can be made stale
+ * in two ways. Every entry records the version it was computed at, and a lookup at a newer
+ * version counts as an invalidation and recomputes the result. Alternatively the owner
+ * calls {@link #invalidate(String)} for the keys a mutation affects, as the
+ * {@link com.snippetorganizer.core.SnippetManager} does for the tags and language a snippet
+ * joined or left; no state is kept for keys without an entry, so the cache stays within
+ * its bounds however many keys are invalidated.</p>
+ *
+ * <p>The cache is bounded both in entries and in estimated bytes. A result is weighed as
+ * the references it holds plus its key and a fixed overhead; the snippets themselves are
+ * shared with the collection and not counted.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see CacheStats
+ */
+public final class QueryCache {
+
+    /** The estimated bytes of an entry besides its key and references */
+    static final int ENTRY_OVERHEAD = 96;
+
+    /** The estimated bytes of one reference in a result */
+    static final int REFERENCE_SIZE = 8;
+
+    /** The maximum number of entries */
+    private final int maxEntries;
+
+    /** The maximum estimated size of all entries, in bytes */
+    private final long maxBytes;
+
+    /** The entries, from least to most recently used */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** The estimated size of all entries, in bytes */
+    private long bytes;
+
+    /** The number of lookups answered from the cache */
+    private long hits;
+
+    /** The number of lookups that had to compute the result */
+    private long misses;
+
+    /** The number of entries removed to respect the bounds */
+    private long evictions;
+
+    /** The number of entries found outdated by a mutation */
+    private long invalidations;
+
+    /**
+     * Constructs a new empty QueryCache.
+     *
+     * @param maxEntries the maximum number of entries (must be positive)
+     * @param maxBytes the maximum estimated size of all entries, in bytes (must be positive)
+     * @throws SnippetException if a bound is not positive
+     */
+    public QueryCache(int maxEntries, long maxBytes) {
+        if (maxEntries <= 0 || maxBytes <= 0) {
+            throw SnippetException.validationError("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Gets the result of a query, computing and caching it unless a result computed at the
+     * same version is cached.
+     *
+     * @param key the normalized query (must not be null)
+     * @param version the current version of the collection
+     * @param loader computes the result on a miss (must not be null or return null)
+     * @return the result, unmodifiable
+     * @throws SnippetException if an argument is null
+     */
+    public List<Snippet> get(String key, long version, Supplier<List<Snippet>> loader) {
+        if (key == null || loader == null) {
+            throw SnippetException.validationError("Key and loader cannot be null");
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.version == version) {
+                hits++;
+                return entry.result;
+            }
+            invalidations++;
+            discard(key);
+        }
+        misses++;
+        List<Snippet> result = List.copyOf(loader.get());
+        long weight = weigh(key, result);
+        if (weight <= maxBytes) {
+            entries.put(key, new Entry(result, version, weight));
+            bytes += weight;
+            evict();
+        }
+        return result;
+    }
+
+    /**
+     * Gets the result of a query, computing and caching it unless a result is cached. For
+     * owners that invalidate affected keys with {@link #invalidate(String)} rather than
+     * passing versions.
+     *
+     * @param key the normalized query (must not be null)
+     * @param loader computes the result on a miss (must not be null or return null)
+     * @return the result, unmodifiable
+     * @throws SnippetException if an argument is null
+     */
+    public List<Snippet> get(String key, Supplier<List<Snippet>> loader) {
+        return get(key, 0, loader);
+    }
+
+    /**
+     * Removes the cached result of a query that a mutation made stale.
+     *
+     * @param key the normalized query
+     * @return true if a result was cached and has been removed
+     */
+    public boolean invalidate(String key) {
+        if (!entries.containsKey(key)) {
+            return false;
+        }
+        discard(key);
+        invalidations++;
+        return true;
+    }
+
+    /**
+     * Removes every entry. The statistics are kept.
+     */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Takes a snapshot of the statistics.
+     *
+     * @return the hit, miss, eviction and invalidation counts and the current size
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    /**
+     * Removes the least recently used entries until both bounds hold.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key the key of the entry
+     */
+    private void discard(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            bytes -= entry.weight;
+        }
+    }
+
+    /**
+     * Estimates the size of an entry.
+     *
+     * @param key the key
+     * @param result the result
+     * @return the estimated bytes
+     */
+    private static long weigh(String key, List<Snippet> result) {
+        return ENTRY_OVERHEAD + 2L * key.length() + (long) REFERENCE_SIZE * result.size();
+    }
+
+    /**
+     * A cached result with the version it was computed at.
+     */
+    private static final class Entry {
+
+        /** The result */
+        private final List<Snippet> result;
+
+        /** The version of the collection the result was computed at */
+        private final long version;
+
+        /** The estimated size of the entry, in bytes */
+        private final long weight;
+
+        /**
+         * Constructs a new Entry.
+         *
+         * @param result the result
+         * @param version the version the result was computed at
+         * @param weight the estimated size of the entry
+         */
+        Entry(List<Snippet> result, long version, long weight) {
+            this.result = result;
+            this.version = version;
+            this.weight = weight;
+        }
+    }
+}
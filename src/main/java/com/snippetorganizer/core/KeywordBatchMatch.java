@@ -0,0 +1,177 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snippet containing at least one keyword of a batch search, with every occurrence of
+ * each keyword, as returned by {@link SnippetManager#searchKeywords(java.util.Collection)}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager
+ */
+public final class KeywordBatchMatch {
+
+    /**
+     * The fields a batch search scans, in scan order.
+     */
+    public enum Field {
+        /** The title */
+        TITLE,
+        /** The code */
+        CODE,
+        /** The language */
+        LANGUAGE,
+        /** The description */
+        DESCRIPTION,
+        /** A tag */
+        TAG
+    }
+
+    /**
+     * One occurrence of a keyword.
+     */
+    public static final class Hit {
+
+        /** The lowercased keyword */
+        private final String keyword;
+
+        /** The field the keyword occurs in */
+        private final Field field;
+
+        /** The tag the keyword occurs in, as written, or null for other fields */
+        private final String tag;
+
+        /** The index of the first char of the occurrence in the field */
+        private final int offset;
+
+        /**
+         * Constructs a new Hit.
+         *
+         * @param keyword the lowercased keyword
+         * @param field the field the keyword occurs in
+         * @param tag the tag the keyword occurs in, or null for other fields
+         * @param offset the index of the first char of the occurrence in the field
+         */
+        public Hit(String keyword, Field field, String tag, int offset) {
+            this.keyword = keyword;
+            this.field = field;
+            this.tag = tag;
+            this.offset = offset;
+        }
+
+        /**
+         * Gets the keyword.
+         *
+         * @return the lowercased keyword
+         */
+        public String getKeyword() {
+            return keyword;
+        }
+
+        /**
+         * Gets the field the keyword occurs in.
+         *
+         * @return the field
+         */
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * Gets the tag the keyword occurs in.
+         *
+         * @return the tag for {@link Field#TAG} hits, null otherwise
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * Gets the position of the occurrence in the field as written, so
+         * {@code field.substring(offset, offset + keyword.length())} is the occurrence.
+         *
+         * @return the index of the first char of the occurrence in the field (or tag)
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return keyword + " in " + (tag != null ? "tag " + tag : field.name().toLowerCase()) + " at " + offset;
+        }
+    }
+
+    /** The snippet */
+    private final Snippet snippet;
+
+    /** The occurrences by keyword, in batch order; keywords that do not occur are left out */
+    private final Map<String, List<Hit>> hits;
+
+    /**
+     * Constructs a new KeywordBatchMatch.
+     *
+     * @param snippet the snippet
+     * @param hits the occurrences, grouped by keyword in batch order
+     */
+    public KeywordBatchMatch(Snippet snippet, Map<String, List<Hit>> hits) {
+        this.snippet = snippet;
+        this.hits = new LinkedHashMap<>();
+        hits.forEach((keyword, keywordHits) -> this.hits.put(keyword, List.copyOf(keywordHits)));
+    }
+
+    /**
+     * Gets the snippet.
+     *
+     * @return the snippet
+     */
+    public Snippet getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Gets the number of occurrences of each keyword found in the snippet.
+     *
+     * @return the counts by lowercased keyword, in batch order
+     */
+    public Map<String, Integer> getCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        hits.forEach((keyword, keywordHits) -> counts.put(keyword, keywordHits.size()));
+        return counts;
+    }
+
+    /**
+     * Gets the number of occurrences of a keyword.
+     *
+     * @param keyword the keyword, in any case
+     * @return the number of occurrences, 0 if the keyword does not occur or was not searched
+     */
+    public int getCount(String keyword) {
+        return getHits(keyword).size();
+    }
+
+    /**
+     * Gets the occurrences of a keyword.
+     *
+     * @param keyword the keyword, in any case
+     * @return an unmodifiable list of the occurrences in field order, then by offset
+     */
+    public List<Hit> getHits(String keyword) {
+        return keyword == null ? List.of() : hits.getOrDefault(keyword.toLowerCase(), List.of());
+    }
+
+    /**
+     * Gets all occurrences.
+     *
+     * @return the occurrences grouped by keyword in batch order
+     */
+    public List<Hit> getHits() {
+        List<Hit> all = new ArrayList<>();
+        hits.values().forEach(all::addAll);
+        return all;
+    }
+}
@@ -0,0 +1,276 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A snippet found by a keyword search, with the positions of the keyword in its code and
+ * a highlighted excerpt of the lines around them, as returned by
+ * {@link SnippetManager#streamMatches(String)}.
+ *
+ * <p>Only the code is kept at search time. The positions, the line numbers and the excerpt
+ * are computed the first time they are asked for, so a result that is never shown costs
+ * nothing to format. The code is the one the snippet had when it was found; later edits do
+ * not change the result.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager
+ */
+public final class KeywordMatch {
+
+    /** The marker written before each highlighted occurrence by {@link #excerpt(int)} */
+    public static final String HIGHLIGHT_START = "[[";
+
+    /** The marker written after each highlighted occurrence by {@link #excerpt(int)} */
+    public static final String HIGHLIGHT_END = "]]";
+
+    /** The lines of code shown before and after each occurrence by {@link #toString()} */
+    public static final int DEFAULT_CONTEXT_LINES = 2;
+
+    /** The snippet */
+    private final Snippet snippet;
+
+    /** The lowercased keyword */
+    private final String lowerKeyword;
+
+    /** The code when the snippet was found */
+    private final String code;
+
+    /** The lowercased code when the snippet was found */
+    private final String foldedCode;
+
+    /** The positions of the keyword in the code, or null until first needed */
+    private int[] offsets;
+
+    /** The position of the first char of each line of the code, or null until first needed */
+    private int[] lineStarts;
+
+    /**
+     * Constructs a new KeywordMatch from the current code of a snippet.
+     *
+     * @param snippet the snippet
+     * @param lowerKeyword the lowercased keyword
+     */
+    public KeywordMatch(Snippet snippet, String lowerKeyword) {
+        this.snippet = snippet;
+        this.lowerKeyword = lowerKeyword;
+        this.code = snippet.getCode();
+        this.foldedCode = snippet.getFoldedCode();
+    }
+
+    /**
+     * Gets the snippet.
+     *
+     * @return the snippet
+     */
+    public Snippet getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Gets the positions where the keyword occurs in the code, ignoring case. Overlapping
+     * occurrences are all included.
+     *
+     * @return the positions of the first char of each occurrence, ascending; empty if the
+     *         snippet matched on another field only
+     */
+    public List<Integer> getOffsets() {
+        List<Integer> list = new ArrayList<>();
+        for (int offset : offsets()) {
+            list.add(offset);
+        }
+        return list;
+    }
+
+    /**
+     * Gets the lines of the code the keyword occurs on.
+     *
+     * @return the 1-based line numbers, ascending and distinct
+     */
+    public List<Integer> getLineNumbers() {
+        List<Integer> lines = new ArrayList<>();
+        for (int offset : offsets()) {
+            int line = lineOf(offset) + 1;
+            if (lines.isEmpty() || lines.get(lines.size() - 1) != line) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Formats the lines around each occurrence of the keyword, numbered, with each
+     * occurrence between {@value #HIGHLIGHT_START} and {@value #HIGHLIGHT_END}.
+     *
+     * @param contextLines the number of lines to show before and after each line with an
+     *        occurrence (0 or more; negative values count as 0)
+     * @return the excerpt; windows that do not touch are separated by a {@code ...} line;
+     *         empty if the keyword does not occur in the code
+     * @see #excerpt(int, String, String)
+     */
+    public String excerpt(int contextLines) {
+        return excerpt(contextLines, HIGHLIGHT_START, HIGHLIGHT_END);
+    }
+
+    /**
+     * Formats the lines around each occurrence of the keyword, numbered, with each
+     * occurrence between the given markers, for example ANSI escape codes for a terminal.
+     * Overlapping occurrences are highlighted as one.
+     *
+     * @param contextLines the number of lines to show before and after each line with an
+     *        occurrence (0 or more; negative values count as 0)
+     * @param start the marker written before an occurrence
+     * @param end the marker written after an occurrence
+     * @return the excerpt; windows that do not touch are separated by a {@code ...} line;
+     *         empty if the keyword does not occur in the code
+     */
+    public String excerpt(int contextLines, String start, String end) {
+        int[] hits = offsets();
+        if (hits.length == 0) {
+            return "";
+        }
+        int context = Math.max(0, contextLines);
+        int[] starts = lineStarts();
+        int width = String.valueOf(starts.length).length();
+        StringBuilder excerpt = new StringBuilder();
+        int hit = 0;
+        int highlightEnd = -1;
+        int printedUpTo = -1;
+        while (hit < hits.length) {
+            int first = Math.max(0, lineOf(hits[hit]) - context);
+            int last = Math.min(starts.length - 1, lineOf(hits[hit] + lowerKeyword.length() - 1) + context);
+            // Extend the window while the next occurrence falls inside or right after it
+            for (int next = hit + 1; next < hits.length && lineOf(hits[next]) - context <= last + 1; next++) {
+                last = Math.max(last, Math.min(starts.length - 1, lineOf(hits[next] + lowerKeyword.length() - 1) + context));
+            }
+            first = Math.max(first, printedUpTo + 1);
+            if (excerpt.length() > 0) {
+                excerpt.append("...\n");
+            }
+            for (int line = first; line <= last; line++) {
+                int lineStart = starts[line];
+                int lineEnd = line + 1 < starts.length ? starts[line + 1] - 1 : code.length();
+                excerpt.append(String.format("%" + width + "d: ", line + 1));
+                if (highlightEnd > lineStart) {
+                    excerpt.append(start);
+                }
+                // The line break itself is not printed but may start an occurrence
+                for (int i = lineStart; i <= lineEnd && i < code.length(); i++) {
+                    while (hit < hits.length && hits[hit] == i) {
+                        if (highlightEnd <= i) {
+                            excerpt.append(start);
+                        }
+                        highlightEnd = Math.max(highlightEnd, i + lowerKeyword.length());
+                        hit++;
+                    }
+                    if (i == lineEnd) {
+                        break;
+                    }
+                    excerpt.append(code.charAt(i));
+                    if (highlightEnd == i + 1) {
+                        excerpt.append(end);
+                    }
+                }
+                if (highlightEnd > lineEnd) {
+                    excerpt.append(end);
+                }
+                excerpt.append('\n');
+            }
+            printedUpTo = last;
+        }
+        return excerpt.toString();
+    }
+
+    /**
+     * Formats the result for display: the fields of the snippet as in
+     * {@link Snippet#toString()}, but with an excerpt of {@value #DEFAULT_CONTEXT_LINES}
+     * lines of context in place of the whole code.
+     *
+     * @return the formatted result; without a code section if the keyword only occurs in
+     *         other fields
+     */
+    @Override
+    public String toString() {
+        String excerpt = excerpt(DEFAULT_CONTEXT_LINES);
+        if (excerpt.isEmpty()) {
+            return snippet.formatDetails();
+        }
+        return snippet.formatDetails() + "\nCode:\n" + excerpt.substring(0, excerpt.length() - 1);
+    }
+
+    /**
+     * Finds the positions of the keyword in the code, once.
+     *
+     * @return the positions, ascending
+     */
+    private int[] offsets() {
+        if (offsets == null) {
+            int[] found = new int[4];
+            int count = 0;
+            // Lowercasing keeps positions unless a char folds to a different number of chars
+            boolean aligned = foldedCode.length() == code.length();
+            for (int i = next(0, aligned); i >= 0; i = next(i + 1, aligned)) {
+                if (count == found.length) {
+                    found = Arrays.copyOf(found, count * 2);
+                }
+                found[count++] = i;
+            }
+            offsets = Arrays.copyOf(found, count);
+        }
+        return offsets;
+    }
+
+    /**
+     * Finds the next occurrence of the keyword in the code.
+     *
+     * @param from the first position to check
+     * @param aligned whether positions in the lowercased code are positions in the code
+     * @return the position of the occurrence, or -1 if there is none
+     */
+    private int next(int from, boolean aligned) {
+        if (aligned) {
+            return foldedCode.indexOf(lowerKeyword, from);
+        }
+        for (int i = from; i + lowerKeyword.length() <= code.length(); i++) {
+            if (code.regionMatches(true, i, lowerKeyword, 0, lowerKeyword.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first char of each line of the code, once.
+     *
+     * @return the positions, ascending; the first is 0
+     */
+    private int[] lineStarts() {
+        if (lineStarts == null) {
+            int[] starts = new int[16];
+            int count = 1;
+            for (int i = 0; i < code.length(); i++) {
+                if (code.charAt(i) == '\n') {
+                    if (count == starts.length) {
+                        starts = Arrays.copyOf(starts, count * 2);
+                    }
+                    starts[count++] = i + 1;
+                }
+            }
+            lineStarts = Arrays.copyOf(starts, count);
+        }
+        return lineStarts;
+    }
+
+    /**
+     * Gets the line a position of the code is on.
+     *
+     * @param offset the position
+     * @return the 0-based line number
+     */
+    private int lineOf(int offset) {
+        int index = Arrays.binarySearch(lineStarts(), offset);
+        return index >= 0 ? index : -index - 2;
+    }
+}
@@ -0,0 +1,181 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Brute-force filter over a list of snippets, split across the workers of a {@link ForkJoinPool}.
+ *
+ * <p>Used for searches no index can narrow down, such as keywords shorter than a trigram.
+ * The list is halved recursively until a range is at most {@value #LEAF_SIZE} snippets,
+ * and the ranges are filtered by as many workers as the parallelism allows. All workers
+ * share a match counter: once it reaches the limit, the remaining ranges stop early.</p>
+ *
+ * <p>Results keep the order of the list. With a limit, a parallel scan returns at most that
+ * many matches but not necessarily the first ones; with a parallelism of 1 the scan runs on
+ * the calling thread and always returns the first matches.</p>
+ *
+ * <p>The filter must not modify the snippets. Callers keep the snippets from being modified
+ * while a scan runs; the scanner itself may be shared between threads.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager#scan(Predicate, int)
+ */
+public final class ParallelSnippetScanner implements AutoCloseable {
+
+    /** The largest range filtered by a single task without splitting it */
+    static final int LEAF_SIZE = 512;
+
+    /** The number of workers */
+    private final int parallelism;
+
+    /** The workers, or null for a sequential scanner */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a new ParallelSnippetScanner.
+     *
+     * @param parallelism the number of workers (must be positive; 1 scans on the calling thread)
+     * @throws SnippetException if the parallelism is not positive
+     */
+    public ParallelSnippetScanner(int parallelism) {
+        if (parallelism <= 0) {
+            throw SnippetException.validationError("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+    }
+
+    /**
+     * Gets the number of workers.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Finds the snippets of a list that satisfy a filter.
+     *
+     * @param snippets the snippets to filter (must not be null)
+     * @param filter the condition to test (must not be null)
+     * @param limit the maximum number of matches (must be positive; {@link Integer#MAX_VALUE} for all)
+     * @return at most {@code limit} matching snippets, in list order
+     * @throws SnippetException if an argument is invalid or the scanner is closed
+     */
+    public List<Snippet> scan(List<Snippet> snippets, Predicate<? super Snippet> filter, int limit) {
+        if (snippets == null || filter == null) {
+            throw SnippetException.validationError("Snippets and filter cannot be null");
+        }
+        if (limit <= 0) {
+            throw SnippetException.validationError("Number of results must be positive");
+        }
+        AtomicInteger matched = new AtomicInteger();
+        List<Snippet> matches;
+        if (pool == null || snippets.size() <= LEAF_SIZE) {
+            matches = new ScanTask(snippets, 0, snippets.size(), filter, limit, matched).scanRange();
+        } else {
+            try {
+                matches = pool.invoke(new ScanTask(snippets, 0, snippets.size(), filter, limit, matched));
+            } catch (RejectedExecutionException e) {
+                throw SnippetException.systemError("Scanner has been closed", e);
+            }
+        }
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Stops the workers. Scans of lists small enough for a single task still work afterwards.
+     */
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Filters a range of the list, splitting it in halves while it is larger than a leaf.
+     */
+    private static final class ScanTask extends RecursiveTask<List<Snippet>> {
+
+        private static final long serialVersionUID = 1L;
+
+        /** The whole list */
+        private final transient List<Snippet> snippets;
+
+        /** The first index of the range */
+        private final int from;
+
+        /** The index after the range */
+        private final int to;
+
+        /** The condition to test */
+        private final transient Predicate<? super Snippet> filter;
+
+        /** The maximum number of matches */
+        private final int limit;
+
+        /** The number of matches found by all tasks of the scan */
+        private final AtomicInteger matched;
+
+        /**
+         * Constructs a new ScanTask.
+         *
+         * @param snippets the whole list
+         * @param from the first index of the range
+         * @param to the index after the range
+         * @param filter the condition to test
+         * @param limit the maximum number of matches
+         * @param matched the shared match counter
+         */
+        ScanTask(List<Snippet> snippets, int from, int to, Predicate<? super Snippet> filter,
+                 int limit, AtomicInteger matched) {
+            this.snippets = snippets;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.limit = limit;
+            this.matched = matched;
+        }
+
+        @Override
+        protected List<Snippet> compute() {
+            if (to - from <= LEAF_SIZE || matched.get() >= limit) {
+                return scanRange();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask right = new ScanTask(snippets, middle, to, filter, limit, matched);
+            right.fork();
+            List<Snippet> matches = new ScanTask(snippets, from, middle, filter, limit, matched).compute();
+            matches.addAll(right.join());
+            return matches;
+        }
+
+        /**
+         * Filters the range on the current thread until the shared limit is reached.
+         *
+         * @return the matches of the range
+         */
+        List<Snippet> scanRange() {
+            List<Snippet> matches = new ArrayList<>();
+            for (int i = from; i < to && matched.get() < limit; i++) {
+                Snippet snippet = snippets.get(i);
+                if (filter.test(snippet)) {
+                    matches.add(snippet);
+                    matched.incrementAndGet();
+                }
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.snippetorganizer.core;
+
+import com.snippetorganizer.index.IdBitmap;
+
+/**
+ * Read access to the indexes and snippets that a {@link SnippetQuery} is executed against.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see QueryPlanner
+ */
+interface QueryContext {
+
+    /**
+     * Looks a tag up in the tag index.
+     *
+     * @param tag the tag, compared lowercased
+     * @return the IDs of the snippets carrying the tag
+     */
+    IdBitmap tag(String tag);
+
+    /**
+     * Looks a language up in the language index.
+     *
+     * @param language the language, compared ignoring case
+     * @return the IDs of the snippets written in the language
+     */
+    IdBitmap language(String language);
+
+    /**
+     * Looks a lowercased value up in the trigram index.
+     *
+     * @param lowerValue the lowercased value
+     * @return the IDs of the snippets that may contain the value in ascending order,
+     *         or null if the value is too short to be narrowed down
+     */
+    int[] trigramCandidates(String lowerValue);
+
+    /**
+     * Gets a snippet through the primary index.
+     *
+     * @param id the snippet ID
+     * @return the snippet, or null if there is none
+     */
+    Snippet get(int id);
+
+    /**
+     * Gets every snippet, for queries that no index can narrow down.
+     *
+     * @return every snippet in collection order
+     */
+    Iterable<Snippet> all();
+}
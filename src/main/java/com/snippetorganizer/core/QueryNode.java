@@ -0,0 +1,375 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.snippetorganizer.index.IdBitmap;
+
+/**
+ * Node of a parsed {@link SnippetQuery}.
+ *
+ * <p>Every node can check a single snippet exactly with {@link #matches(Snippet)} and can
+ * ask the indexes for a superset of its matches with {@link #candidates(QueryContext)}.
+ * A node that no index can narrow down returns null from {@code candidates}, meaning
+ * every snippet is a candidate.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see QueryParser
+ * @see QueryPlanner
+ */
+abstract class QueryNode {
+
+    /**
+     * Checks whether a snippet satisfies this node.
+     *
+     * @param snippet the snippet to check
+     * @return true if the snippet matches
+     */
+    abstract boolean matches(Snippet snippet);
+
+    /**
+     * Computes a superset of the IDs of the matching snippets from the indexes.
+     *
+     * @param context access to the indexes
+     * @return the candidate IDs, or null if every snippet is a candidate
+     */
+    abstract IdBitmap candidates(QueryContext context);
+
+    /**
+     * Matches snippets carrying a tag, answered exactly by the tag index.
+     */
+    static final class Tag extends QueryNode {
+
+        /** The tag */
+        private final String tag;
+
+        /**
+         * Constructs a new tag predicate.
+         *
+         * @param tag the tag, compared lowercased
+         */
+        Tag(String tag) {
+            this.tag = tag;
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            return snippet.hasTag(tag);
+        }
+
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            return context.tag(tag);
+        }
+
+        @Override
+        public String toString() {
+            return "tag:" + quote(tag);
+        }
+    }
+
+    /**
+     * Matches snippets where one text field, or any of them, contains a value ignoring case.
+     * Values of at least three chars are narrowed down by the trigram index.
+     */
+    static final class Text extends QueryNode {
+
+        /** The field to look in, or null for every field compared by keyword search */
+        private final String field;
+
+        /** The lowercased value */
+        private final String lowerValue;
+
+        /**
+         * Constructs a new text predicate.
+         *
+         * @param field "title", "code", "description", or null for every field
+         * @param value the value to look for
+         */
+        Text(String field, String value) {
+            this.field = field;
+            this.lowerValue = value.toLowerCase();
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            if (field == null) {
+                return SnippetManager.matchesKeyword(snippet, lowerValue);
+            }
+            String text;
+            switch (field) {
+                case "title":
+                    text = snippet.getFoldedTitle();
+                    break;
+                case "code":
+                    text = snippet.getFoldedCode();
+                    break;
+                default:
+                    text = snippet.getFoldedDescription();
+                    break;
+            }
+            return text != null && text.contains(lowerValue);
+        }
+
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            int[] ids = context.trigramCandidates(lowerValue);
+            if (ids == null) {
+                return null;
+            }
+            IdBitmap bitmap = new IdBitmap();
+            for (int id : ids) {
+                bitmap.add(id);
+            }
+            return bitmap;
+        }
+
+        @Override
+        public String toString() {
+            return field != null ? field + ":" + quote(lowerValue) : quote(lowerValue);
+        }
+    }
+
+    /**
+     * Matches snippets whose language equals a value ignoring case, answered exactly by
+     * the language index.
+     */
+    static final class Language extends QueryNode {
+
+        /** The language */
+        private final String language;
+
+        /**
+         * Constructs a new language predicate.
+         *
+         * @param language the language
+         */
+        Language(String language) {
+            this.language = language;
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            return snippet.getLanguage().equalsIgnoreCase(language);
+        }
+
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            return context.language(language);
+        }
+
+        @Override
+        public String toString() {
+            return "lang:" + quote(language);
+        }
+    }
+
+    /**
+     * Matches snippets whose ID or code length lies in an inclusive range. Not indexed.
+     */
+    static final class Range extends QueryNode {
+
+        /** "id" or "len" */
+        private final String field;
+
+        /** The smallest accepted value */
+        private final long min;
+
+        /** The largest accepted value */
+        private final long max;
+
+        /**
+         * Constructs a new range predicate.
+         *
+         * @param field "id" or "len"
+         * @param min the smallest accepted value
+         * @param max the largest accepted value
+         */
+        Range(String field, long min, long max) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            long value = field.equals("id") ? snippet.getId() : snippet.getCode().length();
+            return value >= min && value <= max;
+        }
+
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return field + ":" + min + ".." + max;
+        }
+    }
+
+    /**
+     * Negates another node.
+     */
+    static final class Not extends QueryNode {
+
+        /** The negated node */
+        private final QueryNode operand;
+
+        /**
+         * Constructs a new negation.
+         *
+         * @param operand the negated node
+         */
+        Not(QueryNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            return !operand.matches(snippet);
+        }
+
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return "NOT " + operand;
+        }
+    }
+
+    /**
+     * Matches snippets satisfying every operand.
+     */
+    static final class And extends QueryNode {
+
+        /** The operands */
+        private final List<QueryNode> operands;
+
+        /**
+         * Constructs a new conjunction.
+         *
+         * @param operands the operands (at least two)
+         */
+        And(List<QueryNode> operands) {
+            this.operands = new ArrayList<>(operands);
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            for (QueryNode operand : operands) {
+                if (!operand.matches(snippet)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Intersects the candidates of the indexed operands, smallest first, and stops
+         * as soon as the intersection is empty. Unindexed operands do not narrow anything
+         * down here and are only checked during verification.
+         */
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            List<IdBitmap> sets = new ArrayList<>();
+            for (QueryNode operand : operands) {
+                IdBitmap set = operand.candidates(context);
+                if (set != null) {
+                    if (set.isEmpty()) {
+                        return set;
+                    }
+                    sets.add(set);
+                }
+            }
+            if (sets.isEmpty()) {
+                return null;
+            }
+            sets.sort(Comparator.comparingInt(IdBitmap::cardinality));
+            IdBitmap result = sets.get(0);
+            for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+                result = IdBitmap.and(result, sets.get(i));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + String.join(" AND ", operands.stream().map(QueryNode::toString).toList()) + ")";
+        }
+    }
+
+    /**
+     * Matches snippets satisfying at least one operand.
+     */
+    static final class Or extends QueryNode {
+
+        /** The operands */
+        private final List<QueryNode> operands;
+
+        /**
+         * Constructs a new disjunction.
+         *
+         * @param operands the operands (at least two)
+         */
+        Or(List<QueryNode> operands) {
+            this.operands = new ArrayList<>(operands);
+        }
+
+        @Override
+        boolean matches(Snippet snippet) {
+            for (QueryNode operand : operands) {
+                if (operand.matches(snippet)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Unites the candidates of the operands. A single unindexed operand makes every
+         * snippet a candidate.
+         */
+        @Override
+        IdBitmap candidates(QueryContext context) {
+            IdBitmap result = new IdBitmap();
+            for (QueryNode operand : operands) {
+                IdBitmap set = operand.candidates(context);
+                if (set == null) {
+                    return null;
+                }
+                result.addAll(set);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + String.join(" OR ", operands.stream().map(QueryNode::toString).toList()) + ")";
+        }
+    }
+
+    /**
+     * Quotes a value when it would not parse back as a single word.
+     *
+     * @param value the value
+     * @return the value, quoted if needed
+     */
+    private static String quote(String value) {
+        if (value.isEmpty() || QueryParser.isOperator(value)) {
+            return "\"" + value + "\"";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c) || c == '"' || c == '(' || c == ')' || c == ':') {
+                return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+            }
+        }
+        return value;
+    }
+}
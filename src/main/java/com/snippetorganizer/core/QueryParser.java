@@ -0,0 +1,354 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Recursive-descent parser of the snippet query language.
+ *
+ * <pre>
+ * query   := or
+ * or      := and ("OR" and)*
+ * and     := unary (["AND"] unary)*
+ * unary   := "NOT" unary | "(" or ")" | term
+ * term    := [field ":"] value
+ * value   := word | "quoted phrase"
+ * </pre>
+ *
+ * <p>Operators are only recognized in upper case. A value without a field is searched like
+ * {@link SnippetManager#searchSnippets(String)} does. The fields are {@code tag},
+ * {@code lang}/{@code language}, {@code title}, {@code code}, {@code desc}/{@code description},
+ * and the numeric {@code id} and {@code len}/{@code length} (code length), which accept
+ * {@code 5}, {@code 5..10}, {@code 5..}, {@code ..10}, {@code >5}, {@code >=5}, {@code <10}
+ * and {@code <=10}. A word whose prefix is not a field, such as {@code std::vector}, is a
+ * plain value.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetQuery
+ */
+final class QueryParser {
+
+    /** The query text */
+    private final String text;
+
+    /** The position of the next unread char */
+    private int position;
+
+    /**
+     * Constructs a new parser over a query.
+     *
+     * @param text the query text
+     */
+    private QueryParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @param text the query text (must not be null or blank)
+     * @return the root of the query tree
+     * @throws SnippetException if the query is blank or malformed
+     */
+    static QueryNode parse(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw SnippetException.validationError("Query cannot be null or empty");
+        }
+        QueryParser parser = new QueryParser(text);
+        QueryNode root = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected '" + text.charAt(parser.position) + "'");
+        }
+        return root;
+    }
+
+    /**
+     * Checks whether a word is one of the operators.
+     *
+     * @param word the word
+     * @return true for AND, OR and NOT
+     */
+    static boolean isOperator(String word) {
+        return word.equals("AND") || word.equals("OR") || word.equals("NOT");
+    }
+
+    /**
+     * Parses a disjunction.
+     *
+     * @return the parsed node
+     */
+    private QueryNode parseOr() {
+        List<QueryNode> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptOperator("OR")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryNode.Or(operands);
+    }
+
+    /**
+     * Parses a conjunction; adjacent terms without an operator are joined with AND.
+     *
+     * @return the parsed node
+     */
+    private QueryNode parseAnd() {
+        List<QueryNode> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (true) {
+            if (acceptOperator("AND")) {
+                operands.add(parseUnary());
+                continue;
+            }
+            skipWhitespace();
+            if (position == text.length() || text.charAt(position) == ')' || peekOperator("OR")) {
+                break;
+            }
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new QueryNode.And(operands);
+    }
+
+    /**
+     * Parses a negation, a parenthesized query or a term.
+     *
+     * @return the parsed node
+     */
+    private QueryNode parseUnary() {
+        if (acceptOperator("NOT")) {
+            return new QueryNode.Not(parseUnary());
+        }
+        skipWhitespace();
+        if (position == text.length()) {
+            throw error("Unexpected end of query");
+        }
+        char c = text.charAt(position);
+        if (c == '(') {
+            position++;
+            QueryNode inner = parseOr();
+            skipWhitespace();
+            if (position == text.length() || text.charAt(position) != ')') {
+                throw error("Missing ')'");
+            }
+            position++;
+            return inner;
+        }
+        if (c == ')') {
+            throw error("Unexpected ')'");
+        }
+        if (peekOperator("AND") || peekOperator("OR")) {
+            throw error("Missing term before " + readWord());
+        }
+        return parseTerm();
+    }
+
+    /**
+     * Parses a term with an optional field prefix.
+     *
+     * @return the parsed node
+     */
+    private QueryNode parseTerm() {
+        int start = position;
+        if (text.charAt(position) == '"') {
+            String phrase = readQuoted();
+            if (phrase.isEmpty()) {
+                position = start;
+                throw error("Empty phrase");
+            }
+            return new QueryNode.Text(null, phrase);
+        }
+        String word = readWord();
+        int colon = word.indexOf(':');
+        String field = colon > 0 ? canonicalField(word.substring(0, colon)) : null;
+        if (field == null) {
+            return new QueryNode.Text(null, word);
+        }
+        String value;
+        if (colon == word.length() - 1 && position < text.length() && text.charAt(position) == '"') {
+            value = readQuoted();
+        } else {
+            value = word.substring(colon + 1);
+        }
+        if (value.isEmpty()) {
+            position = start;
+            throw error("Missing value for " + field);
+        }
+        switch (field) {
+            case "tag":
+                return new QueryNode.Tag(value);
+            case "lang":
+                return new QueryNode.Language(value);
+            case "id":
+            case "len":
+                return parseRange(field, value);
+            default:
+                return new QueryNode.Text(field, value);
+        }
+    }
+
+    /**
+     * Parses the value of a numeric field.
+     *
+     * @param field "id" or "len"
+     * @param value the range text
+     * @return the range predicate
+     */
+    private QueryNode parseRange(String field, String value) {
+        try {
+            long min = Long.MIN_VALUE;
+            long max = Long.MAX_VALUE;
+            int dots = value.indexOf("..");
+            if (dots >= 0) {
+                if (dots > 0) {
+                    min = Long.parseLong(value.substring(0, dots));
+                }
+                if (dots + 2 < value.length()) {
+                    max = Long.parseLong(value.substring(dots + 2));
+                }
+            } else if (value.startsWith(">=")) {
+                min = Long.parseLong(value.substring(2));
+            } else if (value.startsWith("<=")) {
+                max = Long.parseLong(value.substring(2));
+            } else if (value.startsWith(">")) {
+                min = Math.addExact(Long.parseLong(value.substring(1)), 1);
+            } else if (value.startsWith("<")) {
+                max = Math.subtractExact(Long.parseLong(value.substring(1)), 1);
+            } else {
+                min = Long.parseLong(value);
+                max = min;
+            }
+            return new QueryNode.Range(field, min, max);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw error("Invalid range for " + field + ": " + value);
+        }
+    }
+
+    /**
+     * Maps a field name or alias to its canonical name.
+     *
+     * @param name the field name as written
+     * @return the canonical name, or null if the name is not a field
+     */
+    private static String canonicalField(String name) {
+        switch (name.toLowerCase()) {
+            case "tag":
+                return "tag";
+            case "lang":
+            case "language":
+                return "lang";
+            case "title":
+                return "title";
+            case "code":
+                return "code";
+            case "desc":
+            case "description":
+                return "description";
+            case "id":
+                return "id";
+            case "len":
+            case "length":
+                return "len";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Consumes an operator if it is the next word.
+     *
+     * @param operator the operator
+     * @return true if the operator was consumed
+     */
+    private boolean acceptOperator(String operator) {
+        if (peekOperator(operator)) {
+            position += operator.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether an operator is the next word, without consuming it.
+     *
+     * @param operator the operator
+     * @return true if the next word is the operator
+     */
+    private boolean peekOperator(String operator) {
+        skipWhitespace();
+        int end = position + operator.length();
+        return text.startsWith(operator, position)
+            && (end == text.length() || isDelimiter(text.charAt(end)));
+    }
+
+    /**
+     * Reads an unquoted word. A colon followed by a quote ends the word, so that
+     * {@code title:"two words"} leaves the quoted value to be read next.
+     *
+     * @return the word
+     */
+    private String readWord() {
+        int start = position;
+        while (position < text.length() && !isDelimiter(text.charAt(position))) {
+            char c = text.charAt(position++);
+            if (c == ':' && position < text.length() && text.charAt(position) == '"') {
+                break;
+            }
+        }
+        return text.substring(start, position);
+    }
+
+    /**
+     * Reads a quoted phrase; backslash escapes a quote or another backslash.
+     *
+     * @return the phrase without quotes
+     */
+    private String readQuoted() {
+        int start = position;
+        StringBuilder value = new StringBuilder();
+        position++;
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c == '\\' && position < text.length()) {
+                c = text.charAt(position++);
+            }
+            value.append(c);
+        }
+        position = start;
+        throw error("Unterminated quote");
+    }
+
+    /**
+     * Skips whitespace.
+     */
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Checks whether a char ends a word.
+     *
+     * @param c the char
+     * @return true for whitespace and parentheses
+     */
+    private static boolean isDelimiter(char c) {
+        return Character.isWhitespace(c) || c == '(' || c == ')';
+    }
+
+    /**
+     * Creates a parse error at the current position.
+     *
+     * @param message what went wrong
+     * @return the exception to throw
+     */
+    private SnippetException error(String message) {
+        return SnippetException.validationError(message + " at position " + position + " in query: " + text);
+    }
+}
@@ -0,0 +1,56 @@
+package com.snippetorganizer.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.snippetorganizer.index.IdBitmap;
+
+/**
+ * Executes a parsed query in two steps.
+ *
+ * <p>First the query tree computes its candidates from the indexes: tags and languages
+ * come straight from the tag and language indexes, text predicates from the trigram index, conjunctions intersect the
+ * candidates of their indexed operands from the most selective one on, and disjunctions
+ * unite them. Then every candidate is checked against the whole query, which applies the
+ * unindexed predicates and removes the false positives of the trigram index. Only a query
+ * without any usable index falls back to checking every snippet.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see QueryNode
+ */
+final class QueryPlanner {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private QueryPlanner() {
+    }
+
+    /**
+     * Executes a query.
+     *
+     * @param root the root of the query tree
+     * @param context access to the indexes and snippets
+     * @return the matching snippets, in ID order when an index was used and in collection order otherwise
+     */
+    static List<Snippet> execute(QueryNode root, QueryContext context) {
+        List<Snippet> matches = new ArrayList<>();
+        IdBitmap candidates = root.candidates(context);
+        if (candidates == null) {
+            for (Snippet snippet : context.all()) {
+                if (root.matches(snippet)) {
+                    matches.add(snippet);
+                }
+            }
+            return matches;
+        }
+        candidates.forEach(id -> {
+            Snippet snippet = context.get(id);
+            if (snippet != null && root.matches(snippet)) {
+                matches.add(snippet);
+            }
+        });
+        return matches;
+    }
+}
@@ -0,0 +1,49 @@
+package com.snippetorganizer.core;
+
+import java.util.List;
+
+/**
+ * A snippet whose code matches a regular expression, with the lines the matches start on,
+ * as returned by {@link SnippetManager#regexSearch(String)}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager
+ */
+public final class RegexMatch {
+
+    /** The snippet */
+    private final Snippet snippet;
+
+    /** The 1-based numbers of the lines a match starts on, ascending and distinct */
+    private final List<Integer> lineNumbers;
+
+    /**
+     * Constructs a new RegexMatch.
+     *
+     * @param snippet the snippet
+     * @param lineNumbers the 1-based numbers of the lines a match starts on
+     */
+    public RegexMatch(Snippet snippet, List<Integer> lineNumbers) {
+        this.snippet = snippet;
+        this.lineNumbers = List.copyOf(lineNumbers);
+    }
+
+    /**
+     * Gets the snippet.
+     *
+     * @return the snippet
+     */
+    public Snippet getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Gets the lines of the code that a match starts on.
+     *
+     * @return an unmodifiable list of 1-based line numbers, ascending and distinct
+     */
+    public List<Integer> getLineNumbers() {
+        return lineNumbers;
+    }
+}
@@ -0,0 +1,63 @@
+package com.snippetorganizer.core;
+
+import java.util.Arrays;
+
+/**
+ * Substring search that first compares the first and last byte of the pattern at each
+ * position and only compares the bytes in between where both match. Most positions of
+ * source code fail one of the two checks, so the full comparison is rare.
+ *
+ * <p>This is the portable form of the filter that {@code VectorSubstringMatcher} runs on
+ * many positions at once; it is used when the Vector API is not available.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see ScanEngine#byteMatcher()
+ */
+public final class ScalarSubstringMatcher implements SubstringMatcher {
+
+    /** The shared instance */
+    public static final ScalarSubstringMatcher INSTANCE = new ScalarSubstringMatcher();
+
+    private ScalarSubstringMatcher() {
+    }
+
+    @Override
+    public boolean contains(byte[] text, byte[] pattern) {
+        return indexOf(text, pattern, 0) >= 0;
+    }
+
+    /**
+     * Finds the first occurrence of a pattern at or after a position.
+     *
+     * @param text the text to search
+     * @param pattern the pattern to look for (must not be empty)
+     * @param from the first position to check
+     * @return the position of the occurrence, or -1 if there is none
+     */
+    static int indexOf(byte[] text, byte[] pattern, int from) {
+        int last = pattern.length - 1;
+        byte first = pattern[0];
+        byte end = pattern[last];
+        for (int i = from, max = text.length - pattern.length; i <= max; i++) {
+            if (text[i] == first && text[i + last] == end && matchesAt(text, pattern, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the inner bytes of a pattern with the text at a position whose first and
+     * last byte already match.
+     *
+     * @param text the text
+     * @param pattern the pattern
+     * @param position the position of the first byte of the pattern in the text
+     * @return true if the pattern occurs at the position
+     */
+    static boolean matchesAt(byte[] text, byte[] pattern, int position) {
+        int last = pattern.length - 1;
+        return last < 2 || Arrays.equals(text, position + 1, position + last, pattern, 1, last);
+    }
+}
@@ -0,0 +1,61 @@
+package com.snippetorganizer.core;
+
+/**
+ * How keyword searches compare a keyword with the code of each snippet.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager#setScanEngine(ScanEngine)
+ */
+public enum ScanEngine {
+
+    /** {@link String#contains} on the lowercased code */
+    STRING,
+
+    /**
+     * First-and-last-byte filter on the lowercased code encoded as Latin-1, run with SIMD
+     * instructions when the {@code jdk.incubator.vector} module is present and with
+     * {@link ScalarSubstringMatcher} otherwise. Code or keywords with characters outside
+     * Latin-1 are compared as with {@link #STRING}.
+     */
+    VECTOR;
+
+    /** The name of the class compiled by the {@code vector} build profile */
+    private static final String VECTOR_MATCHER = "com.snippetorganizer.core.VectorSubstringMatcher";
+
+    /** The SIMD matcher, or null if it was not compiled or the module is missing */
+    private static final SubstringMatcher SIMD = loadVectorMatcher();
+
+    /**
+     * Checks whether {@link #VECTOR} runs with SIMD instructions. This requires building
+     * with the {@code vector} profile and running with
+     * {@code --add-modules jdk.incubator.vector}.
+     *
+     * @return true if the Vector API matcher is in use
+     */
+    public static boolean isVectorAccelerated() {
+        return SIMD != null;
+    }
+
+    /**
+     * Gets the byte matcher used by {@link #VECTOR}.
+     *
+     * @return the Vector API matcher if available, otherwise the scalar one
+     */
+    public static SubstringMatcher byteMatcher() {
+        return SIMD != null ? SIMD : ScalarSubstringMatcher.INSTANCE;
+    }
+
+    /**
+     * Loads the Vector API matcher.
+     *
+     * @return the matcher, or null if the class or the incubator module is missing
+     */
+    private static SubstringMatcher loadVectorMatcher() {
+        try {
+            return (SubstringMatcher) Class.forName(VECTOR_MATCHER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.snippetorganizer.core;
+
+/**
+ * A snippet with its relevance score, as returned by {@link SnippetManager#rankedSearch(String, int)}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager
+ */
+public final class ScoredSnippet {
+
+    /** The snippet */
+    private final Snippet snippet;
+
+    /** The relevance score of the snippet */
+    private final double score;
+
+    /**
+     * Constructs a new ScoredSnippet.
+     *
+     * @param snippet the snippet
+     * @param score the relevance score of the snippet
+     */
+    public ScoredSnippet(Snippet snippet, double score) {
+        this.snippet = snippet;
+        this.score = score;
+    }
+
+    /**
+     * Gets the snippet.
+     *
+     * @return the snippet
+     */
+    public Snippet getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Gets the relevance score of the snippet.
+     *
+     * @return the score; higher is more relevant
+     */
+    public double getScore() {
+        return score;
+    }
+}
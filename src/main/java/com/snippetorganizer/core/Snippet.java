@@ -28,6 +28,25 @@ public final class Snippet implements SnippetComponent {
     private Set<String> tags;
     private String description;
 
+    /**
+     * Lowercased copies of the searchable fields, computed once when a field is set so that
+     * searches compare against them without allocating. Lowercasing returns the same string
+     * when nothing changes, so all-lowercase fields cost no extra memory.
+     */
+    private String foldedTitle;
+    private String foldedLanguage;
+    private String foldedCode;
+    private String foldedDescription;
+
+    /**
+     * The lowercased code as Latin-1 bytes for the {@link ScanEngine#VECTOR} scan engine,
+     * built on first use; {@link #NOT_LATIN1} if the code has other characters.
+     */
+    private volatile byte[] foldedCodeBytes;
+
+    /** Marks code that cannot be encoded as Latin-1 */
+    private static final byte[] NOT_LATIN1 = new byte[0];
+
     /**
      * Constructs a new Snippet with basic information.
      * 
@@ -43,7 +62,7 @@ public final class Snippet implements SnippetComponent {
         setLanguage(language);
         setCode(code);
         this.tags = new HashSet<>();
-        this.description = null;
+        setDescription(null);
     }
 
     /**
@@ -95,6 +114,8 @@ public final class Snippet implements SnippetComponent {
             throw SnippetException.validationError("Code cannot be null or empty");
         }
         this.code = code;
+        this.foldedCode = code.toLowerCase();
+        this.foldedCodeBytes = null;
     }
 
     /**
@@ -139,6 +160,7 @@ public final class Snippet implements SnippetComponent {
             throw SnippetException.validationError("Title cannot be null or empty");
         }
         this.title = title;
+        this.foldedTitle = title.toLowerCase();
     }
     
     /**
@@ -161,6 +183,7 @@ public final class Snippet implements SnippetComponent {
             throw SnippetException.validationError("Language cannot be null or empty");
         }
         this.language = language;
+        this.foldedLanguage = language.toLowerCase();
     }
 
     /**
@@ -227,6 +250,78 @@ public final class Snippet implements SnippetComponent {
      */
     public void setDescription(String description) {
         this.description = description;
+        this.foldedDescription = description != null ? description.toLowerCase() : null;
+    }
+
+    /**
+     * Gets the lowercased title, as compared by keyword search.
+     *
+     * @return the lowercased title
+     */
+    @JsonIgnore
+    public String getFoldedTitle() {
+        return foldedTitle;
+    }
+
+    /**
+     * Gets the lowercased programming language, as compared by keyword search.
+     *
+     * @return the lowercased language
+     */
+    @JsonIgnore
+    public String getFoldedLanguage() {
+        return foldedLanguage;
+    }
+
+    /**
+     * Gets the lowercased code, as compared by keyword search.
+     *
+     * @return the lowercased code
+     */
+    @JsonIgnore
+    public String getFoldedCode() {
+        return foldedCode;
+    }
+
+    /**
+     * Gets the lowercased description, as compared by keyword search.
+     *
+     * @return the lowercased description, or null if there is none
+     */
+    @JsonIgnore
+    public String getFoldedDescription() {
+        return foldedDescription;
+    }
+
+    /**
+     * Gets the lowercased code as Latin-1 bytes. The bytes are built on the first call after
+     * the code is set and reused by later calls.
+     *
+     * @return the bytes, or null if the code has characters outside Latin-1
+     */
+    @JsonIgnore
+    public byte[] getFoldedCodeBytes() {
+        byte[] bytes = foldedCodeBytes;
+        if (bytes == null) {
+            bytes = SubstringMatcher.latin1(foldedCode);
+            foldedCodeBytes = bytes = bytes != null ? bytes : NOT_LATIN1;
+        }
+        return bytes != NOT_LATIN1 ? bytes : null;
+    }
+
+    /**
+     * Checks whether a tag contains a value, without copying the tags.
+     *
+     * @param value the value to look for, compared as is
+     * @return true if at least one tag contains the value
+     */
+    public boolean anyTagContains(String value) {
+        for (String tag : tags) {
+            if (tag.contains(value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -311,6 +406,16 @@ public final class Snippet implements SnippetComponent {
      */
     @Override
     public String toString() {
+        return formatDetails() + String.format("\nCode:\n%s", code);
+    }
+
+    /**
+     * Formats every field of this snippet except the code, one per line, the way
+     * {@link #toString()} starts.
+     *
+     * @return the ID, title, language, and description and tags when present
+     */
+    String formatDetails() {
         StringBuilder sb = new StringBuilder();
         sb.append(String.format("""
             Snippet ID: %d
@@ -325,8 +430,6 @@ public final class Snippet implements SnippetComponent {
             sb.append(String.format("\nTags: %s", String.join(", ", tags)));
         }
         
-        sb.append(String.format("\nCode:\n%s", code));
-        
         return sb.toString();
     }
 }
\ No newline at end of file
@@ -2,18 +2,56 @@ package com.snippetorganizer.core;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.snippetorganizer.cache.CacheStats;
+import com.snippetorganizer.cache.QueryCache;
 import com.snippetorganizer.composite.SnippetCollection;
 import com.snippetorganizer.composite.SnippetComponent;
 import com.snippetorganizer.exception.SnippetException;
 import com.snippetorganizer.factory.SnippetFactory;
-import com.snippetorganizer.iterator.SnippetIterator;
+import com.snippetorganizer.index.AhoCorasick;
+import com.snippetorganizer.index.Bm25Index;
+import com.snippetorganizer.index.CompletionIndex;
+import com.snippetorganizer.index.FuzzyIndex;
+import com.snippetorganizer.index.IdBitmap;
+import com.snippetorganizer.index.IntSnippetMap;
+import com.snippetorganizer.index.MinHashIndex;
+import com.snippetorganizer.index.RegexPrefilter;
+import com.snippetorganizer.index.SearchHit;
+import com.snippetorganizer.index.TagIndex;
+import com.snippetorganizer.index.TrigramIndex;
 import com.snippetorganizer.logging.SnippetLogger;
+import com.snippetorganizer.persistence.IdSequence;
+import com.snippetorganizer.persistence.LoadProgressListener;
+import com.snippetorganizer.persistence.LoadStats;
+import com.snippetorganizer.persistence.SnippetMutation;
+import com.snippetorganizer.persistence.SnippetStore;
+import com.snippetorganizer.persistence.StorageMode;
+import com.snippetorganizer.persistence.StreamingSnippetLoader;
 
 /**
  * Core management class for the Snippet Organizer application.
@@ -24,7 +62,7 @@ import com.snippetorganizer.logging.SnippetLogger;
  * @see Snippet
  * @see SnippetCollection
  */
-public class SnippetManager {
+public class SnippetManager implements AutoCloseable {
 
 
     
@@ -33,16 +71,105 @@ public class SnippetManager {
     
     /** The data directory for storing application files */
     private static final String DATA_DIR = "data";
+
+    /** The number of snippets between two import progress notifications */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    /** The number of IDs reserved at once while importing */
+    private static final int IMPORT_ID_BLOCK = 1_000;
+
+    /** The maximum number of cached query results */
+    private static final int QUERY_CACHE_ENTRIES = 256;
+
+    /** The maximum estimated size of the cached query results, in bytes */
+    private static final long QUERY_CACHE_BYTES = 4L << 20;
     
-    /** The file object for snippet persistence */
-    private final File file;
-    
-    /** Jackson ObjectMapper for JSON serialization/deserialization */
+    /** Jackson ObjectMapper for JSON import/export */
     private final ObjectMapper objectMapper;
     
     /** The main snippet component (collection) for organizing snippets */
     private final SnippetComponent snippetComponent;
 
+    /** Primary index from snippet ID to snippet, kept in sync with the collection */
+    private final IntSnippetMap primaryIndex;
+
+    /** The IDs of all snippets, for paging in ID order */
+    private final IdBitmap allIds;
+
+    /** Trigram index over the fields compared by keyword search */
+    private final TrigramIndex trigramIndex;
+
+    /** Tag index from each tag to the IDs of the snippets carrying it */
+    private final TagIndex tagIndex;
+
+    /** Snippet IDs by language, keyed like the language lookups of the query cache */
+    private final Map<String, IdBitmap> languageIndex = new HashMap<>();
+
+    /** The language key each snippet is indexed under, as last indexed */
+    private final Map<Integer, String> languageKeysById = new HashMap<>();
+
+    /** Inverted index with term frequencies for ranked search */
+    private final Bm25Index bm25Index;
+
+    /** Typo-tolerant dictionary of title words, tags and languages */
+    private final FuzzyIndex fuzzyIndex;
+
+    /** Prefix dictionary of tags, titles and languages for type-ahead */
+    private final CompletionIndex completionIndex;
+
+    /** MinHash signatures of the code, bucketed for near-duplicate lookups */
+    private final MinHashIndex minHashIndex;
+
+    /** Results of repeated tag and language lookups, dropped when their members change */
+    private final QueryCache queryCache = new QueryCache(QUERY_CACHE_ENTRIES, QUERY_CACHE_BYTES);
+
+    /** The tag and language lookup keys each snippet belongs to, as last indexed */
+    private final Map<Integer, Set<String>> queryKeysById = new HashMap<>();
+
+    /** Read access to the indexes for queries */
+    private final QueryContext queryContext = new QueryContext() {
+        @Override
+        public IdBitmap tag(String tag) {
+            return tagIndex.find(tag);
+        }
+
+        @Override
+        public IdBitmap language(String language) {
+            IdBitmap ids = languageIndex.get(languageKey(language));
+            return ids != null ? ids.copy() : new IdBitmap();
+        }
+
+        @Override
+        public int[] trigramCandidates(String lowerValue) {
+            return trigramIndex.candidates(lowerValue);
+        }
+
+        @Override
+        public Snippet get(int id) {
+            return primaryIndex.get(id);
+        }
+
+        @Override
+        public Iterable<Snippet> all() {
+            return snippetComponent.getAllSnippets();
+        }
+    };
+
+    /** Splits scans that no index can narrow down across threads; guarded by the collection */
+    private ParallelSnippetScanner scanner = new ParallelSnippetScanner(1);
+
+    /** How keyword searches compare code; guarded by the collection */
+    private ScanEngine scanEngine = ScanEngine.STRING;
+
+    /** The persistence backend */
+    private final SnippetStore store;
+
+    /** Allocator of snippet IDs, persisted by the store */
+    private final IdSequence idSequence;
+
+    /** Statistics of the load performed at startup */
+    private final LoadStats loadStats;
+
     /**
      * Constructs a new SnippetManager and initializes the system.
      */
@@ -55,23 +182,77 @@ public class SnippetManager {
      * @param dataFilePath the path to the data file to use
      */
     public SnippetManager(String dataFilePath) {
+        this(dataFilePath, StorageMode.JSON);
+    }
+
+    /**
+     * Constructs a new SnippetManager with a custom data file path and storage mode.
+     * In {@link StorageMode#JOURNALED} mode the journal is kept next to the data file,
+     * e.g. {@code data/snippets.journal} for {@code data/snippets.json}.
+     *
+     * @param dataFilePath the path to the data file to use
+     * @param storageMode how changes are persisted (must not be null)
+     * @throws SnippetException if the storage mode is null or the files cannot be initialized
+     */
+    public SnippetManager(String dataFilePath, StorageMode storageMode) {
+        this(dataFilePath, storageMode, LoadProgressListener.NONE);
+    }
+
+    /**
+     * Constructs a new SnippetManager that reports loading progress.
+     * Snippets are streamed from disk one at a time, so large files can be opened
+     * without holding a second copy of the collection in memory.
+     *
+     * @param dataFilePath the path to the data file to use
+     * @param storageMode how changes are persisted (must not be null)
+     * @param progressListener notified while snippets are loaded (may be null)
+     * @throws SnippetException if the storage mode is null or the files cannot be initialized
+     */
+    public SnippetManager(String dataFilePath, StorageMode storageMode, LoadProgressListener progressListener) {
+        this(createStore(dataFilePath, storageMode), progressListener);
+    }
+
+    /**
+     * Constructs a new SnippetManager on top of the given persistence backend.
+     *
+     * @param store the store to load from and persist changes to (must not be null)
+     * @throws SnippetException if the store is null or cannot be loaded
+     */
+    public SnippetManager(SnippetStore store) {
+        this(store, LoadProgressListener.NONE);
+    }
+
+    /**
+     * Constructs a new SnippetManager on top of the given persistence backend and reports loading progress.
+     *
+     * @param store the store to load from and persist changes to (must not be null)
+     * @param progressListener notified while snippets are loaded (may be null)
+     * @throws SnippetException if the store is null or cannot be loaded
+     */
+    public SnippetManager(SnippetStore store, LoadProgressListener progressListener) {
+        if (store == null) {
+            throw SnippetException.validationError("Store cannot be null");
+        }
         File dataDir = new File(DATA_DIR);
         if (!dataDir.exists()) {
             dataDir.mkdirs();
         }
 
-        this.file = new File(dataFilePath);
         this.objectMapper = new ObjectMapper();
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.snippetComponent = new SnippetCollection("Main Collection");
+        this.primaryIndex = new IntSnippetMap();
+        this.allIds = new IdBitmap();
+        this.trigramIndex = new TrigramIndex();
+        this.tagIndex = new TagIndex();
+        this.bm25Index = new Bm25Index();
+        this.fuzzyIndex = new FuzzyIndex();
+        this.completionIndex = new CompletionIndex();
+        this.minHashIndex = new MinHashIndex();
+        this.store = store;
+        this.idSequence = store.openIdSequence();
 
         try {
-            // Create the file only if it does not exist
-            if (!file.exists()) {
-                file.createNewFile();
-                objectMapper.writeValue(file, new Snippet[0]);
-            }
-
             // Create the log file only if it does not exist
             File logFile = new File(dataDir, "snippet_organizer.log");
             if (!logFile.exists()) {
@@ -84,7 +265,28 @@ public class SnippetManager {
             throw SnippetException.ioError("Failed to initialize application files", e);
         }
 
-        loadSnippets();
+        this.loadStats = store.load(this::attach, progressListener);
+        System.out.println("Successfully loaded " + loadStats.getSnippetCount() + " snippets from "
+            + store.getName() + " (" + String.format("%.0f", loadStats.getSnippetsPerSecond()) + " snippets/sec).");
+    }
+
+    /**
+     * Creates the store for a data file and storage mode.
+     *
+     * @param dataFilePath the path to the data file to use
+     * @param storageMode how changes are persisted (must not be null)
+     * @return the new store
+     * @throws SnippetException if the storage mode is null or the store cannot be initialized
+     */
+    private static SnippetStore createStore(String dataFilePath, StorageMode storageMode) {
+        if (storageMode == null) {
+            throw SnippetException.validationError("Storage mode cannot be null");
+        }
+        File dataDir = new File(DATA_DIR);
+        if (!dataDir.exists()) {
+            dataDir.mkdirs();
+        }
+        return storageMode.createStore(Path.of(dataFilePath));
     }
 
     /** Displays all snippets in the collection. */ 
@@ -97,38 +299,48 @@ public class SnippetManager {
         snippetComponent.display();
     }
 
-    /** Loads snippets from the JSON file into the snippet component. 
-     * 
-     * @throws SnippetException if an error occurs during file reading
-    */
-    private void loadSnippets() {
-        if (file.exists() && file.length() > 0) {
-            try {
-                Snippet[] snippets = objectMapper.readValue(file, Snippet[].class);
-                for (Snippet snippet : snippets) {
-                    snippetComponent.addSnippet(snippet);
-                }
-                System.out.println("Successfully loaded " + snippets.length + " snippets from file.");
-            } catch (IOException e) {
-                SnippetLogger.logError("Error reading snippets file", e);
-                throw SnippetException.ioError("Failed to load snippets from file", e);
-            }
+    /**
+     * Lists one page of snippets in ID order.
+     *
+     * @param afterId the cursor: {@link SnippetPage#FIRST} for the first page, otherwise the
+     *        {@linkplain SnippetPage#getNextCursor() next cursor} of the previous page
+     * @param pageSize the maximum number of snippets on the page (must be positive)
+     * @return the snippets with the smallest IDs above {@code afterId}
+     * @throws SnippetException if the page size is not positive
+     */
+    public SnippetPage listSnippets(int afterId, int pageSize) {
+        synchronized (snippetComponent) {
+            return page(allIds::next, afterId, pageSize, snippet -> true);
         }
     }
 
+    /**
+     * Gets the statistics of the load performed when this manager was created.
+     *
+     * @return the number of snippets read from the store, the time taken and the load rate
+     */
+    public LoadStats getLoadStats() {
+        return loadStats;
+    }
+
+    /**
+     * Gets the persistence backend of this manager.
+     *
+     * @return the store
+     */
+    public SnippetStore getStore() {
+        return store;
+    }
+
     /**
      * Generates the next available ID for a new snippet.
+     * IDs come from the persisted sequence of the store and are never reused.
      * 
      * @return the next available ID for a new snippet
+     * @throws SnippetException if the sequence cannot be persisted
      */
     private int getNextId() {
-        int maxId = 0;
-        for (Snippet snippet : snippetComponent.getAllSnippets()) {
-            if (snippet.getId() > maxId) {
-                maxId = snippet.getId();
-            }
-        }
-        return maxId + 1;
+        return idSequence.next();
     }
 
     /**
@@ -143,9 +355,11 @@ public class SnippetManager {
      */
     public void addSnippet(String title, String language, String code, Set<String> tags, String description) {
         try {
-            Snippet newSnippet = SnippetFactory.createSnippet(getNextId(), title, language, code, tags, description);
-            snippetComponent.addSnippet(newSnippet);
-            saveSnippets();
+            synchronized (snippetComponent) {
+                Snippet newSnippet = SnippetFactory.createSnippet(getNextId(), title, language, code, tags, description);
+                attach(newSnippet);
+                persist(SnippetMutation.added(newSnippet));
+            }
             SnippetLogger.logInfo("Added new snippet: " + title);
         } catch (SnippetException e) {
             SnippetLogger.logError("Error adding snippet", e);
@@ -181,37 +395,573 @@ public class SnippetManager {
 
         boolean found = false;
         String lowerKeyword = keyword.toLowerCase();
-        SnippetIterator iterator = new SnippetIterator(snippetComponent.getAllSnippets());
-
-        while (iterator.hasNext()) {
-            Snippet snippet = iterator.next();
-            if (snippet.getTitle().toLowerCase().contains(lowerKeyword) ||
-                snippet.getCode().toLowerCase().contains(lowerKeyword) ||
-                snippet.getLanguage().toLowerCase().contains(lowerKeyword) ||
-                snippet.getDescription().toLowerCase().contains(lowerKeyword) ||
-                snippet.getTags().stream().anyMatch(tag -> tag.contains(lowerKeyword))) {
-                
-                System.out.println("\nFound snippet:");
-                System.out.println("ID: " + snippet.getId());
-                System.out.println("Title: " + snippet.getTitle());
-                System.out.println("Language: " + snippet.getLanguage());
-                if (!snippet.getDescription().isEmpty()) {
-                    System.out.println("Description: " + snippet.getDescription());
+
+        for (Snippet snippet : findByKeyword(lowerKeyword)) {
+            System.out.println("\nFound snippet:");
+            System.out.println(new KeywordMatch(snippet, lowerKeyword));
+            System.out.println("---------------------------");
+            found = true;
+        }
+
+        if (!found) {
+            System.out.println("No snippets found containing: " + keyword);
+        }
+    }
+
+    /**
+     * Finds the snippets whose title, code, language or description contains a keyword
+     * (ignoring case) or that have a tag containing it. The trigram index narrows the
+     * candidates down and each candidate is then checked with the exact comparison.
+     *
+     * @param lowerKeyword the lowercased keyword
+     * @return the matching snippets, in collection order for keywords shorter than a trigram
+     *         and in ID order otherwise
+     */
+    private List<Snippet> findByKeyword(String lowerKeyword) {
+        List<Snippet> matches = new ArrayList<>();
+        synchronized (snippetComponent) {
+            int[] candidates = trigramIndex.candidates(lowerKeyword);
+            if (candidates == null) {
+                return scanner.scan(snippetComponent.getAllSnippets(), keywordFilter(lowerKeyword), Integer.MAX_VALUE);
+            }
+            Predicate<Snippet> filter = keywordFilter(lowerKeyword);
+            for (int id : candidates) {
+                Snippet snippet = primaryIndex.get(id);
+                if (snippet != null && filter.test(snippet)) {
+                    matches.add(snippet);
                 }
-                if (!snippet.getTags().isEmpty()) {
-                    System.out.println("Tags: " + String.join(", ", snippet.getTags()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Streams the snippets whose title, code, language or description contains a keyword
+     * (ignoring case) or that have a tag containing it.
+     *
+     * <p>The stream is lazy: the candidate IDs are taken from the trigram index when the
+     * stream is created, and each candidate is looked up and compared only when the stream
+     * reaches it. Taking the first page with {@code skip} and {@code limit} therefore
+     * compares and returns just that page. Snippets deleted in the meantime are skipped and
+     * edited ones are compared as they are when reached. Keywords shorter than three
+     * characters are compared one snippet at a time on the consuming thread rather than
+     * with the parallel scanner.</p>
+     *
+     * @param keyword the keyword to search for (must not be null or empty)
+     * @return a sequential stream of the matching snippets, in ID order for keywords of three
+     *         or more characters and in collection order otherwise
+     * @throws SnippetException if the keyword is invalid
+     */
+    public Stream<Snippet> streamByKeyword(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        return streamMatches(keyword).map(KeywordMatch::getSnippet);
+    }
+
+    /**
+     * Streams the snippets carrying a tag. The IDs are taken from the tag index when the
+     * stream is created; each snippet is looked up only when the stream reaches it.
+     *
+     * @param tag the tag to look for, compared lowercased (must not be null or empty)
+     * @return a sequential stream of the snippets carrying the tag, in ID order
+     * @throws SnippetException if the tag is invalid
+     * @see #streamByKeyword(String)
+     */
+    public Stream<Snippet> streamByTag(String tag) {
+        if (tag == null || tag.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid tag for searching.");
+        }
+        int[] ids;
+        synchronized (snippetComponent) {
+            ids = tagIndex.find(tag).toArray();
+        }
+        return stream(ids, snippet -> snippet.hasTag(tag));
+    }
+
+    /**
+     * Streams the results of a keyword search with the positions of the keyword in the
+     * code of each snippet. Like {@link #streamByKeyword(String)} the stream is lazy, and the
+     * positions, line numbers and highlighted excerpt of a result are only computed when
+     * asked for, so rendering the first page of a large result formats just that page.
+     *
+     * @param keyword the keyword to search for (must not be null or empty)
+     * @return a sequential stream of the matches, in the order of {@link #streamByKeyword(String)}
+     * @throws SnippetException if the keyword is invalid
+     * @see KeywordMatch#excerpt(int)
+     */
+    public Stream<KeywordMatch> streamMatches(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        String lowerKeyword = keyword.toLowerCase();
+        int[] candidates;
+        Predicate<Snippet> filter;
+        synchronized (snippetComponent) {
+            candidates = trigramIndex.candidates(lowerKeyword);
+            if (candidates == null) {
+                candidates = snippetComponent.getAllSnippets().stream().mapToInt(Snippet::getId).toArray();
+            }
+            filter = keywordFilter(lowerKeyword);
+        }
+        return stream(candidates, filter, snippet -> new KeywordMatch(snippet, lowerKeyword));
+    }
+
+    /**
+     * Streams the snippets with the given IDs that still satisfy a condition when reached.
+     * Each lookup and test holds the collection lock, but the stream as a whole does not.
+     *
+     * @param ids the snippet IDs, in stream order
+     * @param filter the condition the snippets must satisfy
+     * @return a lazy sequential stream of the snippets
+     */
+    private Stream<Snippet> stream(int[] ids, Predicate<Snippet> filter) {
+        return stream(ids, filter, Function.identity());
+    }
+
+    /**
+     * Streams a result for each snippet with the given IDs that still satisfies a condition
+     * when reached. The result is built while the collection lock is held, so it sees the
+     * same state of the snippet as the condition.
+     *
+     * @param ids the snippet IDs, in stream order
+     * @param filter the condition the snippets must satisfy
+     * @param result builds the result for a matching snippet
+     * @return a lazy sequential stream of the results
+     */
+    private <T> Stream<T> stream(int[] ids, Predicate<Snippet> filter, Function<Snippet, T> result) {
+        return IntStream.of(ids)
+            .mapToObj(id -> {
+                synchronized (snippetComponent) {
+                    Snippet snippet = primaryIndex.get(id);
+                    return snippet != null && filter.test(snippet) ? result.apply(snippet) : null;
                 }
-                System.out.println("Code:\n" + snippet.getCode());
-                System.out.println("---------------------------");
-                found = true;
+            })
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Finds one page of the snippets matching a keyword search, in ID order. Keywords of
+     * three or more characters only visit the trigram candidates after the cursor; shorter
+     * ones check the snippets after the cursor until the page is full.
+     *
+     * @param keyword the keyword to search for (must not be null or empty)
+     * @param afterId the cursor: {@link SnippetPage#FIRST} for the first page, otherwise the
+     *        {@linkplain SnippetPage#getNextCursor() next cursor} of the previous page
+     * @param pageSize the maximum number of snippets on the page (must be positive)
+     * @return the matching snippets with the smallest IDs above {@code afterId}
+     * @throws SnippetException if the keyword or page size is invalid
+     * @see #searchSnippets(String)
+     */
+    public SnippetPage searchSnippets(String keyword, int afterId, int pageSize) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        String lowerKeyword = keyword.toLowerCase();
+        synchronized (snippetComponent) {
+            int[] candidates = trigramIndex.candidates(lowerKeyword);
+            IntUnaryOperator next = candidates == null ? allIds::next : from -> next(candidates, from);
+            return page(next, afterId, pageSize, keywordFilter(lowerKeyword));
+        }
+    }
+
+    /**
+     * Finds the snippets most relevant to a free-text query, ranked with BM25 over the
+     * title, description, tags and code. Title and tag matches weigh more than code matches.
+     *
+     * @param query the words to look for (must not be null or empty)
+     * @param limit the maximum number of results (must be positive)
+     * @return at most {@code limit} snippets, most relevant first
+     * @throws SnippetException if the query or limit is invalid
+     */
+    public List<ScoredSnippet> rankedSearch(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        synchronized (snippetComponent) {
+            List<SearchHit> hits = bm25Index.search(query, limit);
+            List<ScoredSnippet> results = new ArrayList<>(hits.size());
+            for (SearchHit hit : hits) {
+                results.add(new ScoredSnippet(primaryIndex.get(hit.getId()), hit.getScore()));
             }
+            return results;
         }
+    }
 
-        if (!found) {
-            System.out.println("No snippets found containing: " + keyword);
+    /**
+     * Finds the snippets whose code is nearly the same as the code of a snippet, such as
+     * copy-pasted variants with consistently renamed variables, different formatting or
+     * small local edits; identifiers are normalized before shingling (see
+     * {@link MinHashIndex}). Candidates come
+     * from the locality-sensitive buckets of the snippet's MinHash signature, so the cost
+     * does not grow with the size of the collection.
+     *
+     * @param id the ID of the snippet
+     * @param threshold the minimum estimated Jaccard similarity of the code shingles,
+     *        above 0 and at most 1 (for example 0.8)
+     * @return the other snippets at or above the threshold, most similar first; the score
+     *         is the estimated similarity
+     * @throws SnippetException if the snippet is not found or the threshold is out of range
+     * @see MinHashIndex
+     */
+    public List<ScoredSnippet> findNearDuplicates(int id, double threshold) {
+        synchronized (snippetComponent) {
+            if (primaryIndex.get(id) == null) {
+                throw SnippetException.notFound("No snippet found with ID: " + id);
+            }
+            List<SearchHit> hits = minHashIndex.findSimilar(id, threshold);
+            List<ScoredSnippet> results = new ArrayList<>(hits.size());
+            for (SearchHit hit : hits) {
+                results.add(new ScoredSnippet(primaryIndex.get(hit.getId()), hit.getScore()));
+            }
+            return results;
         }
     }
 
+    /**
+     * Groups the whole collection into clusters of near-duplicate snippets. Only snippets
+     * sharing a locality-sensitive bucket are compared, never every pair.
+     *
+     * @param threshold the minimum estimated similarity linking two snippets, above 0 and
+     *        at most 1
+     * @return the clusters of two or more snippets, each in ID order, largest first
+     * @throws SnippetException if the threshold is out of range
+     * @see MinHashIndex#clusters(double)
+     */
+    public List<List<Snippet>> findDuplicateClusters(double threshold) {
+        synchronized (snippetComponent) {
+            List<List<Snippet>> clusters = new ArrayList<>();
+            for (int[] ids : minHashIndex.clusters(threshold)) {
+                List<Snippet> cluster = new ArrayList<>(ids.length);
+                for (int id : ids) {
+                    cluster.add(primaryIndex.get(id));
+                }
+                clusters.add(cluster);
+            }
+            return clusters;
+        }
+    }
+
+    /**
+     * Finds the snippets whose code matches a regular expression.
+     *
+     * @param regex the pattern, in {@link Pattern} syntax (must not be null or empty)
+     * @return the matching snippets with the lines their matches start on
+     * @throws SnippetException if the pattern is empty or malformed
+     * @see #regexSearch(Pattern)
+     */
+    public List<RegexMatch> regexSearch(String regex) {
+        if (regex == null || regex.isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        try {
+            return regexSearch(Pattern.compile(regex));
+        } catch (PatternSyntaxException e) {
+            throw SnippetException.validationError("Invalid regular expression: " + e.getDescription());
+        }
+    }
+
+    /**
+     * Finds the snippets whose code matches a compiled pattern. The literals every match
+     * must contain are looked up in the trigram index, and only the snippets containing
+     * them are scanned with the pattern.
+     *
+     * @param pattern the pattern (must not be null)
+     * @return the matching snippets with the lines their matches start on, in ID order when
+     *         the pattern has a required literal and in collection order otherwise
+     * @throws SnippetException if the pattern is null
+     * @see RegexPrefilter
+     */
+    public List<RegexMatch> regexSearch(Pattern pattern) {
+        if (pattern == null) {
+            throw SnippetException.validationError("Pattern cannot be null");
+        }
+        List<RegexMatch> matches = new ArrayList<>();
+        synchronized (snippetComponent) {
+            int[] candidates = RegexPrefilter.candidates(trigramIndex, pattern);
+            if (candidates == null) {
+                List<Snippet> scanned = scanner.scan(snippetComponent.getAllSnippets(),
+                    snippet -> pattern.matcher(snippet.getCode()).find(), Integer.MAX_VALUE);
+                for (Snippet snippet : scanned) {
+                    addRegexMatch(snippet, pattern, matches);
+                }
+                return matches;
+            }
+            for (int id : candidates) {
+                Snippet snippet = primaryIndex.get(id);
+                if (snippet != null) {
+                    addRegexMatch(snippet, pattern, matches);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Scans the code of a snippet with a pattern and records the lines its matches start on.
+     *
+     * @param snippet the snippet to scan
+     * @param pattern the pattern
+     * @param matches receives the snippet if the pattern matches
+     */
+    private static void addRegexMatch(Snippet snippet, Pattern pattern, List<RegexMatch> matches) {
+        String code = snippet.getCode();
+        Matcher matcher = pattern.matcher(code);
+        List<Integer> lines = new ArrayList<>();
+        int line = 1;
+        int scanned = 0;
+        while (matcher.find()) {
+            int start = matcher.start();
+            for (; scanned < start; scanned++) {
+                if (code.charAt(scanned) == '\n') {
+                    line++;
+                }
+            }
+            if (lines.isEmpty() || lines.get(lines.size() - 1) != line) {
+                lines.add(line);
+            }
+        }
+        if (!lines.isEmpty()) {
+            matches.add(new RegexMatch(snippet, lines));
+        }
+    }
+
+    /**
+     * Finds every occurrence of a batch of keywords in one pass per snippet, for example to
+     * audit the collection for a list of banned identifiers. The keywords are compiled into
+     * an Aho-Corasick automaton, and the title, code, language, description and tags of each
+     * snippet are scanned once for all keywords, ignoring case like
+     * {@link #searchSnippets(String)}. Snippets are first filtered in parallel for any
+     * keyword; only matching ones are scanned again to collect the occurrences.
+     *
+     * @param keywords the keywords to look for (must not be null or empty, nor contain
+     *        blank keywords); keywords differing only in case are merged
+     * @return the snippets containing at least one keyword, with every occurrence, in
+     *         collection order
+     * @throws SnippetException if the keywords are invalid
+     * @see AhoCorasick
+     */
+    public List<KeywordBatchMatch> searchKeywords(Collection<String> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            throw SnippetException.validationError("Please provide at least one keyword");
+        }
+        Set<String> lowerKeywords = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword == null || keyword.trim().isEmpty()) {
+                throw SnippetException.validationError("Please provide a valid value for searching.");
+            }
+            lowerKeywords.add(keyword.toLowerCase());
+        }
+        AhoCorasick automaton = new AhoCorasick(new ArrayList<>(lowerKeywords));
+        List<KeywordBatchMatch> matches = new ArrayList<>();
+        synchronized (snippetComponent) {
+            List<Snippet> scanned = scanner.scan(snippetComponent.getAllSnippets(),
+                snippet -> containsAnyKeyword(snippet, automaton), Integer.MAX_VALUE);
+            for (Snippet snippet : scanned) {
+                KeywordBatchMatch match = keywordBatchMatch(snippet, automaton);
+                // The filter scans each field lowercased as a whole, the hits scan it char by char
+                // (see alignedFold); the two forms disagree only around chars such as the dotted
+                // capital I, so a keyword found in one may be missing from the other
+                if (!match.getCounts().isEmpty()) {
+                    matches.add(match);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Checks whether any searchable field of a snippet contains a keyword of a batch.
+     *
+     * @param snippet the snippet to check
+     * @param automaton the compiled lowercased keywords
+     * @return true at the first occurrence of any keyword
+     */
+    private static boolean containsAnyKeyword(Snippet snippet, AhoCorasick automaton) {
+        if (automaton.containsAny(snippet.getFoldedTitle()) ||
+                automaton.containsAny(snippet.getFoldedCode()) ||
+                automaton.containsAny(snippet.getFoldedLanguage()) ||
+                automaton.containsAny(snippet.getFoldedDescription())) {
+            return true;
+        }
+        for (String tag : snippet.getTags()) {
+            if (automaton.containsAny(tag.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the occurrences of a batch of keywords in the searchable fields of a snippet,
+     * at positions of the fields as written.
+     *
+     * @param snippet the snippet, containing at least one keyword
+     * @param automaton the compiled lowercased keywords
+     * @return the occurrences grouped by keyword
+     */
+    private static KeywordBatchMatch keywordBatchMatch(Snippet snippet, AhoCorasick automaton) {
+        List<String> keywords = automaton.getKeywords();
+        List<List<KeywordBatchMatch.Hit>> byKeyword = new ArrayList<>(keywords.size());
+        for (int k = 0; k < keywords.size(); k++) {
+            byKeyword.add(new ArrayList<>());
+        }
+        BiConsumer<KeywordBatchMatch.Field, String> scanField = (field, text) -> automaton.find(text,
+            (keyword, start) -> byKeyword.get(keyword).add(new KeywordBatchMatch.Hit(keywords.get(keyword), field, null, start)));
+        scanField.accept(KeywordBatchMatch.Field.TITLE, alignedFold(snippet.getTitle(), snippet.getFoldedTitle()));
+        scanField.accept(KeywordBatchMatch.Field.CODE, alignedFold(snippet.getCode(), snippet.getFoldedCode()));
+        scanField.accept(KeywordBatchMatch.Field.LANGUAGE, alignedFold(snippet.getLanguage(), snippet.getFoldedLanguage()));
+        scanField.accept(KeywordBatchMatch.Field.DESCRIPTION,
+            alignedFold(snippet.getDescription(), snippet.getFoldedDescription()));
+        for (String tag : new TreeSet<>(snippet.getTags())) {
+            automaton.find(alignedFold(tag, tag.toLowerCase()), (keyword, start) -> byKeyword.get(keyword).add(
+                new KeywordBatchMatch.Hit(keywords.get(keyword), KeywordBatchMatch.Field.TAG, tag, start)));
+        }
+
+        Map<String, List<KeywordBatchMatch.Hit>> hits = new LinkedHashMap<>();
+        for (int k = 0; k < keywords.size(); k++) {
+            if (!byKeyword.get(k).isEmpty()) {
+                hits.put(keywords.get(k), byKeyword.get(k));
+            }
+        }
+        return new KeywordBatchMatch(snippet, hits);
+    }
+
+    /**
+     * Gets a lowercase form of a field whose positions are the positions of the field. The
+     * precomputed folded field is used unless lowercasing changed its length, which only a
+     * few chars such as the dotted capital I do; the field is then folded char by char.
+     *
+     * @param text the field as written (may be null)
+     * @param folded the field lowercased as a whole (may be null)
+     * @return a lowercase form with the length of the field
+     */
+    private static String alignedFold(String text, String folded) {
+        if (text == null || folded.length() == text.length()) {
+            return folded;
+        }
+        // Fold char by char so every position still points into the field as written
+        char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Finds the snippets satisfying an arbitrary condition by testing every snippet, split
+     * across the configured number of threads. Use it for conditions no index can answer.
+     *
+     * @param filter the condition to test; must not modify the snippets (must not be null)
+     * @param limit the maximum number of results (must be positive); the scan stops once
+     *        this many matches are found
+     * @return at most {@code limit} matching snippets, in collection order
+     * @throws SnippetException if an argument is invalid
+     * @see #setScanParallelism(int)
+     */
+    public List<Snippet> scan(Predicate<? super Snippet> filter, int limit) {
+        synchronized (snippetComponent) {
+            return scanner.scan(snippetComponent.getAllSnippets(), filter, limit);
+        }
+    }
+
+    /**
+     * Sets the number of threads used by scans that no index can narrow down: keyword
+     * searches shorter than three characters, regular expressions without a required
+     * literal and {@link #scan(Predicate, int)}.
+     *
+     * @param parallelism the number of threads (must be positive; 1 scans on the calling thread)
+     * @throws SnippetException if the parallelism is not positive
+     */
+    public void setScanParallelism(int parallelism) {
+        ParallelSnippetScanner replacement = new ParallelSnippetScanner(parallelism);
+        ParallelSnippetScanner previous;
+        synchronized (snippetComponent) {
+            previous = scanner;
+            scanner = replacement;
+        }
+        previous.close();
+    }
+
+    /**
+     * Gets the number of threads used by scans that no index can narrow down.
+     *
+     * @return the parallelism
+     */
+    public int getScanParallelism() {
+        synchronized (snippetComponent) {
+            return scanner.getParallelism();
+        }
+    }
+
+    /**
+     * Sets how keyword searches compare the keyword with the code of each snippet.
+     *
+     * @param engine the scan engine (must not be null)
+     * @throws SnippetException if the engine is null
+     * @see ScanEngine#isVectorAccelerated()
+     */
+    public void setScanEngine(ScanEngine engine) {
+        if (engine == null) {
+            throw SnippetException.validationError("Scan engine cannot be null");
+        }
+        synchronized (snippetComponent) {
+            scanEngine = engine;
+        }
+    }
+
+    /**
+     * Gets how keyword searches compare the keyword with the code of each snippet.
+     *
+     * @return the scan engine
+     */
+    public ScanEngine getScanEngine() {
+        synchronized (snippetComponent) {
+            return scanEngine;
+        }
+    }
+
+    /**
+     * Builds the condition of a keyword search for the current scan engine. With
+     * {@link ScanEngine#VECTOR} the keyword is encoded once and the code of each snippet is
+     * compared as bytes; the other fields are short and compared as strings.
+     *
+     * @param lowerKeyword the lowercased keyword
+     * @return the condition, equivalent to {@link #matchesKeyword(Snippet, String)}
+     */
+    private Predicate<Snippet> keywordFilter(String lowerKeyword) {
+        byte[] pattern = scanEngine == ScanEngine.VECTOR ? SubstringMatcher.latin1(lowerKeyword) : null;
+        if (pattern == null) {
+            return snippet -> matchesKeyword(snippet, lowerKeyword);
+        }
+        SubstringMatcher matcher = ScanEngine.byteMatcher();
+        return snippet -> {
+            if (snippet.getFoldedTitle().contains(lowerKeyword)) {
+                return true;
+            }
+            byte[] code = snippet.getFoldedCodeBytes();
+            return (code != null ? matcher.contains(code, pattern) : snippet.getFoldedCode().contains(lowerKeyword)) ||
+                snippet.getFoldedLanguage().contains(lowerKeyword) ||
+                (snippet.getFoldedDescription() != null && snippet.getFoldedDescription().contains(lowerKeyword)) ||
+                snippet.anyTagContains(lowerKeyword);
+        };
+    }
+
+    /**
+     * Checks whether a snippet matches a keyword search.
+     *
+     * @param snippet the snippet to check
+     * @param lowerKeyword the lowercased keyword
+     * @return true if a searchable field contains the keyword
+     */
+    static boolean matchesKeyword(Snippet snippet, String lowerKeyword) {
+        return snippet.getFoldedTitle().contains(lowerKeyword) ||
+            snippet.getFoldedCode().contains(lowerKeyword) ||
+            snippet.getFoldedLanguage().contains(lowerKeyword) ||
+            (snippet.getFoldedDescription() != null && snippet.getFoldedDescription().contains(lowerKeyword)) ||
+            snippet.anyTagContains(lowerKeyword);
+    }
+
     /**
      * Searches for snippets by a specific tag.
      * 
@@ -223,26 +973,202 @@ public class SnippetManager {
             throw SnippetException.validationError("Please provide a valid tag for searching.");
         }
 
-        SnippetIterator iterator = new SnippetIterator(snippetComponent.getAllSnippets());
         boolean found = false;
-        String lowerTag = tag.toLowerCase();
-
-        while (iterator.hasNext()) {
-            Snippet snippet = iterator.next();
-            if (snippet.hasTag(lowerTag)) {
-                System.out.println("\nFound snippet with tag '" + tag + "':");
-                System.out.println("ID: " + snippet.getId());
-                System.out.println("Title: " + snippet.getTitle());
-                System.out.println("Language: " + snippet.getLanguage());
-                System.out.println("Tags: " + String.join(", ", snippet.getTags()));
-                System.out.println("Code:\n" + snippet.getCode());
-                System.out.println("---------------------------");
-                found = true;
-            }
+
+        for (Snippet snippet : findByTag(tag)) {
+            System.out.println("\nFound snippet with tag '" + tag + "':");
+            System.out.println("ID: " + snippet.getId());
+            System.out.println("Title: " + snippet.getTitle());
+            System.out.println("Language: " + snippet.getLanguage());
+            System.out.println("Tags: " + String.join(", ", snippet.getTags()));
+            System.out.println("Code:\n" + snippet.getCode());
+            System.out.println("---------------------------");
+            found = true;
         }
 
         if (!found) {
             System.out.println("No snippets found with tag: " + tag);
+            List<FuzzyIndex.Suggestion> suggestions = suggest(FuzzyIndex.Field.TAG, tag, FuzzyIndex.MAX_DISTANCE);
+            if (!suggestions.isEmpty()) {
+                System.out.println("Did you mean: " + String.join(", ",
+                    suggestions.stream().limit(5).map(FuzzyIndex.Suggestion::getTerm).toList()) + "?");
+            }
+        }
+    }
+
+    /**
+     * Finds the snippets carrying a tag, using the tag index. Results are cached until a
+     * snippet gains or loses the tag.
+     *
+     * @param tag the tag to look for, compared lowercased (must not be null or empty)
+     * @return an unmodifiable list of the snippets carrying the tag, in ID order
+     * @throws SnippetException if the tag is invalid
+     */
+    public List<Snippet> findByTag(String tag) {
+        if (tag == null || tag.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid tag for searching.");
+        }
+        synchronized (snippetComponent) {
+            String key = tagKey(tag);
+            return queryCache.get(key, () -> resolve(tagIndex.find(tag)));
+        }
+    }
+
+    /**
+     * Finds the snippets written in a language, ignoring case. Results are cached until a
+     * snippet is added to or removed from the language.
+     *
+     * @param language the language to look for (must not be null or empty)
+     * @return an unmodifiable list of the snippets in the language, in collection order
+     * @throws SnippetException if the language is invalid
+     * @see SnippetAnalyzer#findSnippetsByLanguage(SnippetComponent, String)
+     */
+    public List<Snippet> findByLanguage(String language) {
+        if (language == null || language.trim().isEmpty()) {
+            throw SnippetException.validationError("Language cannot be null or empty");
+        }
+        synchronized (snippetComponent) {
+            String key = languageKey(language);
+            return queryCache.get(key, () -> SnippetAnalyzer.findSnippetsByLanguage(snippetComponent, language));
+        }
+    }
+
+    /**
+     * Gets the statistics of the cache of tag and language lookups.
+     *
+     * @return the hit, miss, eviction and invalidation counts and the current size
+     */
+    public CacheStats getQueryCacheStats() {
+        synchronized (snippetComponent) {
+            return queryCache.getStats();
+        }
+    }
+
+    /**
+     * Finds one page of the snippets carrying a tag, in ID order, using the tag index.
+     *
+     * @param tag the tag to look for, compared lowercased (must not be null or empty)
+     * @param afterId the cursor: {@link SnippetPage#FIRST} for the first page, otherwise the
+     *        {@linkplain SnippetPage#getNextCursor() next cursor} of the previous page
+     * @param pageSize the maximum number of snippets on the page (must be positive)
+     * @return the snippets carrying the tag with the smallest IDs above {@code afterId}
+     * @throws SnippetException if the tag or page size is invalid
+     */
+    public SnippetPage findByTag(String tag, int afterId, int pageSize) {
+        if (tag == null || tag.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid tag for searching.");
+        }
+        synchronized (snippetComponent) {
+            return page(from -> tagIndex.next(tag, from), afterId, pageSize, snippet -> true);
+        }
+    }
+
+    /**
+     * Finds the snippets carrying every one of the given tags, using the tag index.
+     *
+     * @param tags the tags to look for, compared lowercased (must not be null, empty or contain null)
+     * @return the snippets carrying all the tags, in ID order
+     * @throws SnippetException if the tags are invalid
+     */
+    public List<Snippet> findByAllTags(Set<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            throw SnippetException.validationError("Please provide at least one tag for searching.");
+        }
+        synchronized (snippetComponent) {
+            return resolve(tagIndex.findAll(tags));
+        }
+    }
+
+    /**
+     * Finds the snippets whose title words, tags or language are within an edit distance of a term,
+     * so that misspelled searches such as {@code concurency} still find {@code concurrency}.
+     *
+     * @param field the field to look in (must not be null)
+     * @param term the term, compared lowercased (must not be null or empty)
+     * @param maxDistance the largest accepted Levenshtein distance (0 to {@link FuzzyIndex#MAX_DISTANCE})
+     * @return the matching snippets, in ID order
+     * @throws SnippetException if an argument is invalid
+     */
+    public List<Snippet> fuzzySearch(FuzzyIndex.Field field, String term, int maxDistance) {
+        if (term == null || term.trim().isEmpty()) {
+            throw SnippetException.validationError("Please provide a valid value for searching.");
+        }
+        synchronized (snippetComponent) {
+            return resolve(fuzzyIndex.find(field, term, maxDistance));
+        }
+    }
+
+    /**
+     * Lists the title words, tags or languages of the collection that are close to a term.
+     *
+     * @param field the field to look in (must not be null)
+     * @param term the term, compared lowercased (must not be null)
+     * @param maxDistance the largest accepted Levenshtein distance (0 to {@link FuzzyIndex#MAX_DISTANCE})
+     * @return the close terms, nearest and most used first
+     * @throws SnippetException if an argument is invalid
+     */
+    public List<FuzzyIndex.Suggestion> suggest(FuzzyIndex.Field field, String term, int maxDistance) {
+        synchronized (snippetComponent) {
+            return fuzzyIndex.suggest(field, term, maxDistance);
+        }
+    }
+
+    /**
+     * Completes a typed prefix to the most used tags, titles or languages of the collection.
+     *
+     * @param field the field to complete (must not be null)
+     * @param prefix the typed prefix, compared ignoring case (must not be null)
+     * @param limit the maximum number of completions (must be positive)
+     * @return at most {@code limit} completions, most used first
+     * @throws SnippetException if an argument is invalid
+     */
+    public List<CompletionIndex.Completion> complete(CompletionIndex.Field field, String prefix, int limit) {
+        synchronized (snippetComponent) {
+            return completionIndex.complete(field, prefix, limit);
+        }
+    }
+
+    /**
+     * Counts the snippets carrying a tag, using the tag index.
+     *
+     * @param tag the tag to count, compared lowercased (must not be null)
+     * @return the number of snippets carrying the tag
+     * @throws SnippetException if the tag is null
+     */
+    public int getTagCount(String tag) {
+        synchronized (snippetComponent) {
+            return tagIndex.count(tag);
+        }
+    }
+
+    /**
+     * Finds the snippets matching a query such as {@code lang:java AND tag:concurrency NOT title:test}.
+     *
+     * @param query the query text (must not be null or blank)
+     * @return the matching snippets, in ID order when an index could narrow the query down
+     *         and in collection order otherwise
+     * @throws SnippetException if the query is blank or malformed
+     * @see SnippetQuery
+     */
+    public List<Snippet> query(String query) {
+        return query(SnippetQuery.parse(query));
+    }
+
+    /**
+     * Finds the snippets matching a parsed query. Tag and text predicates are answered from
+     * the indexes, and only the resulting candidates are checked against the whole query.
+     *
+     * @param query the parsed query (must not be null)
+     * @return the matching snippets, in ID order when an index could narrow the query down
+     *         and in collection order otherwise
+     * @throws SnippetException if the query is null
+     */
+    public List<Snippet> query(SnippetQuery query) {
+        if (query == null) {
+            throw SnippetException.validationError("Query cannot be null");
+        }
+        synchronized (snippetComponent) {
+            return query.execute(queryContext);
         }
     }
 
@@ -252,15 +1178,9 @@ public class SnippetManager {
      * @return a set containing all unique tags used in the collection
      */
     public Set<String> getAllTags() {
-        Set<String> allTags = new HashSet<>();
-        SnippetIterator iterator = new SnippetIterator(snippetComponent.getAllSnippets());
-        
-        while (iterator.hasNext()) {
-            Snippet snippet = iterator.next();
-            allTags.addAll(snippet.getTags());
+        synchronized (snippetComponent) {
+            return tagIndex.getTags();
         }
-        
-        return allTags;
     }
 
     /**
@@ -273,30 +1193,24 @@ public class SnippetManager {
      * @throws SnippetException if the snippet is not found or an error occurs during editing
      */
     public void editSnippet(int snippetId, String newTitle, String newLanguage, String newCode) {
-        SnippetIterator iterator = new SnippetIterator(snippetComponent.getAllSnippets());
-        boolean found = false;
-
-        while (iterator.hasNext()) {
-            Snippet snippet = iterator.next();
-            if (snippet.getId() == snippetId) {
-                snippet.setTitle(newTitle);
-                snippet.setLanguage(newLanguage);
-                snippet.setCode(newCode);
-                found = true;
-                break;
-            }
-        }
+        synchronized (snippetComponent) {
+            Snippet edited = primaryIndex.get(snippetId);
 
-        if (found) {
-            try {
-                saveSnippets();
-                SnippetLogger.logInfo("Edited snippet with ID: " + snippetId);
-            } catch (SnippetException e) {
-                SnippetLogger.logError("Error saving after edit", e);
-                throw e;
+            if (edited != null) {
+                edited.setTitle(newTitle);
+                edited.setLanguage(newLanguage);
+                edited.setCode(newCode);
+                reindex(edited);
+                try {
+                    persist(SnippetMutation.updated(edited));
+                    SnippetLogger.logInfo("Edited snippet with ID: " + snippetId);
+                } catch (SnippetException e) {
+                    SnippetLogger.logError("Error saving after edit", e);
+                    throw e;
+                }
+            } else {
+                throw SnippetException.notFound("No snippet found with ID: " + snippetId);
             }
-        } else {
-            throw SnippetException.notFound("No snippet found with ID: " + snippetId);
         }
     }
 
@@ -307,28 +1221,48 @@ public class SnippetManager {
      * @throws SnippetException if the snippet is not found or an error occurs during deletion
      */
     public void deleteSnippet(int snippetId) {
-        SnippetIterator iterator = new SnippetIterator(snippetComponent.getAllSnippets());
-        boolean found = false;
+        synchronized (snippetComponent) {
+            Snippet removed = primaryIndex.remove(snippetId);
 
-        while (iterator.hasNext()) {
-            Snippet snippet = iterator.next();
-            if (snippet.getId() == snippetId) {
-                snippetComponent.removeSnippet(snippet);
-                found = true;
-                break;
+            if (removed != null) {
+                snippetComponent.removeSnippet(removed);
+                unindex(snippetId);
+                try {
+                    persist(SnippetMutation.deleted(snippetId));
+                    SnippetLogger.logInfo("Deleted snippet with ID: " + snippetId);
+                } catch (SnippetException e) {
+                    SnippetLogger.logError("Error saving after deletion", e);
+                    throw e;
+                }
+            } else {
+                throw SnippetException.notFound("No snippet found with ID: " + snippetId);
             }
         }
+    }
 
-        if (found) {
+    /**
+     * Persists changes made directly to a snippet of this collection
+     * (for example through {@link Snippet#setTitle(String)} or {@link Snippet#addTag(String)}).
+     *
+     * @param snippet the modified snippet (must not be null and must belong to this collection)
+     * @throws SnippetException if the snippet is null, not managed by this collection, or cannot be saved
+     */
+    public void updateSnippet(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        synchronized (snippetComponent) {
+            if (primaryIndex.get(snippet.getId()) != snippet) {
+                throw SnippetException.notFound("No snippet found with ID: " + snippet.getId());
+            }
+            reindex(snippet);
             try {
-                saveSnippets();
-                SnippetLogger.logInfo("Deleted snippet with ID: " + snippetId);
+                persist(SnippetMutation.updated(snippet));
+                SnippetLogger.logInfo("Updated snippet with ID: " + snippet.getId());
             } catch (SnippetException e) {
-                SnippetLogger.logError("Error saving after deletion", e);
+                SnippetLogger.logError("Error saving after update", e);
                 throw e;
             }
-        } else {
-            throw SnippetException.notFound("No snippet found with ID: " + snippetId);
         }
     }
 
@@ -362,20 +1296,307 @@ public class SnippetManager {
 
 
     /**
-     * Saves the current state of the snippet collection to the JSON file.
+     * Exports the whole collection as a JSON array, independently of the storage mode.
      *
-     * @throws SnippetException if an error occurs during file writing
+     * @param jsonFilePath the file to write (must not be null or empty)
+     * @throws SnippetException if the path is invalid or the file cannot be written
      */
-    private void saveSnippets() {
+    public void exportJson(String jsonFilePath) {
+        if (jsonFilePath == null || jsonFilePath.trim().isEmpty()) {
+            throw SnippetException.validationError("File path cannot be null or empty");
+        }
         try {
-            List<Snippet> allSnippets = snippetComponent.getAllSnippets();
-            objectMapper.writeValue(file, allSnippets);
+            objectMapper.writeValue(new File(jsonFilePath), snippetComponent.getAllSnippets());
+            SnippetLogger.logInfo("Exported " + getSnippetCount() + " snippets as JSON to " + jsonFilePath);
         } catch (IOException e) {
-            SnippetLogger.logError("Error saving snippets", e);
-            throw SnippetException.ioError("Failed to save snippets to file", e);
+            SnippetLogger.logError("Error exporting snippets as JSON", e);
+            throw SnippetException.ioError("Failed to export snippets as JSON", e);
+        }
+    }
+
+    /**
+     * Imports every snippet of a JSON array file into the collection.
+     * Imported snippets receive new IDs so they never collide with existing ones;
+     * all other fields are kept as they are.
+     *
+     * @param jsonFilePath the JSON file to read (must not be null or empty)
+     * @return the number of imported snippets
+     * @throws SnippetException if the path is invalid or the file cannot be read or saved
+     */
+    public int importJson(String jsonFilePath) {
+        if (jsonFilePath == null || jsonFilePath.trim().isEmpty()) {
+            throw SnippetException.validationError("File path cannot be null or empty");
+        }
+        File source = new File(jsonFilePath);
+        if (!source.exists()) {
+            throw SnippetException.notFound("No file found at: " + jsonFilePath);
+        }
+        LoadStats stats;
+        synchronized (snippetComponent) {
+            // [next ID, end of the reserved block]
+            int[] block = {0, 0};
+            try {
+                stats = new StreamingSnippetLoader(objectMapper, PROGRESS_INTERVAL).load(source, snippet -> {
+                    if (block[0] == block[1]) {
+                        block[0] = idSequence.reserve(IMPORT_ID_BLOCK);
+                        block[1] = block[0] + IMPORT_ID_BLOCK;
+                    }
+                    snippet.setId(block[0]++);
+                    attach(snippet);
+                }, null);
+            } finally {
+                idSequence.release(block[0], block[1]);
+            }
+        }
+        store.checkpoint(snippetComponent);
+        SnippetLogger.logInfo("Imported " + stats.getSnippetCount() + " snippets from " + jsonFilePath);
+        return (int) stats.getSnippetCount();
+    }
+
+    /**
+     * Finds a snippet by its ID using the primary index.
+     *
+     * @param snippetId the ID of the snippet
+     * @return the snippet with the given ID, or null if there is none
+     */
+    public Snippet findById(int snippetId) {
+        synchronized (snippetComponent) {
+            return primaryIndex.get(snippetId);
+        }
+    }
+
+    /**
+     * Adds a snippet to the collection, the primary index and the secondary indexes, and
+     * makes sure its ID is never handed out again.
+     *
+     * @param snippet the snippet to add
+     * @throws SnippetException if the snippet is null
+     */
+    private void attach(Snippet snippet) {
+        snippetComponent.addSnippet(snippet);
+        primaryIndex.put(snippet);
+        reindex(snippet);
+        idSequence.advancePast(snippet.getId());
+    }
+
+    /**
+     * Brings the secondary indexes up to date with the current fields of a snippet.
+     *
+     * @param snippet the added or modified snippet
+     */
+    private void reindex(Snippet snippet) {
+        Set<String> keys = new HashSet<>();
+        for (String tag : snippet.getTags()) {
+            keys.add(tagKey(tag));
         }
+        keys.add(languageKey(snippet.getLanguage()));
+        Set<String> previous = queryKeysById.put(snippet.getId(), keys);
+        invalidateQueries(keys, previous);
+        invalidateQueries(previous, keys);
+        allIds.add(snippet.getId());
+        trigramIndex.add(snippet);
+        tagIndex.add(snippet);
+        indexLanguage(snippet.getId(), languageKey(snippet.getLanguage()));
+        bm25Index.add(snippet);
+        fuzzyIndex.add(snippet);
+        completionIndex.add(snippet);
+        minHashIndex.add(snippet);
     }
 
+    /**
+     * Drops the cached lookups a snippet joined or left. Lookups whose members did not
+     * change keep their cached results, since results hold the snippets themselves.
+     *
+     * @param keys the lookup keys of one version of the snippet (may be null)
+     * @param kept the lookup keys of the other version, which are left alone (may be null)
+     */
+    private void invalidateQueries(Set<String> keys, Set<String> kept) {
+        if (keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            if (kept == null || !kept.contains(key)) {
+                queryCache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Builds the cache key of a tag lookup.
+     *
+     * @param tag the tag
+     * @return the key, equal for tags the tag index treats alike
+     */
+    private static String tagKey(String tag) {
+        return "tag:" + tag.toLowerCase();
+    }
+
+    /**
+     * Builds the cache key of a language lookup. Each char is folded the way
+     * {@link String#equalsIgnoreCase(String)} compares it, so languages that match
+     * ignoring case share a key.
+     *
+     * @param language the language
+     * @return the key
+     */
+    private static String languageKey(String language) {
+        StringBuilder key = new StringBuilder("lang:");
+        for (int i = 0; i < language.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(language.charAt(i))));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Removes a snippet from the secondary indexes.
+     *
+     * @param snippetId the ID of the removed snippet
+     */
+    private void unindex(int snippetId) {
+        invalidateQueries(queryKeysById.remove(snippetId), null);
+        allIds.remove(snippetId);
+        trigramIndex.remove(snippetId);
+        tagIndex.remove(snippetId);
+        unindexLanguage(snippetId);
+        bm25Index.remove(snippetId);
+        fuzzyIndex.remove(snippetId);
+        completionIndex.remove(snippetId);
+        minHashIndex.remove(snippetId);
+    }
+
+    /**
+     * Files a snippet under its language key, moving it out of the key it was filed under before.
+     *
+     * @param snippetId the ID of the snippet
+     * @param key the language key of the snippet
+     */
+    private void indexLanguage(int snippetId, String key) {
+        String previous = languageKeysById.get(snippetId);
+        if (key.equals(previous)) {
+            return;
+        }
+        unindexLanguage(snippetId);
+        languageIndex.computeIfAbsent(key, k -> new IdBitmap()).add(snippetId);
+        languageKeysById.put(snippetId, key);
+    }
+
+    /**
+     * Removes a snippet from the language index, dropping languages no snippet is left in.
+     *
+     * @param snippetId the ID of the snippet
+     */
+    private void unindexLanguage(int snippetId) {
+        String key = languageKeysById.remove(snippetId);
+        if (key == null) {
+            return;
+        }
+        IdBitmap ids = languageIndex.get(key);
+        if (ids != null && ids.remove(snippetId) && ids.isEmpty()) {
+            languageIndex.remove(key);
+        }
+    }
+
+    /**
+     * Collects a page of snippets by seeking forward in an ID order from a cursor. Looks one
+     * match past the page to tell whether more follow. Must hold the collection lock.
+     *
+     * @param next gives the smallest candidate ID at least its argument, or -1 if there is none
+     * @param afterId the cursor
+     * @param pageSize the maximum number of snippets on the page
+     * @param filter the condition the candidates must satisfy
+     * @return the page
+     * @throws SnippetException if the page size is not positive
+     */
+    private SnippetPage page(IntUnaryOperator next, int afterId, int pageSize, Predicate<Snippet> filter) {
+        if (pageSize <= 0) {
+            throw SnippetException.validationError("Page size must be positive");
+        }
+        List<Snippet> snippets = new ArrayList<>();
+        int cursor = afterId;
+        int id = afterId == Integer.MAX_VALUE ? -1 : next.applyAsInt(afterId + 1);
+        while (id >= 0) {
+            Snippet snippet = primaryIndex.get(id);
+            if (snippet != null && filter.test(snippet)) {
+                if (snippets.size() == pageSize) {
+                    return new SnippetPage(snippets, cursor, true);
+                }
+                snippets.add(snippet);
+                cursor = id;
+            }
+            id = id == Integer.MAX_VALUE ? -1 : next.applyAsInt(id + 1);
+        }
+        return new SnippetPage(snippets, cursor, false);
+    }
+
+    /**
+     * Finds the smallest ID in a sorted array that is at least the given one.
+     *
+     * @param ids the sorted IDs
+     * @param from the smallest acceptable ID
+     * @return the ID, or -1 if there is none
+     */
+    private static int next(int[] ids, int from) {
+        int position = Arrays.binarySearch(ids, from);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < ids.length ? ids[position] : -1;
+    }
+
+    /**
+     * Resolves snippet IDs through the primary index.
+     *
+     * @param ids the IDs to resolve
+     * @return the snippets in ID order
+     */
+    private List<Snippet> resolve(IdBitmap ids) {
+        List<Snippet> snippets = new ArrayList<>(ids.cardinality());
+        ids.forEach(id -> {
+            Snippet snippet = primaryIndex.get(id);
+            if (snippet != null) {
+                snippets.add(snippet);
+            }
+        });
+        return snippets;
+    }
+
+    /**
+     * Hands a mutation that has already been applied to the collection to the store.
+     *
+     * @param mutation the mutation to record
+     * @throws SnippetException if an error occurs during persistence
+     */
+    private void persist(SnippetMutation mutation) {
+        store.record(mutation, snippetComponent);
+    }
+
+    /**
+     * Writes every change that the store has acknowledged but not yet persisted.
+     * Only needed for stores that persist asynchronously, such as
+     * {@link com.snippetorganizer.persistence.WriteBehindSnippetStore}.
+     *
+     * @throws SnippetException if the pending changes cannot be written
+     */
+    public void flush() {
+        store.flush();
+    }
+
+    /**
+     * Writes any pending changes, records the exact next ID and releases the store.
+     *
+     * @throws SnippetException if the pending changes cannot be written
+     */
+    @Override
+    public void close() {
+        synchronized (snippetComponent) {
+            scanner.close();
+        }
+        try {
+            idSequence.close();
+        } finally {
+            store.close();
+        }
+    }
 
     /**
      * Demonstrates the Composite pattern by creating a nested collection structure.
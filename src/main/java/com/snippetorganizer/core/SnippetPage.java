@@ -0,0 +1,72 @@
+package com.snippetorganizer.core;
+
+import java.util.List;
+
+/**
+ * One page of snippets in ID order, with the cursor to fetch the next page.
+ *
+ * <p>The cursor is the ID of the last snippet on the page; the next page holds the
+ * snippets with larger IDs. Because it names a position in ID order rather than an offset,
+ * adding or deleting snippets never shifts later pages, and fetching any page costs the
+ * same as fetching the first.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager#listSnippets(int, int)
+ */
+public final class SnippetPage {
+
+    /** The cursor that starts at the beginning, below every snippet ID */
+    public static final int FIRST = -1;
+
+    /** The snippets of the page, in ID order */
+    private final List<Snippet> snippets;
+
+    /** The cursor of the next page */
+    private final int nextCursor;
+
+    /** Whether more snippets follow this page */
+    private final boolean hasMore;
+
+    /**
+     * Constructs a new SnippetPage.
+     *
+     * @param snippets the snippets of the page, in ID order
+     * @param nextCursor the cursor of the next page
+     * @param hasMore whether more snippets follow this page
+     */
+    public SnippetPage(List<Snippet> snippets, int nextCursor, boolean hasMore) {
+        this.snippets = List.copyOf(snippets);
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Gets the snippets of the page.
+     *
+     * @return an unmodifiable list of the snippets, in ID order
+     */
+    public List<Snippet> getSnippets() {
+        return snippets;
+    }
+
+    /**
+     * Gets the cursor to pass to fetch the next page.
+     *
+     * @return the ID of the last snippet on this page, or the cursor this page was fetched
+     *         with if it is empty
+     */
+    public int getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether more snippets follow this page. Snippets added later with larger IDs
+     * are found by the next page even if this returns false.
+     *
+     * @return true if the next page is not empty
+     */
+    public boolean hasMore() {
+        return hasMore;
+    }
+}
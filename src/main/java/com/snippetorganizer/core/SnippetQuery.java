@@ -0,0 +1,91 @@
+package com.snippetorganizer.core;
+
+import java.util.List;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * A parsed snippet query such as {@code lang:java AND tag:concurrency NOT title:test}.
+ *
+ * <p>Terms are combined with {@code AND} (also implied between adjacent terms), {@code OR},
+ * {@code NOT} and parentheses. See {@link QueryParser} for the fields and value syntax.
+ * A query is parsed once and can be run any number of times with
+ * {@link SnippetManager#query(SnippetQuery)}.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetManager#query(String)
+ */
+public final class SnippetQuery {
+
+    /** The query text as given */
+    private final String text;
+
+    /** The root of the query tree */
+    private final QueryNode root;
+
+    /**
+     * Constructs a new SnippetQuery.
+     *
+     * @param text the query text
+     * @param root the root of the query tree
+     */
+    private SnippetQuery(String text, QueryNode root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    /**
+     * Parses a query.
+     *
+     * @param text the query text (must not be null or blank)
+     * @return the parsed query
+     * @throws SnippetException if the query is blank or malformed
+     */
+    public static SnippetQuery parse(String text) {
+        return new SnippetQuery(text, QueryParser.parse(text));
+    }
+
+    /**
+     * Checks whether a single snippet satisfies this query, without using any index.
+     *
+     * @param snippet the snippet to check (must not be null)
+     * @return true if the snippet matches
+     * @throws SnippetException if the snippet is null
+     */
+    public boolean matches(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        return root.matches(snippet);
+    }
+
+    /**
+     * Runs this query against the indexes of a manager.
+     *
+     * @param context access to the indexes and snippets
+     * @return the matching snippets
+     */
+    List<Snippet> execute(QueryContext context) {
+        return QueryPlanner.execute(root, context);
+    }
+
+    /**
+     * Gets the query text as given.
+     *
+     * @return the query text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns the normalized, fully parenthesized form of this query.
+     *
+     * @return the parsed query
+     */
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.snippetorganizer.core;
+
+/**
+ * Finds a byte pattern in a byte text, such as a lowercased keyword in lowercased code
+ * encoded as Latin-1.
+ *
+ * <p>Implementations must be stateless so that one instance can serve several scanning
+ * threads at once.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see ScanEngine
+ */
+public interface SubstringMatcher {
+
+    /**
+     * Checks whether a text contains a pattern.
+     *
+     * @param text the text to search (must not be null)
+     * @param pattern the pattern to look for (must not be null or empty)
+     * @return true if the pattern occurs in the text
+     */
+    boolean contains(byte[] text, byte[] pattern);
+
+    /**
+     * Encodes text as Latin-1, one byte per char.
+     *
+     * @param text the text to encode (may be null)
+     * @return the bytes, or null if the text is null or has a char above {@code U+00FF}
+     */
+    static byte[] latin1(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; i++) {
+            char c = text.charAt(i);
+            if (c > 0xFF) {
+                return null;
+            }
+            bytes[i] = (byte) c;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,50 @@
+package com.snippetorganizer.core;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD form of the first-and-last-byte filter of {@link ScalarSubstringMatcher}, built on
+ * the incubating Vector API.
+ *
+ * <p>Each step loads one vector of text at the current position and one at the position
+ * of the last pattern byte, compares them with the broadcast first and last byte, and
+ * only the lanes where both comparisons hold are checked byte by byte. The tail shorter
+ * than a vector is finished by the scalar matcher.</p>
+ *
+ * <p>Compiled only by the {@code vector} build profile, which adds the
+ * {@code jdk.incubator.vector} module, and loaded reflectively by {@link ScanEngine}, so
+ * the rest of the application builds and runs without the module.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see ScanEngine#byteMatcher()
+ */
+final class VectorSubstringMatcher implements SubstringMatcher {
+
+    /** The widest byte vector of the platform; at most 64 lanes, so a mask fits a long */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public boolean contains(byte[] text, byte[] pattern) {
+        int last = pattern.length - 1;
+        int lanes = SPECIES.length();
+        ByteVector first = ByteVector.broadcast(SPECIES, pattern[0]);
+        ByteVector end = ByteVector.broadcast(SPECIES, pattern[last]);
+        int i = 0;
+        for (int bound = text.length - last - lanes; i <= bound; i += lanes) {
+            VectorMask<Byte> candidates = ByteVector.fromArray(SPECIES, text, i).eq(first)
+                .and(ByteVector.fromArray(SPECIES, text, i + last).eq(end));
+            if (!candidates.anyTrue()) {
+                continue;
+            }
+            for (long bits = candidates.toLong(); bits != 0; bits &= bits - 1) {
+                if (ScalarSubstringMatcher.matchesAt(text, pattern, i + Long.numberOfTrailingZeros(bits))) {
+                    return true;
+                }
+            }
+        }
+        return ScalarSubstringMatcher.indexOf(text, pattern, i) >= 0;
+    }
+}
@@ -0,0 +1,223 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of a set of keywords in one pass
+ * over a text, however many keywords there are.
+ *
+ * <p>The keywords are built into a trie whose failure links are resolved up front into a
+ * complete transition table, so each char of the text costs one table lookup. The table
+ * has a column per distinct keyword char plus one shared by all other chars, which always
+ * lead back to the root. Each state lists the keywords ending at it, including those
+ * reached through failure links, so overlapping and nested keywords are all reported:
+ * {@code he}, {@code she} and {@code hers} all occur in {@code ushers}.</p>
+ *
+ * <p>Chars are compared exactly; callers fold case of the keywords and the text alike.
+ * Immutable, so one automaton may be used by several threads at once.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ */
+public final class AhoCorasick {
+
+    /**
+     * Receives the occurrences found in a text.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        /**
+         * Called for each occurrence, in order of the position where it ends.
+         *
+         * @param keyword the index of the keyword in the list given to the constructor
+         * @param start the index of the first char of the occurrence in the text
+         */
+        void onMatch(int keyword, int start);
+    }
+
+    /** The keyword states of no keyword */
+    private static final int[] NONE = new int[0];
+
+    /** The keywords */
+    private final List<String> keywords;
+
+    /** The length of each keyword */
+    private final int[] lengths;
+
+    /** The distinct keyword chars, ascending; the column of {@code alphabet[i]} is {@code i + 1} */
+    private final char[] alphabet;
+
+    /** The column of each ASCII char, 0 for chars of no keyword */
+    private final int[] asciiColumns = new int[128];
+
+    /** The number of columns of the transition table */
+    private final int width;
+
+    /** The next state by {@code state * width + column} */
+    private final int[] transitions;
+
+    /** The indexes of the keywords ending at each state */
+    private final int[][] outputs;
+
+    /**
+     * Builds the automaton of a list of keywords.
+     *
+     * @param keywords the keywords (must not be null or empty, nor contain null or empty
+     *        keywords); duplicates are reported under the index of their first occurrence
+     * @throws SnippetException if the keywords are invalid
+     */
+    public AhoCorasick(List<String> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            throw SnippetException.validationError("Please provide at least one keyword");
+        }
+        this.keywords = List.copyOf(keywords);
+        this.lengths = new int[keywords.size()];
+
+        TreeSet<Character> chars = new TreeSet<>();
+        for (String keyword : this.keywords) {
+            if (keyword.isEmpty()) {
+                throw SnippetException.validationError("Keywords cannot be empty");
+            }
+            for (int i = 0; i < keyword.length(); i++) {
+                chars.add(keyword.charAt(i));
+            }
+        }
+        alphabet = new char[chars.size()];
+        int column = 0;
+        for (char c : chars) {
+            alphabet[column++] = c;
+            if (c < asciiColumns.length) {
+                asciiColumns[c] = column;
+            }
+        }
+        width = alphabet.length + 1;
+
+        // The trie: children by state, and the keyword ending at each state
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> terminal = new ArrayList<>();
+        children.add(new HashMap<>());
+        terminal.add(-1);
+        for (int k = 0; k < this.keywords.size(); k++) {
+            String keyword = this.keywords.get(k);
+            lengths[k] = keyword.length();
+            int state = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer child = children.get(state).get(keyword.charAt(i));
+                if (child == null) {
+                    child = children.size();
+                    children.get(state).put(keyword.charAt(i), child);
+                    children.add(new HashMap<>());
+                    terminal.add(-1);
+                }
+                state = child;
+            }
+            if (terminal.get(state) < 0) {
+                terminal.set(state, k);
+            }
+        }
+
+        // Breadth-first, so the failure target of a state is complete before the state
+        int states = children.size();
+        transitions = new int[states * width];
+        outputs = new int[states][];
+        int[] failure = new int[states];
+        outputs[0] = NONE;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int c = 1; c < width; c++) {
+                Integer child = children.get(state).get(alphabet[c - 1]);
+                int fallback = state == 0 ? 0 : transitions[failure[state] * width + c];
+                if (child == null) {
+                    transitions[state * width + c] = fallback;
+                    continue;
+                }
+                transitions[state * width + c] = child;
+                failure[child] = fallback;
+                int own = terminal.get(child);
+                int[] inherited = outputs[fallback];
+                if (own < 0) {
+                    outputs[child] = inherited;
+                } else {
+                    int[] merged = new int[inherited.length + 1];
+                    merged[0] = own;
+                    System.arraycopy(inherited, 0, merged, 1, inherited.length);
+                    outputs[child] = merged;
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Gets the keywords.
+     *
+     * @return an unmodifiable list of the keywords, in the order given to the constructor
+     */
+    public List<String> getKeywords() {
+        return keywords;
+    }
+
+    /**
+     * Reports every occurrence of the keywords in a text.
+     *
+     * @param text the text to scan (may be null)
+     * @param listener receives each occurrence
+     */
+    public void find(CharSequence text, Listener listener) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + column(text.charAt(i))];
+            for (int keyword : outputs[state]) {
+                listener.onMatch(keyword, i - lengths[keyword] + 1);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a text contains any of the keywords, stopping at the first occurrence.
+     *
+     * @param text the text to scan (may be null)
+     * @return true if a keyword occurs in the text
+     */
+    public boolean containsAny(CharSequence text) {
+        if (text == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * width + column(text.charAt(i))];
+            if (outputs[state].length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the column of the transition table for a char.
+     *
+     * @param c the char
+     * @return the column, or 0 if no keyword contains the char
+     */
+    private int column(char c) {
+        if (c < asciiColumns.length) {
+            return asciiColumns[c];
+        }
+        int index = Arrays.binarySearch(alphabet, c);
+        return index >= 0 ? index + 1 : 0;
+    }
+}
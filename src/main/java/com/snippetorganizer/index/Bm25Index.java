@@ -0,0 +1,464 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Inverted index with term frequencies for relevance-ranked search.
+ *
+ * <p>Every term maps to a list of postings sorted by snippet ID. A posting stores how often
+ * the term occurs in each of the four fields: title, description, tags and code. Scores follow
+ * BM25F: the per-field frequencies are normalized by the field length, weighted by the field
+ * boost and summed, then saturated with {@code k1} and multiplied by the inverse document
+ * frequency of the term.</p>
+ *
+ * <p>Fields and queries are split into terms by a {@link CodeTokenizer}, so a search for
+ * {@code user} finds {@code getUserName} in code. The reserved words of the snippet's
+ * language are not indexed in the code field.</p>
+ *
+ * <p>A search walks the postings of the query terms in ID order, scores every snippet that
+ * contains at least one of them and keeps the best {@code k} in a bounded min-heap, so the
+ * cost is O(matches &middot; log k) and no per-snippet score table is allocated.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SearchHit
+ */
+public final class Bm25Index {
+
+    /** The number of indexed fields */
+    private static final int FIELDS = 4;
+
+    /** Index of the title field */
+    private static final int TITLE = 0;
+
+    /** Index of the description field */
+    private static final int DESCRIPTION = 1;
+
+    /** Index of the tags field */
+    private static final int TAGS = 2;
+
+    /** Index of the code field */
+    private static final int CODE = 3;
+
+    /** Term frequency saturation */
+    private static final double K1 = 1.2;
+
+    /** Strength of the field length normalization */
+    private static final double B = 0.75;
+
+    /** Default boost of a title match */
+    public static final double DEFAULT_TITLE_BOOST = 3.0;
+
+    /** Default boost of a description match */
+    public static final double DEFAULT_DESCRIPTION_BOOST = 1.5;
+
+    /** Default boost of a tag match */
+    public static final double DEFAULT_TAG_BOOST = 2.0;
+
+    /** Default boost of a code match */
+    public static final double DEFAULT_CODE_BOOST = 1.0;
+
+    /** The boost of each field */
+    private final double[] boosts;
+
+    /** Splits the fields and queries into terms */
+    private final CodeTokenizer tokenizer = new CodeTokenizer();
+
+    /** Postings by term */
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /** The distinct terms of every indexed snippet, by snippet ID */
+    private final Map<Integer, String[]> termsById = new HashMap<>();
+
+    /** The length in terms of each field of every indexed snippet, by snippet ID */
+    private final Map<Integer, int[]> lengthsById = new HashMap<>();
+
+    /** The summed length of each field over all indexed snippets */
+    private final long[] totalLengths = new long[FIELDS];
+
+    /**
+     * Constructs a new Bm25Index with the default field boosts.
+     */
+    public Bm25Index() {
+        this(DEFAULT_TITLE_BOOST, DEFAULT_DESCRIPTION_BOOST, DEFAULT_TAG_BOOST, DEFAULT_CODE_BOOST);
+    }
+
+    /**
+     * Constructs a new Bm25Index with custom field boosts.
+     *
+     * @param titleBoost the weight of title matches (must not be negative)
+     * @param descriptionBoost the weight of description matches (must not be negative)
+     * @param tagBoost the weight of tag matches (must not be negative)
+     * @param codeBoost the weight of code matches (must not be negative)
+     * @throws SnippetException if a boost is negative or not a number
+     */
+    public Bm25Index(double titleBoost, double descriptionBoost, double tagBoost, double codeBoost) {
+        this.boosts = new double[] {titleBoost, descriptionBoost, tagBoost, codeBoost};
+        for (double boost : boosts) {
+            if (!(boost >= 0) || Double.isInfinite(boost)) {
+                throw SnippetException.validationError("Field boosts must be finite and non-negative");
+            }
+        }
+    }
+
+    /**
+     * Indexes a snippet, replacing any earlier version with the same ID.
+     *
+     * @param snippet the snippet to index (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        remove(id);
+
+        Map<String, int[]> frequencies = new HashMap<>();
+        int[] lengths = new int[FIELDS];
+        lengths[TITLE] = count(frequencies, TITLE, snippet.getTitle(), null);
+        lengths[DESCRIPTION] = count(frequencies, DESCRIPTION, snippet.getDescription(), null);
+        for (String tag : snippet.getTags()) {
+            lengths[TAGS] += count(frequencies, TAGS, tag, null);
+        }
+        lengths[CODE] = count(frequencies, CODE, snippet.getCode(), snippet.getLanguage());
+
+        for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(id, entry.getValue());
+        }
+        termsById.put(id, frequencies.keySet().toArray(new String[0]));
+        lengthsById.put(id, lengths);
+        for (int field = 0; field < FIELDS; field++) {
+            totalLengths[field] += lengths[field];
+        }
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     * @return true if the snippet was indexed
+     */
+    public boolean remove(int id) {
+        String[] terms = termsById.remove(id);
+        if (terms == null) {
+            return false;
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        int[] lengths = lengthsById.remove(id);
+        for (int field = 0; field < FIELDS; field++) {
+            totalLengths[field] -= lengths[field];
+        }
+        return true;
+    }
+
+    /**
+     * Finds the snippets most relevant to a free-text query.
+     *
+     * @param query the query; split into terms like the indexed fields (must not be null)
+     * @param k the maximum number of hits (must be positive)
+     * @return at most {@code k} hits, best first; ties are broken by ascending ID
+     * @throws SnippetException if the query is null or k is not positive
+     */
+    public List<SearchHit> search(String query, int k) {
+        if (query == null) {
+            throw SnippetException.validationError("Query cannot be null");
+        }
+        if (k <= 0) {
+            throw SnippetException.validationError("Number of results must be positive");
+        }
+        Set<String> terms = new LinkedHashSet<>(tokenizer.tokenize(query, null));
+        List<Postings> lists = new ArrayList<>();
+        List<Double> idfs = new ArrayList<>();
+        int documents = termsById.size();
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list != null) {
+                lists.add(list);
+                idfs.add(Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5)));
+            }
+        }
+        if (lists.isEmpty()) {
+            return List.of();
+        }
+
+        double[] averageLengths = new double[FIELDS];
+        for (int field = 0; field < FIELDS; field++) {
+            averageLengths[field] = documents == 0 ? 1 : Math.max(1.0, (double) totalLengths[field] / documents);
+        }
+
+        TopK heap = new TopK(Math.min(k, documents));
+        int[] cursors = new int[lists.size()];
+        while (true) {
+            int id = Integer.MAX_VALUE;
+            for (int i = 0; i < cursors.length; i++) {
+                Postings list = lists.get(i);
+                if (cursors[i] < list.size && list.ids[cursors[i]] < id) {
+                    id = list.ids[cursors[i]];
+                }
+            }
+            if (id == Integer.MAX_VALUE) {
+                break;
+            }
+            int[] lengths = lengthsById.get(id);
+            double score = 0;
+            for (int i = 0; i < cursors.length; i++) {
+                Postings list = lists.get(i);
+                if (cursors[i] < list.size && list.ids[cursors[i]] == id) {
+                    double weight = 0;
+                    int base = cursors[i] * FIELDS;
+                    for (int field = 0; field < FIELDS; field++) {
+                        int tf = list.frequencies[base + field];
+                        if (tf > 0) {
+                            double norm = 1 - B + B * lengths[field] / averageLengths[field];
+                            weight += boosts[field] * tf / norm;
+                        }
+                    }
+                    score += idfs.get(i) * weight * (K1 + 1) / (weight + K1);
+                    cursors[i]++;
+                }
+            }
+            heap.offer(id, score);
+        }
+        return heap.drain();
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of indexed snippets
+     */
+    public int size() {
+        return termsById.size();
+    }
+
+    /**
+     * Gets the number of distinct terms in the index.
+     *
+     * @return the number of posting lists
+     */
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Removes every snippet from the index.
+     */
+    public void clear() {
+        postings.clear();
+        termsById.clear();
+        lengthsById.clear();
+        Arrays.fill(totalLengths, 0);
+    }
+
+    /**
+     * Adds the term frequencies of one field of a snippet.
+     *
+     * @param frequencies per-field frequencies by term, updated in place
+     * @param field the field index
+     * @param text the field text (may be null)
+     * @param language the language whose reserved words are left out, or null for prose
+     * @return the number of terms in the field
+     */
+    private int count(Map<String, int[]> frequencies, int field, String text, String language) {
+        int[] terms = {0};
+        tokenizer.tokenize(text, language, term -> {
+            frequencies.computeIfAbsent(term, key -> new int[FIELDS])[field]++;
+            terms[0]++;
+        });
+        return terms[0];
+    }
+
+    /**
+     * Postings of one term, sorted by snippet ID, with the per-field frequencies
+     * stored {@value #FIELDS} ints per posting.
+     */
+    private static final class Postings {
+
+        /** The snippet IDs, sorted ascending in the first {@code size} slots */
+        private int[] ids = new int[4];
+
+        /** The per-field frequencies, parallel to {@code ids} */
+        private int[] frequencies = new int[4 * FIELDS];
+
+        /** The number of postings */
+        private int size;
+
+        /**
+         * Adds a posting; the ID must not be present yet.
+         *
+         * @param id the snippet ID
+         * @param fieldFrequencies the frequency of the term in each field
+         */
+        void add(int id, int[] fieldFrequencies) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2 * FIELDS);
+            }
+            int insertAt = size == 0 || ids[size - 1] < id ? size : -Arrays.binarySearch(ids, 0, size, id) - 1;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(frequencies, insertAt * FIELDS, frequencies, (insertAt + 1) * FIELDS, (size - insertAt) * FIELDS);
+            ids[insertAt] = id;
+            System.arraycopy(fieldFrequencies, 0, frequencies, insertAt * FIELDS, FIELDS);
+            size++;
+        }
+
+        /**
+         * Removes the posting of a snippet.
+         *
+         * @param id the snippet ID
+         * @return true if a posting was removed
+         */
+        boolean remove(int id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(frequencies, (position + 1) * FIELDS, frequencies, position * FIELDS, (size - position - 1) * FIELDS);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Bounded min-heap keeping the {@code k} best scores seen so far.
+     */
+    private static final class TopK {
+
+        /** The IDs in heap order */
+        private final int[] ids;
+
+        /** The scores in heap order; the root is the worst kept hit */
+        private final double[] scores;
+
+        /** The number of kept hits */
+        private int size;
+
+        /**
+         * Constructs a new heap.
+         *
+         * @param k the number of hits to keep
+         */
+        TopK(int k) {
+            ids = new int[k];
+            scores = new double[k];
+        }
+
+        /**
+         * Offers a hit, keeping it if it beats the worst kept hit.
+         *
+         * @param id the snippet ID
+         * @param score the score
+         */
+        void offer(int id, double score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (worse(ids[0], scores[0], id, score)) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        /**
+         * Removes every kept hit.
+         *
+         * @return the hits, best first
+         */
+        List<SearchHit> drain() {
+            SearchHit[] hits = new SearchHit[size];
+            while (size > 0) {
+                hits[size - 1] = new SearchHit(ids[0], scores[0]);
+                size--;
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            return List.of(hits);
+        }
+
+        /**
+         * Moves an entry up until its parent is not worse.
+         *
+         * @param index the entry
+         */
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!worse(ids[index], scores[index], ids[parent], scores[parent])) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        /**
+         * Moves an entry down until no child is worse.
+         *
+         * @param index the entry
+         */
+        private void siftDown(int index) {
+            while (true) {
+                int worst = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (worse(ids[child], scores[child], ids[worst], scores[worst])) {
+                        worst = child;
+                    }
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        /**
+         * Swaps two entries.
+         *
+         * @param a the first entry
+         * @param b the second entry
+         */
+        private void swap(int a, int b) {
+            int id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+
+        /**
+         * Compares two hits; a lower score is worse, and on equal scores the higher ID is worse.
+         *
+         * @param id the ID of the first hit
+         * @param score the score of the first hit
+         * @param otherId the ID of the second hit
+         * @param otherScore the score of the second hit
+         * @return true if the first hit ranks below the second
+         */
+        private static boolean worse(int id, double score, int otherId, double otherScore) {
+            return score < otherScore || (score == otherScore && id > otherId);
+        }
+    }
+}
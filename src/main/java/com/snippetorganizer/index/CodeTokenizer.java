@@ -0,0 +1,250 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Splits source code and prose into lowercased search terms.
+ *
+ * <p>A term is a run of letters, digits and underscores. An identifier made of several
+ * words yields the whole identifier and then each word: {@code getUserName} gives
+ * {@code getusername}, {@code get}, {@code user} and {@code name}, {@code MAX_RETRY_COUNT}
+ * gives {@code max_retry_count}, {@code max}, {@code retry} and {@code count}, and
+ * {@code HTTPServer} gives {@code httpserver}, {@code http} and {@code server}. Words break
+ * at underscores, before an uppercase letter that follows a lowercase letter or a digit, and
+ * before the last capital of an acronym followed by lowercase letters. Digits stay with the
+ * word before them, so {@code utf8} and {@code int32} are single words. Everything else is
+ * punctuation and separates terms.</p>
+ *
+ * <p>When the language of the text is known, its reserved words ({@code public},
+ * {@code return}, {@code def}, ...) are left out: they occur in nearly every snippet of the
+ * language and only inflate the index. Terms longer than {@value #MAX_TERM_LENGTH} chars,
+ * such as encoded blobs, are left out too.</p>
+ *
+ * <p>The tokenizer reads a {@link CharSequence} in place and folds case into a reusable
+ * buffer, so the only allocation per term is the resulting string. Not thread-safe; use one
+ * instance per thread or synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see Bm25Index
+ */
+public final class CodeTokenizer {
+
+    /** The longest term emitted */
+    public static final int MAX_TERM_LENGTH = 64;
+
+    /** The reserved words by lowercased language name and alias */
+    private static final Map<String, Set<String>> KEYWORDS;
+
+    /** The reserved words of every known language */
+    private static final Set<String> ALL_KEYWORDS;
+
+    static {
+        Set<String> java = words("abstract assert boolean break byte case catch char class const continue default do "
+            + "double else enum extends final finally float for goto if implements import instanceof int interface "
+            + "long native new package private protected public return short static strictfp super switch "
+            + "synchronized this throw throws transient try void volatile while var record yield true false null");
+        Set<String> python = words("and as assert async await break class continue def del elif else except false "
+            + "finally for from global if import in is lambda none nonlocal not or pass raise return true try while "
+            + "with yield self");
+        Set<String> javascript = words("async await break case catch class const continue debugger default delete do "
+            + "else export extends false finally for function if import in instanceof let new null return static "
+            + "super switch this throw true try typeof undefined var void while with yield interface type enum "
+            + "implements private protected public readonly");
+        Set<String> c = words("auto break case char const continue default do double else enum extern float for goto "
+            + "if inline int long register return short signed sizeof static struct switch typedef union unsigned "
+            + "void volatile while bool class delete false friend namespace new nullptr operator private protected "
+            + "public template this throw true try catch typename using virtual include define");
+        Set<String> csharp = words("abstract as base bool break byte case catch char class const continue decimal "
+            + "default delegate do double else enum event false finally float for foreach if in int interface "
+            + "internal is lock long namespace new null object out override private protected public readonly ref "
+            + "return sealed short static string struct switch this throw true try using var virtual void while");
+        Set<String> go = words("break case chan const continue default defer else fallthrough for func go goto if "
+            + "import interface map package range return select struct switch type var nil true false");
+        Set<String> rust = words("as break const continue crate else enum extern false fn for if impl in let loop "
+            + "match mod move mut pub ref return self static struct super trait true type unsafe use where while "
+            + "async await dyn");
+        KEYWORDS = Map.ofEntries(
+            Map.entry("java", java),
+            Map.entry("python", python), Map.entry("py", python),
+            Map.entry("javascript", javascript), Map.entry("js", javascript),
+            Map.entry("typescript", javascript), Map.entry("ts", javascript),
+            Map.entry("c", c), Map.entry("c++", c), Map.entry("cpp", c),
+            Map.entry("c#", csharp), Map.entry("csharp", csharp),
+            Map.entry("go", go), Map.entry("golang", go),
+            Map.entry("rust", rust));
+        Set<String> all = new HashSet<>();
+        KEYWORDS.values().forEach(all::addAll);
+        ALL_KEYWORDS = Set.copyOf(all);
+    }
+
+    /** The lowercased chars of the current identifier */
+    private final char[] buffer = new char[MAX_TERM_LENGTH];
+
+    /**
+     * Checks whether a word is reserved in any of the known languages.
+     *
+     * @param word the lowercased word
+     * @return true if some known language reserves the word
+     */
+    public static boolean isReservedWord(String word) {
+        return ALL_KEYWORDS.contains(word);
+    }
+
+    /**
+     * Splits text into terms.
+     *
+     * @param text the text (may be null)
+     * @param language the language of the text, whose reserved words are left out
+     *        (may be null for prose and queries)
+     * @return the terms in order of appearance
+     */
+    public List<String> tokenize(CharSequence text, String language) {
+        List<String> terms = new ArrayList<>();
+        tokenize(text, language, terms::add);
+        return terms;
+    }
+
+    /**
+     * Passes the terms of a text to a consumer without collecting them.
+     *
+     * @param text the text (may be null)
+     * @param language the language of the text, whose reserved words are left out
+     *        (may be null for prose and queries)
+     * @param sink receives each term in order of appearance
+     */
+    public void tokenize(CharSequence text, String language, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        Set<String> keywords = language != null ? KEYWORDS.getOrDefault(language.trim().toLowerCase(), Set.of()) : Set.of();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (!isTermChar(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && isTermChar(text.charAt(i))) {
+                i++;
+            }
+            identifier(text, start, i, keywords, sink);
+        }
+    }
+
+    /**
+     * Emits the terms of one identifier: the whole identifier unless it is a single plain
+     * word, then each of its words. Reserved words are only left out when they make up the
+     * whole identifier.
+     *
+     * @param text the text
+     * @param start the first index of the identifier
+     * @param end the index after the identifier
+     * @param keywords the reserved words to leave out
+     * @param sink receives the terms
+     */
+    private void identifier(CharSequence text, int start, int end, Set<String> keywords, Consumer<String> sink) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '_') {
+                inWord = false;
+            } else if (!inWord || isBoundary(text, i, end)) {
+                words++;
+                inWord = true;
+            }
+        }
+        if (words == 0) {
+            return;
+        }
+        boolean plain = words == 1 && text.charAt(start) != '_' && text.charAt(end - 1) != '_';
+        if (!plain) {
+            emit(text, start, end, Set.of(), sink);
+        }
+        Set<String> wordKeywords = words == 1 ? keywords : Set.of();
+        int wordStart = -1;
+        for (int i = start; i <= end; i++) {
+            if (wordStart >= 0 && (i == end || isBoundary(text, i, end))) {
+                emit(text, wordStart, i, wordKeywords, sink);
+                wordStart = -1;
+            }
+            if (wordStart < 0 && i < end && text.charAt(i) != '_') {
+                wordStart = i;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a word ends before an index of an identifier.
+     *
+     * @param text the text
+     * @param i the index of the char that may start a new word
+     * @param end the index after the identifier
+     * @return true at an underscore, a lowercase-or-digit to uppercase step, or the last
+     *         capital of an acronym followed by a lowercase letter
+     */
+    private static boolean isBoundary(CharSequence text, int i, int end) {
+        char c = text.charAt(i);
+        if (c == '_') {
+            return true;
+        }
+        if (!Character.isUpperCase(c)) {
+            return false;
+        }
+        char previous = text.charAt(i - 1);
+        if (Character.isLowerCase(previous) || Character.isDigit(previous)) {
+            return true;
+        }
+        return Character.isUpperCase(previous) && i + 1 < end && Character.isLowerCase(text.charAt(i + 1));
+    }
+
+    /**
+     * Lowercases a range into the buffer and emits it unless it is too long or a reserved word.
+     *
+     * @param text the text
+     * @param start the first index of the term
+     * @param end the index after the term
+     * @param keywords the reserved words to leave out
+     * @param sink receives the term
+     */
+    private void emit(CharSequence text, int start, int end, Set<String> keywords, Consumer<String> sink) {
+        int length = end - start;
+        if (length > MAX_TERM_LENGTH) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            buffer[i] = Character.toLowerCase(text.charAt(start + i));
+        }
+        String term = new String(buffer, 0, length);
+        if (!keywords.contains(term)) {
+            sink.accept(term);
+        }
+    }
+
+    /**
+     * Checks whether a char belongs to a term.
+     *
+     * @param c the char
+     * @return true for letters, digits and underscores
+     */
+    private static boolean isTermChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    /**
+     * Builds a set of reserved words.
+     *
+     * @param words the words separated by spaces
+     * @return an unmodifiable set of the words
+     */
+    private static Set<String> words(String words) {
+        return Set.copyOf(Arrays.asList(words.split(" ")));
+    }
+}
@@ -0,0 +1,207 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Prefix completion of tags, titles and languages, ranked by how many snippets use them.
+ *
+ * <p>Each field has its own {@link TermTrie} keyed by the lowercased value: the tags, the
+ * whole title and the language. A completion descends to the prefix and then expands the
+ * branches with the most used terms first, so asking for the top few completions touches
+ * only a handful of nodes. Completions are returned in the spelling most recently indexed,
+ * so {@code jav} completes to {@code Java} rather than {@code java}.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see TermTrie
+ */
+public final class CompletionIndex {
+
+    /**
+     * The fields that can be completed.
+     */
+    public enum Field {
+        /** The whole title */
+        TITLE,
+        /** The tags */
+        TAG,
+        /** The language */
+        LANGUAGE
+    }
+
+    /**
+     * A completion with the number of snippets using it.
+     */
+    public static final class Completion {
+
+        /** The completed value */
+        private final String value;
+
+        /** The number of snippets using the value */
+        private final int snippetCount;
+
+        /**
+         * Constructs a new Completion.
+         *
+         * @param value the completed value
+         * @param snippetCount the number of snippets using the value
+         */
+        Completion(String value, int snippetCount) {
+            this.value = value;
+            this.snippetCount = snippetCount;
+        }
+
+        /**
+         * Gets the completed value.
+         *
+         * @return the value
+         */
+        public String getValue() {
+            return value;
+        }
+
+        /**
+         * Gets the number of snippets using the value.
+         *
+         * @return the number of snippets
+         */
+        public int getSnippetCount() {
+            return snippetCount;
+        }
+
+        @Override
+        public String toString() {
+            return value + " (" + snippetCount + ")";
+        }
+    }
+
+    /** The dictionary of each field */
+    private final Map<Field, TermTrie> tries = new EnumMap<>(Field.class);
+
+    /** The displayed spelling of each lowercased value, per field */
+    private final Map<Field, Map<String, String>> spellings = new EnumMap<>(Field.class);
+
+    /** The values of every indexed snippet, per field, by snippet ID */
+    private final Map<Integer, String[][]> valuesById = new HashMap<>();
+
+    /**
+     * Constructs a new empty CompletionIndex.
+     */
+    public CompletionIndex() {
+        for (Field field : Field.values()) {
+            tries.put(field, new TermTrie());
+            spellings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Indexes a snippet, replacing any earlier version with the same ID.
+     *
+     * @param snippet the snippet to index (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        remove(id);
+        String[][] values = new String[Field.values().length][];
+        values[Field.TITLE.ordinal()] = new String[] {snippet.getTitle()};
+        values[Field.TAG.ordinal()] = snippet.getTags().toArray(new String[0]);
+        values[Field.LANGUAGE.ordinal()] = new String[] {snippet.getLanguage()};
+        for (Field field : Field.values()) {
+            TermTrie trie = tries.get(field);
+            Map<String, String> spelling = spellings.get(field);
+            for (String value : values[field.ordinal()]) {
+                String key = value.toLowerCase();
+                trie.add(key, id);
+                spelling.put(key, value);
+            }
+        }
+        valuesById.put(id, values);
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     * @return true if the snippet was indexed
+     */
+    public boolean remove(int id) {
+        String[][] values = valuesById.remove(id);
+        if (values == null) {
+            return false;
+        }
+        for (Field field : Field.values()) {
+            TermTrie trie = tries.get(field);
+            for (String value : values[field.ordinal()]) {
+                String key = value.toLowerCase();
+                trie.remove(key, id);
+                if (!trie.contains(key)) {
+                    spellings.get(field).remove(key);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the most used values of a field that start with a prefix, ignoring case.
+     *
+     * @param field the field to complete (must not be null)
+     * @param prefix the typed prefix (must not be null; empty lists the most used values)
+     * @param limit the maximum number of completions (must be positive)
+     * @return at most {@code limit} completions, by descending snippet count and then alphabetically
+     * @throws SnippetException if an argument is invalid
+     */
+    public List<Completion> complete(Field field, String prefix, int limit) {
+        if (field == null) {
+            throw SnippetException.validationError("Field cannot be null");
+        }
+        if (prefix == null) {
+            throw SnippetException.validationError("Prefix cannot be null");
+        }
+        if (limit <= 0) {
+            throw SnippetException.validationError("Number of completions must be positive");
+        }
+        Map<String, String> spelling = spellings.get(field);
+        List<Completion> completions = new ArrayList<>();
+        for (TermTrie.Match match : tries.get(field).complete(prefix.toLowerCase(), limit)) {
+            completions.add(new Completion(spelling.getOrDefault(match.term, match.term), match.ids.cardinality()));
+        }
+        return completions;
+    }
+
+    /**
+     * Gets the number of distinct values of a field.
+     *
+     * @param field the field (must not be null)
+     * @return the number of values
+     * @throws SnippetException if the field is null
+     */
+    public int getValueCount(Field field) {
+        if (field == null) {
+            throw SnippetException.validationError("Field cannot be null");
+        }
+        return tries.get(field).size();
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of indexed snippets
+     */
+    public int size() {
+        return valuesById.size();
+    }
+}
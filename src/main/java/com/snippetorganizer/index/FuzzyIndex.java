@@ -0,0 +1,248 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Typo-tolerant lookup of the words of titles, the tags and the languages of snippets.
+ *
+ * <p>Each field has its own {@link TermTrie} of lowercased terms: every word of a title,
+ * every tag as a whole and the language as a whole. Lookups accept terms within a
+ * Levenshtein distance of up to {@value #MAX_DISTANCE}, so {@code javscript} still finds
+ * {@code javascript} and {@code concurency} finds {@code concurrency}.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see TermTrie
+ */
+public final class FuzzyIndex {
+
+    /** The largest supported edit distance */
+    public static final int MAX_DISTANCE = 2;
+
+    /**
+     * The fields a fuzzy lookup can target.
+     */
+    public enum Field {
+        /** The words of the title */
+        TITLE,
+        /** The tags */
+        TAG,
+        /** The language */
+        LANGUAGE
+    }
+
+    /**
+     * A term of the index close to a looked-up term.
+     */
+    public static final class Suggestion {
+
+        /** The indexed term */
+        private final String term;
+
+        /** The Levenshtein distance from the looked-up term */
+        private final int distance;
+
+        /** The number of snippets containing the term */
+        private final int snippetCount;
+
+        /**
+         * Constructs a new Suggestion.
+         *
+         * @param term the indexed term
+         * @param distance the distance from the looked-up term
+         * @param snippetCount the number of snippets containing the term
+         */
+        Suggestion(String term, int distance, int snippetCount) {
+            this.term = term;
+            this.distance = distance;
+            this.snippetCount = snippetCount;
+        }
+
+        /**
+         * Gets the indexed term.
+         *
+         * @return the term
+         */
+        public String getTerm() {
+            return term;
+        }
+
+        /**
+         * Gets the Levenshtein distance from the looked-up term.
+         *
+         * @return the distance
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        /**
+         * Gets the number of snippets containing the term.
+         *
+         * @return the number of snippets
+         */
+        public int getSnippetCount() {
+            return snippetCount;
+        }
+
+        @Override
+        public String toString() {
+            return term;
+        }
+    }
+
+    /** The term dictionary of each field */
+    private final Map<Field, TermTrie> tries = new EnumMap<>(Field.class);
+
+    /** Splits titles into words */
+    private final CodeTokenizer tokenizer = new CodeTokenizer();
+
+    /** The terms of every indexed snippet, per field, by snippet ID */
+    private final Map<Integer, String[][]> termsById = new HashMap<>();
+
+    /**
+     * Constructs a new empty FuzzyIndex.
+     */
+    public FuzzyIndex() {
+        for (Field field : Field.values()) {
+            tries.put(field, new TermTrie());
+        }
+    }
+
+    /**
+     * Indexes a snippet, replacing any earlier version with the same ID.
+     *
+     * @param snippet the snippet to index (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        remove(id);
+        String[][] terms = new String[Field.values().length][];
+        terms[Field.TITLE.ordinal()] = tokenizer.tokenize(snippet.getTitle(), null).stream().distinct().toArray(String[]::new);
+        terms[Field.TAG.ordinal()] = snippet.getTags().stream().map(String::toLowerCase).distinct().toArray(String[]::new);
+        terms[Field.LANGUAGE.ordinal()] = new String[] {snippet.getLanguage().toLowerCase()};
+        for (Field field : Field.values()) {
+            TermTrie trie = tries.get(field);
+            for (String term : terms[field.ordinal()]) {
+                trie.add(term, id);
+            }
+        }
+        termsById.put(id, terms);
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     * @return true if the snippet was indexed
+     */
+    public boolean remove(int id) {
+        String[][] terms = termsById.remove(id);
+        if (terms == null) {
+            return false;
+        }
+        for (Field field : Field.values()) {
+            TermTrie trie = tries.get(field);
+            for (String term : terms[field.ordinal()]) {
+                trie.remove(term, id);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the snippets having a term close to the given one in a field.
+     *
+     * @param field the field to look in (must not be null)
+     * @param term the term, compared lowercased (must not be null)
+     * @param maxDistance the largest accepted edit distance (0 to {@value #MAX_DISTANCE})
+     * @return a new bitmap with the IDs of the matching snippets
+     * @throws SnippetException if an argument is invalid
+     */
+    public IdBitmap find(Field field, String term, int maxDistance) {
+        IdBitmap result = new IdBitmap();
+        for (TermTrie.Match match : search(field, term, maxDistance)) {
+            result.addAll(match.ids);
+        }
+        return result;
+    }
+
+    /**
+     * Lists the indexed terms of a field close to the given one.
+     *
+     * @param field the field to look in (must not be null)
+     * @param term the term, compared lowercased (must not be null)
+     * @param maxDistance the largest accepted edit distance (0 to {@value #MAX_DISTANCE})
+     * @return the close terms, nearest first, then by descending snippet count and term
+     * @throws SnippetException if an argument is invalid
+     */
+    public List<Suggestion> suggest(Field field, String term, int maxDistance) {
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (TermTrie.Match match : search(field, term, maxDistance)) {
+            suggestions.add(new Suggestion(match.term, match.distance, match.ids.cardinality()));
+        }
+        suggestions.sort(Comparator.comparingInt(Suggestion::getDistance)
+            .thenComparing(Comparator.comparingInt(Suggestion::getSnippetCount).reversed())
+            .thenComparing(Suggestion::getTerm));
+        return suggestions;
+    }
+
+    /**
+     * Gets the number of distinct terms of a field.
+     *
+     * @param field the field (must not be null)
+     * @return the number of terms
+     * @throws SnippetException if the field is null
+     */
+    public int getTermCount(Field field) {
+        if (field == null) {
+            throw SnippetException.validationError("Field cannot be null");
+        }
+        return tries.get(field).size();
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of indexed snippets
+     */
+    public int size() {
+        return termsById.size();
+    }
+
+    /**
+     * Validates the arguments of a lookup and searches the trie of the field.
+     *
+     * @param field the field
+     * @param term the term
+     * @param maxDistance the largest accepted distance
+     * @return the matching terms
+     * @throws SnippetException if an argument is invalid
+     */
+    private List<TermTrie.Match> search(Field field, String term, int maxDistance) {
+        if (field == null) {
+            throw SnippetException.validationError("Field cannot be null");
+        }
+        if (term == null) {
+            throw SnippetException.validationError("Term cannot be null");
+        }
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw SnippetException.validationError("Edit distance must be between 0 and " + MAX_DISTANCE);
+        }
+        return tries.get(field).search(term.trim().toLowerCase(), maxDistance);
+    }
+}
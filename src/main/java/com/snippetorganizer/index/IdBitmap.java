@@ -0,0 +1,625 @@
+package com.snippetorganizer.index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Compressed set of snippet IDs in the style of a roaring bitmap.
+ *
+ * <p>IDs are split into a 16-bit high part, which selects a chunk, and a 16-bit low part
+ * stored in that chunk's container. A container holds a sorted char array while it has at
+ * most {@value #ARRAY_LIMIT} values and switches to a 65536-bit bitmap above that, so sparse
+ * tags cost two bytes per snippet and dense ones at most one bit. Intersections, unions
+ * and differences work container by container and never look at the snippets themselves.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see TagIndex
+ */
+public final class IdBitmap {
+
+    /** The largest number of values kept in an array container */
+    private static final int ARRAY_LIMIT = 4096;
+
+    /** The number of longs in a bitmap container */
+    private static final int BITMAP_WORDS = 1 << 10;
+
+    /** The high parts of the chunks, sorted ascending in the first {@code size} slots */
+    private char[] keys = new char[4];
+
+    /** The containers of the chunks, parallel to {@code keys} */
+    private Container[] containers = new Container[4];
+
+    /** The number of chunks */
+    private int size;
+
+    /**
+     * Constructs a new empty IdBitmap.
+     */
+    public IdBitmap() {
+    }
+
+    /**
+     * Adds an ID.
+     *
+     * @param id the ID to add (must be non-negative)
+     * @return true if the ID was not present before
+     * @throws SnippetException if the ID is negative
+     */
+    public boolean add(int id) {
+        checkId(id);
+        char high = (char) (id >>> 16);
+        int position = Arrays.binarySearch(keys, 0, size, high);
+        if (position < 0) {
+            position = -position - 1;
+            insertChunk(position, high, new Container());
+        }
+        return containers[position].add((char) id);
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id the ID to remove
+     * @return true if the ID was present
+     */
+    public boolean remove(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int position = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        if (position < 0 || !containers[position].remove((char) id)) {
+            return false;
+        }
+        if (containers[position].cardinality == 0) {
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            System.arraycopy(containers, position + 1, containers, position, size - position - 1);
+            containers[--size] = null;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an ID is present.
+     *
+     * @param id the ID to look for
+     * @return true if the ID is present
+     */
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int position = Arrays.binarySearch(keys, 0, size, (char) (id >>> 16));
+        return position >= 0 && containers[position].contains((char) id);
+    }
+
+    /**
+     * Finds the smallest ID that is at least the given one. Seeking costs a binary search
+     * over the chunks and one within a chunk, however far into the set it starts.
+     *
+     * @param from the smallest acceptable ID
+     * @return the smallest present ID not below {@code from}, or -1 if there is none
+     */
+    public int next(int from) {
+        int start = Math.max(0, from);
+        int position = Arrays.binarySearch(keys, 0, size, (char) (start >>> 16));
+        if (position >= 0) {
+            int low = containers[position].next(start & 0xFFFF);
+            if (low >= 0) {
+                return keys[position] << 16 | low;
+            }
+            position++;
+        } else {
+            position = -position - 1;
+        }
+        return position < size ? keys[position] << 16 | containers[position].next(0) : -1;
+    }
+
+    /**
+     * Gets the number of IDs.
+     *
+     * @return the number of IDs in the set
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+
+    /**
+     * Checks whether the set is empty.
+     *
+     * @return true if no ID is present
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Passes every ID to the consumer in ascending order.
+     *
+     * @param consumer receives each ID (must not be null)
+     * @throws SnippetException if the consumer is null
+     */
+    public void forEach(IntConsumer consumer) {
+        if (consumer == null) {
+            throw SnippetException.validationError("Consumer cannot be null");
+        }
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    /**
+     * Copies the IDs into a new array.
+     *
+     * @return the IDs in ascending order
+     */
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] count = {0};
+        forEach(id -> result[count[0]++] = id);
+        return result;
+    }
+
+    /**
+     * Creates an independent copy of this set.
+     *
+     * @return a new bitmap with the same IDs
+     */
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(4, size));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Adds every ID of another set to this one, chunk by chunk. Chunks missing here are
+     * copied and matching chunks are merged container to container, so repeated unions into
+     * one accumulator do not copy it each time.
+     *
+     * @param other the set to add (must not be null)
+     * @throws SnippetException if the set is null
+     */
+    public void addAll(IdBitmap other) {
+        checkNotNull(this, other);
+        for (int j = 0; j < other.size; j++) {
+            int position = Arrays.binarySearch(keys, 0, size, other.keys[j]);
+            if (position < 0) {
+                insertChunk(-position - 1, other.keys[j], other.containers[j].copy());
+            } else {
+                containers[position].or(other.containers[j]);
+            }
+        }
+    }
+
+    /**
+     * Computes the IDs present in both sets.
+     *
+     * @param first the first set (must not be null)
+     * @param second the second set (must not be null)
+     * @return a new bitmap with the common IDs
+     * @throws SnippetException if a set is null
+     */
+    public static IdBitmap and(IdBitmap first, IdBitmap second) {
+        checkNotNull(first, second);
+        IdBitmap result = new IdBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < first.size && j < second.size) {
+            if (first.keys[i] < second.keys[j]) {
+                i++;
+            } else if (first.keys[i] > second.keys[j]) {
+                j++;
+            } else {
+                Container common = first.containers[i].and(second.containers[j]);
+                if (common.cardinality > 0) {
+                    result.insertChunk(result.size, first.keys[i], common);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Computes the IDs present in either set.
+     *
+     * @param first the first set (must not be null)
+     * @param second the second set (must not be null)
+     * @return a new bitmap with the IDs of both sets
+     * @throws SnippetException if a set is null
+     */
+    public static IdBitmap or(IdBitmap first, IdBitmap second) {
+        checkNotNull(first, second);
+        IdBitmap result = first.copy();
+        result.addAll(second);
+        return result;
+    }
+
+    /**
+     * Computes the IDs present in the first set but not in the second.
+     *
+     * @param first the set to subtract from (must not be null)
+     * @param second the set to subtract (must not be null)
+     * @return a new bitmap with the remaining IDs
+     * @throws SnippetException if a set is null
+     */
+    public static IdBitmap andNot(IdBitmap first, IdBitmap second) {
+        checkNotNull(first, second);
+        IdBitmap result = new IdBitmap();
+        int j = 0;
+        for (int i = 0; i < first.size; i++) {
+            while (j < second.size && second.keys[j] < first.keys[i]) {
+                j++;
+            }
+            Container remaining = j < second.size && second.keys[j] == first.keys[i]
+                ? first.containers[i].andNot(second.containers[j]) : first.containers[i].copy();
+            if (remaining.cardinality > 0) {
+                result.insertChunk(result.size, first.keys[i], remaining);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Inserts a chunk at a position, growing the arrays when they are full.
+     *
+     * @param position the position of the chunk in the sorted keys
+     * @param high the high part of the chunk
+     * @param container the container of the chunk
+     */
+    private void insertChunk(int position, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(containers, position, containers, position + 1, size - position);
+        keys[position] = high;
+        containers[position] = container;
+        size++;
+    }
+
+    /**
+     * Rejects negative IDs.
+     *
+     * @param id the ID to check
+     * @throws SnippetException if the ID is negative
+     */
+    private static void checkId(int id) {
+        if (id < 0) {
+            throw SnippetException.validationError("ID cannot be negative: " + id);
+        }
+    }
+
+    /**
+     * Rejects null operands of a set operation.
+     *
+     * @param first the first operand
+     * @param second the second operand
+     * @throws SnippetException if an operand is null
+     */
+    private static void checkNotNull(IdBitmap first, IdBitmap second) {
+        if (first == null || second == null) {
+            throw SnippetException.validationError("Bitmap cannot be null");
+        }
+    }
+
+    /**
+     * The low parts of the IDs of one chunk, either as a sorted array or as a bitmap.
+     */
+    private static final class Container {
+
+        /** The sorted values while the container is an array, otherwise null */
+        private char[] values = new char[4];
+
+        /** The bits while the container is a bitmap, otherwise null */
+        private long[] bits;
+
+        /** The number of values */
+        private int cardinality;
+
+        /**
+         * Adds a value.
+         *
+         * @param value the value
+         * @return true if the value was added
+         */
+        boolean add(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) != 0) {
+                    return false;
+                }
+                bits[value >>> 6] |= mask;
+                cardinality++;
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                toBitmap();
+                return add(value);
+            }
+            int insertAt = -position - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, cardinality * 2));
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+            values[insertAt] = value;
+            cardinality++;
+            return true;
+        }
+
+        /**
+         * Removes a value.
+         *
+         * @param value the value
+         * @return true if the value was removed
+         */
+        boolean remove(char value) {
+            if (bits != null) {
+                long mask = 1L << value;
+                if ((bits[value >>> 6] & mask) == 0) {
+                    return false;
+                }
+                bits[value >>> 6] &= ~mask;
+                if (--cardinality == ARRAY_LIMIT) {
+                    toArrayContainer();
+                }
+                return true;
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, value);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+            cardinality--;
+            return true;
+        }
+
+        /**
+         * Checks whether a value is present.
+         *
+         * @param value the value
+         * @return true if the value is present
+         */
+        boolean contains(char value) {
+            if (bits != null) {
+                return (bits[value >>> 6] & (1L << value)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        /**
+         * Finds the smallest value that is at least the given one.
+         *
+         * @param from the smallest acceptable value, between 0 and 65535
+         * @return the value, or -1 if there is none
+         */
+        int next(int from) {
+            if (bits != null) {
+                int word = from >>> 6;
+                long remaining = bits[word] & (-1L << from);
+                while (remaining == 0) {
+                    if (++word == BITMAP_WORDS) {
+                        return -1;
+                    }
+                    remaining = bits[word];
+                }
+                return word << 6 | Long.numberOfTrailingZeros(remaining);
+            }
+            int position = Arrays.binarySearch(values, 0, cardinality, (char) from);
+            if (position < 0) {
+                position = -position - 1;
+            }
+            return position < cardinality ? values[position] : -1;
+        }
+
+        /**
+         * Passes every value, combined with the high part of the chunk, to the consumer.
+         *
+         * @param base the high part shifted into place
+         * @param consumer receives each ID
+         */
+        void forEach(int base, IntConsumer consumer) {
+            if (bits != null) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    long remaining = bits[word];
+                    while (remaining != 0) {
+                        consumer.accept(base | (word << 6) | Long.numberOfTrailingZeros(remaining));
+                        remaining &= remaining - 1;
+                    }
+                }
+                return;
+            }
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        /**
+         * Computes the values present in both containers.
+         *
+         * @param other the other container
+         * @return a new container with the common values
+         */
+        Container and(Container other) {
+            Container result = new Container();
+            if (bits != null && other.bits != null) {
+                result.bits = new long[BITMAP_WORDS];
+                result.values = null;
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    result.bits[word] = bits[word] & other.bits[word];
+                    result.cardinality += Long.bitCount(result.bits[word]);
+                }
+                if (result.cardinality <= ARRAY_LIMIT) {
+                    result.toArrayContainer();
+                }
+                return result;
+            }
+            Container array = bits == null ? this : other;
+            Container probe = array == this ? other : this;
+            result.values = new char[Math.max(1, array.cardinality)];
+            for (int i = 0; i < array.cardinality; i++) {
+                if (probe.contains(array.values[i])) {
+                    result.values[result.cardinality++] = array.values[i];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Adds the values of another container to this one.
+         *
+         * @param other the other container
+         */
+        void or(Container other) {
+            if (bits == null && other.bits == null && cardinality + other.cardinality <= ARRAY_LIMIT) {
+                char[] merged = new char[Math.max(4, cardinality + other.cardinality)];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < other.cardinality) {
+                    char a = values[i];
+                    char b = other.values[j];
+                    merged[count++] = a <= b ? a : b;
+                    if (a <= b) {
+                        i++;
+                    }
+                    if (b <= a) {
+                        j++;
+                    }
+                }
+                while (i < cardinality) {
+                    merged[count++] = values[i++];
+                }
+                while (j < other.cardinality) {
+                    merged[count++] = other.values[j++];
+                }
+                values = merged;
+                cardinality = count;
+                return;
+            }
+            if (bits == null) {
+                toBitmap();
+            }
+            if (other.bits != null) {
+                cardinality = 0;
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    bits[word] |= other.bits[word];
+                    cardinality += Long.bitCount(bits[word]);
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    char value = other.values[i];
+                    long mask = 1L << value;
+                    if ((bits[value >>> 6] & mask) == 0) {
+                        bits[value >>> 6] |= mask;
+                        cardinality++;
+                    }
+                }
+            }
+            if (cardinality <= ARRAY_LIMIT) {
+                toArrayContainer();
+            }
+        }
+
+        /**
+         * Computes the values of this container missing from another.
+         *
+         * @param other the other container
+         * @return a new container with the remaining values
+         */
+        Container andNot(Container other) {
+            Container result = new Container();
+            if (bits == null) {
+                result.values = new char[Math.max(1, cardinality)];
+                for (int i = 0; i < cardinality; i++) {
+                    if (!other.contains(values[i])) {
+                        result.values[result.cardinality++] = values[i];
+                    }
+                }
+                return result;
+            }
+            result.bits = bits.clone();
+            result.values = null;
+            if (other.bits != null) {
+                for (int word = 0; word < BITMAP_WORDS; word++) {
+                    result.bits[word] &= ~other.bits[word];
+                    result.cardinality += Long.bitCount(result.bits[word]);
+                }
+            } else {
+                result.cardinality = cardinality;
+                for (int i = 0; i < other.cardinality; i++) {
+                    char value = other.values[i];
+                    long mask = 1L << value;
+                    if ((result.bits[value >>> 6] & mask) != 0) {
+                        result.bits[value >>> 6] &= ~mask;
+                        result.cardinality--;
+                    }
+                }
+            }
+            if (result.cardinality <= ARRAY_LIMIT) {
+                result.toArrayContainer();
+            }
+            return result;
+        }
+
+        /**
+         * Creates an independent copy of this container.
+         *
+         * @return the copy
+         */
+        Container copy() {
+            Container copy = new Container();
+            copy.values = values != null ? values.clone() : null;
+            copy.bits = bits != null ? bits.clone() : null;
+            copy.cardinality = cardinality;
+            return copy;
+        }
+
+        /**
+         * Switches from the sorted array to the bitmap representation.
+         */
+        private void toBitmap() {
+            bits = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            values = null;
+        }
+
+        /**
+         * Switches from the bitmap to the sorted array representation.
+         */
+        private void toArrayContainer() {
+            char[] array = new char[Math.max(1, cardinality)];
+            int count = 0;
+            for (int word = 0; word < BITMAP_WORDS; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    array[count++] = (char) ((word << 6) | Long.numberOfTrailingZeros(remaining));
+                    remaining &= remaining - 1;
+                }
+            }
+            values = array;
+            bits = null;
+        }
+    }
+}
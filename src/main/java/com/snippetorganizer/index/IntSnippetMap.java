@@ -0,0 +1,268 @@
+package com.snippetorganizer.index;
+
+import java.util.function.Consumer;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Hash map from snippet ID to snippet, keyed by primitive ints.
+ *
+ * <p>Keys and values live in two parallel arrays with open addressing and linear probing,
+ * so a lookup hashes the key once and usually touches a single slot without boxing the ID.
+ * A slot is free when its value is null. Removal shifts the following entries of the probe
+ * run back instead of leaving tombstones, so lookups never slow down after many deletions.
+ * The table doubles once it is half full.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see Snippet
+ */
+public final class IntSnippetMap {
+
+    /** The smallest table capacity */
+    private static final int MIN_CAPACITY = 16;
+
+    /** Multiplier of the Fibonacci hash */
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+
+    /** The keys of the occupied slots */
+    private int[] keys;
+
+    /** The values of the slots (null for free slots) */
+    private Snippet[] values;
+
+    /** The number of entries */
+    private int size;
+
+    /** The right shift turning a 32-bit hash into a slot index */
+    private int shift;
+
+    /**
+     * Constructs a new empty IntSnippetMap.
+     */
+    public IntSnippetMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Constructs a new IntSnippetMap sized for the expected number of entries.
+     *
+     * @param expectedSize the number of entries to hold without resizing (must not be negative)
+     * @throws SnippetException if the expected size is negative
+     */
+    public IntSnippetMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw SnippetException.validationError("Expected size cannot be negative");
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Gets the snippet stored under an ID.
+     *
+     * @param id the snippet ID
+     * @return the snippet, or null if there is none
+     */
+    public Snippet get(int id) {
+        int mask = keys.length - 1;
+        for (int slot = slotOf(id); values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == id) {
+                return values[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether an ID is present.
+     *
+     * @param id the snippet ID
+     * @return true if a snippet is stored under the ID
+     */
+    public boolean containsKey(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Stores a snippet under its ID.
+     *
+     * @param snippet the snippet to store (must not be null)
+     * @return the snippet previously stored under the same ID, or null
+     * @throws SnippetException if the snippet is null
+     */
+    public Snippet put(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        int mask = keys.length - 1;
+        int slot = slotOf(id);
+        while (values[slot] != null) {
+            if (keys[slot] == id) {
+                Snippet previous = values[slot];
+                values[slot] = snippet;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = id;
+        values[slot] = snippet;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the snippet stored under an ID.
+     *
+     * @param id the snippet ID
+     * @return the removed snippet, or null if there was none
+     */
+    public Snippet remove(int id) {
+        int mask = keys.length - 1;
+        int slot = slotOf(id);
+        while (values[slot] != null) {
+            if (keys[slot] == id) {
+                Snippet removed = values[slot];
+                shiftBack(slot);
+                size--;
+                return removed;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of stored snippets
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return true if no snippet is stored
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry and shrinks the table back to its minimum size.
+     */
+    public void clear() {
+        allocate(MIN_CAPACITY);
+        size = 0;
+    }
+
+    /**
+     * Passes every stored snippet to the consumer, in no particular order.
+     *
+     * @param consumer receives each snippet (must not be null)
+     * @throws SnippetException if the consumer is null
+     */
+    public void forEach(Consumer<Snippet> consumer) {
+        if (consumer == null) {
+            throw SnippetException.validationError("Consumer cannot be null");
+        }
+        for (Snippet value : values) {
+            if (value != null) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Closes the gap left by a removed entry by moving later entries of the same
+     * probe run back into it.
+     *
+     * @param gap the slot of the removed entry
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                break;
+            }
+            int home = slotOf(keys[slot]);
+            // Move the entry only if its home slot is not between the gap and its current slot
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        values[gap] = null;
+    }
+
+    /**
+     * Computes the home slot of a key.
+     *
+     * @param id the key
+     * @return the slot index
+     */
+    private int slotOf(int id) {
+        return (id * GOLDEN_RATIO) >>> shift;
+    }
+
+    /**
+     * Moves every entry into a table of the given capacity.
+     *
+     * @param capacity the new capacity (a power of two)
+     */
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Snippet[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates empty arrays of the given capacity.
+     *
+     * @param capacity the capacity (a power of two)
+     */
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Snippet[capacity];
+        shift = Integer.numberOfLeadingZeros(capacity - 1);
+    }
+
+    /**
+     * Computes the table capacity for an expected number of entries.
+     *
+     * @param expectedSize the expected number of entries
+     * @return a power of two at least twice the expected size
+     * @throws SnippetException if the size cannot be represented
+     */
+    private static int tableSizeFor(int expectedSize) {
+        if (expectedSize > 1 << 29) {
+            throw SnippetException.validationError("Expected size is too large: " + expectedSize);
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
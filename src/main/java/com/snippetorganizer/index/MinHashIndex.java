@@ -0,0 +1,408 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Finds snippets with nearly the same code using MinHash signatures and locality-sensitive
+ * hashing, without comparing every pair of snippets.
+ *
+ * <p>The code of a snippet is lowercased and runs of whitespace are collapsed to one space.
+ * Each identifier (a word that no language known to {@link CodeTokenizer} reserves) is
+ * replaced by one placeholder char that encodes how many
+ * identifiers back the same name last occurred, or that it is new, so consistently renaming
+ * a variable leaves the text unchanged while the data flow between names is kept. Every
+ * {@value #SHINGLE_LENGTH}-char substring (shingle) of the result is hashed. The signature
+ * keeps the minimum of each of {@value #SIGNATURE_LENGTH} hash functions over the shingles;
+ * the share of equal positions in two signatures estimates the Jaccard similarity of their
+ * shingle sets. Reformatting, renaming or a small local edit in a copy changes only the
+ * shingles around the change.</p>
+ *
+ * <p>The signature is cut into {@value #BANDS} bands of {@value #ROWS} values, and each band
+ * is hashed into a bucket. Snippets sharing any bucket are candidates, verified with the
+ * signature estimate. A pair with similarity {@code s} shares a bucket with probability
+ * {@code 1 - (1 - s^4)^32}: about 87% at 0.5, 99.97% at 0.7 and more above, so thresholds
+ * below 0.5 may miss pairs.</p>
+ *
+ * <p>Signatures only depend on the code, so re-adding a snippet whose code did not change
+ * costs a lookup. Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ */
+public final class MinHashIndex {
+
+    /** The number of chars in a shingle */
+    public static final int SHINGLE_LENGTH = 5;
+
+    /** The number of hash functions, and values in a signature */
+    public static final int SIGNATURE_LENGTH = 128;
+
+    /** The number of LSH bands */
+    public static final int BANDS = 32;
+
+    /** The number of signature values per band */
+    public static final int ROWS = SIGNATURE_LENGTH / BANDS;
+
+    /** The placeholder of an identifier seen for the first time; repeats count up from it */
+    private static final char IDENTIFIER = '\uE000';
+
+    /** The largest back-reference distance told apart by identifier placeholders */
+    private static final int MAX_IDENTIFIER_DISTANCE = 255;
+
+    /** The seed of each hash function, fixed so signatures are reproducible */
+    private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < SEEDS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix(state);
+        }
+    }
+
+    /**
+     * The signature of an indexed snippet with the code it was computed from.
+     */
+    private static final class Entry {
+
+        /** The code */
+        private final String code;
+
+        /** The MinHash signature of the code */
+        private final int[] signature;
+
+        /**
+         * Constructs a new Entry.
+         *
+         * @param code the code
+         * @param signature the MinHash signature of the code
+         */
+        private Entry(String code, int[] signature) {
+            this.code = code;
+            this.signature = signature;
+        }
+    }
+
+    /** The snippet IDs by band bucket */
+    private final Map<Long, PostingList> buckets = new HashMap<>();
+
+    /** The signatures by snippet ID */
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    /**
+     * Adds a snippet to the index, replacing its previous version. The signature is only
+     * recomputed if the code changed.
+     *
+     * @param snippet the snippet to add (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        Entry previous = entries.get(id);
+        if (previous != null && previous.code.equals(snippet.getCode())) {
+            return;
+        }
+        remove(id);
+        int[] signature = signature(snippet.getCode());
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bucket(signature, band), key -> new PostingList()).add(id);
+        }
+        entries.put(id, new Entry(snippet.getCode(), signature));
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     */
+    public void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bucket(entry.signature, band);
+            PostingList ids = buckets.get(key);
+            if (ids != null && ids.remove(id) && ids.size() == 0) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Finds the snippets whose code is similar to the code of an indexed snippet.
+     *
+     * @param id the ID of the snippet
+     * @param threshold the minimum estimated similarity, above 0 and at most 1
+     * @return the similar snippets other than the snippet itself, most similar first, then
+     *         by ID; empty if the snippet is not indexed
+     * @throws SnippetException if the threshold is out of range
+     */
+    public List<SearchHit> findSimilar(int id, double threshold) {
+        checkThreshold(threshold);
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return List.of();
+        }
+        Set<Integer> seen = new HashSet<>();
+        List<SearchHit> hits = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            PostingList ids = buckets.get(bucket(entry.signature, band));
+            for (int i = 0; i < ids.size(); i++) {
+                int candidate = ids.get(i);
+                if (candidate != id && seen.add(candidate)) {
+                    double similarity = similarity(entry.signature, entries.get(candidate).signature);
+                    if (similarity >= threshold) {
+                        hits.add(new SearchHit(candidate, similarity));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed().thenComparingInt(SearchHit::getId));
+        return hits;
+    }
+
+    /**
+     * Groups the indexed snippets into clusters of near-duplicates. Two snippets sharing a
+     * bucket are linked when their estimated similarity reaches the threshold, and clusters
+     * are the connected groups, so a cluster may chain snippets that are each similar to
+     * the next. Every pair within a bucket is considered, so the result does not depend on
+     * the order snippets were added in; pairs already in one cluster are not compared again,
+     * which keeps a bucket of many copies close to linear in comparisons.
+     *
+     * @param threshold the minimum estimated similarity of a link, above 0 and at most 1
+     * @return the clusters of two or more snippet IDs, each ascending, largest first and
+     *         then by smallest ID
+     * @throws SnippetException if the threshold is out of range
+     */
+    public List<int[]> clusters(double threshold) {
+        checkThreshold(threshold);
+        Map<Integer, Integer> parents = new HashMap<>();
+        for (PostingList ids : buckets.values()) {
+            if (ids.size() < 2) {
+                continue;
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                int[] signature = entries.get(ids.get(i)).signature;
+                for (int j = i + 1; j < ids.size(); j++) {
+                    if (find(parents, ids.get(i)) != find(parents, ids.get(j))
+                            && similarity(signature, entries.get(ids.get(j)).signature) >= threshold) {
+                        union(parents, ids.get(i), ids.get(j));
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int id : parents.keySet()) {
+            groups.computeIfAbsent(find(parents, id), root -> new ArrayList<>()).add(id);
+        }
+        List<int[]> clusters = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            int[] ids = group.stream().mapToInt(Integer::intValue).sorted().toArray();
+            clusters.add(ids);
+        }
+        clusters.sort(Comparator.<int[]>comparingInt(ids -> -ids.length).thenComparingInt(ids -> ids[0]));
+        return clusters;
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of snippets
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Computes the MinHash signature of a text.
+     *
+     * @param text the text (must not be null)
+     * @return {@value #SIGNATURE_LENGTH} minimum hash values
+     */
+    public static int[] signature(CharSequence text) {
+        long[] shingles = shingles(text);
+        int[] signature = new int[SIGNATURE_LENGTH];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+                int hash = (int) (mix(shingle ^ SEEDS[i]) >>> 32);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the shingles behind two signatures.
+     *
+     * @param first a signature
+     * @param second another signature
+     * @return the share of equal positions, between 0 and 1
+     */
+    public static double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_LENGTH;
+    }
+
+    /**
+     * Hashes the distinct shingles of a text, lowercased with whitespace runs collapsed and
+     * identifiers replaced by placeholders. A text shorter than a shingle is a single shingle.
+     *
+     * @param text the text
+     * @return the distinct shingle hashes
+     */
+    private static long[] shingles(CharSequence text) {
+        // Placeholders and reserved words are never longer than the words they replace
+        char[] normalized = new char[text.length()];
+        int length = 0;
+        Map<String, Integer> lastSeen = new HashMap<>();
+        int identifiers = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (c == '_' || Character.isLetter(c)) {
+                int end = i + 1;
+                while (end < text.length() && (text.charAt(end) == '_' || Character.isLetterOrDigit(text.charAt(end)))) {
+                    end++;
+                }
+                String word = text.subSequence(i, end).toString().toLowerCase();
+                if (CodeTokenizer.isReservedWord(word)) {
+                    word.getChars(0, word.length(), normalized, length);
+                    length += word.length();
+                } else {
+                    Integer previous = lastSeen.put(word, identifiers);
+                    int distance = previous == null ? 0 : Math.min(identifiers - previous, MAX_IDENTIFIER_DISTANCE);
+                    normalized[length++] = (char) (IDENTIFIER + distance);
+                    identifiers++;
+                }
+                i = end - 1;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (length == 0 || normalized[length - 1] == ' ') {
+                    continue;
+                }
+                c = ' ';
+            }
+            normalized[length++] = c;
+        }
+        if (length > 0 && normalized[length - 1] == ' ') {
+            length--;
+        }
+        int span = Math.min(SHINGLE_LENGTH, length);
+        long[] hashes = new long[Math.max(1, length - span + 1)];
+        for (int start = 0; start < hashes.length; start++) {
+            long hash = 0;
+            for (int i = start; i < start + span; i++) {
+                hash = hash * 31 + normalized[i];
+            }
+            hashes[start] = mix(hash);
+        }
+        Arrays.sort(hashes);
+        int distinct = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            if (i == 0 || hashes[i] != hashes[i - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+        return Arrays.copyOf(hashes, distinct);
+    }
+
+    /**
+     * Gets the bucket of a band of a signature. Buckets of different bands share one map;
+     * the band number is part of the key.
+     *
+     * @param signature the signature
+     * @param band the band number
+     * @return the bucket key
+     */
+    private static long bucket(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            hash = hash * 0x100000001B3L + signature[i];
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Scrambles the bits of a value (the SplitMix64 finalizer).
+     *
+     * @param value the value
+     * @return the scrambled value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * Finds the root of a snippet in the union-find forest, compressing the path.
+     *
+     * @param parents the parent of each linked snippet
+     * @param id the snippet ID
+     * @return the root ID
+     */
+    private static int find(Map<Integer, Integer> parents, int id) {
+        int root = id;
+        while (parents.getOrDefault(root, root) != root) {
+            root = parents.get(root);
+        }
+        while (id != root) {
+            int next = parents.get(id);
+            parents.put(id, root);
+            id = next;
+        }
+        return root;
+    }
+
+    /**
+     * Links two snippets into one cluster.
+     *
+     * @param parents the parent of each linked snippet
+     * @param first a snippet ID
+     * @param second another snippet ID
+     */
+    private static void union(Map<Integer, Integer> parents, int first, int second) {
+        parents.putIfAbsent(first, first);
+        parents.putIfAbsent(second, second);
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot) {
+            parents.put(Math.max(firstRoot, secondRoot), Math.min(firstRoot, secondRoot));
+        }
+    }
+
+    /**
+     * Checks that a similarity threshold is in range.
+     *
+     * @param threshold the threshold
+     * @throws SnippetException if the threshold is not above 0 and at most 1
+     */
+    private static void checkThreshold(double threshold) {
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw SnippetException.validationError("Similarity threshold must be above 0 and at most 1");
+        }
+    }
+}
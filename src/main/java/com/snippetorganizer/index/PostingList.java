@@ -0,0 +1,112 @@
+package com.snippetorganizer.index;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of snippet IDs backed by a growable int array.
+ *
+ * <p>Snippet IDs are allocated in increasing order, so adding the newest snippet is an
+ * append; older IDs are inserted with a binary search. Membership tests are binary searches.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see TrigramIndex
+ */
+final class PostingList {
+
+    /** The initial capacity of a list */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /** The IDs, sorted ascending in the first {@code size} slots */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    /** The number of IDs */
+    private int size;
+
+    /**
+     * Adds an ID if it is not already present.
+     *
+     * @param id the ID to add
+     * @return true if the ID was added
+     */
+    boolean add(int id) {
+        if (size == 0 || ids[size - 1] < id) {
+            ensureCapacity();
+            ids[size++] = id;
+            return true;
+        }
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertAt = -position - 1;
+        ensureCapacity();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes an ID if it is present.
+     *
+     * @param id the ID to remove
+     * @return true if the ID was removed
+     */
+    boolean remove(int id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Checks whether an ID is present.
+     *
+     * @param id the ID to look for
+     * @return true if the ID is present
+     */
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * Gets the number of IDs.
+     *
+     * @return the number of IDs
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the ID at a position.
+     *
+     * @param index the position (0 to size() - 1)
+     * @return the ID at that position
+     */
+    int get(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Copies the IDs into a new array.
+     *
+     * @return the IDs in ascending order
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Grows the backing array when it is full.
+     */
+    private void ensureCapacity() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
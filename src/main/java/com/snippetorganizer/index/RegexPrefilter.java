@@ -0,0 +1,459 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Narrows a regular expression search down with the {@link TrigramIndex}.
+ *
+ * <p>The pattern is scanned for literal runs that every match must contain. For example
+ * {@code Thread\.sleep\(\d+\)} requires {@code thread.sleep(} and {@code old(api|API)call}
+ * requires {@code old} and {@code call}. A top-level alternation requires the literals of
+ * one of its branches. Only snippets containing every trigram of a required literal can
+ * match, so the candidates are the intersection of those posting lists, and the regex is
+ * then run on the candidates only.</p>
+ *
+ * <p>The extraction is conservative: anything it does not understand, such as groups,
+ * classes, back-references or the {@link Pattern#COMMENTS} flag, simply ends the current
+ * literal run. When a pattern, or one branch of it, requires no literal of at least three
+ * chars, every snippet is a candidate.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see TrigramIndex
+ */
+public final class RegexPrefilter {
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private RegexPrefilter() {
+    }
+
+    /**
+     * Finds the snippets that may contain a match of a pattern in one of their indexed fields.
+     *
+     * @param index the trigram index to consult (must not be null)
+     * @param pattern the compiled pattern (must not be null)
+     * @return the candidate IDs in ascending order, or null if every snippet is a candidate
+     * @throws SnippetException if an argument is null
+     */
+    public static int[] candidates(TrigramIndex index, Pattern pattern) {
+        if (index == null || pattern == null) {
+            throw SnippetException.validationError("Index and pattern cannot be null");
+        }
+        List<List<String>> branches = requiredLiterals(pattern);
+        if (branches == null) {
+            return null;
+        }
+        int[] result = new int[0];
+        for (List<String> literals : branches) {
+            int[] branch = null;
+            for (String literal : literals) {
+                int[] ids = index.candidates(literal.toLowerCase());
+                branch = branch == null ? ids : intersect(branch, ids);
+            }
+            result = union(result, branch);
+        }
+        return result;
+    }
+
+    /**
+     * Extracts the literals that every match of a pattern must contain.
+     *
+     * @param pattern the compiled pattern (must not be null)
+     * @return one list of required literals per top-level branch, each literal at least
+     *         {@value TrigramIndex#GRAM_LENGTH} chars long, or null if some branch requires none
+     * @throws SnippetException if the pattern is null
+     */
+    public static List<List<String>> requiredLiterals(Pattern pattern) {
+        if (pattern == null) {
+            throw SnippetException.validationError("Pattern cannot be null");
+        }
+        String regex = pattern.pattern();
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return regex.length() >= TrigramIndex.GRAM_LENGTH ? List.of(List.of(regex)) : null;
+        }
+        if ((pattern.flags() & Pattern.COMMENTS) != 0 || hasInlineComments(regex)) {
+            return null;
+        }
+        List<List<String>> branches = new ArrayList<>();
+        for (String branch : splitTopLevel(regex)) {
+            List<String> literals = literalsOf(branch);
+            if (literals.isEmpty()) {
+                return null;
+            }
+            branches.add(literals);
+        }
+        return branches;
+    }
+
+    /**
+     * Splits a pattern at its top-level alternation bars.
+     *
+     * @param regex the pattern
+     * @return the branches
+     */
+    private static List<String> splitTopLevel(String regex) {
+        List<String> branches = new ArrayList<>();
+        int depth = 0;
+        boolean inClass = false;
+        int start = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i) - 1;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                branches.add(regex.substring(start, i));
+                start = i + 1;
+            }
+        }
+        branches.add(regex.substring(start));
+        return branches;
+    }
+
+    /**
+     * Collects the literal runs of at least three chars of a branch without top-level alternation.
+     *
+     * @param branch the branch
+     * @return the required literals
+     */
+    private static List<String> literalsOf(String branch) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < branch.length()) {
+            char c = branch.charAt(i);
+            // Each atom is either a single literal char or something opaque
+            int atomStart = run.length();
+            boolean literal = false;
+            int next;
+            if (c == '\\') {
+                if (i + 1 >= branch.length()) {
+                    break;
+                }
+                char escaped = branch.charAt(i + 1);
+                if (escaped == 'Q') {
+                    int end = branch.indexOf("\\E", i + 2);
+                    String quoted = end < 0 ? branch.substring(i + 2) : branch.substring(i + 2, end);
+                    next = end < 0 ? branch.length() : end + 2;
+                    if (!quoted.isEmpty() && !isQuantifier(branch, next)) {
+                        run.append(quoted);
+                        i = next;
+                        continue;
+                    }
+                    run.append(quoted, 0, Math.max(0, quoted.length() - 1));
+                    atomStart = run.length();
+                    if (!quoted.isEmpty()) {
+                        run.append(quoted.charAt(quoted.length() - 1));
+                        literal = true;
+                    }
+                } else if (Character.isLetterOrDigit(escaped)) {
+                    // Classes, code points, back-references and the like, with their arguments
+                    next = skipEscape(branch, i);
+                } else {
+                    next = i + 2;
+                    run.append(escaped);
+                    literal = true;
+                }
+            } else if (c == '[') {
+                next = skipClass(branch, i);
+            } else if (c == '(') {
+                next = skipGroup(branch, i);
+            } else if (".^$|)*+?{".indexOf(c) >= 0) {
+                next = i + 1;
+            } else {
+                run.append(c);
+                literal = true;
+                next = i + 1;
+            }
+
+            if (!literal) {
+                flush(run, literals);
+                i = isQuantifier(branch, next) ? skipQuantifier(branch, next) : next;
+                continue;
+            }
+            if (next < branch.length()) {
+                char quantifier = branch.charAt(next);
+                if (quantifier == '*' || quantifier == '?' || (quantifier == '{' && minimumRepeat(branch, next) == 0)) {
+                    // The atom is optional: drop it and end the run
+                    run.setLength(atomStart);
+                    flush(run, literals);
+                    next = skipQuantifier(branch, next);
+                } else if (quantifier == '+' || quantifier == '{') {
+                    // The atom occurs at least once, but what follows may be another copy of it
+                    flush(run, literals);
+                    next = skipQuantifier(branch, next);
+                }
+            }
+            i = next;
+        }
+        flush(run, literals);
+        return literals;
+    }
+
+    /**
+     * Ends a literal run, keeping it if it is long enough to have a trigram.
+     *
+     * @param run the current run, cleared afterwards
+     * @param literals collects the kept runs
+     */
+    private static void flush(StringBuilder run, List<String> literals) {
+        if (run.length() >= TrigramIndex.GRAM_LENGTH) {
+            literals.add(run.toString());
+        }
+        run.setLength(0);
+    }
+
+    /**
+     * Checks whether a quantifier starts at a position.
+     *
+     * @param regex the pattern
+     * @param position the position
+     * @return true for {@code *}, {@code +}, {@code ?} and {@code {}
+     */
+    private static boolean isQuantifier(String regex, int position) {
+        return position < regex.length() && "*+?{".indexOf(regex.charAt(position)) >= 0;
+    }
+
+    /**
+     * Reads the minimum repetition count of a {@code {n,m}} quantifier.
+     *
+     * @param regex the pattern
+     * @param position the position of the opening brace
+     * @return the minimum count, or 0 if it cannot be read
+     */
+    private static int minimumRepeat(String regex, int position) {
+        int i = position + 1;
+        int value = 0;
+        boolean digits = false;
+        while (i < regex.length() && Character.isDigit(regex.charAt(i))) {
+            value = Math.min(1_000, value * 10 + (regex.charAt(i) - '0'));
+            digits = true;
+            i++;
+        }
+        return digits ? value : 0;
+    }
+
+    /**
+     * Skips a quantifier and its optional lazy or possessive suffix.
+     *
+     * @param regex the pattern
+     * @param position the position of the quantifier
+     * @return the position after it
+     */
+    private static int skipQuantifier(String regex, int position) {
+        int i = position;
+        if (regex.charAt(i) == '{') {
+            int end = regex.indexOf('}', i);
+            i = end < 0 ? regex.length() : end + 1;
+        } else {
+            i++;
+        }
+        if (i < regex.length() && (regex.charAt(i) == '?' || regex.charAt(i) == '+')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skips an escape sequence with its arguments: {@code \p{Alpha}}, {@code \x{1F600}},
+     * {@code \x41}, a {@code u} escape with four hex digits, {@code \0101}, {@code \cJ},
+     * {@code \k<name>}, {@code \N{name}}, a numbered back-reference or a {@code \Q...\E}
+     * quote. Any other escape, such as {@code \R} or {@code \d}, is two chars long.
+     *
+     * @param regex the pattern
+     * @param position the position of the backslash
+     * @return the position after the escape
+     */
+    private static int skipEscape(String regex, int position) {
+        int i = position + 1;
+        if (i >= regex.length()) {
+            return regex.length();
+        }
+        char escaped = regex.charAt(i);
+        switch (escaped) {
+            case 'Q': {
+                int end = regex.indexOf("\\E", i + 1);
+                return end < 0 ? regex.length() : end + 2;
+            }
+            case 'p':
+            case 'P':
+            case 'x':
+            case 'N':
+                if (regex.startsWith("{", i + 1)) {
+                    int end = regex.indexOf('}', i + 1);
+                    return end < 0 ? regex.length() : end + 1;
+                }
+                return Math.min(regex.length(), i + (escaped == 'x' ? 3 : escaped == 'N' ? 1 : 2));
+            case 'k':
+                if (regex.startsWith("<", i + 1)) {
+                    int end = regex.indexOf('>', i + 1);
+                    return end < 0 ? regex.length() : end + 1;
+                }
+                return i + 1;
+            case 'u':
+                return Math.min(regex.length(), i + 5);
+            case 'c':
+                return Math.min(regex.length(), i + 2);
+            case '0': {
+                // Up to three octal digits, the third only if the first is at most 3
+                int end = i + 1;
+                int max = end < regex.length() && regex.charAt(end) <= '3' ? 3 : 2;
+                while (end < regex.length() && end - i - 1 < max && regex.charAt(end) >= '0' && regex.charAt(end) <= '7') {
+                    end++;
+                }
+                return end;
+            }
+            default:
+                if (escaped >= '1' && escaped <= '9') {
+                    // A back-reference may take more digits; treating them all as part of it is safe
+                    int end = i + 1;
+                    while (end < regex.length() && Character.isDigit(regex.charAt(end))) {
+                        end++;
+                    }
+                    return end;
+                }
+                return i + 1;
+        }
+    }
+
+    /**
+     * Skips a character class, including nested classes.
+     *
+     * @param regex the pattern
+     * @param position the position of the opening bracket
+     * @return the position after the class
+     */
+    private static int skipClass(String regex, int position) {
+        int depth = 0;
+        for (int i = position; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i) - 1;
+            } else if (c == '[') {
+                depth++;
+                if (depth == 1 && i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * Skips a group, including nested groups and classes.
+     *
+     * @param regex the pattern
+     * @param position the position of the opening parenthesis
+     * @return the position after the group
+     */
+    private static int skipGroup(String regex, int position) {
+        int depth = 0;
+        for (int i = position; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i = skipEscape(regex, i) - 1;
+            } else if (c == '[') {
+                i = skipClass(regex, i) - 1;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return regex.length();
+    }
+
+    /**
+     * Checks whether a pattern turns on comments mode with an inline flag group such as {@code (?ix)}.
+     *
+     * @param regex the pattern
+     * @return true if an inline flag group contains {@code x}
+     */
+    private static boolean hasInlineComments(String regex) {
+        for (int i = regex.indexOf("(?"); i >= 0; i = regex.indexOf("(?", i + 2)) {
+            for (int j = i + 2; j < regex.length(); j++) {
+                char c = regex.charAt(j);
+                if (c == 'x') {
+                    return true;
+                }
+                if (!Character.isLetter(c) && c != '-') {
+                    break;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Intersects two sorted ID arrays.
+     *
+     * @param first the first array
+     * @param second the second array
+     * @return the common IDs in ascending order
+     */
+    private static int[] intersect(int[] first, int[] second) {
+        int[] result = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < first.length && j < second.length;) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Unites two sorted ID arrays.
+     *
+     * @param first the first array
+     * @param second the second array
+     * @return the IDs of both arrays in ascending order, without duplicates
+     */
+    private static int[] union(int[] first, int[] second) {
+        int[] result = new int[first.length + second.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length || j < second.length) {
+            int next;
+            if (j == second.length || (i < first.length && first[i] < second[j])) {
+                next = first[i++];
+            } else if (i == first.length || second[j] < first[i]) {
+                next = second[j++];
+            } else {
+                next = first[i++];
+                j++;
+            }
+            result[count++] = next;
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
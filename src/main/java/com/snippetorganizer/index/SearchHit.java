@@ -0,0 +1,51 @@
+package com.snippetorganizer.index;
+
+/**
+ * A snippet ID with its relevance score, as returned by {@link Bm25Index#search(String, int)}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see Bm25Index
+ */
+public final class SearchHit {
+
+    /** The ID of the snippet */
+    private final int id;
+
+    /** The relevance score of the snippet */
+    private final double score;
+
+    /**
+     * Constructs a new SearchHit.
+     *
+     * @param id the ID of the snippet
+     * @param score the relevance score of the snippet
+     */
+    public SearchHit(int id, double score) {
+        this.id = id;
+        this.score = score;
+    }
+
+    /**
+     * Gets the ID of the snippet.
+     *
+     * @return the snippet ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the relevance score of the snippet.
+     *
+     * @return the score; higher is more relevant
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit{id=" + id + ", score=" + String.format("%.4f", score) + "}";
+    }
+}
@@ -0,0 +1,195 @@
+package com.snippetorganizer.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Inverted index from tags to the IDs of the snippets carrying them.
+ *
+ * <p>Each tag maps to an {@link IdBitmap}, so looking up a tag, counting its snippets and
+ * intersecting several tags never touches the snippets. Tags are indexed as stored and
+ * looked up lowercased, exactly like {@link Snippet#hasTag(String)} compares them. The index
+ * remembers the tags of every snippet, which lets it unindex a snippet whose tags have
+ * already been changed in place.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see IdBitmap
+ */
+public final class TagIndex {
+
+    /** Snippet IDs by tag */
+    private final Map<String, IdBitmap> postings = new HashMap<>();
+
+    /** The tags of every indexed snippet, by snippet ID */
+    private final Map<Integer, String[]> tagsById = new HashMap<>();
+
+    /**
+     * Indexes the tags of a snippet, replacing any earlier version with the same ID.
+     *
+     * @param snippet the snippet to index (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        remove(id);
+        String[] tags = snippet.getTags().toArray(new String[0]);
+        for (String tag : tags) {
+            postings.computeIfAbsent(tag, key -> new IdBitmap()).add(id);
+        }
+        tagsById.put(id, tags);
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     * @return true if the snippet was indexed
+     */
+    public boolean remove(int id) {
+        String[] tags = tagsById.remove(id);
+        if (tags == null) {
+            return false;
+        }
+        for (String tag : tags) {
+            IdBitmap ids = postings.get(tag);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(tag);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the snippets carrying a tag.
+     *
+     * @param tag the tag, compared lowercased (must not be null)
+     * @return a new bitmap with the IDs of the snippets carrying the tag
+     * @throws SnippetException if the tag is null
+     */
+    public IdBitmap find(String tag) {
+        IdBitmap ids = postings.get(normalize(tag));
+        return ids != null ? ids.copy() : new IdBitmap();
+    }
+
+    /**
+     * Finds the smallest ID of a snippet carrying a tag that is at least the given one,
+     * without copying the tag's bitmap.
+     *
+     * @param tag the tag, compared lowercased (must not be null)
+     * @param from the smallest acceptable ID
+     * @return the ID, or -1 if there is none
+     * @throws SnippetException if the tag is null
+     */
+    public int next(String tag, int from) {
+        IdBitmap ids = postings.get(normalize(tag));
+        return ids != null ? ids.next(from) : -1;
+    }
+
+    /**
+     * Finds the snippets carrying every one of the given tags.
+     * The tags are intersected from the rarest to the most common.
+     *
+     * @param tags the tags, compared lowercased (must not be null or contain null)
+     * @return a new bitmap with the IDs of the snippets carrying all the tags; empty if no tag is given
+     * @throws SnippetException if the collection or one of the tags is null
+     */
+    public IdBitmap findAll(Collection<String> tags) {
+        if (tags == null) {
+            throw SnippetException.validationError("Tags cannot be null");
+        }
+        IdBitmap[] lists = new IdBitmap[tags.size()];
+        int count = 0;
+        for (String tag : tags) {
+            IdBitmap ids = postings.get(normalize(tag));
+            if (ids == null) {
+                return new IdBitmap();
+            }
+            lists[count++] = ids;
+        }
+        if (count == 0) {
+            return new IdBitmap();
+        }
+        Arrays.sort(lists, 0, count, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        IdBitmap result = lists[0].copy();
+        for (int i = 1; i < count && !result.isEmpty(); i++) {
+            result = IdBitmap.and(result, lists[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the snippets carrying a tag.
+     *
+     * @param tag the tag, compared lowercased (must not be null)
+     * @return the number of snippets carrying the tag
+     * @throws SnippetException if the tag is null
+     */
+    public int count(String tag) {
+        IdBitmap ids = postings.get(normalize(tag));
+        return ids != null ? ids.cardinality() : 0;
+    }
+
+    /**
+     * Gets every tag carried by at least one snippet.
+     *
+     * @return a new sorted set of the tags
+     */
+    public Set<String> getTags() {
+        return new TreeSet<>(postings.keySet());
+    }
+
+    /**
+     * Gets the number of snippets carrying each tag.
+     *
+     * @return a new map from tag to snippet count
+     */
+    public Map<String, Integer> getTagCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        postings.forEach((tag, ids) -> counts.put(tag, ids.cardinality()));
+        return counts;
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of indexed snippets
+     */
+    public int size() {
+        return tagsById.size();
+    }
+
+    /**
+     * Removes every snippet from the index.
+     */
+    public void clear() {
+        postings.clear();
+        tagsById.clear();
+    }
+
+    /**
+     * Lowercases a tag the same way {@link Snippet#hasTag(String)} does.
+     *
+     * @param tag the tag
+     * @return the lowercased tag
+     * @throws SnippetException if the tag is null
+     */
+    private static String normalize(String tag) {
+        if (tag == null) {
+            throw SnippetException.validationError("Tag cannot be null");
+        }
+        return tag.toLowerCase();
+    }
+}
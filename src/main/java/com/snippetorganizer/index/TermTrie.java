@@ -0,0 +1,370 @@
+package com.snippetorganizer.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Trie of terms, each carrying the IDs of the snippets it occurs in, that can be searched
+ * by Levenshtein distance.
+ *
+ * <p>A fuzzy search walks the trie depth first and keeps one row of the edit-distance
+ * matrix per level, so every shared prefix is computed once. A branch is abandoned as soon
+ * as the smallest value of its row exceeds the maximum distance, which confines a search
+ * with distance 1 or 2 to a thin band of the trie however many terms it holds.</p>
+ *
+ * <p>Every node also knows the largest number of snippets of any term below it. Prefix
+ * completion uses it to expand the most used branches first and stops after the requested
+ * number of terms, without visiting the rest of the subtree.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see FuzzyIndex
+ */
+final class TermTrie {
+
+    /** The root node, standing for the empty prefix */
+    private final Node root = new Node();
+
+    /** The number of distinct terms */
+    private int size;
+
+    /**
+     * Records that a term occurs in a snippet.
+     *
+     * @param term the term
+     * @param id the snippet ID
+     */
+    void add(String term, int id) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(term.charAt(i));
+        }
+        Node node = path[term.length()];
+        if (node.ids == null) {
+            node.ids = new IdBitmap();
+            size++;
+        }
+        if (node.ids.add(id)) {
+            int count = node.ids.cardinality();
+            for (Node step : path) {
+                step.best = Math.max(step.best, count);
+            }
+        }
+    }
+
+    /**
+     * Records that a term no longer occurs in a snippet, pruning nodes that become empty.
+     *
+     * @param term the term
+     * @param id the snippet ID
+     */
+    void remove(String term, int id) {
+        Node[] path = new Node[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].child(term.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node node = path[term.length()];
+        if (node.ids == null || !node.ids.remove(id)) {
+            return;
+        }
+        if (node.ids.isEmpty()) {
+            node.ids = null;
+            size--;
+        }
+        for (int i = term.length(); i >= 0; i--) {
+            if (i > 0 && path[i].ids == null && path[i].childCount == 0) {
+                path[i - 1].removeChild(term.charAt(i - 1));
+            } else {
+                path[i].updateBest();
+            }
+        }
+    }
+
+    /**
+     * Checks whether a term occurs in at least one snippet.
+     *
+     * @param term the term
+     * @return true if the term is present
+     */
+    boolean contains(String term) {
+        Node node = root;
+        for (int i = 0; i < term.length() && node != null; i++) {
+            node = node.child(term.charAt(i));
+        }
+        return node != null && node.ids != null;
+    }
+
+    /**
+     * Finds every term within a Levenshtein distance of a query.
+     *
+     * @param query the query term
+     * @param maxDistance the largest accepted distance
+     * @return the matching terms
+     */
+    List<Match> search(String query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        int[] firstRow = new int[query.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        if (root.ids != null && firstRow[query.length()] <= maxDistance) {
+            matches.add(new Match("", firstRow[query.length()], root.ids));
+        }
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < root.childCount; i++) {
+            search(root.children[i], root.keys[i], query, firstRow, maxDistance, prefix, matches);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds the most used terms starting with a prefix.
+     *
+     * @param prefix the prefix
+     * @param limit the maximum number of terms
+     * @return at most {@code limit} terms, by descending number of snippets and then alphabetically
+     */
+    List<Match> complete(String prefix, int limit) {
+        List<Match> completions = new ArrayList<>();
+        Node start = root;
+        for (int i = 0; i < prefix.length() && start != null; i++) {
+            start = start.child(prefix.charAt(i));
+        }
+        if (start == null || limit <= 0) {
+            return completions;
+        }
+        // Branches are ranked by the best term below them, terms by their own count;
+        // a term is only taken once no branch can contain a more used one
+        PriorityQueue<Candidate> queue = new PriorityQueue<>();
+        queue.add(new Candidate(start, prefix, start.best, false));
+        while (!queue.isEmpty() && completions.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node;
+            if (candidate.term) {
+                completions.add(new Match(candidate.text, 0, node.ids));
+                continue;
+            }
+            if (node.ids != null) {
+                queue.add(new Candidate(node, candidate.text, node.ids.cardinality(), true));
+            }
+            for (int i = 0; i < node.childCount; i++) {
+                queue.add(new Candidate(node.children[i], candidate.text + node.keys[i], node.children[i].best, false));
+            }
+        }
+        return completions;
+    }
+
+    /**
+     * Gets the number of distinct terms.
+     *
+     * @return the number of terms
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Continues a fuzzy search below a node.
+     *
+     * @param node the node reached by appending {@code c} to the prefix
+     * @param c the char leading to the node
+     * @param query the query term
+     * @param previousRow the edit-distance row of the parent
+     * @param maxDistance the largest accepted distance
+     * @param prefix the chars leading to the parent, restored before returning
+     * @param matches collects the matching terms
+     */
+    private static void search(Node node, char c, String query, int[] previousRow, int maxDistance,
+                               StringBuilder prefix, List<Match> matches) {
+        int columns = query.length() + 1;
+        int[] row = new int[columns];
+        row[0] = previousRow[0] + 1;
+        int smallest = row[0];
+        for (int i = 1; i < columns; i++) {
+            int substitution = previousRow[i - 1] + (query.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(Math.min(row[i - 1] + 1, previousRow[i] + 1), substitution);
+            smallest = Math.min(smallest, row[i]);
+        }
+        if (smallest > maxDistance) {
+            return;
+        }
+        prefix.append(c);
+        if (node.ids != null && row[columns - 1] <= maxDistance) {
+            matches.add(new Match(prefix.toString(), row[columns - 1], node.ids));
+        }
+        for (int i = 0; i < node.childCount; i++) {
+            search(node.children[i], node.keys[i], query, row, maxDistance, prefix, matches);
+        }
+        prefix.setLength(prefix.length() - 1);
+    }
+
+    /**
+     * A term found by a fuzzy search or a completion.
+     */
+    static final class Match {
+
+        /** The term */
+        final String term;
+
+        /** The Levenshtein distance from the query (0 for completions) */
+        final int distance;
+
+        /** The IDs of the snippets containing the term; owned by the trie */
+        final IdBitmap ids;
+
+        /**
+         * Constructs a new Match.
+         *
+         * @param term the term
+         * @param distance the distance from the query
+         * @param ids the IDs of the snippets containing the term
+         */
+        Match(String term, int distance, IdBitmap ids) {
+            this.term = term;
+            this.distance = distance;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * A branch or term waiting in the completion queue.
+     */
+    private static final class Candidate implements Comparable<Candidate> {
+
+        /** The node */
+        private final Node node;
+
+        /** The chars leading to the node */
+        private final String text;
+
+        /** The count of the term, or the best count below the branch */
+        private final int priority;
+
+        /** Whether this stands for the term ending at the node rather than the whole branch */
+        private final boolean term;
+
+        /**
+         * Constructs a new Candidate.
+         *
+         * @param node the node
+         * @param text the chars leading to the node
+         * @param priority the count of the term or the best count below the branch
+         * @param term true for the term ending at the node, false for the branch
+         */
+        Candidate(Node node, String text, int priority, boolean term) {
+            this.node = node;
+            this.text = text;
+            this.priority = priority;
+            this.term = term;
+        }
+
+        /**
+         * Orders by descending priority, then by text. A branch's text is a prefix of all
+         * its terms, so terms with equal counts come out alphabetically.
+         */
+        @Override
+        public int compareTo(Candidate other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            int byText = text.compareTo(other.text);
+            if (byText != 0) {
+                return byText;
+            }
+            return term == other.term ? 0 : term ? -1 : 1;
+        }
+    }
+
+    /**
+     * A trie node with its children sorted by char.
+     */
+    private static final class Node {
+
+        /** The chars leading to the children, sorted in the first {@code childCount} slots */
+        private char[] keys = new char[0];
+
+        /** The children, parallel to {@code keys} */
+        private Node[] children = new Node[0];
+
+        /** The number of children */
+        private int childCount;
+
+        /** The IDs of the snippets containing the term ending here, or null if no term ends here */
+        private IdBitmap ids;
+
+        /** The largest number of snippets of a term at or below this node */
+        private int best;
+
+        /**
+         * Recomputes the best count from the own term and the children.
+         */
+        void updateBest() {
+            int value = ids != null ? ids.cardinality() : 0;
+            for (int i = 0; i < childCount; i++) {
+                value = Math.max(value, children[i].best);
+            }
+            best = value;
+        }
+
+        /**
+         * Gets the child for a char.
+         *
+         * @param c the char
+         * @return the child, or null if there is none
+         */
+        Node child(char c) {
+            int position = Arrays.binarySearch(keys, 0, childCount, c);
+            return position >= 0 ? children[position] : null;
+        }
+
+        /**
+         * Gets the child for a char, creating it if needed.
+         *
+         * @param c the char
+         * @return the child
+         */
+        Node childOrCreate(char c) {
+            int position = Arrays.binarySearch(keys, 0, childCount, c);
+            if (position >= 0) {
+                return children[position];
+            }
+            int insertAt = -position - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertAt, keys, insertAt + 1, childCount - insertAt);
+            System.arraycopy(children, insertAt, children, insertAt + 1, childCount - insertAt);
+            Node child = new Node();
+            keys[insertAt] = c;
+            children[insertAt] = child;
+            childCount++;
+            return child;
+        }
+
+        /**
+         * Removes the child for a char.
+         *
+         * @param c the char
+         */
+        void removeChild(char c) {
+            int position = Arrays.binarySearch(keys, 0, childCount, c);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(keys, position + 1, keys, position, childCount - position - 1);
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            children[--childCount] = null;
+        }
+    }
+}
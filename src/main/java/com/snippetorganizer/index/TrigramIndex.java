@@ -0,0 +1,228 @@
+package com.snippetorganizer.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Inverted index from character trigrams to the snippets containing them.
+ *
+ * <p>Indexed text is exactly the text keyword search compares against: the lowercased
+ * title, code, language and description, and the tags as stored. Every keyword occurrence
+ * inside one of those fields contributes all of the keyword's trigrams to the snippet,
+ * so intersecting the posting lists of the keyword's trigrams yields a superset of the
+ * matching snippets. Callers verify the candidates with the exact comparison.</p>
+ *
+ * <p>A trigram is three UTF-16 chars packed into a long, so keys never collide. The index
+ * remembers the trigrams of every snippet, which lets it unindex a snippet that has
+ * already been modified in place.</p>
+ *
+ * <p>Not thread-safe; callers synchronize externally.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see PostingList
+ */
+public final class TrigramIndex {
+
+    /** The number of chars in a gram */
+    public static final int GRAM_LENGTH = 3;
+
+    /** Posting lists by packed trigram */
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    /** The distinct trigrams of every indexed snippet, sorted, by snippet ID */
+    private final Map<Integer, long[]> trigramsById = new HashMap<>();
+
+    /**
+     * Indexes a snippet, replacing any earlier version with the same ID.
+     *
+     * @param snippet the snippet to index (must not be null)
+     * @throws SnippetException if the snippet is null
+     */
+    public void add(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        int id = snippet.getId();
+        remove(id);
+        long[] trigrams = trigramsOf(snippet);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new PostingList()).add(id);
+        }
+        trigramsById.put(id, trigrams);
+    }
+
+    /**
+     * Removes a snippet from the index.
+     *
+     * @param id the ID of the snippet
+     * @return true if the snippet was indexed
+     */
+    public boolean remove(int id) {
+        long[] trigrams = trigramsById.remove(id);
+        if (trigrams == null) {
+            return false;
+        }
+        for (long trigram : trigrams) {
+            PostingList list = postings.get(trigram);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the snippets that may contain a keyword in one of their indexed fields.
+     *
+     * @param lowerKeyword the keyword, already lowercased like the indexed fields (must not be null)
+     * @return the IDs of the candidates in ascending order, or null if the keyword is shorter
+     *         than a trigram and every snippet is a candidate
+     * @throws SnippetException if the keyword is null
+     */
+    public int[] candidates(String lowerKeyword) {
+        if (lowerKeyword == null) {
+            throw SnippetException.validationError("Keyword cannot be null");
+        }
+        if (lowerKeyword.length() < GRAM_LENGTH) {
+            return null;
+        }
+        long[] grams = distinct(lowerKeyword);
+        PostingList[] lists = new PostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+        PostingList smallest = lists[0];
+        int[] result = new int[smallest.size()];
+        int count = 0;
+        for (int i = 0; i < smallest.size(); i++) {
+            int id = smallest.get(i);
+            boolean inAll = true;
+            for (int j = 1; j < lists.length && inAll; j++) {
+                inAll = lists[j].contains(id);
+            }
+            if (inAll) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Gets the number of indexed snippets.
+     *
+     * @return the number of indexed snippets
+     */
+    public int size() {
+        return trigramsById.size();
+    }
+
+    /**
+     * Gets the number of distinct trigrams in the index.
+     *
+     * @return the number of posting lists
+     */
+    public int getTrigramCount() {
+        return postings.size();
+    }
+
+    /**
+     * Removes every snippet from the index.
+     */
+    public void clear() {
+        postings.clear();
+        trigramsById.clear();
+    }
+
+    /**
+     * Extracts the distinct trigrams of the searchable fields of a snippet.
+     *
+     * @param snippet the snippet
+     * @return the distinct trigrams, sorted
+     */
+    private static long[] trigramsOf(Snippet snippet) {
+        long[][] buffer = {new long[64]};
+        int[] count = {0};
+        append(buffer, count, snippet.getFoldedTitle());
+        append(buffer, count, snippet.getFoldedCode());
+        append(buffer, count, snippet.getFoldedLanguage());
+        append(buffer, count, snippet.getFoldedDescription());
+        for (String tag : snippet.getTags()) {
+            append(buffer, count, tag);
+        }
+        return sortedUnique(buffer[0], count[0]);
+    }
+
+    /**
+     * Extracts the distinct trigrams of a single string.
+     *
+     * @param text the string
+     * @return the distinct trigrams, sorted
+     */
+    private static long[] distinct(String text) {
+        long[][] buffer = {new long[Math.max(1, text.length())]};
+        int[] count = {0};
+        append(buffer, count, text);
+        return sortedUnique(buffer[0], count[0]);
+    }
+
+    /**
+     * Appends every trigram of a string to a growable buffer.
+     *
+     * @param buffer single-element array holding the buffer
+     * @param count single-element array holding the number of used slots
+     * @param text the string (may be null)
+     */
+    private static void append(long[][] buffer, int[] count, String text) {
+        if (text == null || text.length() < GRAM_LENGTH) {
+            return;
+        }
+        int grams = text.length() - GRAM_LENGTH + 1;
+        if (count[0] + grams > buffer[0].length) {
+            buffer[0] = Arrays.copyOf(buffer[0], Math.max(buffer[0].length * 2, count[0] + grams));
+        }
+        long[] target = buffer[0];
+        for (int i = 0; i < grams; i++) {
+            target[count[0]++] = pack(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2));
+        }
+    }
+
+    /**
+     * Sorts the used part of a buffer and drops duplicates.
+     *
+     * @param values the buffer
+     * @param count the number of used slots
+     * @return a new array with the distinct values in ascending order
+     */
+    private static long[] sortedUnique(long[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || values[unique - 1] != values[i]) {
+                values[unique++] = values[i];
+            }
+        }
+        return Arrays.copyOf(values, unique);
+    }
+
+    /**
+     * Packs three chars into a trigram key.
+     *
+     * @param first the first char
+     * @param second the second char
+     * @param third the third char
+     * @return the packed trigram
+     */
+    private static long pack(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+}
@@ -0,0 +1,388 @@
+package com.snippetorganizer.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Crash-safe replacement of snapshot files.
+ *
+ * <p>A new generation is written to {@code <file>.tmp}, stamped with its CRC32C checksum,
+ * forced to disk and atomically renamed over the target. The generation it replaces is
+ * kept as {@code <file>.prev}, so a crash at any point leaves at least one intact copy.
+ * At startup {@link #resolve} verifies the checksum and falls back to the previous
+ * generation when the current one is torn, without parsing either of them.</p>
+ *
+ * <p>Binary snapshots carry the checksum in a footer appended after the payload. JSON
+ * snapshots keep it in a {@code <file>.crc32c} sidecar instead, so the snapshot itself
+ * stays a plain JSON array. A JSON snapshot without any sidecar (written by an older
+ * version or replaced by hand) is accepted as it is; a binary snapshot must end with its footer,
+ * since a missing footer is exactly what a truncated file looks like.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see JsonSnippetStore
+ * @see BinarySnapshot
+ */
+public final class AtomicSnapshotFile {
+
+    /** Suffix of the generation being written */
+    public static final String TEMP_SUFFIX = ".tmp";
+
+    /** Suffix of the previous generation */
+    public static final String PREVIOUS_SUFFIX = ".prev";
+
+    /** Suffix of the checksum sidecar */
+    public static final String CHECKSUM_SUFFIX = ".crc32c";
+
+    /** Size of the checksum footer: payload length (long) | CRC32C (int) | magic (int) */
+    public static final int FOOTER_SIZE = 16;
+
+    /** Magic number closing a checksum footer ("CRCF") */
+    private static final int FOOTER_MAGIC = 0x43524346;
+
+    /** The buffer size used to compute checksums */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Where the checksum of a snapshot is stored.
+     */
+    public enum Stamp {
+
+        /** In a footer appended to the file */
+        FOOTER,
+
+        /** In a sidecar file next to the snapshot */
+        SIDECAR
+    }
+
+    /**
+     * Writes the payload of a new snapshot generation.
+     */
+    @FunctionalInterface
+    public interface PayloadWriter {
+
+        /**
+         * Writes the complete payload to the given (empty) file.
+         *
+         * @param file the temporary file to write
+         * @throws IOException if writing fails
+         */
+        void writeTo(Path file) throws IOException;
+    }
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private AtomicSnapshotFile() {
+    }
+
+    /**
+     * Replaces a snapshot with a new generation.
+     * The current file becomes the previous generation if it verifies; a torn current file
+     * is simply replaced so that it never overwrites an intact previous generation.
+     *
+     * @param target the snapshot file (must not be null)
+     * @param stamp where the checksum is stored (must not be null)
+     * @param payload writes the new contents (must not be null)
+     * @throws SnippetException if the arguments are invalid or the snapshot cannot be written
+     */
+    public static void write(Path target, Stamp stamp, PayloadWriter payload) {
+        if (target == null || stamp == null || payload == null) {
+            throw SnippetException.validationError("Snapshot path, stamp and payload cannot be null");
+        }
+        Path temp = sibling(target, TEMP_SUFFIX);
+        Path previous = sibling(target, PREVIOUS_SUFFIX);
+        try {
+            Files.deleteIfExists(temp);
+            Files.deleteIfExists(checksumOf(temp));
+            payload.writeTo(temp);
+
+            long length;
+            int crc;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                length = channel.size();
+                crc = checksum(channel, length);
+                if (stamp == Stamp.FOOTER) {
+                    ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+                    footer.putLong(length).putInt(crc).putInt(FOOTER_MAGIC).flip();
+                    while (footer.hasRemaining()) {
+                        channel.write(footer, channel.size());
+                    }
+                }
+                channel.force(true);
+            }
+            if (stamp == Stamp.SIDECAR) {
+                writeSidecar(checksumOf(temp), length, crc);
+            }
+
+            if (Files.exists(target) && Files.size(target) > 0 && verify(target, stamp)) {
+                if (stamp == Stamp.SIDECAR && Files.exists(checksumOf(target))) {
+                    move(checksumOf(target), checksumOf(previous));
+                }
+                move(target, previous);
+            }
+            move(temp, target);
+            if (stamp == Stamp.SIDECAR) {
+                move(checksumOf(temp), checksumOf(target));
+            }
+            forceDirectory(target);
+        } catch (IOException e) {
+            SnippetLogger.logError("Error writing snapshot " + target.getFileName(), e);
+            throw SnippetException.ioError("Failed to write snapshot " + target.getFileName(), e);
+        }
+    }
+
+    /**
+     * Finds the newest intact generation of a snapshot.
+     *
+     * @param target the snapshot file (must not be null)
+     * @param stamp where the checksum is stored (must not be null)
+     * @return the snapshot file, its previous generation if the snapshot is torn,
+     *         or null if neither exists
+     * @throws SnippetException if the arguments are invalid or no existing generation verifies
+     */
+    public static Path resolve(Path target, Stamp stamp) {
+        if (target == null || stamp == null) {
+            throw SnippetException.validationError("Snapshot path and stamp cannot be null");
+        }
+        Path previous = sibling(target, PREVIOUS_SUFFIX);
+        boolean hasCurrent = Files.exists(target);
+        boolean hasPrevious = Files.exists(previous);
+        if (hasCurrent && verify(target, stamp)) {
+            return target;
+        }
+        if (hasPrevious && verify(previous, stamp)) {
+            if (hasCurrent) {
+                SnippetLogger.logError("Snapshot " + target.getFileName() + " failed verification, using "
+                    + previous.getFileName(), new IOException("Checksum mismatch"));
+            }
+            return previous;
+        }
+        if (!hasCurrent && !hasPrevious) {
+            return null;
+        }
+        throw SnippetException.ioError("No intact generation of snapshot " + target.getFileName(),
+            new IOException("Checksum mismatch"));
+    }
+
+    /**
+     * Checks a snapshot file against its checksum.
+     * An empty file, or a sidecar snapshot without any sidecar, is accepted unverified.
+     *
+     * @param file the file to check (must not be null)
+     * @param stamp where the checksum is stored (must not be null)
+     * @return true if the file matches its checksum
+     * @throws SnippetException if the arguments are invalid or the file cannot be read
+     */
+    public static boolean verify(Path file, Stamp stamp) {
+        if (file == null || stamp == null) {
+            throw SnippetException.validationError("Snapshot path and stamp cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (stamp == Stamp.FOOTER) {
+                if (size == 0) {
+                    return true;
+                }
+                if (size < FOOTER_SIZE) {
+                    return false;
+                }
+                ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+                channel.read(footer, size - FOOTER_SIZE);
+                footer.flip();
+                long length = footer.getLong();
+                int crc = footer.getInt();
+                return footer.getInt() == FOOTER_MAGIC && length == size - FOOTER_SIZE
+                    && crc == checksum(channel, length);
+            }
+            return verifySidecar(file, channel, size);
+        } catch (IOException e) {
+            SnippetLogger.logError("Error verifying snapshot " + file.getFileName(), e);
+            throw SnippetException.ioError("Failed to verify snapshot " + file.getFileName(), e);
+        }
+    }
+
+    /**
+     * Gets the previous generation of a snapshot file.
+     *
+     * @param target the snapshot file
+     * @return the path of its previous generation
+     */
+    public static Path previousOf(Path target) {
+        return sibling(target, PREVIOUS_SUFFIX);
+    }
+
+    /**
+     * Gets the checksum sidecar of a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the path of its sidecar
+     */
+    public static Path checksumOf(Path file) {
+        return sibling(file, CHECKSUM_SUFFIX);
+    }
+
+    /**
+     * Checks a sidecar snapshot against every sidecar that may describe it.
+     * Sidecars are matched by content rather than by name, so a crash between two renames
+     * never makes an intact generation look torn.
+     *
+     * @param file the snapshot file
+     * @param channel an open channel on the file
+     * @param size the size of the file
+     * @return true if a sidecar matches the file, or if there is no sidecar at all
+     * @throws IOException if a file cannot be read
+     */
+    private static boolean verifySidecar(Path file, FileChannel channel, long size) throws IOException {
+        String name = file.getFileName().toString();
+        String base = name.endsWith(PREVIOUS_SUFFIX)
+            ? name.substring(0, name.length() - PREVIOUS_SUFFIX.length()) : name;
+        Path target = file.resolveSibling(base);
+        Path[] sidecars = {
+            checksumOf(target), checksumOf(previousOf(target)), checksumOf(sibling(target, TEMP_SUFFIX))
+        };
+
+        Integer crc = null;
+        boolean anySidecar = false;
+        for (Path sidecar : sidecars) {
+            if (!Files.exists(sidecar)) {
+                continue;
+            }
+            anySidecar = true;
+            long[] recorded = readSidecar(sidecar);
+            if (recorded == null || recorded[0] != size) {
+                continue;
+            }
+            if (crc == null) {
+                crc = checksum(channel, size);
+            }
+            if ((int) recorded[1] == crc) {
+                return true;
+            }
+        }
+        return !anySidecar;
+    }
+
+    /**
+     * Writes and forces a checksum sidecar.
+     *
+     * @param sidecar the sidecar file
+     * @param length the length of the snapshot
+     * @param crc the CRC32C of the snapshot
+     * @throws IOException if writing fails
+     */
+    private static void writeSidecar(Path sidecar, long length, int crc) throws IOException {
+        byte[] content = String.format("crc32c=%08x length=%d%n", crc, length).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads a checksum sidecar.
+     *
+     * @param sidecar the sidecar file
+     * @return the recorded length and CRC32C, or null if the sidecar is malformed
+     * @throws IOException if reading fails
+     */
+    private static long[] readSidecar(Path sidecar) throws IOException {
+        String content = Files.readString(sidecar, StandardCharsets.UTF_8).trim();
+        String[] parts = content.split(" ");
+        if (parts.length != 2 || !parts[0].startsWith("crc32c=") || !parts[1].startsWith("length=")) {
+            return null;
+        }
+        try {
+            return new long[] {
+                Long.parseLong(parts[1].substring("length=".length())),
+                Long.parseLong(parts[0].substring("crc32c=".length()), 16)
+            };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the CRC32C of the first bytes of a file.
+     *
+     * @param channel an open channel on the file
+     * @param length the number of bytes to checksum
+     * @return the checksum
+     * @throws IOException if reading fails
+     */
+    private static int checksum(FileChannel channel, long length) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long position = 0;
+        while (position < length) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, length - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+            buffer.flip();
+            crc.update(buffer);
+            position += read;
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Renames a file, atomically where the file system supports it.
+     *
+     * @param source the file to rename
+     * @param destination the new name, replaced if it exists
+     * @throws IOException if the rename fails
+     */
+    private static void move(Path source, Path destination) throws IOException {
+        try {
+            Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces the directory entry changes of a rename to disk where the platform allows it.
+     *
+     * @param file a file in the directory
+     */
+    private static void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform; the renames are still atomic
+        }
+    }
+
+    /**
+     * Derives a sibling file name by appending a suffix.
+     *
+     * @param file the original file
+     * @param suffix the suffix to append
+     * @return the sibling path
+     */
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName().toString() + suffix);
+    }
+}
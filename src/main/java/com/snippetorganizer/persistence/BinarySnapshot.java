@@ -0,0 +1,410 @@
+package com.snippetorganizer.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Compact binary snapshot of a snippet collection, read through a memory mapping.
+ *
+ * <p>Layout (all integers big-endian):</p>
+ * <pre>
+ * header   : magic "SNPB" (int) | version (int) | record count (int) | reserved (int) | table offset (long)
+ * records  : id (int) | title | language | code | description | tag count (int) | tags...
+ * table    : record count x (id (int) | record offset (long)), sorted by id
+ * </pre>
+ * <p>Every text field is a length-prefixed UTF-8 string (int byte length, -1 for null).
+ * The file ends with the checksum footer of {@link AtomicSnapshotFile}.
+ * Opening a snapshot only maps the file; a record is decoded when it is requested, so
+ * the operating system pages in just the parts of the file that are actually read.
+ * {@link BinarySnippetStore} still decodes every record when it loads, since the manager
+ * keeps the whole collection in memory. The file is mapped as one buffer, so a snapshot
+ * is limited to 2 GiB.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see Snippet
+ */
+public final class BinarySnapshot implements Closeable {
+
+    /** Magic number identifying a binary snapshot ("SNPB") */
+    private static final int MAGIC = 0x534E5042;
+
+    /** The current format version */
+    private static final int VERSION = 1;
+
+    /** The size of the fixed header in bytes */
+    private static final int HEADER_SIZE = 24;
+
+    /** The size of one offsets table entry in bytes */
+    private static final int TABLE_ENTRY_SIZE = 12;
+
+    /** Length marker for null strings */
+    private static final int NULL_LENGTH = -1;
+
+    /** The mapped file contents (null once closed) */
+    private MappedByteBuffer buffer;
+
+    /** The number of records in the snapshot */
+    private final int recordCount;
+
+    /** The position of the offsets table */
+    private final long tableOffset;
+
+    /**
+     * Constructs a snapshot view over a mapped file.
+     *
+     * @param buffer the mapped file contents
+     * @param recordCount the number of records
+     * @param tableOffset the position of the offsets table
+     */
+    private BinarySnapshot(MappedByteBuffer buffer, int recordCount, long tableOffset) {
+        this.buffer = buffer;
+        this.recordCount = recordCount;
+        this.tableOffset = tableOffset;
+    }
+
+    /**
+     * Writes the given snippets as a binary snapshot, replacing any existing file through
+     * {@link AtomicSnapshotFile} so the file ends with a CRC32C footer.
+     * Records are stored in ascending ID order.
+     *
+     * @param path the file to write (must not be null)
+     * @param snippets the snippets to store (must not be null)
+     * @throws SnippetException if the arguments are invalid or the file cannot be written
+     */
+    public static void write(Path path, Collection<Snippet> snippets) {
+        if (path == null) {
+            throw SnippetException.validationError("Snapshot path cannot be null");
+        }
+        if (snippets == null) {
+            throw SnippetException.validationError("Snippets cannot be null");
+        }
+
+        List<Snippet> ordered = new ArrayList<>(snippets);
+        ordered.sort(Comparator.comparingInt(Snippet::getId));
+        long[] offsets = new long[ordered.size()];
+
+        AtomicSnapshotFile.write(path, AtomicSnapshotFile.Stamp.FOOTER, file -> {
+            long tableOffset;
+            try (CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+                 DataOutputStream out = new DataOutputStream(counter)) {
+                out.write(new byte[HEADER_SIZE]);
+                for (int i = 0; i < ordered.size(); i++) {
+                    offsets[i] = counter.getCount();
+                    writeRecord(out, ordered.get(i));
+                }
+                out.flush();
+                tableOffset = counter.getCount();
+                for (int i = 0; i < ordered.size(); i++) {
+                    out.writeInt(ordered.get(i).getId());
+                    out.writeLong(offsets[i]);
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(ordered.size()).putInt(0).putLong(tableOffset).flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+            }
+        });
+    }
+
+    /**
+     * Opens a binary snapshot by memory-mapping it.
+     *
+     * @param path the snapshot file (must not be null)
+     * @return a read-only view of the snapshot
+     * @throws SnippetException if the file cannot be mapped or is not a valid snapshot
+     */
+    public static BinarySnapshot open(Path path) {
+        if (path == null) {
+            throw SnippetException.validationError("Snapshot path cannot be null");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw SnippetException.ioError("Binary snapshot is too large to map",
+                    new IOException(path + " is " + size + " bytes"));
+            }
+            if (size < HEADER_SIZE) {
+                throw corrupt(path, "file is shorter than the header");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC) {
+                throw corrupt(path, "bad magic number");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw corrupt(path, "unsupported version " + buffer.getInt(4));
+            }
+            int recordCount = buffer.getInt(8);
+            long tableOffset = buffer.getLong(16);
+            if (recordCount < 0 || tableOffset < HEADER_SIZE
+                    || tableOffset + (long) recordCount * TABLE_ENTRY_SIZE > size) {
+                throw corrupt(path, "offsets table out of bounds");
+            }
+            return new BinarySnapshot(buffer, recordCount, tableOffset);
+        } catch (IOException e) {
+            SnippetLogger.logError("Error opening binary snapshot", e);
+            throw SnippetException.ioError("Failed to open binary snapshot", e);
+        }
+    }
+
+    /**
+     * Gets the number of snippets in the snapshot.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the ID of the record at the given position without decoding it.
+     *
+     * @param index the record position (0 to size() - 1)
+     * @return the ID of the record
+     * @throws SnippetException if the index is out of range or the snapshot is closed
+     */
+    public int idAt(int index) {
+        checkIndex(index);
+        return mapped().getInt(tableEntry(index));
+    }
+
+    /**
+     * Decodes the record at the given position.
+     *
+     * @param index the record position (0 to size() - 1)
+     * @return the decoded snippet
+     * @throws SnippetException if the index is out of range or the snapshot is closed
+     */
+    public Snippet get(int index) {
+        checkIndex(index);
+        return readRecord(mapped().getLong(tableEntry(index) + 4));
+    }
+
+    /**
+     * Finds and decodes a single snippet by ID using the offsets table.
+     *
+     * @param id the ID to look up
+     * @return the snippet with the given ID, or null if the snapshot does not contain it
+     * @throws SnippetException if the snapshot is closed
+     */
+    public Snippet findById(int id) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return get(mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodes every snippet in ID order and passes it to the consumer.
+     *
+     * @param consumer receives each decoded snippet (must not be null)
+     * @throws SnippetException if the consumer is null or the snapshot is closed
+     */
+    public void forEach(Consumer<Snippet> consumer) {
+        if (consumer == null) {
+            throw SnippetException.validationError("Consumer cannot be null");
+        }
+        for (int i = 0; i < recordCount; i++) {
+            consumer.accept(get(i));
+        }
+    }
+
+    /**
+     * Releases the mapping. The file is unmapped once the buffer is garbage collected.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+
+    /**
+     * Gets the mapped buffer, failing if the snapshot has been closed.
+     *
+     * @return the mapped buffer
+     * @throws SnippetException if the snapshot is closed
+     */
+    private MappedByteBuffer mapped() {
+        if (buffer == null) {
+            throw new SnippetException("Binary snapshot is closed");
+        }
+        return buffer;
+    }
+
+    /**
+     * Validates a record position.
+     *
+     * @param index the record position
+     * @throws SnippetException if the index is out of range
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw SnippetException.validationError("Record index out of range: " + index);
+        }
+    }
+
+    /**
+     * Computes the position of an offsets table entry.
+     *
+     * @param index the record position
+     * @return the buffer position of the table entry
+     */
+    private int tableEntry(int index) {
+        return (int) (tableOffset + (long) index * TABLE_ENTRY_SIZE);
+    }
+
+    /**
+     * Decodes the record starting at the given position.
+     *
+     * @param offset the buffer position of the record
+     * @return the decoded snippet
+     */
+    private Snippet readRecord(long offset) {
+        MappedByteBuffer data = mapped();
+        int[] position = {(int) offset};
+        int id = data.getInt(position[0]);
+        position[0] += 4;
+        String title = readString(data, position);
+        String language = readString(data, position);
+        String code = readString(data, position);
+        String description = readString(data, position);
+        int tagCount = data.getInt(position[0]);
+        position[0] += 4;
+        Set<String> tags = new HashSet<>(Math.max(4, tagCount * 2));
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(readString(data, position));
+        }
+        return new Snippet(id, title, language, code, tags, description);
+    }
+
+    /**
+     * Decodes a length-prefixed UTF-8 string and advances the position.
+     *
+     * @param data the mapped buffer
+     * @param position single-element array holding the current position
+     * @return the decoded string, or null for the null marker
+     */
+    private static String readString(ByteBuffer data, int[] position) {
+        int length = data.getInt(position[0]);
+        position[0] += 4;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(position[0], bytes);
+        position[0] += length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes one snippet record.
+     *
+     * @param out the output stream
+     * @param snippet the snippet to encode
+     * @throws IOException if writing fails
+     */
+    private static void writeRecord(DataOutputStream out, Snippet snippet) throws IOException {
+        out.writeInt(snippet.getId());
+        writeString(out, snippet.getTitle());
+        writeString(out, snippet.getLanguage());
+        writeString(out, snippet.getCode());
+        writeString(out, snippet.getDescription());
+        Set<String> tags = snippet.getTags();
+        out.writeInt(tags.size());
+        for (String tag : tags) {
+            writeString(out, tag);
+        }
+    }
+
+    /**
+     * Encodes a length-prefixed UTF-8 string.
+     *
+     * @param out the output stream
+     * @param value the string to encode (may be null)
+     * @throws IOException if writing fails
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Creates the exception reported for a malformed snapshot.
+     *
+     * @param path the snapshot file
+     * @param reason what is wrong with it
+     * @return a new I/O error exception
+     */
+    private static SnippetException corrupt(Path path, String reason) {
+        return SnippetException.ioError("Invalid binary snapshot " + path.getFileName(),
+            new IOException(reason));
+    }
+
+    /**
+     * Output stream wrapper that tracks the number of bytes written as a long.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        /** The number of bytes written so far */
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
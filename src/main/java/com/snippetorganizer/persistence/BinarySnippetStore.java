@@ -0,0 +1,140 @@
+package com.snippetorganizer.persistence;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Store that keeps the whole collection in a memory-mapped {@link BinarySnapshot}.
+ * Every change rewrites the snapshot. Loading decodes every record from the mapping, so it
+ * avoids the cost of parsing JSON but not of building the snippets.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see BinarySnapshot
+ * @see SnippetStore
+ */
+public class BinarySnippetStore implements SnippetStore {
+
+    /** The number of snippets between two load progress notifications */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    /** The binary snapshot file */
+    private final Path path;
+
+    /**
+     * Constructs a new BinarySnippetStore, creating an empty snapshot if the file does not exist.
+     *
+     * @param path the binary snapshot file (must not be null)
+     * @throws SnippetException if the path is null or the file cannot be created
+     */
+    public BinarySnippetStore(Path path) {
+        if (path == null) {
+            throw SnippetException.validationError("Snapshot path cannot be null");
+        }
+        this.path = path;
+        if (!Files.exists(path) && !Files.exists(AtomicSnapshotFile.previousOf(path))) {
+            BinarySnapshot.write(path, List.of());
+        }
+    }
+
+    /**
+     * Gets the name of this store.
+     *
+     * @return the name of the store
+     */
+    @Override
+    public String getName() {
+        return StorageMode.BINARY.getDisplayName();
+    }
+
+    /**
+     * Verifies the snapshot and decodes every record of its newest intact generation.
+     *
+     * @param sink receives each loaded snippet (must not be null)
+     * @param listener notified while snippets are loaded (may be null)
+     * @return statistics about the load
+     * @throws SnippetException if no generation verifies or the snapshot cannot be decoded
+     */
+    @Override
+    public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+        if (sink == null) {
+            throw SnippetException.validationError("Sink cannot be null");
+        }
+        LoadProgressListener progress = listener != null ? listener : LoadProgressListener.NONE;
+        long start = System.nanoTime();
+        Path source = AtomicSnapshotFile.resolve(path, AtomicSnapshotFile.Stamp.FOOTER);
+        long totalBytes = source != null ? source.toFile().length() : 0;
+        if (totalBytes == 0) {
+            return LoadStats.EMPTY;
+        }
+
+        try (BinarySnapshot snapshot = BinarySnapshot.open(source)) {
+            int size = snapshot.size();
+            for (int i = 0; i < size; i++) {
+                sink.accept(snapshot.get(i));
+                if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                    progress.onProgress(i + 1, totalBytes * (i + 1) / size, totalBytes);
+                }
+            }
+            progress.onProgress(size, totalBytes, totalBytes);
+            return new LoadStats(size, totalBytes, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Opens the ID sequence stored next to the snapshot.
+     *
+     * @return the persisted ID sequence
+     * @throws SnippetException if the sequence file cannot be read
+     */
+    @Override
+    public IdSequence openIdSequence() {
+        return new IdSequence(IdSequence.sequencePathFor(path));
+    }
+
+    /**
+     * Rewrites the snapshot with the current contents of the collection.
+     *
+     * @param mutation the change
+     * @param contents the collection after the change
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void record(SnippetMutation mutation, SnippetComponent contents) {
+        checkpoint(contents);
+    }
+
+    /**
+     * Rewrites the snapshot once for the whole batch.
+     *
+     * @param mutations the changes
+     * @param contents the collection after the changes
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void recordAll(List<SnippetMutation> mutations, SnippetComponent contents) {
+        if (!mutations.isEmpty()) {
+            checkpoint(contents);
+        }
+    }
+
+    /**
+     * Rewrites the snapshot with the given contents.
+     *
+     * @param contents the collection to persist (must not be null)
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void checkpoint(SnippetComponent contents) {
+        if (contents == null) {
+            throw SnippetException.validationError("Component cannot be null");
+        }
+        BinarySnapshot.write(path, contents.getAllSnippets());
+    }
+}
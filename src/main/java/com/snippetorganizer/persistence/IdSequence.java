@@ -0,0 +1,240 @@
+package com.snippetorganizer.persistence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Monotonically increasing allocator of snippet IDs.
+ *
+ * <p>The sequence persists a high-water mark: every ID below it may already be in use.
+ * IDs are handed out from memory and the mark is moved forward a whole block at a time,
+ * so only one small write in every {@code blockSize} allocations touches the disk.
+ * After a crash the sequence resumes at the mark, skipping at most the rest of the
+ * current block; a clean {@link #close()} stores the exact next ID instead.
+ * The mark is written through {@link AtomicSnapshotFile}, so it is never torn.</p>
+ *
+ * <p>IDs are never reused, even after the snippet with the highest ID is deleted.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetStore#openIdSequence()
+ */
+public class IdSequence {
+
+    /** The default number of IDs reserved by one write of the high-water mark */
+    public static final int DEFAULT_BLOCK_SIZE = 128;
+
+    /** The file extension of a sequence file */
+    private static final String SEQUENCE_EXTENSION = ".seq";
+
+    /** The sequence file (null for a sequence that is not persisted) */
+    private final Path file;
+
+    /** The number of IDs reserved by one write of the high-water mark */
+    private final int blockSize;
+
+    /** The next ID to hand out */
+    private int next;
+
+    /** The persisted high-water mark: IDs from here on have never been handed out */
+    private int limit;
+
+    /**
+     * Constructs a new sequence that is not persisted, starting at 1.
+     */
+    public IdSequence() {
+        this.file = null;
+        this.blockSize = DEFAULT_BLOCK_SIZE;
+        this.next = 1;
+        this.limit = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Constructs a new sequence persisted in the given file with the default block size.
+     *
+     * @param file the sequence file (must not be null)
+     * @throws SnippetException if the file exists but cannot be read
+     */
+    public IdSequence(Path file) {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a new sequence persisted in the given file.
+     * The sequence resumes at the stored high-water mark, or at 1 if there is none.
+     *
+     * @param file the sequence file (must not be null)
+     * @param blockSize the number of IDs reserved by one write (must be positive)
+     * @throws SnippetException if the arguments are invalid or the file cannot be read
+     */
+    public IdSequence(Path file, int blockSize) {
+        if (file == null) {
+            throw SnippetException.validationError("Sequence file cannot be null");
+        }
+        if (blockSize <= 0) {
+            throw SnippetException.validationError("Block size must be positive");
+        }
+        this.file = file;
+        this.blockSize = blockSize;
+        this.next = readMark(file);
+        this.limit = next;
+    }
+
+    /**
+     * Hands out the next ID.
+     *
+     * @return a new ID, greater than every ID handed out before
+     * @throws SnippetException if the high-water mark cannot be persisted
+     */
+    public synchronized int next() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserves a contiguous range of IDs, e.g. for a bulk import.
+     *
+     * @param count the number of IDs to reserve (must be positive)
+     * @return the first ID of the range; the range is {@code [first, first + count)}
+     * @throws SnippetException if the count is not positive or the mark cannot be persisted
+     */
+    public synchronized int reserve(int count) {
+        if (count <= 0) {
+            throw SnippetException.validationError("Count must be positive");
+        }
+        if (next > Integer.MAX_VALUE - count) {
+            throw SnippetException.systemError("Snippet IDs exhausted", null);
+        }
+        int first = next;
+        next += count;
+        if (next > limit) {
+            moveMark((int) Math.min(Integer.MAX_VALUE, (long) next + blockSize));
+        }
+        return first;
+    }
+
+    /**
+     * Gives back the unused tail of the most recent reservation.
+     * Nothing happens if other IDs have been handed out since.
+     *
+     * @param firstUnused the first ID of the tail that was not used
+     * @param end the end of the reservation (exclusive)
+     * @return true if the tail was given back
+     */
+    public synchronized boolean release(int firstUnused, int end) {
+        if (next != end || firstUnused > end) {
+            return false;
+        }
+        next = firstUnused;
+        return true;
+    }
+
+    /**
+     * Makes sure the sequence never hands out the given ID or any ID below it.
+     * Used while loading, so a missing or stale sequence file cannot cause collisions.
+     *
+     * @param id an ID that is in use
+     */
+    public synchronized void advancePast(int id) {
+        if (id >= next) {
+            next = id == Integer.MAX_VALUE ? id : id + 1;
+        }
+    }
+
+    /**
+     * Gets the ID that the next allocation will return, without allocating it.
+     *
+     * @return the next ID
+     */
+    public synchronized int peek() {
+        return next;
+    }
+
+    /**
+     * Gets the sequence file.
+     *
+     * @return the sequence file, or null if the sequence is not persisted
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Stores the exact next ID so that a clean restart leaves no gap.
+     *
+     * @throws SnippetException if the mark cannot be persisted
+     */
+    public synchronized void close() {
+        if (file != null && limit != next) {
+            moveMark(next);
+        }
+    }
+
+    /**
+     * Derives the sequence file location from a data file location,
+     * e.g. {@code data/snippets.seq} for {@code data/snippets.json}.
+     *
+     * @param dataFile the main data file of a store
+     * @return the sequence file next to it
+     * @throws SnippetException if the path is null
+     */
+    public static Path sequencePathFor(Path dataFile) {
+        if (dataFile == null) {
+            throw SnippetException.validationError("Data file cannot be null");
+        }
+        Path absolute = dataFile.toAbsolutePath();
+        String name = absolute.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return absolute.resolveSibling(baseName + SEQUENCE_EXTENSION);
+    }
+
+    /**
+     * Persists a new high-water mark.
+     *
+     * @param mark the new mark
+     * @throws SnippetException if the mark cannot be written
+     */
+    private void moveMark(int mark) {
+        if (file != null) {
+            AtomicSnapshotFile.write(file, AtomicSnapshotFile.Stamp.FOOTER, temp -> {
+                try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                    out.writeInt(mark);
+                }
+            });
+        }
+        limit = mark;
+    }
+
+    /**
+     * Reads the high-water mark of a sequence file.
+     *
+     * @param file the sequence file
+     * @return the stored mark, or 1 if there is no intact sequence file
+     * @throws SnippetException if the file cannot be read
+     */
+    private static int readMark(Path file) {
+        Path source;
+        try {
+            source = AtomicSnapshotFile.resolve(file, AtomicSnapshotFile.Stamp.FOOTER);
+        } catch (SnippetException e) {
+            // The IDs of the loaded snippets still protect against collisions
+            SnippetLogger.logError("Ignoring unreadable ID sequence " + file.getFileName(), e);
+            return 1;
+        }
+        if (source == null || source.toFile().length() < Integer.BYTES) {
+            return 1;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(source))) {
+            return Math.max(1, in.readInt());
+        } catch (IOException e) {
+            SnippetLogger.logError("Error reading ID sequence", e);
+            throw SnippetException.ioError("Failed to read ID sequence", e);
+        }
+    }
+}
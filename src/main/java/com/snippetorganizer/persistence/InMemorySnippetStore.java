@@ -0,0 +1,66 @@
+package com.snippetorganizer.persistence;
+
+import java.util.function.Consumer;
+
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Store that keeps nothing on disk.
+ * Useful for tests, benchmarks and embedding applications that handle persistence themselves.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetStore
+ */
+public class InMemorySnippetStore implements SnippetStore {
+
+    /**
+     * Gets the name of this store.
+     *
+     * @return the name of the store
+     */
+    @Override
+    public String getName() {
+        return StorageMode.MEMORY.getDisplayName();
+    }
+
+    /**
+     * Loads nothing, since nothing is ever persisted.
+     *
+     * @param sink the sink (must not be null)
+     * @param listener notified once with an empty result (may be null)
+     * @return empty load statistics
+     * @throws SnippetException if the sink is null
+     */
+    @Override
+    public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+        if (sink == null) {
+            throw SnippetException.validationError("Sink cannot be null");
+        }
+        if (listener != null) {
+            listener.onProgress(0, 0, 0);
+        }
+        return LoadStats.EMPTY;
+    }
+
+    /**
+     * Ignores the change.
+     *
+     * @param mutation the change
+     * @param contents the collection after the change
+     */
+    @Override
+    public void record(SnippetMutation mutation, SnippetComponent contents) {
+    }
+
+    /**
+     * Ignores the snapshot.
+     *
+     * @param contents the collection
+     */
+    @Override
+    public void checkpoint(SnippetComponent contents) {
+    }
+}
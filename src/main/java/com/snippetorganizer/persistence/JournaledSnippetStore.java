@@ -0,0 +1,184 @@
+package com.snippetorganizer.persistence;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Store that appends changes to a {@link SnippetJournal} and periodically folds them
+ * into a JSON snapshot, so the cost of a change is proportional to the change itself.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetJournal
+ * @see JsonSnippetStore
+ */
+public class JournaledSnippetStore implements SnippetStore {
+
+    /** The file extension used for the mutation journal */
+    private static final String JOURNAL_EXTENSION = ".journal";
+
+    /** The default number of journal records after which the journal is compacted */
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 1000;
+
+    /** The snapshot the journal is folded into */
+    private final JsonSnippetStore snapshot;
+
+    /** The mutation journal */
+    private final SnippetJournal journal;
+
+    /** The number of journal records after which the journal is compacted */
+    private final int compactionThreshold;
+
+    /**
+     * Constructs a new JournaledSnippetStore with the journal next to the snapshot
+     * (e.g. {@code data/snippets.journal} for {@code data/snippets.json}).
+     *
+     * @param snapshotPath the JSON snapshot file (must not be null)
+     * @throws SnippetException if the path is null or the snapshot cannot be created
+     */
+    public JournaledSnippetStore(Path snapshotPath) {
+        this(snapshotPath, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructs a new JournaledSnippetStore with a custom compaction threshold.
+     *
+     * @param snapshotPath the JSON snapshot file (must not be null)
+     * @param compactionThreshold the number of records after which the journal is compacted (must be positive)
+     * @throws SnippetException if the arguments are invalid or the snapshot cannot be created
+     */
+    public JournaledSnippetStore(Path snapshotPath, int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw SnippetException.validationError("Compaction threshold must be positive");
+        }
+        this.snapshot = new JsonSnippetStore(snapshotPath);
+        this.journal = new SnippetJournal(journalPathFor(snapshotPath));
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Gets the name of this store.
+     *
+     * @return the name of the store
+     */
+    @Override
+    public String getName() {
+        return StorageMode.JOURNALED.getDisplayName();
+    }
+
+    /**
+     * Streams the last snapshot and replays the journal on top of it.
+     *
+     * @param sink receives each loaded snippet (must not be null)
+     * @param listener notified while the snapshot is loaded (may be null)
+     * @return statistics about the snapshot load
+     * @throws SnippetException if the snapshot or the journal cannot be read
+     */
+    @Override
+    public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+        if (sink == null) {
+            throw SnippetException.validationError("Sink cannot be null");
+        }
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        LoadStats stats = snapshot.load(snippet -> snippets.put(snippet.getId(), snippet), listener);
+        int replayed = journal.replay(snippets);
+        snippets.values().forEach(sink);
+        if (replayed > 0) {
+            SnippetLogger.logInfo("Replayed " + replayed + " journal entries from " + journal.getPath().getFileName());
+        }
+        return stats;
+    }
+
+    /**
+     * Appends the change to the journal, compacting it once it reaches the threshold.
+     *
+     * @param mutation the change (must not be null)
+     * @param contents the collection after the change
+     * @throws SnippetException if the change cannot be persisted
+     */
+    @Override
+    public void record(SnippetMutation mutation, SnippetComponent contents) {
+        journal.append(mutation);
+        if (journal.getEntryCount() >= compactionThreshold) {
+            checkpoint(contents);
+        }
+    }
+
+    /**
+     * Appends every change of the batch, compacting at most once.
+     *
+     * @param mutations the changes (must not be null)
+     * @param contents the collection after the changes
+     * @throws SnippetException if the changes cannot be persisted
+     */
+    @Override
+    public void recordAll(List<SnippetMutation> mutations, SnippetComponent contents) {
+        for (SnippetMutation mutation : mutations) {
+            journal.append(mutation);
+        }
+        if (journal.getEntryCount() >= compactionThreshold) {
+            checkpoint(contents);
+        }
+    }
+
+    /**
+     * Folds the journal into a new snapshot and empties it.
+     * If the process stops between the two steps the journal is simply replayed again,
+     * since replaying it on top of the new snapshot is idempotent.
+     *
+     * @param contents the collection to persist
+     * @throws SnippetException if the snapshot cannot be written
+     */
+    @Override
+    public void checkpoint(SnippetComponent contents) {
+        snapshot.checkpoint(contents);
+        journal.truncate();
+        SnippetLogger.logInfo("Compacted journal into snapshot " + snapshot.getFile().getName());
+    }
+
+    /**
+     * Opens the ID sequence stored next to the snapshot.
+     *
+     * @return the persisted ID sequence
+     * @throws SnippetException if the sequence file cannot be read
+     */
+    @Override
+    public IdSequence openIdSequence() {
+        return snapshot.openIdSequence();
+    }
+
+    /**
+     * Gets the mutation journal.
+     *
+     * @return the journal
+     */
+    public SnippetJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Derives the journal location from the snapshot location.
+     *
+     * @param snapshotPath the snapshot file
+     * @return the journal file next to the snapshot
+     * @throws SnippetException if the path is null
+     */
+    public static Path journalPathFor(Path snapshotPath) {
+        if (snapshotPath == null) {
+            throw SnippetException.validationError("Snapshot path cannot be null");
+        }
+        Path absolute = snapshotPath.toAbsolutePath();
+        String name = absolute.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String baseName = dot > 0 ? name.substring(0, dot) : name;
+        return absolute.resolveSibling(baseName + JOURNAL_EXTENSION);
+    }
+}
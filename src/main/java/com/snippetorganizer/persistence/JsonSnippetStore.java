@@ -0,0 +1,149 @@
+package com.snippetorganizer.persistence;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Store that keeps the whole collection in a pretty-printed JSON array.
+ * Every change rewrites the entire file, which keeps it readable by any JSON tool.
+ * Files are replaced through {@link AtomicSnapshotFile}, with the checksum in a sidecar.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetStore
+ * @see StreamingSnippetLoader
+ */
+public class JsonSnippetStore implements SnippetStore {
+
+    /** The number of snippets between two load progress notifications */
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    /** The JSON snapshot file */
+    private final File file;
+
+    /** Jackson ObjectMapper for JSON serialization/deserialization */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new JsonSnippetStore, creating an empty snapshot if the file does not exist.
+     *
+     * @param path the JSON snapshot file (must not be null)
+     * @throws SnippetException if the path is null or the file cannot be created
+     */
+    public JsonSnippetStore(Path path) {
+        if (path == null) {
+            throw SnippetException.validationError("Snapshot path cannot be null");
+        }
+        this.file = path.toFile();
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        if (!file.exists() && !Files.exists(AtomicSnapshotFile.previousOf(path))) {
+            writeSnapshot(List.of());
+        }
+    }
+
+    /**
+     * Gets the name of this store.
+     *
+     * @return the name of the store
+     */
+    @Override
+    public String getName() {
+        return StorageMode.JSON.getDisplayName();
+    }
+
+    /**
+     * Streams snippets from the newest intact generation of the JSON snapshot.
+     *
+     * @param sink receives each loaded snippet (must not be null)
+     * @param listener notified while snippets are loaded (may be null)
+     * @return statistics about the load
+     * @throws SnippetException if no generation verifies or the file cannot be parsed
+     */
+    @Override
+    public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+        Path source = AtomicSnapshotFile.resolve(file.toPath(), AtomicSnapshotFile.Stamp.SIDECAR);
+        return new StreamingSnippetLoader(objectMapper, PROGRESS_INTERVAL)
+            .load(source != null ? source.toFile() : file, sink, listener);
+    }
+
+    /**
+     * Rewrites the snapshot with the current contents of the collection.
+     *
+     * @param mutation the change
+     * @param contents the collection after the change
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void record(SnippetMutation mutation, SnippetComponent contents) {
+        checkpoint(contents);
+    }
+
+    /**
+     * Rewrites the snapshot once for the whole batch.
+     *
+     * @param mutations the changes
+     * @param contents the collection after the changes
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void recordAll(List<SnippetMutation> mutations, SnippetComponent contents) {
+        if (!mutations.isEmpty()) {
+            checkpoint(contents);
+        }
+    }
+
+    /**
+     * Rewrites the snapshot with the given contents.
+     *
+     * @param contents the collection to persist (must not be null)
+     * @throws SnippetException if the file cannot be written
+     */
+    @Override
+    public void checkpoint(SnippetComponent contents) {
+        if (contents == null) {
+            throw SnippetException.validationError("Component cannot be null");
+        }
+        writeSnapshot(contents.getAllSnippets());
+    }
+
+    /**
+     * Opens the ID sequence stored next to the snapshot.
+     *
+     * @return the persisted ID sequence
+     * @throws SnippetException if the sequence file cannot be read
+     */
+    @Override
+    public IdSequence openIdSequence() {
+        return new IdSequence(IdSequence.sequencePathFor(file.toPath()));
+    }
+
+    /**
+     * Gets the JSON snapshot file.
+     *
+     * @return the snapshot file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Writes the given snippets as a JSON array.
+     *
+     * @param snippets the snippets to write
+     * @throws SnippetException if the file cannot be written
+     */
+    private void writeSnapshot(List<Snippet> snippets) {
+        AtomicSnapshotFile.write(file.toPath(), AtomicSnapshotFile.Stamp.SIDECAR,
+            temp -> objectMapper.writeValue(temp.toFile(), snippets));
+    }
+}
@@ -0,0 +1,24 @@
+package com.snippetorganizer.persistence;
+
+/**
+ * Callback notified while snippets are being loaded from disk.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see StreamingSnippetLoader
+ */
+@FunctionalInterface
+public interface LoadProgressListener {
+
+    /** Listener that ignores all progress notifications */
+    LoadProgressListener NONE = (loaded, bytesRead, totalBytes) -> { };
+
+    /**
+     * Called periodically during a load and once when it completes.
+     *
+     * @param snippetsLoaded the number of snippets loaded so far
+     * @param bytesRead the number of bytes consumed from the file so far
+     * @param totalBytes the total size of the file in bytes
+     */
+    void onProgress(long snippetsLoaded, long bytesRead, long totalBytes);
+}
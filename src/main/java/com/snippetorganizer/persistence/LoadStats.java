@@ -0,0 +1,83 @@
+package com.snippetorganizer.persistence;
+
+/**
+ * Summary of a completed snippet load.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see StreamingSnippetLoader
+ */
+public final class LoadStats {
+
+    /** Statistics for a load that read nothing */
+    public static final LoadStats EMPTY = new LoadStats(0, 0, 0);
+
+    /** The number of snippets loaded */
+    private final long snippetCount;
+
+    /** The number of bytes read */
+    private final long bytesRead;
+
+    /** The wall-clock duration of the load in nanoseconds */
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a new LoadStats.
+     *
+     * @param snippetCount the number of snippets loaded
+     * @param bytesRead the number of bytes read
+     * @param elapsedNanos the duration of the load in nanoseconds
+     */
+    public LoadStats(long snippetCount, long bytesRead, long elapsedNanos) {
+        this.snippetCount = snippetCount;
+        this.bytesRead = bytesRead;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of snippets loaded.
+     *
+     * @return the number of snippets loaded
+     */
+    public long getSnippetCount() {
+        return snippetCount;
+    }
+
+    /**
+     * Gets the number of bytes read.
+     *
+     * @return the number of bytes read
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Gets the duration of the load.
+     *
+     * @return the duration of the load in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the load rate.
+     *
+     * @return the number of snippets loaded per second, or 0 if nothing was timed
+     */
+    public double getSnippetsPerSecond() {
+        return elapsedNanos > 0 ? snippetCount * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    /**
+     * Returns a string representation of these statistics.
+     *
+     * @return a formatted summary of the load
+     */
+    @Override
+    public String toString() {
+        return String.format("%d snippets in %.1f ms (%.0f snippets/sec)",
+            snippetCount, elapsedNanos / 1_000_000.0, getSnippetsPerSecond());
+    }
+}
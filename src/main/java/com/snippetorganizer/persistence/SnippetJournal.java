@@ -0,0 +1,289 @@
+package com.snippetorganizer.persistence;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Append-only log of snippet mutations.
+ * Each mutation is written as one compact JSON line, so the cost of recording a change
+ * is proportional to the size of the change rather than the size of the collection.
+ * The journal is replayed on top of the last snapshot at startup and truncated once
+ * its contents have been folded into a new snapshot.
+ *
+ * <p>Each append is forced to the storage device before it returns. A record left without
+ * its line break by a failed append is cut off before the next one, so two records are
+ * never glued into one line.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetMutation
+ */
+public class SnippetJournal {
+
+    /** The journal file */
+    private final Path path;
+
+    /** Compact (non-indented) mapper used for journal records */
+    private final ObjectMapper objectMapper;
+
+    /** The number of records currently in the journal */
+    private int entryCount;
+
+    /** Whether the file is known to end with a complete record */
+    private boolean tailVerified;
+
+    /**
+     * Constructs a new SnippetJournal backed by the given file.
+     * The file is created lazily on the first append.
+     *
+     * @param path the journal file (must not be null)
+     * @throws SnippetException if the path is null
+     */
+    public SnippetJournal(Path path) {
+        if (path == null) {
+            throw SnippetException.validationError("Journal path cannot be null");
+        }
+        this.path = path;
+        this.objectMapper = new ObjectMapper().enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.entryCount = 0;
+    }
+
+    /**
+     * Appends a mutation to the end of the journal and forces it to the storage device.
+     *
+     * @param mutation the mutation to record (must not be null)
+     * @throws SnippetException if the mutation is null or the journal cannot be written
+     */
+    public void append(SnippetMutation mutation) {
+        if (mutation == null) {
+            throw SnippetException.validationError("Mutation cannot be null");
+        }
+        try {
+            byte[] record = (objectMapper.writeValueAsString(mutation) + "\n").getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (!tailVerified) {
+                    channel.truncate(lastRecordEnd(channel));
+                    tailVerified = true;
+                }
+                channel.position(channel.size());
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            entryCount++;
+        } catch (IOException e) {
+            tailVerified = false;
+            SnippetLogger.logError("Error appending to journal", e);
+            throw SnippetException.ioError("Failed to append mutation to journal", e);
+        }
+    }
+
+    /**
+     * Replays every recorded mutation on top of the given snippets, keyed by ID.
+     * Replay is idempotent: an ADD for an existing ID replaces it and a DELETE for a
+     * missing ID is ignored, so a journal that was already folded into the snapshot
+     * can be replayed safely. A torn record at the end of the file (left by a crash
+     * during an append) is discarded and the file is cut back to the last complete record.
+     * An unreadable record followed by other records is corruption rather than a torn
+     * append, so replay fails instead of dropping the records after it.
+     *
+     * @param snippets the snapshot contents to apply the mutations to (must not be null)
+     * @return the number of mutations applied
+     * @throws SnippetException if the map is null, the journal cannot be read or a record
+     *         other than the last one is unreadable
+     */
+    public int replay(Map<Integer, Snippet> snippets) {
+        if (snippets == null) {
+            throw SnippetException.validationError("Snippet map cannot be null");
+        }
+        entryCount = 0;
+        if (!Files.exists(path)) {
+            return 0;
+        }
+
+        long validLength = 0;
+        boolean torn = false;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isBlank()) {
+                    SnippetMutation mutation;
+                    try {
+                        mutation = objectMapper.readValue(line, SnippetMutation.class);
+                    } catch (JsonProcessingException | SnippetException e) {
+                        int following = countRecords(reader);
+                        if (following > 0) {
+                            SnippetLogger.logError("Unreadable journal record on line " + lineNumber, e);
+                            throw SnippetException.ioError("Journal record on line " + lineNumber
+                                + " is unreadable and " + following + " records follow it", e);
+                        }
+                        SnippetLogger.logError("Discarding torn journal record on line " + lineNumber, e);
+                        torn = true;
+                        break;
+                    }
+                    apply(mutation, snippets);
+                    entryCount++;
+                }
+                validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        } catch (IOException e) {
+            SnippetLogger.logError("Error reading journal", e);
+            throw SnippetException.ioError("Failed to replay journal", e);
+        }
+
+        if (torn) {
+            cutTo(validLength);
+        } else if (validLength > 0) {
+            terminateLastRecord(validLength);
+        }
+        tailVerified = true;
+        return entryCount;
+    }
+
+    /**
+     * Removes every record from the journal.
+     * Called once the journal contents have been folded into a new snapshot.
+     *
+     * @throws SnippetException if the journal cannot be truncated
+     */
+    public void truncate() {
+        cutTo(0);
+    }
+
+    /**
+     * Gets the number of records currently in the journal.
+     *
+     * @return the number of journal records
+     */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return the path of the journal file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Applies a single mutation to the snippet map.
+     *
+     * @param mutation the mutation to apply
+     * @param snippets the snippets keyed by ID
+     */
+    private static void apply(SnippetMutation mutation, Map<Integer, Snippet> snippets) {
+        switch (mutation.getType()) {
+            case ADD, UPDATE -> snippets.put(mutation.getId(), mutation.getSnippet());
+            case DELETE -> snippets.remove(mutation.getId());
+        }
+    }
+
+    /**
+     * Counts the non-blank lines left in a reader.
+     *
+     * @param reader the reader
+     * @return the number of remaining records
+     * @throws IOException if the journal cannot be read
+     */
+    private static int countRecords(BufferedReader reader) throws IOException {
+        int count = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the end of the last complete record, just after the last line break.
+     *
+     * @param channel the open journal file
+     * @return the number of bytes up to and including the last line break, 0 if there is none
+     * @throws IOException if the journal cannot be read
+     */
+    private static long lastRecordEnd(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the line break of a last record that was written without one, so the next
+     * append does not cut it off.
+     *
+     * @param length the length of the journal with every record terminated
+     * @throws SnippetException if the line break cannot be written
+     */
+    private void terminateLastRecord(long length) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (channel.size() < length) {
+                channel.write(ByteBuffer.wrap(new byte[] {'\n'}), channel.size());
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            SnippetLogger.logError("Error repairing journal", e);
+            throw SnippetException.ioError("Failed to terminate last journal record", e);
+        }
+    }
+
+    /**
+     * Truncates the journal file to the given length.
+     *
+     * @param length the number of bytes to keep
+     * @throws SnippetException if the file cannot be truncated
+     */
+    private void cutTo(long length) {
+        if (!Files.exists(path)) {
+            entryCount = 0;
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+            if (length == 0) {
+                entryCount = 0;
+            }
+        } catch (IOException e) {
+            SnippetLogger.logError("Error truncating journal", e);
+            throw SnippetException.ioError("Failed to truncate journal", e);
+        }
+    }
+}
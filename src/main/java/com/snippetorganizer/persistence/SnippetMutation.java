@@ -0,0 +1,132 @@
+package com.snippetorganizer.persistence;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * A single change applied to the snippet collection.
+ * Mutations are the unit of work recorded by the {@link SnippetJournal}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetJournal
+ * @see Snippet
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class SnippetMutation {
+
+    /** The kind of change a mutation describes */
+    public enum Type {
+        ADD,
+        UPDATE,
+        DELETE
+    }
+
+    /** The kind of change */
+    private final Type type;
+
+    /** The ID of the affected snippet */
+    private final int id;
+
+    /** The state of the snippet after the change (null for deletions) */
+    private final Snippet snippet;
+
+    /**
+     * Constructs a new SnippetMutation.
+     *
+     * @param type the kind of change (must not be null)
+     * @param id the ID of the affected snippet
+     * @param snippet the state of the snippet after the change (must not be null unless type is DELETE)
+     * @throws SnippetException if the type is null or a snippet is missing for ADD/UPDATE
+     */
+    @JsonCreator
+    public SnippetMutation(
+        @JsonProperty("type") Type type,
+        @JsonProperty("id") int id,
+        @JsonProperty("snippet") Snippet snippet
+    ) {
+        if (type == null) {
+            throw SnippetException.validationError("Mutation type cannot be null");
+        }
+        if (type != Type.DELETE && snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null for " + type + " mutations");
+        }
+        this.type = type;
+        this.id = id;
+        this.snippet = snippet;
+    }
+
+    /**
+     * Creates a mutation recording the addition of a snippet.
+     *
+     * @param snippet the added snippet (must not be null)
+     * @return a new ADD mutation
+     */
+    public static SnippetMutation added(Snippet snippet) {
+        return new SnippetMutation(Type.ADD, requireSnippet(snippet).getId(), snippet);
+    }
+
+    /**
+     * Creates a mutation recording the new state of an edited snippet.
+     *
+     * @param snippet the edited snippet (must not be null)
+     * @return a new UPDATE mutation
+     */
+    public static SnippetMutation updated(Snippet snippet) {
+        return new SnippetMutation(Type.UPDATE, requireSnippet(snippet).getId(), snippet);
+    }
+
+    /**
+     * Creates a mutation recording the deletion of a snippet.
+     *
+     * @param id the ID of the deleted snippet
+     * @return a new DELETE mutation
+     */
+    public static SnippetMutation deleted(int id) {
+        return new SnippetMutation(Type.DELETE, id, null);
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the mutation type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the affected snippet.
+     *
+     * @return the snippet ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the state of the snippet after the change.
+     *
+     * @return the snippet, or null for deletions
+     */
+    public Snippet getSnippet() {
+        return snippet;
+    }
+
+    /**
+     * Ensures a snippet is present for ADD and UPDATE mutations.
+     *
+     * @param snippet the snippet to check
+     * @return the same snippet
+     * @throws SnippetException if the snippet is null
+     */
+    private static Snippet requireSnippet(Snippet snippet) {
+        if (snippet == null) {
+            throw SnippetException.validationError("Snippet cannot be null");
+        }
+        return snippet;
+    }
+}
@@ -0,0 +1,100 @@
+package com.snippetorganizer.persistence;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Persistence backend used by the snippet manager.
+ * The manager owns the in-memory collection; a store loads it once at startup and is then
+ * told about every change after it has been applied to the collection. Stores that persist
+ * full snapshots can read the current contents from the component passed along with each change.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetMutation
+ * @see StorageMode
+ */
+public interface SnippetStore extends Closeable {
+
+    /**
+     * Gets a short human-readable name for this store.
+     *
+     * @return the name of the store
+     */
+    String getName();
+
+    /**
+     * Loads every persisted snippet into the sink, in collection order.
+     *
+     * @param sink receives each loaded snippet (must not be null)
+     * @param listener notified while snippets are loaded (may be null)
+     * @return statistics about the load
+     * @throws SnippetException if the persisted data cannot be read
+     */
+    LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener);
+
+    /**
+     * Persists a change that has already been applied to the collection.
+     *
+     * @param mutation the change to persist (must not be null)
+     * @param contents the collection after the change
+     * @throws SnippetException if the change cannot be persisted
+     */
+    void record(SnippetMutation mutation, SnippetComponent contents);
+
+    /**
+     * Persists several changes that have already been applied to the collection.
+     * Stores that rewrite a full snapshot override this to write it once per batch.
+     *
+     * @param mutations the changes to persist, in order (must not be null)
+     * @param contents the collection after the changes
+     * @throws SnippetException if the changes cannot be persisted
+     */
+    default void recordAll(List<SnippetMutation> mutations, SnippetComponent contents) {
+        for (SnippetMutation mutation : mutations) {
+            record(mutation, contents);
+        }
+    }
+
+    /**
+     * Writes a full snapshot of the collection, e.g. after a bulk import.
+     *
+     * @param contents the collection to persist
+     * @throws SnippetException if the snapshot cannot be written
+     */
+    void checkpoint(SnippetComponent contents);
+
+    /**
+     * Opens the ID allocator that belongs to this store. Stores that persist snippets
+     * override this to persist the sequence next to their data, so IDs stay unique
+     * across restarts. The default implementation returns a sequence kept in memory.
+     *
+     * @return a new ID sequence, owned and closed by the caller
+     * @throws SnippetException if a persisted sequence cannot be read
+     */
+    default IdSequence openIdSequence() {
+        return new IdSequence();
+    }
+
+    /**
+     * Forces any buffered changes to storage. The default implementation does nothing.
+     *
+     * @throws SnippetException if buffered changes cannot be written
+     */
+    default void flush() {
+    }
+
+    /**
+     * Releases any resources held by the store. The default implementation does nothing.
+     *
+     * @throws SnippetException if buffered changes cannot be written
+     */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,67 @@
+package com.snippetorganizer.persistence;
+
+import java.nio.file.Path;
+
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Persistence strategies supported by the snippet manager.
+ * Each mode knows how to create the matching {@link SnippetStore}.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetStore
+ * @see SnippetJournal
+ * @see BinarySnapshot
+ */
+public enum StorageMode {
+
+    /** Nothing is persisted */
+    MEMORY("In-memory"),
+
+    /** Every change rewrites the whole JSON snapshot */
+    JSON("JSON snapshot"),
+
+    /** Changes are appended to a journal and periodically folded into the JSON snapshot */
+    JOURNALED("Journaled JSON snapshot"),
+
+    /** Every change rewrites a compact binary snapshot that is decoded from a memory mapping at startup */
+    BINARY("Binary snapshot");
+
+    private final String displayName;
+
+    StorageMode(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Gets the display name of the storage mode.
+     *
+     * @return the display name of the storage mode
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Creates the store implementing this mode.
+     *
+     * @param dataFile the main data file of the store (must not be null, ignored for MEMORY)
+     * @return a new store backed by the given file
+     * @throws SnippetException if the path is null or the store cannot be initialized
+     */
+    public SnippetStore createStore(Path dataFile) {
+        if (this == MEMORY) {
+            return new InMemorySnippetStore();
+        }
+        if (dataFile == null) {
+            throw SnippetException.validationError("Data file cannot be null");
+        }
+        return switch (this) {
+            case JSON -> new JsonSnippetStore(dataFile);
+            case JOURNALED -> new JournaledSnippetStore(dataFile);
+            case BINARY -> new BinarySnippetStore(dataFile);
+            case MEMORY -> new InMemorySnippetStore();
+        };
+    }
+}
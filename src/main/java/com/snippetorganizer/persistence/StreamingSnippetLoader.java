@@ -0,0 +1,115 @@
+package com.snippetorganizer.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Streaming reader for JSON snippet files.
+ * The file is consumed token by token and each snippet object is bound and handed to
+ * the caller as soon as it has been read, so the whole array is never materialized.
+ * Peak memory during a load is the size of the resulting collection plus one snippet.
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see LoadProgressListener
+ * @see LoadStats
+ */
+public class StreamingSnippetLoader {
+
+    /** The default number of snippets between two progress notifications */
+    private static final int DEFAULT_PROGRESS_INTERVAL = 10_000;
+
+    /** Jackson ObjectMapper used to create the parser and bind snippet objects */
+    private final ObjectMapper objectMapper;
+
+    /** The number of snippets between two progress notifications */
+    private final int progressInterval;
+
+    /**
+     * Constructs a new StreamingSnippetLoader with default settings.
+     */
+    public StreamingSnippetLoader() {
+        this(new ObjectMapper(), DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    /**
+     * Constructs a new StreamingSnippetLoader.
+     *
+     * @param objectMapper the mapper used to bind snippet objects (must not be null)
+     * @param progressInterval the number of snippets between progress notifications (must be positive)
+     * @throws SnippetException if the mapper is null or the interval is not positive
+     */
+    public StreamingSnippetLoader(ObjectMapper objectMapper, int progressInterval) {
+        if (objectMapper == null) {
+            throw SnippetException.validationError("ObjectMapper cannot be null");
+        }
+        if (progressInterval <= 0) {
+            throw SnippetException.validationError("Progress interval must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Streams every snippet of a JSON array file into the given sink.
+     * A missing or empty file yields no snippets.
+     *
+     * @param file the JSON file to read (must not be null)
+     * @param sink receives each snippet as soon as it is read (must not be null)
+     * @param listener notified every few thousand snippets and once at the end (may be null)
+     * @return statistics about the completed load
+     * @throws SnippetException if the arguments are invalid or the file cannot be parsed
+     */
+    public LoadStats load(File file, Consumer<Snippet> sink, LoadProgressListener listener) {
+        if (file == null) {
+            throw SnippetException.validationError("File cannot be null");
+        }
+        if (sink == null) {
+            throw SnippetException.validationError("Sink cannot be null");
+        }
+        LoadProgressListener progress = listener != null ? listener : LoadProgressListener.NONE;
+        if (!file.exists() || file.length() == 0) {
+            return LoadStats.EMPTY;
+        }
+
+        long totalBytes = file.length();
+        long start = System.nanoTime();
+        long count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(file)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return LoadStats.EMPTY;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw SnippetException.ioError("Snippets file must contain a JSON array",
+                    new IOException("Unexpected token " + token + " at start of " + file.getName()));
+            }
+
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                sink.accept(parser.readValueAs(Snippet.class));
+                count++;
+                if (count % progressInterval == 0) {
+                    progress.onProgress(count, parser.currentLocation().getByteOffset(), totalBytes);
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw SnippetException.ioError("Snippets file contains an invalid entry",
+                    new IOException("Unexpected token " + token + " in " + file.getName()));
+            }
+        } catch (IOException e) {
+            SnippetLogger.logError("Error streaming snippets file", e);
+            throw SnippetException.ioError("Failed to load snippets from file", e);
+        }
+
+        progress.onProgress(count, totalBytes, totalBytes);
+        return new LoadStats(count, totalBytes, System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,365 @@
+package com.snippetorganizer.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.logging.SnippetLogger;
+
+/**
+ * Store decorator that acknowledges changes in memory and persists them in batches
+ * from a background thread (group commit).
+ *
+ * <p>A batch is written as soon as it reaches the maximum batch size or its oldest change
+ * has waited for the maximum delay, whichever comes first. Each batch is handed to the
+ * wrapped store through {@link SnippetStore#recordAll}, so a journaled store appends it
+ * in one go and a snapshot store rewrites its file once per batch instead of once per change.</p>
+ *
+ * <p>Durability: everything recorded before the last completed batch (or the last call to
+ * {@link #flush()}) is in the wrapped store; a crash can only lose the changes still waiting
+ * in the current window. While a batch is written the flusher holds the monitor of the
+ * collection it was given, so the manager must not call {@link #flush()}, {@link #checkpoint}
+ * or {@link #close()} while holding that monitor itself.</p>
+ *
+ * <p>A batch the wrapped store fails to write goes back to the head of the queue and the
+ * flusher retries it after a backoff that starts at {@value #INITIAL_RETRY_DELAY_MILLIS} ms
+ * and doubles after each further failure, up to {@value #MAX_RETRY_DELAY_MILLIS} ms. New
+ * changes keep being accepted meanwhile and go out with the retried batch; {@link #flush()}
+ * and {@link #close()} retry at once and report the error if the write still fails.</p>
+ *
+ * @author Sherif Moustafa
+ * @version 1.0
+ * @see SnippetStore
+ */
+public class WriteBehindSnippetStore implements SnippetStore {
+
+    /** The default maximum time a change waits before it is written */
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 200;
+
+    /** The default maximum number of changes written in one batch */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+
+    /** The time the flusher waits before retrying a failed batch the first time */
+    public static final long INITIAL_RETRY_DELAY_MILLIS = 100;
+
+    /** The longest time the flusher waits before retrying a failed batch */
+    public static final long MAX_RETRY_DELAY_MILLIS = 5000;
+
+    /** The store the batches are written to */
+    private final SnippetStore delegate;
+
+    /** The maximum time a change waits before it is written, in nanoseconds */
+    private final long maxDelayNanos;
+
+    /** The maximum number of changes written in one batch */
+    private final int maxBatchSize;
+
+    /** Guards the pending queue and the state flags */
+    private final Object queueLock = new Object();
+
+    /** Serializes batch writes so batches reach the wrapped store in order */
+    private final Object writeLock = new Object();
+
+    /** Changes acknowledged but not yet written */
+    private List<SnippetMutation> pending = new ArrayList<>();
+
+    /** The time at which the oldest pending change was recorded */
+    private long oldestPendingNanos;
+
+    /** The collection the pending changes were applied to */
+    private SnippetComponent contents;
+
+    /** The error raised by the last failed background write (null if none) */
+    private RuntimeException failure;
+
+    /** The backoff after the last failed write, in nanoseconds (0 if the last write succeeded) */
+    private long retryDelayNanos;
+
+    /** The time at which the flusher retries a failed batch */
+    private long retryAtNanos;
+
+    /** Whether the store has been closed */
+    private boolean closed;
+
+    /** The background flusher thread */
+    private final Thread flusher;
+
+    /**
+     * Constructs a new WriteBehindSnippetStore with the default delay and batch size.
+     *
+     * @param delegate the store to write batches to (must not be null)
+     * @throws SnippetException if the delegate is null
+     */
+    public WriteBehindSnippetStore(SnippetStore delegate) {
+        this(delegate, DEFAULT_MAX_DELAY_MILLIS, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a new WriteBehindSnippetStore.
+     *
+     * @param delegate the store to write batches to (must not be null)
+     * @param maxDelayMillis the maximum time a change waits before it is written (must be positive)
+     * @param maxBatchSize the maximum number of changes written in one batch (must be positive)
+     * @throws SnippetException if any parameter is invalid
+     */
+    public WriteBehindSnippetStore(SnippetStore delegate, long maxDelayMillis, int maxBatchSize) {
+        if (delegate == null) {
+            throw SnippetException.validationError("Delegate store cannot be null");
+        }
+        if (maxDelayMillis <= 0) {
+            throw SnippetException.validationError("Maximum delay must be positive");
+        }
+        if (maxBatchSize <= 0) {
+            throw SnippetException.validationError("Maximum batch size must be positive");
+        }
+        this.delegate = delegate;
+        this.maxDelayNanos = maxDelayMillis * 1_000_000L;
+        this.maxBatchSize = maxBatchSize;
+        this.flusher = new Thread(this::runFlusher, "snippet-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Gets the name of this store.
+     *
+     * @return the name of the wrapped store with a write-behind marker
+     */
+    @Override
+    public String getName() {
+        return delegate.getName() + " (write-behind)";
+    }
+
+    /**
+     * Loads snippets from the wrapped store.
+     *
+     * @param sink receives each loaded snippet (must not be null)
+     * @param listener notified while snippets are loaded (may be null)
+     * @return statistics about the load
+     * @throws SnippetException if the persisted data cannot be read
+     */
+    @Override
+    public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+        return delegate.load(sink, listener);
+    }
+
+    /**
+     * Opens the ID sequence of the wrapped store.
+     *
+     * @return the ID sequence of the wrapped store
+     * @throws SnippetException if the sequence cannot be read
+     */
+    @Override
+    public IdSequence openIdSequence() {
+        return delegate.openIdSequence();
+    }
+
+    /**
+     * Queues a change for the next batch and returns immediately.
+     *
+     * @param mutation the change (must not be null)
+     * @param contents the collection after the change (must not be null)
+     * @throws SnippetException if the store is closed
+     */
+    @Override
+    public void record(SnippetMutation mutation, SnippetComponent contents) {
+        if (mutation == null) {
+            throw SnippetException.validationError("Mutation cannot be null");
+        }
+        if (contents == null) {
+            throw SnippetException.validationError("Component cannot be null");
+        }
+        synchronized (queueLock) {
+            if (closed) {
+                throw new SnippetException("Write-behind store is closed");
+            }
+            if (pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            pending.add(mutation);
+            this.contents = contents;
+            if (pending.size() == 1 || pending.size() >= maxBatchSize) {
+                queueLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Writes any pending changes, then checkpoints the wrapped store.
+     *
+     * @param contents the collection to persist
+     * @throws SnippetException if the changes or the snapshot cannot be written
+     */
+    @Override
+    public void checkpoint(SnippetComponent contents) {
+        if (contents == null) {
+            throw SnippetException.validationError("Component cannot be null");
+        }
+        synchronized (writeLock) {
+            writePending(true);
+            synchronized (contents) {
+                delegate.checkpoint(contents);
+            }
+        }
+    }
+
+    /**
+     * Writes every pending change on the calling thread and flushes the wrapped store.
+     *
+     * @throws SnippetException if the changes cannot be written
+     */
+    @Override
+    public void flush() {
+        writePending(true);
+        delegate.flush();
+    }
+
+    /**
+     * Stops the background thread, writes every pending change and closes the wrapped store.
+     *
+     * @throws SnippetException if the pending changes cannot be written
+     */
+    @Override
+    public void close() {
+        synchronized (queueLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queueLock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writePending(true);
+        } finally {
+            delegate.close();
+        }
+    }
+
+    /**
+     * Gets the number of changes acknowledged but not yet written.
+     *
+     * @return the number of pending changes
+     */
+    public int getPendingCount() {
+        synchronized (queueLock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Gets the wrapped store.
+     *
+     * @return the store batches are written to
+     */
+    public SnippetStore getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Body of the background thread: waits until a batch is full or its delay has
+     * expired, or until the backoff of a failed batch has passed, then writes it.
+     */
+    private void runFlusher() {
+        while (true) {
+            synchronized (queueLock) {
+                try {
+                    while (!closed && !batchDue()) {
+                        if (pending.isEmpty()) {
+                            queueLock.wait();
+                        } else {
+                            long remaining = failure != null ? retryAtNanos - System.nanoTime()
+                                : maxDelayNanos - (System.nanoTime() - oldestPendingNanos);
+                            queueLock.wait(Math.max(1, remaining / 1_000_000L));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            writePending(false);
+        }
+    }
+
+    /**
+     * Checks whether the pending changes should be written now.
+     * Must be called while holding the queue lock.
+     *
+     * @return true if the batch is full or its oldest change has waited long enough, or
+     *         the backoff of a failed batch has passed
+     */
+    private boolean batchDue() {
+        if (pending.isEmpty()) {
+            return false;
+        }
+        if (failure != null) {
+            return System.nanoTime() - retryAtNanos >= 0;
+        }
+        return pending.size() >= maxBatchSize || System.nanoTime() - oldestPendingNanos >= maxDelayNanos;
+    }
+
+    /**
+     * Drains the pending changes and writes them to the wrapped store in batches.
+     * A failed batch is put back at the head of the queue and the retry backoff grows.
+     *
+     * @param rethrow whether a write failure is thrown to the caller (false on the background thread)
+     * @throws SnippetException if a batch cannot be written and rethrow is true
+     */
+    private void writePending(boolean rethrow) {
+        synchronized (writeLock) {
+            while (true) {
+                List<SnippetMutation> batch;
+                SnippetComponent target;
+                synchronized (queueLock) {
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    if (pending.size() <= maxBatchSize) {
+                        batch = pending;
+                        pending = new ArrayList<>();
+                    } else {
+                        batch = new ArrayList<>(pending.subList(0, maxBatchSize));
+                        pending = new ArrayList<>(pending.subList(maxBatchSize, pending.size()));
+                    }
+                    target = contents;
+                    oldestPendingNanos = System.nanoTime();
+                }
+
+                try {
+                    synchronized (target) {
+                        delegate.recordAll(batch, target);
+                    }
+                    synchronized (queueLock) {
+                        failure = null;
+                        retryDelayNanos = 0;
+                    }
+                } catch (RuntimeException e) {
+                    SnippetLogger.logError("Error writing batch of " + batch.size() + " changes", e);
+                    synchronized (queueLock) {
+                        batch.addAll(pending);
+                        pending = batch;
+                        failure = e;
+                        retryDelayNanos = retryDelayNanos == 0 ? INITIAL_RETRY_DELAY_MILLIS * 1_000_000L
+                            : Math.min(retryDelayNanos * 2, MAX_RETRY_DELAY_MILLIS * 1_000_000L);
+                        retryAtNanos = System.nanoTime() + retryDelayNanos;
+                    }
+                    if (rethrow) {
+                        throw e instanceof SnippetException ? (SnippetException) e
+                            : SnippetException.systemError("Failed to write pending changes", e);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
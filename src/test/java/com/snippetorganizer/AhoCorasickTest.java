@@ -0,0 +1,87 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.AhoCorasick;
+
+/**
+ * Test suite for the AhoCorasick class.
+ */
+class AhoCorasickTest {
+
+    @Test
+    void testReportsOverlappingAndNestedKeywords() {
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers"));
+        List<String> found = new ArrayList<>();
+        automaton.find("ushers", (keyword, start) -> found.add(automaton.getKeywords().get(keyword) + "@" + start));
+
+        assertEquals(List.of("she@1", "he@2", "hers@2"), found);
+        assertTrue(automaton.containsAny("this"));
+        assertFalse(automaton.containsAny("sh e"));
+        assertFalse(automaton.containsAny(null));
+    }
+
+    @Test
+    void testAgreesWithRepeatedIndexOf() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            List<String> keywords = new ArrayList<>();
+            for (int k = 0; k < 1 + random.nextInt(8); k++) {
+                keywords.add(randomText(random, 1 + random.nextInt(4)));
+            }
+            String text = randomText(random, random.nextInt(200));
+            AhoCorasick automaton = new AhoCorasick(keywords);
+
+            int[] counts = new int[keywords.size()];
+            automaton.find(text, (keyword, start) -> {
+                assertTrue(text.startsWith(keywords.get(keyword), start));
+                counts[keyword]++;
+            });
+            for (int k = 0; k < keywords.size(); k++) {
+                int expected = keywords.indexOf(keywords.get(k)) == k ? occurrences(text, keywords.get(k)) : 0;
+                assertEquals(expected, counts[k], keywords.get(k) + " in " + text);
+            }
+        }
+    }
+
+    @Test
+    void testCharsOutsideAsciiAndTheKeywords() {
+        AhoCorasick automaton = new AhoCorasick(List.of("größe", "☺"));
+        List<Integer> starts = new ArrayList<>();
+        automaton.find("die größe ☺ größe!", (keyword, start) -> starts.add(start));
+
+        assertEquals(List.of(4, 10, 12), starts);
+    }
+
+    @Test
+    void testInvalidKeywords() {
+        assertThrows(SnippetException.class, () -> new AhoCorasick(List.of()));
+        assertThrows(SnippetException.class, () -> new AhoCorasick(null));
+        assertThrows(SnippetException.class, () -> new AhoCorasick(List.of("ok", "")));
+    }
+
+    private static int occurrences(String text, String keyword) {
+        int count = 0;
+        for (int i = text.indexOf(keyword); i >= 0; i = text.indexOf(keyword, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("abcx_".charAt(random.nextInt(5)));
+        }
+        return text.toString();
+    }
+}
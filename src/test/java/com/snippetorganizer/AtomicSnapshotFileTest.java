@@ -0,0 +1,170 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.composite.SnippetCollection;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.AtomicSnapshotFile;
+import com.snippetorganizer.persistence.AtomicSnapshotFile.Stamp;
+import com.snippetorganizer.persistence.BinarySnippetStore;
+import com.snippetorganizer.persistence.JsonSnippetStore;
+
+/**
+ * Test suite for the AtomicSnapshotFile class and the crash recovery of the snapshot stores.
+ */
+class AtomicSnapshotFileTest {
+
+    private Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("snippets_atomic_test_");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.walk(tempDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static void writeText(Path target, Stamp stamp, String text) {
+        AtomicSnapshotFile.write(target, stamp, file -> Files.writeString(file, text));
+    }
+
+    @Test
+    void testWriteKeepsPreviousGeneration() throws IOException {
+        Path target = tempDir.resolve("data.bin");
+        writeText(target, Stamp.FOOTER, "first");
+        writeText(target, Stamp.FOOTER, "second");
+
+        Path previous = AtomicSnapshotFile.previousOf(target);
+        assertTrue(Files.exists(previous));
+        assertEquals(5 + AtomicSnapshotFile.FOOTER_SIZE, Files.size(previous));
+        assertTrue(AtomicSnapshotFile.verify(target, Stamp.FOOTER));
+        assertTrue(AtomicSnapshotFile.verify(previous, Stamp.FOOTER));
+        assertFalse(Files.exists(tempDir.resolve("data.bin.tmp")));
+    }
+
+    @Test
+    void testFooterDetectsCorruptionAndTruncation() throws IOException {
+        Path target = tempDir.resolve("data.bin");
+        writeText(target, Stamp.FOOTER, "hello world");
+
+        byte[] bytes = Files.readAllBytes(target);
+        bytes[0] ^= 1;
+        Files.write(target, bytes);
+        assertFalse(AtomicSnapshotFile.verify(target, Stamp.FOOTER));
+
+        writeText(target, Stamp.FOOTER, "hello world");
+        Files.write(target, Arrays.copyOf(Files.readAllBytes(target), 8));
+        assertFalse(AtomicSnapshotFile.verify(target, Stamp.FOOTER));
+    }
+
+    @Test
+    void testResolveFallsBackToPreviousGeneration() throws IOException {
+        Path target = tempDir.resolve("snippets.json");
+        writeText(target, Stamp.SIDECAR, "[]");
+        writeText(target, Stamp.SIDECAR, "[1, 2]");
+        assertEquals(target, AtomicSnapshotFile.resolve(target, Stamp.SIDECAR));
+
+        Files.writeString(target, "[1, ");
+        assertEquals(AtomicSnapshotFile.previousOf(target), AtomicSnapshotFile.resolve(target, Stamp.SIDECAR));
+
+        Files.delete(target);
+        assertEquals(AtomicSnapshotFile.previousOf(target), AtomicSnapshotFile.resolve(target, Stamp.SIDECAR));
+    }
+
+    @Test
+    void testTornSnapshotDoesNotReplacePreviousGeneration() throws IOException {
+        Path target = tempDir.resolve("snippets.json");
+        writeText(target, Stamp.SIDECAR, "[1]");
+        writeText(target, Stamp.SIDECAR, "[1, 2]");
+        Files.writeString(target, "[1, 2, ");
+
+        writeText(target, Stamp.SIDECAR, "[1, 2, 3]");
+        Path previous = AtomicSnapshotFile.previousOf(target);
+        assertEquals("[1]", Files.readString(previous, StandardCharsets.UTF_8));
+        assertTrue(AtomicSnapshotFile.verify(previous, Stamp.SIDECAR));
+    }
+
+    @Test
+    void testResolveWithoutAnyGeneration() throws IOException {
+        Path target = tempDir.resolve("missing.json");
+        assertNull(AtomicSnapshotFile.resolve(target, Stamp.SIDECAR));
+
+        Files.writeString(target, "[]");
+        assertEquals(target, AtomicSnapshotFile.resolve(target, Stamp.SIDECAR));
+
+        Path binary = tempDir.resolve("torn.bin");
+        Files.writeString(binary, "not a snapshot");
+        assertThrows(SnippetException.class, () -> AtomicSnapshotFile.resolve(binary, Stamp.FOOTER));
+    }
+
+    @Test
+    void testJsonStoreRecoversFromTornSnapshot() throws IOException {
+        Path file = tempDir.resolve("snippets.json");
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (JsonSnippetStore store = new JsonSnippetStore(file)) {
+            contents.addSnippet(TestDataUtil.javaSnippet(1));
+            store.checkpoint(contents);
+            contents.addSnippet(TestDataUtil.pythonSnippet(2));
+            store.checkpoint(contents);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        List<Snippet> loaded = new ArrayList<>();
+        new JsonSnippetStore(file).load(loaded::add, null);
+        assertEquals(1, loaded.size());
+        assertEquals("Java Class", loaded.get(0).getTitle());
+    }
+
+    @Test
+    void testBinaryStoreRecoversFromTornSnapshot() throws IOException {
+        Path file = tempDir.resolve("snippets.snpb");
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (BinarySnippetStore store = new BinarySnippetStore(file)) {
+            contents.addSnippet(TestDataUtil.javaSnippet(1));
+            store.checkpoint(contents);
+            contents.addSnippet(TestDataUtil.pythonSnippet(2));
+            store.checkpoint(contents);
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x5A;
+        Files.write(file, bytes);
+
+        List<Snippet> loaded = new ArrayList<>();
+        new BinarySnippetStore(file).load(loaded::add, null);
+        assertEquals(1, loaded.size());
+        assertEquals(1, loaded.get(0).getId());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        Path target = tempDir.resolve("x");
+        assertThrows(SnippetException.class, () -> AtomicSnapshotFile.write(null, Stamp.FOOTER, file -> { }));
+        assertThrows(SnippetException.class, () -> AtomicSnapshotFile.write(target, null, file -> { }));
+        assertThrows(SnippetException.class, () -> AtomicSnapshotFile.write(target, Stamp.FOOTER, null));
+        assertThrows(SnippetException.class, () -> AtomicSnapshotFile.resolve(null, Stamp.FOOTER));
+    }
+}
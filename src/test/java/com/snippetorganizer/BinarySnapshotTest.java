@@ -0,0 +1,179 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.BinarySnapshot;
+import com.snippetorganizer.persistence.StorageMode;
+
+/**
+ * Test suite for the BinarySnapshot class and the binary storage mode.
+ */
+class BinarySnapshotTest {
+
+    private Path tempFile;
+    private Path jsonFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFile = Files.createTempFile("snippets_binary_test_", ".snpb");
+        jsonFile = Files.createTempFile("snippets_binary_test_", ".json");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+        Files.deleteIfExists(jsonFile);
+    }
+
+    @Test
+    void testWriteAndReadRoundTrip() {
+        Snippet withNullDescription = new Snippet(4, "Unicode 你好", "Python", "print('世界')", null, null);
+        BinarySnapshot.write(tempFile, List.of(TestDataUtil.pythonSnippet(2), TestDataUtil.javaSnippet(1),
+            withNullDescription));
+
+        try (BinarySnapshot snapshot = BinarySnapshot.open(tempFile)) {
+            assertEquals(3, snapshot.size());
+            assertEquals(1, snapshot.idAt(0));
+            assertEquals(2, snapshot.idAt(1));
+            assertEquals(4, snapshot.idAt(2));
+
+            Snippet java = snapshot.get(0);
+            assertEquals("Java Class", java.getTitle());
+            assertEquals("public class Test {}", java.getCode());
+            assertEquals("A Java class", java.getDescription());
+            assertEquals(Set.of("java", "oop"), java.getTags());
+
+            Snippet unicode = snapshot.get(2);
+            assertEquals("Unicode 你好", unicode.getTitle());
+            assertEquals("print('世界')", unicode.getCode());
+            assertNull(unicode.getDescription());
+            assertTrue(unicode.getTags().isEmpty());
+        }
+    }
+
+    @Test
+    void testFindById() {
+        List<Snippet> snippets = new ArrayList<>();
+        for (int i = 1; i <= 50; i += 2) {
+            snippets.add(TestDataUtil.jsSnippet(i));
+        }
+        BinarySnapshot.write(tempFile, snippets);
+
+        try (BinarySnapshot snapshot = BinarySnapshot.open(tempFile)) {
+            assertEquals(25, snapshot.findById(25).getId());
+            assertEquals(49, snapshot.findById(49).getId());
+            assertNull(snapshot.findById(2));
+            assertNull(snapshot.findById(100));
+        }
+    }
+
+    @Test
+    void testEmptySnapshot() {
+        BinarySnapshot.write(tempFile, List.of());
+        try (BinarySnapshot snapshot = BinarySnapshot.open(tempFile)) {
+            assertEquals(0, snapshot.size());
+            assertNull(snapshot.findById(1));
+        }
+    }
+
+    @Test
+    void testOpenRejectsInvalidFiles() throws IOException {
+        Files.writeString(tempFile, "[]");
+        assertThrows(SnippetException.class, () -> BinarySnapshot.open(tempFile));
+
+        Files.writeString(tempFile, "this is certainly not a binary snapshot");
+        assertThrows(SnippetException.class, () -> BinarySnapshot.open(tempFile));
+
+        BinarySnapshot.write(tempFile, List.of(TestDataUtil.javaSnippet(1)));
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 1_000_000), 8);
+        }
+        assertThrows(SnippetException.class, () -> BinarySnapshot.open(tempFile));
+    }
+
+    @Test
+    void testClosedSnapshotRejectsReads() {
+        BinarySnapshot.write(tempFile, List.of(TestDataUtil.javaSnippet(1)));
+        BinarySnapshot snapshot = BinarySnapshot.open(tempFile);
+        snapshot.close();
+        assertThrows(SnippetException.class, () -> snapshot.get(0));
+    }
+
+    @Test
+    void testIndexOutOfRange() {
+        BinarySnapshot.write(tempFile, List.of(TestDataUtil.javaSnippet(1)));
+        try (BinarySnapshot snapshot = BinarySnapshot.open(tempFile)) {
+            assertThrows(SnippetException.class, () -> snapshot.get(1));
+            assertThrows(SnippetException.class, () -> snapshot.idAt(-1));
+        }
+    }
+
+    @Test
+    void testBinaryManagerPersistsChanges() throws IOException {
+        Files.delete(tempFile);
+        SnippetManager manager = new SnippetManager(tempFile.toString(), StorageMode.BINARY);
+        manager.addSnippet("Title1", "Java", "code1", Set.of("java"), "first");
+        manager.addSnippet("Title2", "Python", "code2");
+        manager.addSnippet("Title3", "C", "code3");
+        manager.deleteSnippet(2);
+
+        SnippetManager reloaded = new SnippetManager(tempFile.toString(), StorageMode.BINARY);
+        assertEquals(2, reloaded.getSnippetCount());
+        assertEquals("first", reloaded.getAllSnippets().get(0).getDescription());
+        assertEquals(3, reloaded.getAllSnippets().get(1).getId());
+        assertEquals(2, reloaded.getLoadStats().getSnippetCount());
+    }
+
+    @Test
+    void testJsonExportAndImport() {
+        SnippetManager source = new SnippetManager(tempFile.toString() + ".src", StorageMode.BINARY);
+        try {
+            source.addSnippet("Title1", "Java", "code1", Set.of("java"), "first");
+            source.addSnippet("Title2", "Python", "code2");
+            source.exportJson(jsonFile.toString());
+
+            SnippetManager target = new SnippetManager(tempFile.toString(), StorageMode.BINARY);
+            target.addSnippet("Existing", "Go", "code0");
+            assertEquals(2, target.importJson(jsonFile.toString()));
+
+            List<Snippet> snippets = target.getAllSnippets();
+            assertEquals(3, snippets.size());
+            assertEquals(List.of(1, 2, 3), snippets.stream().map(Snippet::getId).toList());
+            assertEquals("Title1", snippets.get(1).getTitle());
+            assertTrue(snippets.get(1).hasTag("java"));
+            assertEquals(3, new SnippetManager(tempFile.toString(), StorageMode.BINARY).getSnippetCount());
+        } finally {
+            new java.io.File(tempFile.toString() + ".src").delete();
+        }
+    }
+
+    @Test
+    void testImportJsonMissingFile() {
+        SnippetManager manager = new SnippetManager(tempFile.toString() + ".json", StorageMode.JSON);
+        try {
+            assertThrows(SnippetException.class, () -> manager.importJson(tempFile.toString() + ".missing"));
+            assertThrows(SnippetException.class, () -> manager.exportJson(" "));
+        } finally {
+            new java.io.File(tempFile.toString() + ".json").delete();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.snippetorganizer;
+
+import java.nio.file.Path;
+
+import com.snippetorganizer.persistence.BinarySnippetStore;
+import com.snippetorganizer.persistence.SnippetStore;
+
+/**
+ * Runs the store conformance suite against BinarySnippetStore.
+ */
+class BinarySnippetStoreTest extends SnippetStoreConformanceTest {
+
+    @Override
+    protected SnippetStore createStore(Path dir) {
+        return new BinarySnippetStore(dir.resolve("snippets.snpb"));
+    }
+}
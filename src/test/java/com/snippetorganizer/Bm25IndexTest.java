@@ -0,0 +1,91 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.Bm25Index;
+import com.snippetorganizer.index.SearchHit;
+
+/**
+ * Test suite for the Bm25Index class.
+ */
+class Bm25IndexTest {
+
+    @Test
+    void testTitleMatchesOutrankCodeMatches() {
+        Bm25Index index = new Bm25Index();
+        index.add(new Snippet(1, "Helpers", "Java", "void sort(int[] values) {}", Set.of(), ""));
+        index.add(new Snippet(2, "Quick Sort", "Java", "void run() {}", Set.of(), ""));
+        index.add(new Snippet(3, "Unrelated", "Java", "int x = 1;", Set.of(), ""));
+
+        List<SearchHit> hits = index.search("sort", 10);
+        assertEquals(2, hits.size());
+        assertEquals(2, hits.get(0).getId());
+        assertEquals(1, hits.get(1).getId());
+        assertTrue(hits.get(0).getScore() > hits.get(1).getScore());
+    }
+
+    @Test
+    void testRareTermsWeighMore() {
+        Bm25Index index = new Bm25Index();
+        index.add(new Snippet(1, "Common", "Java", "list list", Set.of(), ""));
+        index.add(new Snippet(2, "Rare", "Java", "trie", Set.of(), ""));
+        index.add(new Snippet(3, "Other", "Java", "list", Set.of(), ""));
+        index.add(new Snippet(4, "More", "Java", "list", Set.of(), ""));
+
+        assertEquals(2, index.search("list trie", 1).get(0).getId());
+    }
+
+    @Test
+    void testKeepsOnlyTopK() {
+        Bm25Index index = new Bm25Index();
+        for (int id = 0; id < 500; id++) {
+            String code = "map ".repeat(1 + id % 7) + "filler ".repeat(id % 13);
+            index.add(new Snippet(id, "T" + id, "Java", code, Set.of(), ""));
+        }
+        List<SearchHit> top = index.search("map", 5);
+        List<SearchHit> all = index.search("map", 500);
+        assertEquals(5, top.size());
+        assertEquals(500, all.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(all.get(i).getId(), top.get(i).getId());
+        }
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getScore() >= all.get(i).getScore());
+        }
+    }
+
+    @Test
+    void testRemoveAndReplace() {
+        Bm25Index index = new Bm25Index();
+        Snippet snippet = TestDataUtil.javaSnippet(1);
+        index.add(snippet);
+        assertEquals(1, index.search("class", 10).size());
+
+        snippet.setTitle("Renamed");
+        snippet.setCode("int x;");
+        snippet.setDescription("");
+        index.add(snippet);
+        assertTrue(index.search("class", 10).isEmpty());
+        assertEquals(1, index.search("renamed", 10).size());
+
+        assertTrue(index.remove(1));
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTermCount());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new Bm25Index(-1, 1, 1, 1));
+        assertThrows(SnippetException.class, () -> new Bm25Index().add(null));
+        assertThrows(SnippetException.class, () -> new Bm25Index().search(null, 1));
+        assertThrows(SnippetException.class, () -> new Bm25Index().search("x", 0));
+    }
+}
@@ -0,0 +1,59 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.index.Bm25Index;
+import com.snippetorganizer.index.CodeTokenizer;
+
+/**
+ * Test suite for the CodeTokenizer class.
+ */
+class CodeTokenizerTest {
+
+    private final CodeTokenizer tokenizer = new CodeTokenizer();
+
+    @Test
+    void testSplitsCamelAndSnakeCase() {
+        assertEquals(List.of("getusername", "get", "user", "name"), tokenizer.tokenize("getUserName", null));
+        assertEquals(List.of("max_retry_count", "max", "retry", "count"), tokenizer.tokenize("MAX_RETRY_COUNT", null));
+        assertEquals(List.of("httpserver", "http", "server"), tokenizer.tokenize("HTTPServer", null));
+        assertEquals(List.of("__init__", "init"), tokenizer.tokenize("__init__", null));
+        assertEquals(List.of("utf8"), tokenizer.tokenize("utf8", null));
+        assertEquals(List.of("vec3add", "vec3", "add"), tokenizer.tokenize("vec3Add", null));
+    }
+
+    @Test
+    void testPunctuationSeparatesTerms() {
+        assertEquals(List.of("list", "stream", "map", "x", "x", "1"),
+            tokenizer.tokenize("list.stream().map(x -> x + 1);", null));
+        assertEquals(List.of("quick", "sort"), tokenizer.tokenize("Quick Sort", null));
+        assertTrue(tokenizer.tokenize(null, null).isEmpty());
+        assertTrue(tokenizer.tokenize("a".repeat(CodeTokenizer.MAX_TERM_LENGTH + 1), null).isEmpty());
+    }
+
+    @Test
+    void testLeavesOutReservedWordsOfTheLanguage() {
+        assertEquals(List.of("test", "run"), tokenizer.tokenize("public class Test { void run() {} }", "Java"));
+        assertEquals(List.of("def", "fetch", "data", "none"), tokenizer.tokenize("def fetch(data): return None", "Java"));
+        assertEquals(List.of("fetch", "data"), tokenizer.tokenize("def fetch(data): return None", "python"));
+        assertEquals(List.of("is_valid", "is", "valid"), tokenizer.tokenize("is_valid", "Python"));
+        assertEquals(List.of("public"), tokenizer.tokenize("public", "Unknown"));
+    }
+
+    @Test
+    void testRankedSearchFindsIdentifierParts() {
+        Bm25Index index = new Bm25Index();
+        index.add(new Snippet(1, "Account", "Java", "String getUserName() { return name; }", Set.of(), ""));
+        index.add(new Snippet(2, "Other", "Java", "int count;", Set.of(), ""));
+
+        assertEquals(1, index.search("user", 10).get(0).getId());
+        assertEquals(1, index.search("getUserName", 10).get(0).getId());
+        assertTrue(index.search("return", 10).isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.CompletionIndex;
+import com.snippetorganizer.index.CompletionIndex.Completion;
+import com.snippetorganizer.index.CompletionIndex.Field;
+
+/**
+ * Test suite for the CompletionIndex class.
+ */
+class CompletionIndexTest {
+
+    @Test
+    void testCompletesByUsageThenAlphabetically() {
+        CompletionIndex index = new CompletionIndex();
+        index.add(new Snippet(1, "Thread Pool", "Java", "x", Set.of("java", "javadoc"), ""));
+        index.add(new Snippet(2, "Thread Local", "JavaScript", "x", Set.of("java", "jvm"), ""));
+        index.add(new Snippet(3, "Threads", "Java", "x", Set.of("javafx", "jvm"), ""));
+
+        assertEquals(List.of("java (2)", "jvm (2)", "javadoc (1)"), strings(index.complete(Field.TAG, "j", 3)));
+        assertEquals(List.of("java (2)", "javadoc (1)", "javafx (1)"), strings(index.complete(Field.TAG, "JAVA", 10)));
+        assertEquals(List.of("Java (2)", "JavaScript (1)"), strings(index.complete(Field.LANGUAGE, "jav", 10)));
+        assertEquals(List.of("Thread Local (1)", "Thread Pool (1)"), strings(index.complete(Field.TITLE, "thread ", 10)));
+        assertTrue(index.complete(Field.TAG, "python", 10).isEmpty());
+    }
+
+    @Test
+    void testFollowsRemovals() {
+        CompletionIndex index = new CompletionIndex();
+        index.add(new Snippet(1, "A", "Java", "x", Set.of("alpha"), ""));
+        index.add(new Snippet(2, "B", "Java", "x", Set.of("alpha", "alps"), ""));
+        index.add(new Snippet(3, "C", "Java", "x", Set.of("alps"), ""));
+        index.add(new Snippet(4, "D", "Java", "x", Set.of("alps"), ""));
+        assertEquals("alps", index.complete(Field.TAG, "al", 1).get(0).getValue());
+
+        index.remove(3);
+        index.remove(4);
+        assertEquals(List.of("alpha (2)", "alps (1)"), strings(index.complete(Field.TAG, "al", 5)));
+        index.remove(1);
+        index.remove(2);
+        assertTrue(index.complete(Field.TAG, "", 5).isEmpty());
+        assertEquals(0, index.getValueCount(Field.TAG));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        CompletionIndex index = new CompletionIndex();
+        assertThrows(SnippetException.class, () -> index.add(null));
+        assertThrows(SnippetException.class, () -> index.complete(null, "a", 1));
+        assertThrows(SnippetException.class, () -> index.complete(Field.TAG, null, 1));
+        assertThrows(SnippetException.class, () -> index.complete(Field.TAG, "a", 0));
+    }
+
+    private static List<String> strings(List<Completion> completions) {
+        return completions.stream().map(Completion::toString).toList();
+    }
+}
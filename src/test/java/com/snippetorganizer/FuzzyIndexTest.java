@@ -0,0 +1,86 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.FuzzyIndex;
+import com.snippetorganizer.index.FuzzyIndex.Field;
+
+/**
+ * Test suite for the FuzzyIndex class.
+ */
+class FuzzyIndexTest {
+
+    @Test
+    void testFindsTermsWithinDistance() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.add(new Snippet(1, "Thread Pool", "JavaScript", "x", Set.of("concurrency"), ""));
+        index.add(new Snippet(2, "Thread Local", "Java", "y", Set.of("threads"), ""));
+        index.add(new Snippet(3, "Quick Sort", "Python", "z", Set.of("sorting"), ""));
+
+        assertArrayEquals(new int[] {1}, index.find(Field.TAG, "concurency", 1).toArray());
+        assertArrayEquals(new int[] {1}, index.find(Field.LANGUAGE, "Javscript", 1).toArray());
+        assertArrayEquals(new int[] {2}, index.find(Field.LANGUAGE, "jaava", 1).toArray());
+        assertArrayEquals(new int[] {1, 2}, index.find(Field.TITLE, "thred", 1).toArray());
+        assertArrayEquals(new int[] {3}, index.find(Field.TITLE, "sort", 0).toArray());
+        assertTrue(index.find(Field.TAG, "python", 2).isEmpty());
+    }
+
+    @Test
+    void testSuggestionsAreOrderedByDistanceThenUsage() {
+        FuzzyIndex index = new FuzzyIndex();
+        index.add(new Snippet(1, "A", "Java", "x", Set.of("test"), ""));
+        index.add(new Snippet(2, "B", "Java", "x", Set.of("tests"), ""));
+        index.add(new Snippet(3, "C", "Java", "x", Set.of("tests", "text"), ""));
+
+        List<FuzzyIndex.Suggestion> suggestions = index.suggest(Field.TAG, "tesst", 2);
+        assertEquals(List.of("test", "tests", "text"),
+            suggestions.stream().map(FuzzyIndex.Suggestion::getTerm).toList());
+        assertEquals(1, suggestions.get(0).getDistance());
+        assertEquals(2, suggestions.get(1).getSnippetCount());
+    }
+
+    @Test
+    void testRemoveAndReplace() {
+        FuzzyIndex index = new FuzzyIndex();
+        Snippet snippet = new Snippet(1, "Binary Heap", "Java", "x", Set.of("heap"), "");
+        index.add(snippet);
+        snippet.setTitle("Binary Tree");
+        index.add(snippet);
+        assertTrue(index.find(Field.TITLE, "heap", 0).isEmpty());
+        assertEquals(1, index.find(Field.TITLE, "tre", 1).cardinality());
+
+        index.remove(1);
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTermCount(Field.TITLE));
+        assertEquals(0, index.getTermCount(Field.TAG));
+    }
+
+    @Test
+    void testLargeDictionary() {
+        FuzzyIndex index = new FuzzyIndex();
+        for (int id = 0; id < 50_000; id++) {
+            index.add(new Snippet(id, "term" + Integer.toString(id, 36) + "x", "Java", "x", Set.of(), ""));
+        }
+        assertArrayEquals(new int[] {12_345}, index.find(Field.TITLE, "term" + Integer.toString(12_345, 36) + "x", 0).toArray());
+        assertTrue(index.find(Field.TITLE, "term" + Integer.toString(12_345, 36), 1).contains(12_345));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        FuzzyIndex index = new FuzzyIndex();
+        assertThrows(SnippetException.class, () -> index.add(null));
+        assertThrows(SnippetException.class, () -> index.find(null, "a", 1));
+        assertThrows(SnippetException.class, () -> index.find(Field.TAG, null, 1));
+        assertThrows(SnippetException.class, () -> index.find(Field.TAG, "a", 3));
+        assertThrows(SnippetException.class, () -> index.suggest(Field.TAG, "a", -1));
+    }
+}
@@ -0,0 +1,165 @@
+package com.snippetorganizer;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.IdBitmap;
+
+/**
+ * Test suite for the IdBitmap class.
+ */
+class IdBitmapTest {
+
+    @Test
+    void testAddRemoveContains() {
+        IdBitmap bitmap = new IdBitmap();
+        assertTrue(bitmap.add(3));
+        assertTrue(bitmap.add(70_000));
+        assertTrue(bitmap.add(1));
+        assertFalse(bitmap.add(3));
+
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(4));
+        assertArrayEquals(new int[] {1, 3, 70_000}, bitmap.toArray());
+
+        assertTrue(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(70_000));
+        assertArrayEquals(new int[] {1, 3}, bitmap.toArray());
+    }
+
+    @Test
+    void testSwitchesBetweenArrayAndBitmapContainers() {
+        IdBitmap bitmap = new IdBitmap();
+        for (int id = 0; id < 10_000; id++) {
+            bitmap.add(id);
+        }
+        assertEquals(10_000, bitmap.cardinality());
+        for (int id = 0; id < 10_000; id += 2) {
+            bitmap.remove(id);
+        }
+        assertEquals(5_000, bitmap.cardinality());
+        for (int id = 1; id < 10_000; id += 4) {
+            bitmap.remove(id);
+        }
+        assertEquals(2_500, bitmap.cardinality());
+        assertTrue(bitmap.contains(3));
+        assertFalse(bitmap.contains(5));
+    }
+
+    @Test
+    void testSetOperationsMatchTreeSet() {
+        Random random = new Random(11);
+        IdBitmap first = new IdBitmap();
+        IdBitmap second = new IdBitmap();
+        TreeSet<Integer> firstExpected = new TreeSet<>();
+        TreeSet<Integer> secondExpected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(200_000);
+            if (random.nextBoolean()) {
+                first.add(id);
+                firstExpected.add(id);
+            } else {
+                second.add(id);
+                secondExpected.add(id);
+            }
+        }
+        // A dense chunk on both sides exercises bitmap-to-bitmap intersection
+        for (int id = 0; id < 6_000; id++) {
+            first.add(id);
+            firstExpected.add(id);
+            if (id % 3 == 0) {
+                second.add(id);
+                secondExpected.add(id);
+            }
+        }
+
+        TreeSet<Integer> and = new TreeSet<>(firstExpected);
+        and.retainAll(secondExpected);
+        TreeSet<Integer> or = new TreeSet<>(firstExpected);
+        or.addAll(secondExpected);
+        TreeSet<Integer> andNot = new TreeSet<>(firstExpected);
+        andNot.removeAll(secondExpected);
+
+        assertArrayEquals(toArray(and), IdBitmap.and(first, second).toArray());
+        assertArrayEquals(toArray(or), IdBitmap.or(first, second).toArray());
+        assertArrayEquals(toArray(andNot), IdBitmap.andNot(first, second).toArray());
+        assertArrayEquals(toArray(firstExpected), first.toArray());
+    }
+
+    @Test
+    void testContainerUnionAndDifferenceMatchTreeSet() {
+        Random random = new Random(23);
+        IdBitmap accumulated = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int round = 0; round < 12; round++) {
+            // Alternate sparse and dense sets so array and bitmap containers meet both ways
+            int count = round % 3 == 0 ? 5_000 : 800;
+            int range = round % 3 == 0 ? 70_000 : 140_000;
+            IdBitmap set = new IdBitmap();
+            TreeSet<Integer> setExpected = new TreeSet<>();
+            for (int i = 0; i < count; i++) {
+                int id = random.nextInt(range);
+                set.add(id);
+                setExpected.add(id);
+            }
+
+            TreeSet<Integer> difference = new TreeSet<>(expected);
+            difference.removeAll(setExpected);
+            assertArrayEquals(toArray(difference), IdBitmap.andNot(accumulated, set).toArray());
+            TreeSet<Integer> reverse = new TreeSet<>(setExpected);
+            reverse.removeAll(expected);
+            assertArrayEquals(toArray(reverse), IdBitmap.andNot(set, accumulated).toArray());
+
+            accumulated.addAll(set);
+            expected.addAll(setExpected);
+            assertArrayEquals(toArray(expected), accumulated.toArray());
+            assertEquals(expected.size(), accumulated.cardinality());
+        }
+        assertTrue(IdBitmap.andNot(accumulated, accumulated).isEmpty());
+        // Unions and differences must not share containers with their operands
+        IdBitmap copy = IdBitmap.or(new IdBitmap(), accumulated);
+        copy.remove(expected.first());
+        assertTrue(accumulated.contains(expected.first()));
+    }
+
+    @Test
+    void testNextMatchesTreeSetCeiling() {
+        Random random = new Random(17);
+        IdBitmap bitmap = new IdBitmap();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Dense low chunk (bitmap container) and sparse high chunks (array containers)
+            int id = i < 10_000 ? random.nextInt(12_000) : random.nextInt(1 << 20);
+            bitmap.add(id);
+            expected.add(id);
+        }
+        for (int i = 0; i < 2_000; i++) {
+            int from = random.nextInt((1 << 20) + 10) - 5;
+            Integer ceiling = expected.ceiling(from);
+            assertEquals(ceiling != null ? ceiling : -1, bitmap.next(from));
+        }
+        assertEquals(-1, new IdBitmap().next(0));
+        assertEquals(expected.first(), bitmap.next(Integer.MIN_VALUE));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new IdBitmap().add(-1));
+        assertThrows(SnippetException.class, () -> new IdBitmap().forEach(null));
+        assertThrows(SnippetException.class, () -> IdBitmap.and(new IdBitmap(), null));
+        assertFalse(new IdBitmap().contains(-1));
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
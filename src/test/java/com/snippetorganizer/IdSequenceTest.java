@@ -0,0 +1,142 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.AtomicSnapshotFile;
+import com.snippetorganizer.persistence.IdSequence;
+import com.snippetorganizer.persistence.JsonSnippetStore;
+
+/**
+ * Test suite for the IdSequence class and ID allocation in the snippet manager.
+ */
+class IdSequenceTest {
+
+    private Path tempDir;
+    private Path sequenceFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("snippets_sequence_test_");
+        sequenceFile = tempDir.resolve("snippets.seq");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.walk(tempDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    void testInMemorySequence() {
+        IdSequence sequence = new IdSequence();
+        assertEquals(1, sequence.next());
+        assertEquals(2, sequence.next());
+        sequence.advancePast(10);
+        assertEquals(11, sequence.next());
+        sequence.advancePast(5);
+        assertEquals(12, sequence.peek());
+    }
+
+    @Test
+    void testCrashResumesAfterReservedBlock() {
+        IdSequence sequence = new IdSequence(sequenceFile, 10);
+        assertEquals(1, sequence.next());
+        assertEquals(2, sequence.next());
+        assertTrue(Files.exists(sequenceFile));
+
+        // No close(): the restarted sequence skips the rest of the block
+        IdSequence restarted = new IdSequence(sequenceFile, 10);
+        assertTrue(restarted.peek() > 2);
+        assertEquals(12, restarted.next());
+    }
+
+    @Test
+    void testCleanCloseLeavesNoGap() {
+        IdSequence sequence = new IdSequence(sequenceFile, 10);
+        sequence.next();
+        sequence.next();
+        sequence.close();
+
+        assertEquals(3, new IdSequence(sequenceFile, 10).next());
+    }
+
+    @Test
+    void testReserveAndRelease() {
+        IdSequence sequence = new IdSequence(sequenceFile, 4);
+        int first = sequence.reserve(100);
+        assertEquals(1, first);
+        assertEquals(101, sequence.peek());
+
+        assertTrue(sequence.release(6, 101));
+        assertEquals(6, sequence.next());
+        assertFalse(sequence.release(3, 101));
+        assertEquals(7, sequence.peek());
+
+        // Everything reserved stays above the mark after a crash
+        assertTrue(new IdSequence(sequenceFile, 4).peek() >= 101);
+    }
+
+    @Test
+    void testSequencePathFor() {
+        assertEquals("snippets.seq",
+            IdSequence.sequencePathFor(Path.of("data", "snippets.json")).getFileName().toString());
+        assertEquals("store.seq", IdSequence.sequencePathFor(Path.of("store")).getFileName().toString());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new IdSequence(null));
+        assertThrows(SnippetException.class, () -> new IdSequence(sequenceFile, 0));
+        assertThrows(SnippetException.class, () -> new IdSequence().reserve(0));
+        assertThrows(SnippetException.class, () -> IdSequence.sequencePathFor(null));
+    }
+
+    @Test
+    void testManagerNeverReusesIds() {
+        Path dataFile = tempDir.resolve("snippets.json");
+        try (SnippetManager manager = new SnippetManager(new JsonSnippetStore(dataFile))) {
+            manager.addSnippet("Title1", "Java", "code1");
+            manager.addSnippet("Title2", "Java", "code2");
+            manager.deleteSnippet(2);
+            manager.addSnippet("Title3", "Java", "code3");
+            assertEquals(3, manager.getAllSnippets().get(1).getId());
+        }
+
+        try (SnippetManager reloaded = new SnippetManager(new JsonSnippetStore(dataFile))) {
+            reloaded.addSnippet("Title4", "Java", "code4");
+            assertEquals(4, reloaded.getAllSnippets().get(2).getId());
+        }
+    }
+
+    @Test
+    void testManagerRecoversWithoutSequenceFile() throws IOException {
+        Path dataFile = tempDir.resolve("snippets.json");
+        try (SnippetManager manager = new SnippetManager(new JsonSnippetStore(dataFile))) {
+            manager.addSnippet("Title1", "Java", "code1");
+            manager.addSnippet("Title2", "Java", "code2");
+        }
+        Path sequence = IdSequence.sequencePathFor(dataFile);
+        Files.delete(sequence);
+        Files.deleteIfExists(AtomicSnapshotFile.previousOf(sequence));
+
+        SnippetManager reloaded = new SnippetManager(new JsonSnippetStore(dataFile));
+        reloaded.addSnippet("Title3", "Java", "code3");
+        assertEquals(3, reloaded.findById(3).getId());
+    }
+}
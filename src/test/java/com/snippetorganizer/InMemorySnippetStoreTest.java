@@ -0,0 +1,22 @@
+package com.snippetorganizer;
+
+import java.nio.file.Path;
+
+import com.snippetorganizer.persistence.InMemorySnippetStore;
+import com.snippetorganizer.persistence.SnippetStore;
+
+/**
+ * Runs the store conformance suite against InMemorySnippetStore.
+ */
+class InMemorySnippetStoreTest extends SnippetStoreConformanceTest {
+
+    @Override
+    protected SnippetStore createStore(Path dir) {
+        return new InMemorySnippetStore();
+    }
+
+    @Override
+    protected boolean isPersistent() {
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.IntSnippetMap;
+
+/**
+ * Test suite for the IntSnippetMap class.
+ */
+class IntSnippetMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntSnippetMap map = new IntSnippetMap();
+        Snippet java = TestDataUtil.javaSnippet(1);
+        Snippet python = TestDataUtil.pythonSnippet(2);
+
+        assertNull(map.put(java));
+        assertNull(map.put(python));
+        assertEquals(2, map.size());
+        assertSame(java, map.get(1));
+        assertSame(python, map.get(2));
+        assertNull(map.get(3));
+        assertTrue(map.containsKey(1));
+
+        Snippet replacement = TestDataUtil.jsSnippet(1);
+        assertSame(java, map.put(replacement));
+        assertEquals(2, map.size());
+        assertSame(replacement, map.get(1));
+
+        assertSame(python, map.remove(2));
+        assertNull(map.remove(2));
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey(2));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(1));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        IntSnippetMap map = new IntSnippetMap(4);
+        Map<Integer, Snippet> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            int id = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertSame(expected.remove(id), map.remove(id));
+            } else {
+                Snippet snippet = TestDataUtil.shortSnippet(id);
+                assertSame(expected.put(id, snippet), map.put(snippet));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int id = 0; id < 2_000; id++) {
+            assertSame(expected.get(id), map.get(id));
+        }
+        List<Snippet> visited = new ArrayList<>();
+        map.forEach(visited::add);
+        assertEquals(expected.size(), visited.size());
+    }
+
+    @Test
+    void testGrowsPastInitialCapacity() {
+        IntSnippetMap map = new IntSnippetMap();
+        for (int id = 0; id < 100_000; id += 7) {
+            map.put(TestDataUtil.shortSnippet(id));
+        }
+        for (int id = 0; id < 100_000; id++) {
+            assertEquals(id % 7 == 0, map.containsKey(id));
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new IntSnippetMap(-1));
+        assertThrows(SnippetException.class, () -> new IntSnippetMap().put(null));
+        assertThrows(SnippetException.class, () -> new IntSnippetMap().forEach(null));
+    }
+}
@@ -0,0 +1,57 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.composite.SnippetCollection;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.JournaledSnippetStore;
+import com.snippetorganizer.persistence.SnippetMutation;
+import com.snippetorganizer.persistence.SnippetStore;
+
+/**
+ * Runs the store conformance suite against JournaledSnippetStore,
+ * with a small compaction threshold so compaction is exercised too.
+ */
+class JournaledSnippetStoreTest extends SnippetStoreConformanceTest {
+
+    @Override
+    protected SnippetStore createStore(Path dir) {
+        return new JournaledSnippetStore(dir.resolve("snippets.json"), 3);
+    }
+
+    @Test
+    void testCompactionEmptiesJournal() throws IOException {
+        JournaledSnippetStore store = new JournaledSnippetStore(tempDir.resolve("snippets.json"), 3);
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        for (int i = 1; i <= 4; i++) {
+            Snippet snippet = TestDataUtil.javaSnippet(i);
+            contents.addSnippet(snippet);
+            store.record(SnippetMutation.added(snippet), contents);
+        }
+
+        assertEquals(1, store.getJournal().getEntryCount());
+        assertEquals(1, Files.readAllLines(store.getJournal().getPath()).size());
+
+        List<Snippet> loaded = new ArrayList<>();
+        createStore(tempDir).load(loaded::add, null);
+        assertEquals(4, loaded.size());
+    }
+
+    @Test
+    void testJournalPathFor() {
+        assertEquals("snippets.journal",
+            JournaledSnippetStore.journalPathFor(Path.of("data", "snippets.json")).getFileName().toString());
+        assertEquals("store.journal",
+            JournaledSnippetStore.journalPathFor(Path.of("store")).getFileName().toString());
+        assertThrows(SnippetException.class, () -> new JournaledSnippetStore(tempDir.resolve("x.json"), 0));
+    }
+}
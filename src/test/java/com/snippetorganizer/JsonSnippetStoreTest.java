@@ -0,0 +1,17 @@
+package com.snippetorganizer;
+
+import java.nio.file.Path;
+
+import com.snippetorganizer.persistence.JsonSnippetStore;
+import com.snippetorganizer.persistence.SnippetStore;
+
+/**
+ * Runs the store conformance suite against JsonSnippetStore.
+ */
+class JsonSnippetStoreTest extends SnippetStoreConformanceTest {
+
+    @Override
+    protected SnippetStore createStore(Path dir) {
+        return new JsonSnippetStore(dir.resolve("snippets.json"));
+    }
+}
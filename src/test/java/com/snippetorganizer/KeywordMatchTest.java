@@ -0,0 +1,94 @@
+package com.snippetorganizer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.KeywordMatch;
+import com.snippetorganizer.core.Snippet;
+
+/**
+ * Test suite for the KeywordMatch class.
+ */
+class KeywordMatchTest {
+
+    private static final String CODE = String.join("\n",
+        "int total = 0;",
+        "for (int value : values) {",
+        "    total += value;",
+        "}",
+        "log(\"done\");",
+        "log(\"still done\");",
+        "return total;");
+
+    private static KeywordMatch match(String code, String keyword) {
+        return new KeywordMatch(new Snippet(1, "Sum", "Java", code), keyword.toLowerCase());
+    }
+
+    @Test
+    void testOffsetsAndLineNumbers() {
+        KeywordMatch match = match(CODE, "Total");
+
+        assertEquals(List.of(4, 46, CODE.lastIndexOf("total")), match.getOffsets());
+        assertEquals(List.of(1, 3, 7), match.getLineNumbers());
+        assertEquals(List.of(0, 1), match("aaa", "aa").getOffsets());
+    }
+
+    @Test
+    void testExcerptShowsContextAndMergesWindows() {
+        assertEquals("""
+            1: int [[total]] = 0;
+            2: for (int value : values) {
+            3:     [[total]] += value;
+            4: }
+            ...
+            6: log("still done");
+            7: return [[total]];
+            """, match(CODE, "total").excerpt(1));
+        assertEquals("""
+            1: int [[total]] = 0;
+            ...
+            3:     [[total]] += value;
+            ...
+            7: return [[total]];
+            """, match(CODE, "total").excerpt(0));
+        assertEquals(CODE.split("\n").length, match(CODE, "total").excerpt(10).split("\n").length);
+    }
+
+    @Test
+    void testHighlightsOverlappingAndMultiLineOccurrences() {
+        assertEquals("1: <aaa> b\n", match("aaa b", "aa").excerpt(0, "<", ">"));
+        assertEquals("1: x = <1;>\n2: <y> = 2;\n", match("x = 1;\ny = 2;", "1;\ny").excerpt(0, "<", ">"));
+        assertEquals("1: a<>\n2: <b>\n", match("a\nb", "\nb").excerpt(0, "<", ">"));
+    }
+
+    @Test
+    void testNoCodeOccurrence() {
+        KeywordMatch match = match(CODE, "sum");
+
+        assertTrue(match.getOffsets().isEmpty());
+        assertTrue(match.getLineNumbers().isEmpty());
+        assertEquals("", match.excerpt(2));
+    }
+
+    @Test
+    void testKeepsTheCodeFoundAndIgnoresCase() {
+        Snippet snippet = new Snippet(1, "Sum", "Java", "Total()");
+        KeywordMatch match = new KeywordMatch(snippet, "total");
+        snippet.setCode("other()");
+
+        assertEquals("1: [[Total]]()\n", match.excerpt(0));
+    }
+
+    @Test
+    void testToStringShowsDetailsWithExcerpt() {
+        Snippet snippet = new Snippet(1, "Sum", "Java", CODE);
+        String details = snippet.toString().substring(0, snippet.toString().indexOf("\nCode:"));
+
+        assertEquals(details + "\nCode:\n" + new KeywordMatch(snippet, "done").excerpt(KeywordMatch.DEFAULT_CONTEXT_LINES)
+            .stripTrailing(), new KeywordMatch(snippet, "done").toString());
+        assertEquals(details, new KeywordMatch(snippet, "sum").toString());
+    }
+}
@@ -0,0 +1,54 @@
+package com.snippetorganizer;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.core.SnippetPage;
+import com.snippetorganizer.persistence.InMemorySnippetStore;
+
+/**
+ * Allocation harness for keyword scans over the precomputed lowercased fields.
+ * Not a unit test: run it manually, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.snippetorganizer.KeywordScanAllocationBenchmark -Dexec.args=200000}
+ *
+ * It runs a two-character keyword search, which no index can narrow down and which matches
+ * nothing, so every snippet is compared, and reports the bytes allocated by the scanning
+ * thread per compared snippet.
+ */
+public class KeywordScanAllocationBenchmark {
+
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        int snippetCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("Per-thread allocation counting is not supported by this JVM.");
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        try (SnippetManager manager = new SnippetManager(new InMemorySnippetStore())) {
+            for (int i = 0; i < snippetCount; i++) {
+                manager.addSnippet("Snippet " + i, i % 2 == 0 ? "Java" : "Python",
+                    "int Value" + i + " = " + i + ";\nSystem.out.println(Value" + i + ");",
+                    new HashSet<>(), "Benchmark Snippet Number " + i);
+            }
+
+            long thread = Thread.currentThread().getId();
+            manager.searchSnippets("#@", SnippetPage.FIRST, 10); // warm-up
+            long best = Long.MAX_VALUE;
+            long nanos = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long before = threads.getThreadAllocatedBytes(thread);
+                long start = System.nanoTime();
+                manager.searchSnippets("#@", SnippetPage.FIRST, 10);
+                nanos = Math.min(nanos, System.nanoTime() - start);
+                best = Math.min(best, threads.getThreadAllocatedBytes(thread) - before);
+            }
+            System.out.printf("%d snippets scanned in %.1f ms, %d bytes allocated (%.3f bytes/snippet)%n",
+                snippetCount, nanos / 1e6, best, (double) best / snippetCount);
+        }
+    }
+}
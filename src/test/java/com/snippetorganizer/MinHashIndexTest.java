@@ -0,0 +1,148 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.MinHashIndex;
+import com.snippetorganizer.index.SearchHit;
+
+/**
+ * Test suite for the MinHashIndex class.
+ */
+class MinHashIndexTest {
+
+    private static final String ORIGINAL = """
+        public static int binarySearch(int[] values, int target) {
+            int low = 0, high = values.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < target) low = mid + 1;
+                else if (values[mid] > target) high = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }""";
+
+    private static Snippet snippet(int id, String code) {
+        return new Snippet(id, "Snippet " + id, "Java", code, Set.of(), "");
+    }
+
+    @Test
+    void testSimilarityEstimatesShingleOverlap() {
+        int[] original = MinHashIndex.signature(ORIGINAL);
+
+        assertEquals(1.0, MinHashIndex.similarity(original, MinHashIndex.signature(ORIGINAL.replace("    ", "\t"))));
+        assertEquals(1.0, MinHashIndex.similarity(original, MinHashIndex.signature(ORIGINAL.toUpperCase())));
+        assertTrue(MinHashIndex.similarity(original, MinHashIndex.signature(ORIGINAL.replace("<=", "<"))) > 0.5);
+        assertTrue(MinHashIndex.similarity(original, MinHashIndex.signature("print('hello world')")) < 0.1);
+        assertArrayEquals(MinHashIndex.signature("abc"), MinHashIndex.signature(" abc "));
+    }
+
+    @Test
+    void testRenamedIdentifiersKeepSignature() {
+        int[] original = MinHashIndex.signature(ORIGINAL);
+        String renamed = ORIGINAL.replace("target", "key").replace("values", "sorted").replace("mid", "m");
+
+        assertArrayEquals(original, MinHashIndex.signature(renamed));
+        // Swapping which name is used where changes the data flow, not just the names
+        String swapped = ORIGINAL.replace("low = mid + 1", "high = mid + 1");
+        assertTrue(MinHashIndex.similarity(original, MinHashIndex.signature(swapped)) < 1.0);
+        // Reserved words are kept, so turning a loop into a branch is a change
+        assertTrue(MinHashIndex.similarity(original,
+            MinHashIndex.signature(ORIGINAL.replace("while", "if"))) < 1.0);
+    }
+
+    @Test
+    void testFindsNearDuplicatesOnly() {
+        MinHashIndex index = new MinHashIndex();
+        index.add(snippet(1, ORIGINAL));
+        index.add(snippet(2, ORIGINAL.replace("    ", "  ")));
+        index.add(snippet(3, ORIGINAL.replace("return -1;", "return -(low + 1);")));
+        index.add(snippet(5, ORIGINAL.replace("values", "numbers").replace("target", "wanted")));
+        index.add(snippet(4, "for (String line : lines) { System.out.println(line.trim()); }"));
+
+        List<SearchHit> hits = index.findSimilar(1, 0.8);
+        assertEquals(List.of(2, 5, 3), hits.stream().map(SearchHit::getId).toList());
+        assertEquals(1.0, hits.get(0).getScore());
+        assertTrue(index.findSimilar(4, 0.5).isEmpty());
+        assertTrue(index.findSimilar(99, 0.5).isEmpty());
+    }
+
+    @Test
+    void testUpdatesOnEditAndRemove() {
+        MinHashIndex index = new MinHashIndex();
+        Snippet copy = snippet(2, ORIGINAL);
+        index.add(snippet(1, ORIGINAL));
+        index.add(copy);
+        assertEquals(1, index.findSimilar(1, 0.9).size());
+
+        copy.setCode("SELECT name FROM users WHERE active = 1 ORDER BY name");
+        index.add(copy);
+        assertTrue(index.findSimilar(1, 0.5).isEmpty());
+
+        copy.setCode(ORIGINAL);
+        index.add(copy);
+        index.remove(1);
+        assertTrue(index.findSimilar(2, 0.5).isEmpty());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testClusters() {
+        MinHashIndex index = new MinHashIndex();
+        String other = "for (String line : lines) {\n    System.out.println(line.trim());\n}";
+        for (int id = 1; id <= 5; id++) {
+            index.add(snippet(id, ORIGINAL + "\n// copy " + id));
+        }
+        index.add(snippet(6, other));
+        index.add(snippet(7, other.replace("    ", "\t")));
+        index.add(snippet(8, "SELECT 1"));
+
+        List<int[]> clusters = index.clusters(0.8);
+        assertEquals(2, clusters.size());
+        assertArrayEquals(new int[] {1, 2, 3, 4, 5}, clusters.get(0));
+        assertArrayEquals(new int[] {6, 7}, clusters.get(1));
+    }
+
+    @Test
+    void testClustersDoNotDependOnInsertionOrder() {
+        List<String> codes = List.of(ORIGINAL,
+            ORIGINAL.replace("return -1;", "return -(low + 1);"),
+            ORIGINAL.replace("return -1;", "return -(low + 1);").replace("while (low <= high)", "while (low < high)"),
+            ORIGINAL.replace("int low = 0", "int low = 1"),
+            "for (String line : lines) {\n    System.out.println(line.trim());\n}");
+        MinHashIndex forward = new MinHashIndex();
+        MinHashIndex backward = new MinHashIndex();
+        for (int i = 0; i < codes.size(); i++) {
+            forward.add(snippet(i + 1, codes.get(i)));
+            backward.add(snippet(codes.size() - i, codes.get(codes.size() - 1 - i)));
+        }
+
+        for (double threshold : new double[] {0.6, 0.75, 0.9}) {
+            List<int[]> expected = forward.clusters(threshold);
+            List<int[]> actual = backward.clusters(threshold);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), actual.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        MinHashIndex index = new MinHashIndex();
+        assertThrows(SnippetException.class, () -> index.add(null));
+        assertThrows(SnippetException.class, () -> index.findSimilar(1, 0));
+        assertThrows(SnippetException.class, () -> index.clusters(1.5));
+        assertSame(List.of(), index.findSimilar(1, 1));
+    }
+}
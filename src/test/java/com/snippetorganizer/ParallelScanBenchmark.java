@@ -0,0 +1,54 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.snippetorganizer.core.ParallelSnippetScanner;
+import com.snippetorganizer.core.Snippet;
+
+/**
+ * Scaling harness for ParallelSnippetScanner.
+ * Not a unit test: run it manually, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.snippetorganizer.ParallelScanBenchmark -Dexec.args=500000}
+ *
+ * It filters the same in-memory snippets with a keyword too short for the trigram index,
+ * once per parallelism from 1 to the number of available processors, and reports the speedup.
+ */
+public class ParallelScanBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int snippetCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        List<Snippet> snippets = new ArrayList<>(snippetCount);
+        for (int i = 1; i <= snippetCount; i++) {
+            snippets.add(new Snippet(i, "Snippet " + i, i % 2 == 0 ? "Java" : "Python",
+                "int value" + i + " = " + i + ";\nSystem.out.println(value" + i + ");",
+                new HashSet<>(), "Benchmark snippet number " + i));
+        }
+        Predicate<Snippet> filter = snippet -> snippet.getCode().toLowerCase().contains("9;");
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%-12s %12s %12s %10s%n", "parallelism", "matches", "scan ms", "speedup");
+        double baseline = 0;
+        for (int parallelism = 1; parallelism <= processors; parallelism = parallelism < processors
+                ? Math.min(processors, parallelism * 2) : parallelism + 1) {
+            try (ParallelSnippetScanner scanner = new ParallelSnippetScanner(parallelism)) {
+                int matches = scanner.scan(snippets, filter, Integer.MAX_VALUE).size(); // warm-up
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    scanner.scan(snippets, filter, Integer.MAX_VALUE);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                double millis = best / 1e6;
+                if (parallelism == 1) {
+                    baseline = millis;
+                }
+                System.out.printf("%-12d %12d %12.1f %9.2fx%n", parallelism, matches, millis, baseline / millis);
+            }
+        }
+    }
+}
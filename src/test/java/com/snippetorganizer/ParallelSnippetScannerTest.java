@@ -0,0 +1,78 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.ParallelSnippetScanner;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Test suite for the ParallelSnippetScanner class.
+ */
+class ParallelSnippetScannerTest {
+
+    private static List<Snippet> snippets(int count) {
+        List<Snippet> snippets = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            snippets.add(new Snippet(i, "Snippet " + i, i % 3 == 0 ? "Java" : "Python",
+                "x = " + i, new HashSet<>(), ""));
+        }
+        return snippets;
+    }
+
+    @Test
+    void testParallelScanMatchesSequentialScan() {
+        List<Snippet> snippets = snippets(10_000);
+        try (ParallelSnippetScanner sequential = new ParallelSnippetScanner(1);
+             ParallelSnippetScanner parallel = new ParallelSnippetScanner(4)) {
+            List<Snippet> expected = sequential.scan(snippets, s -> s.getLanguage().equals("Java"), Integer.MAX_VALUE);
+            List<Snippet> actual = parallel.scan(snippets, s -> s.getLanguage().equals("Java"), Integer.MAX_VALUE);
+
+            assertEquals(3_333, expected.size());
+            assertEquals(expected, actual);
+            assertEquals(4, parallel.getParallelism());
+        }
+    }
+
+    @Test
+    void testLimitStopsTheScanEarly() {
+        List<Snippet> snippets = snippets(100_000);
+        AtomicInteger tested = new AtomicInteger();
+        try (ParallelSnippetScanner parallel = new ParallelSnippetScanner(4)) {
+            List<Snippet> matches = parallel.scan(snippets, s -> {
+                tested.incrementAndGet();
+                return s.getLanguage().equals("Java");
+            }, 10);
+
+            assertEquals(10, matches.size());
+            assertTrue(matches.stream().allMatch(s -> s.getLanguage().equals("Java")));
+            assertTrue(tested.get() < snippets.size());
+        }
+    }
+
+    @Test
+    void testSequentialLimitReturnsTheFirstMatches() {
+        try (ParallelSnippetScanner sequential = new ParallelSnippetScanner(1)) {
+            List<Snippet> matches = sequential.scan(snippets(2_000), s -> s.getLanguage().equals("Java"), 2);
+
+            assertEquals(List.of(3, 6), matches.stream().map(Snippet::getId).toList());
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new ParallelSnippetScanner(0));
+        try (ParallelSnippetScanner scanner = new ParallelSnippetScanner(2)) {
+            assertThrows(SnippetException.class, () -> scanner.scan(snippets(1), null, 1));
+            assertThrows(SnippetException.class, () -> scanner.scan(snippets(1), s -> true, 0));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.cache.CacheStats;
+import com.snippetorganizer.cache.QueryCache;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Test suite for the QueryCache class.
+ */
+class QueryCacheTest {
+
+    @Test
+    void testHitsUntilTheVersionChanges() {
+        QueryCache cache = new QueryCache(10, 1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+        List<Snippet> result = List.of(TestDataUtil.javaSnippet(1));
+
+        List<Snippet> first = cache.get("tag:java", 1, () -> {
+            loads.incrementAndGet();
+            return result;
+        });
+        assertSame(first, cache.get("tag:java", 1, () -> {
+            loads.incrementAndGet();
+            return result;
+        }));
+        cache.get("tag:java", 2, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, loads.get());
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(1, stats.getInvalidations());
+        assertEquals(1, stats.getEntries());
+        assertEquals(1.0 / 3, stats.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testInvalidateDropsOnlyCachedKeys() {
+        QueryCache cache = new QueryCache(10, 1 << 20);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("tag:java", () -> {
+            loads.incrementAndGet();
+            return List.of(TestDataUtil.javaSnippet(1));
+        });
+
+        assertFalse(cache.invalidate("tag:python"));
+        assertTrue(cache.invalidate("tag:java"));
+        assertFalse(cache.invalidate("tag:java"));
+        cache.get("tag:java", () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getStats().getInvalidations());
+        assertEquals(1, cache.getStats().getEntries());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedEntries() {
+        QueryCache cache = new QueryCache(2, 1 << 20);
+        cache.get("a", 0, List::of);
+        cache.get("b", 0, List::of);
+        cache.get("a", 0, List::of);
+        cache.get("c", 0, List::of);
+
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("a", 0, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        cache.get("b", 0, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void testByteLimit() {
+        List<Snippet> large = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            large.add(TestDataUtil.javaSnippet(i));
+        }
+        QueryCache cache = new QueryCache(100, 1_000);
+        cache.get("small", 0, List::of);
+        cache.get("large", 0, () -> large);
+        assertEquals(1, cache.getStats().getEntries());
+
+        for (int i = 0; i < 20; i++) {
+            cache.get("key" + i, 0, List::of);
+        }
+        assertTrue(cache.getStats().getBytes() <= 1_000);
+        assertTrue(cache.getStats().getEvictions() > 0);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new QueryCache(0, 1));
+        assertThrows(SnippetException.class, () -> new QueryCache(1, 0));
+        assertThrows(SnippetException.class, () -> new QueryCache(1, 1).get(null, 0, List::of));
+    }
+}
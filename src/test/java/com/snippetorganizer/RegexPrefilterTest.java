@@ -0,0 +1,88 @@
+package com.snippetorganizer;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.RegexPrefilter;
+import com.snippetorganizer.index.TrigramIndex;
+
+/**
+ * Test suite for the RegexPrefilter class.
+ */
+class RegexPrefilterTest {
+
+    private static List<List<String>> literals(String regex) {
+        return RegexPrefilter.requiredLiterals(Pattern.compile(regex));
+    }
+
+    @Test
+    void testLiteralRunsEndAtMetacharacters() {
+        assertEquals(List.of(List.of("Thread.sleep(")), literals("Thread\\.sleep\\(\\d+\\)"));
+        assertEquals(List.of(List.of("old", "call")), literals("old(api|API)call"));
+        assertEquals(List.of(List.of("new Date()")), literals("new Date\\(\\)"));
+        assertEquals(List.of(List.of("foo", "bar")), literals("^foo[0-9]+bar$"));
+        assertEquals(List.of(List.of("a.b")), literals("\\Qa.b\\E"));
+    }
+
+    @Test
+    void testEscapesWithArgumentsAreOpaque() {
+        assertNull(literals("\\p{Alpha}+"));
+        assertNull(literals("\\p{Lu}x"));
+        assertNull(literals("\\pLxy"));
+        assertEquals(List.of(List.of(" World")), literals("\\p{Lu}\\w+ World"));
+        assertEquals(List.of(List.of("BCD")), literals("\\x41BCD"));
+        assertEquals(List.of(List.of("bcd")), literals("\\x{41}bcd"));
+        assertEquals(List.of(List.of("bcd")), literals("\\u0041bcd"));
+        assertEquals(List.of(List.of("bcd")), literals("\\0101bcd"));
+        assertEquals(List.of(List.of("abc")), literals("\\cJabc"));
+        assertEquals(List.of(List.of("abc")), literals("(?<nm>x)\\k<nm>abc"));
+        assertEquals(List.of(List.of("bcd")), literals("\\N{LATIN SMALL LETTER A}bcd"));
+        assertEquals(List.of(List.of("bcd")), literals("a\\Rbcd"));
+        assertEquals(List.of(List.of("abc")), literals("(x)\\1abc"));
+        assertEquals(List.of(List.of("abc")), literals("\\d{3}abc"));
+    }
+
+    @Test
+    void testQuantifiersDropOptionalAtoms() {
+        assertEquals(List.of(List.of("colo")), literals("colou?r"));
+        assertEquals(List.of(List.of("abc")), literals("abcd*"));
+        assertEquals(List.of(List.of("abc", "def")), literals("abc+def"));
+        assertEquals(List.of(List.of("xyz")), literals("xyzq{0,2}"));
+        assertNull(literals("ab.*cd"));
+    }
+
+    @Test
+    void testTopLevelAlternationNeedsOneBranch() {
+        assertEquals(List.of(List.of("vector"), List.of("array")), literals("vector|array"));
+        assertNull(literals("vector|ab"));
+    }
+
+    @Test
+    void testUnsupportedPatternsScanEverything() {
+        assertNull(literals("(?x) foo bar baz"));
+        assertNull(RegexPrefilter.requiredLiterals(Pattern.compile("foo bar", Pattern.COMMENTS)));
+        assertEquals(List.of(List.of("a+b")), RegexPrefilter.requiredLiterals(Pattern.compile("a+b", Pattern.LITERAL)));
+    }
+
+    @Test
+    void testCandidatesUseTheTrigramIndex() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(TestDataUtil.javaSnippet(1));
+        index.add(TestDataUtil.pythonSnippet(2));
+        index.add(TestDataUtil.jsSnippet(3));
+
+        assertArrayEquals(new int[] {1}, RegexPrefilter.candidates(index, Pattern.compile("public\\s+class")));
+        assertArrayEquals(new int[] {2, 3}, RegexPrefilter.candidates(index, Pattern.compile("def |function")));
+        assertArrayEquals(new int[] {1}, RegexPrefilter.candidates(index, Pattern.compile("(?i)PUBLIC")));
+        assertArrayEquals(new int[0], RegexPrefilter.candidates(index, Pattern.compile("unsafe\\w+")));
+        assertNull(RegexPrefilter.candidates(index, Pattern.compile("\\w+")));
+        assertThrows(SnippetException.class, () -> RegexPrefilter.candidates(index, null));
+    }
+}
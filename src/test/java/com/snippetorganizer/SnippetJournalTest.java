@@ -0,0 +1,220 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.SnippetJournal;
+import com.snippetorganizer.persistence.SnippetMutation;
+import com.snippetorganizer.persistence.StorageMode;
+
+/**
+ * Test suite for the SnippetJournal class and the journaled storage mode.
+ */
+class SnippetJournalTest {
+
+    private Path tempDir;
+    private Path journalPath;
+    private SnippetJournal journal;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempDir = Files.createTempDirectory("snippet_journal_test_");
+        journalPath = tempDir.resolve("snippets.journal");
+        journal = new SnippetJournal(journalPath);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(tempDir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(tempDir);
+    }
+
+    @Test
+    void testReplayMissingJournal() {
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(0, journal.replay(snippets));
+        assertTrue(snippets.isEmpty());
+    }
+
+    @Test
+    void testAppendAndReplay() {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        journal.append(SnippetMutation.added(TestDataUtil.pythonSnippet(2)));
+        journal.append(SnippetMutation.deleted(1));
+        assertEquals(3, journal.getEntryCount());
+
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(3, new SnippetJournal(journalPath).replay(snippets));
+        assertEquals(1, snippets.size());
+        assertEquals("Python Function", snippets.get(2).getTitle());
+        assertEquals(Set.of("python", "scripting"), snippets.get(2).getTags());
+    }
+
+    @Test
+    void testReplayIsIdempotent() {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        journal.append(SnippetMutation.deleted(7));
+
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        snippets.put(1, TestDataUtil.javaSnippet(1));
+        journal.replay(snippets);
+        journal.replay(snippets);
+
+        assertEquals(1, snippets.size());
+    }
+
+    @Test
+    void testReplayDiscardsTornTail() throws IOException {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        long validLength = Files.size(journalPath);
+        Files.write(journalPath, "{\"type\":\"ADD\",\"id\":2,\"sni".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(1, journal.replay(snippets));
+        assertEquals(1, snippets.size());
+        assertEquals(validLength, Files.size(journalPath));
+    }
+
+    @Test
+    void testAppendAfterTornTailStartsNewLine() throws IOException {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        Files.write(journalPath, "{\"type\":\"ADD\",\"id\":2,\"sni".getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.APPEND);
+
+        SnippetJournal reopened = new SnippetJournal(journalPath);
+        reopened.append(SnippetMutation.deleted(1));
+
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(2, new SnippetJournal(journalPath).replay(snippets));
+        assertTrue(snippets.isEmpty());
+    }
+
+    @Test
+    void testReplayKeepsUnterminatedLastRecord() throws IOException {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        byte[] bytes = Files.readAllBytes(journalPath);
+        Files.write(journalPath, Arrays.copyOf(bytes, bytes.length - 1));
+
+        SnippetJournal reopened = new SnippetJournal(journalPath);
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(1, reopened.replay(snippets));
+        reopened.append(SnippetMutation.added(TestDataUtil.pythonSnippet(2)));
+
+        snippets.clear();
+        assertEquals(2, new SnippetJournal(journalPath).replay(snippets));
+        assertEquals(2, snippets.size());
+    }
+
+    @Test
+    void testReplayRejectsGluedRecords() throws IOException {
+        journal.append(SnippetMutation.deleted(1));
+        String record = Files.readString(journalPath);
+        Files.writeString(journalPath, record.strip() + record);
+
+        Map<Integer, Snippet> snippets = new LinkedHashMap<>();
+        assertEquals(0, new SnippetJournal(journalPath).replay(snippets));
+        assertEquals(0, Files.size(journalPath));
+    }
+
+    @Test
+    void testReplayFailsOnCorruptRecordInMiddle() throws IOException {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        Files.write(journalPath, "not json\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        journal.append(SnippetMutation.added(TestDataUtil.pythonSnippet(2)));
+        long length = Files.size(journalPath);
+
+        SnippetException e = assertThrows(SnippetException.class,
+            () -> new SnippetJournal(journalPath).replay(new LinkedHashMap<>()));
+        assertTrue(e.getMessage().contains("line 2"));
+        assertEquals(length, Files.size(journalPath));
+    }
+
+    @Test
+    void testTruncate() throws IOException {
+        journal.append(SnippetMutation.added(TestDataUtil.javaSnippet(1)));
+        journal.truncate();
+
+        assertEquals(0, journal.getEntryCount());
+        assertEquals(0, Files.size(journalPath));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new SnippetJournal(null));
+        assertThrows(SnippetException.class, () -> journal.append(null));
+        assertThrows(SnippetException.class, () -> journal.replay(null));
+        assertThrows(SnippetException.class, () -> new SnippetMutation(SnippetMutation.Type.ADD, 1, null));
+    }
+
+    @Test
+    void testJournaledManagerDoesNotRewriteSnapshot() throws IOException {
+        Path dataFile = tempDir.resolve("snippets.json");
+        SnippetManager manager = new SnippetManager(dataFile.toString(), StorageMode.JOURNALED);
+        long snapshotSize = Files.size(dataFile);
+
+        manager.addSnippet("Title1", "Java", "code1");
+        manager.addSnippet("Title2", "Python", "code2");
+        manager.editSnippet(1, "Edited", "Java", "code1");
+        manager.deleteSnippet(2);
+
+        assertEquals(snapshotSize, Files.size(dataFile));
+        assertTrue(Files.exists(journalPath));
+        assertEquals(4, Files.readAllLines(journalPath).size());
+    }
+
+    @Test
+    void testJournaledManagerReloadsState() {
+        Path dataFile = tempDir.resolve("snippets.json");
+        SnippetManager manager = new SnippetManager(dataFile.toString(), StorageMode.JOURNALED);
+        manager.addSnippet("Title1", "Java", "code1");
+        manager.addSnippet("Title2", "Python", "code2");
+        manager.addSnippet("Title3", "C", "code3");
+        manager.editSnippet(1, "Edited", "Java", "new code");
+        manager.deleteSnippet(2);
+
+        Snippet third = manager.getAllSnippets().get(1);
+        third.addTag("systems");
+        manager.updateSnippet(third);
+
+        List<Snippet> reloaded = new SnippetManager(dataFile.toString(), StorageMode.JOURNALED).getAllSnippets();
+        assertEquals(2, reloaded.size());
+        assertEquals("Edited", reloaded.get(0).getTitle());
+        assertEquals("new code", reloaded.get(0).getCode());
+        assertEquals(3, reloaded.get(1).getId());
+        assertTrue(reloaded.get(1).hasTag("systems"));
+    }
+
+    @Test
+    void testUpdateSnippetRejectsUnknownSnippet() {
+        Path dataFile = tempDir.resolve("snippets.json");
+        SnippetManager manager = new SnippetManager(dataFile.toString(), StorageMode.JOURNALED);
+
+        assertThrows(SnippetException.class, () -> manager.updateSnippet(null));
+        assertThrows(SnippetException.class, () -> manager.updateSnippet(TestDataUtil.javaSnippet(1)));
+        assertFalse(Files.exists(journalPath));
+    }
+}
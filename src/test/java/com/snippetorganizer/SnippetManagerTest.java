@@ -4,11 +4,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -16,9 +20,16 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.snippetorganizer.core.KeywordBatchMatch;
+import com.snippetorganizer.core.KeywordMatch;
+import com.snippetorganizer.core.RegexMatch;
+import com.snippetorganizer.core.ScanEngine;
+import com.snippetorganizer.core.ScoredSnippet;
 import com.snippetorganizer.core.Snippet;
 import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.core.SnippetPage;
 import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.FuzzyIndex;
 
 /*
  * Test suite for the SnippetManager class.
@@ -398,4 +409,298 @@ class SnippetManagerTest {
         assertDoesNotThrow(() -> manager.searchSnippets("你好"));
         assertDoesNotThrow(() -> manager.searchSnippets("世界"));
     }
+
+    @Test
+    void testFindById() {
+        manager.addSnippet("Title1", "Java", "code1");
+        manager.addSnippet("Title2", "Python", "code2");
+        manager.addSnippet("Title3", "C", "code3");
+
+        assertEquals("Title2", manager.findById(2).getTitle());
+        assertNull(manager.findById(42));
+
+        manager.deleteSnippet(2);
+        assertNull(manager.findById(2));
+        assertEquals("Title3", manager.findById(3).getTitle());
+
+        manager.editSnippet(3, "Edited", "C", "code3");
+        assertEquals("Edited", manager.findById(3).getTitle());
+
+        SnippetManager reloaded = new SnippetManager(tempFile.toString());
+        assertEquals("Title1", reloaded.findById(1).getTitle());
+        assertNull(reloaded.findById(2));
+    }
+
+    @Test
+    void testFindByTagFollowsTagChanges() {
+        manager.addSnippet("Java Snippet", "Java", "code1", Set.of("java", "oop"), "");
+        manager.addSnippet("Python Snippet", "Python", "code2", Set.of("python"), "");
+        manager.addSnippet("Another Java", "Java", "code3", Set.of("java"), "");
+
+        assertEquals(2, manager.findByTag("JAVA").size());
+        assertEquals(2, manager.getTagCount("java"));
+        assertEquals("Java Snippet", manager.findByAllTags(Set.of("java", "oop")).get(0).getTitle());
+        assertTrue(manager.findByAllTags(Set.of("java", "python")).isEmpty());
+
+        Snippet python = manager.findById(2);
+        python.addTag("oop");
+        manager.updateSnippet(python);
+        assertEquals(2, manager.getTagCount("oop"));
+
+        manager.deleteSnippet(1);
+        assertEquals(1, manager.getTagCount("java"));
+        assertEquals(Set.of("java", "oop", "python"), manager.getAllTags());
+        assertThrows(SnippetException.class, () -> manager.findByTag(" "));
+        assertThrows(SnippetException.class, () -> manager.findByAllTags(Set.of()));
+    }
+
+    @Test
+    void testRankedSearch() {
+        manager.addSnippet("Binary Search", "Java", "int search(int[] a, int key) { return -1; }", Set.of("search"), "");
+        manager.addSnippet("Loop", "Java", "for (int i = 0; i < n; i++) { search(i); }");
+        manager.addSnippet("Print", "Java", "System.out.println(x);");
+
+        List<ScoredSnippet> results = manager.rankedSearch("search", 10);
+        assertEquals(2, results.size());
+        assertEquals("Binary Search", results.get(0).getSnippet().getTitle());
+
+        manager.deleteSnippet(1);
+        assertEquals("Loop", manager.rankedSearch("search", 10).get(0).getSnippet().getTitle());
+        assertThrows(SnippetException.class, () -> manager.rankedSearch(" ", 10));
+        assertThrows(SnippetException.class, () -> manager.rankedSearch("search", 0));
+    }
+
+    @Test
+    void testFuzzySearch() {
+        manager.addSnippet("Thread Pool", "Java", "code1", Set.of("concurrency"), "");
+        manager.addSnippet("Quick Sort", "Python", "code2", Set.of("sorting"), "");
+
+        assertEquals("Thread Pool", manager.fuzzySearch(FuzzyIndex.Field.TAG, "concurency", 1).get(0).getTitle());
+        assertEquals("Quick Sort", manager.fuzzySearch(FuzzyIndex.Field.LANGUAGE, "pyhton", 2).get(0).getTitle());
+        assertEquals("concurrency", manager.suggest(FuzzyIndex.Field.TAG, "concurrancy", 2).get(0).getTerm());
+
+        manager.editSnippet(1, "Executor", "Java", "code1");
+        assertTrue(manager.fuzzySearch(FuzzyIndex.Field.TITLE, "thread", 1).isEmpty());
+        assertThrows(SnippetException.class, () -> manager.fuzzySearch(FuzzyIndex.Field.TAG, "", 1));
+    }
+
+    @Test
+    void testRegexSearch() {
+        manager.addSnippet("Sleeper", "Java", "void run() {\n    Thread.sleep(100);\n    work();\n    Thread.sleep(5);\n}", Set.of(), "");
+        manager.addSnippet("Waiter", "Java", "Thread.sleep(ms);", Set.of(), "");
+        manager.addSnippet("Printer", "Python", "print('Thread.sleep(1)')", Set.of(), "");
+
+        List<RegexMatch> matches = manager.regexSearch("Thread\\.sleep\\(\\d+\\)");
+        assertEquals(2, matches.size());
+        assertEquals("Sleeper", matches.get(0).getSnippet().getTitle());
+        assertEquals(List.of(2, 4), matches.get(0).getLineNumbers());
+        assertEquals(List.of(1), matches.get(1).getLineNumbers());
+
+        assertEquals(3, manager.regexSearch("\\(").size());
+        assertTrue(manager.regexSearch("THREAD").isEmpty());
+        assertThrows(SnippetException.class, () -> manager.regexSearch("sleep("));
+        assertThrows(SnippetException.class, () -> manager.regexSearch(""));
+    }
+
+    @Test
+    void testScanWithParallelism() {
+        for (int i = 0; i < 1_200; i++) {
+            manager.addSnippet("Snippet " + i, i % 2 == 0 ? "Java" : "Go", "x" + i, Set.of(), "");
+        }
+        manager.setScanParallelism(3);
+
+        assertEquals(3, manager.getScanParallelism());
+        assertEquals(600, manager.scan(snippet -> snippet.getLanguage().equals("Go"), Integer.MAX_VALUE).size());
+        assertEquals(5, manager.scan(snippet -> snippet.getLanguage().equals("Go"), 5).size());
+        assertThrows(SnippetException.class, () -> manager.setScanParallelism(0));
+    }
+
+    @Test
+    void testVectorScanEngineMatchesStringEngine() {
+        manager.addSnippet("Parser", "Java", "int parseHeader(byte[] input) { return input.length; }", Set.of(), "");
+        manager.addSnippet("Greeting", "Python", "print('Grüße, naïve café')", Set.of(), "");
+        manager.addSnippet("Emoji", "JavaScript", "const smile = '\u263A ☺'; PARSE(smile);", Set.of("chars"), "");
+
+        for (String keyword : List.of("pa", "parse", "HEADER", "üße", "☺", "smile", "zz")) {
+            manager.setScanEngine(ScanEngine.STRING);
+            List<Integer> expected = manager.streamByKeyword(keyword).map(Snippet::getId).toList();
+            manager.setScanEngine(ScanEngine.VECTOR);
+            assertEquals(expected, manager.streamByKeyword(keyword).map(Snippet::getId).toList(), keyword);
+            assertEquals(expected, manager.searchSnippets(keyword, SnippetPage.FIRST, 10).getSnippets()
+                .stream().map(Snippet::getId).toList(), keyword);
+        }
+        assertEquals(ScanEngine.VECTOR, manager.getScanEngine());
+        assertThrows(SnippetException.class, () -> manager.setScanEngine(null));
+    }
+
+    @Test
+    void testSearchKeywordsInOnePass() {
+        manager.addSnippet("Eval Helper", "JavaScript", "eval(input);\nwindow.eval(code);", Set.of("unsafe"), "Calls EVAL");
+        manager.addSnippet("Safe", "Java", "int total = a + b;", Set.of(), "");
+        manager.addSnippet("Exec", "Python", "os.system(cmd)", Set.of(), "Runs a shell command");
+
+        List<KeywordBatchMatch> results = manager.searchKeywords(List.of("eval", "os.system", "EVAL", "unsafe"));
+
+        assertEquals(List.of(1, 3), results.stream().map(result -> result.getSnippet().getId()).toList());
+        KeywordBatchMatch first = results.get(0);
+        assertEquals(Map.of("eval", 4, "unsafe", 1), first.getCounts());
+        assertEquals(List.of(KeywordBatchMatch.Field.TITLE, KeywordBatchMatch.Field.CODE, KeywordBatchMatch.Field.CODE,
+            KeywordBatchMatch.Field.DESCRIPTION), first.getHits("Eval").stream().map(KeywordBatchMatch.Hit::getField).toList());
+        assertEquals(List.of(0, 0, 20, 6), first.getHits("eval").stream().map(KeywordBatchMatch.Hit::getOffset).toList());
+        assertEquals("unsafe", first.getHits("unsafe").get(0).getTag());
+        assertEquals(1, results.get(1).getCount("os.system"));
+        assertEquals(0, results.get(1).getCount("eval"));
+
+        assertTrue(manager.searchKeywords(Set.of("missing")).isEmpty());
+
+        // Offsets refer to the fields as written, even where lowercasing changes the length
+        manager.addSnippet("\u0130stanbul Eval", "Java", "// \u0130\u0130\nEval();", Set.of(), "");
+        KeywordBatchMatch shifted = manager.searchKeywords(List.of("eval")).get(1);
+        assertEquals(List.of(9, 6), shifted.getHits("eval").stream().map(KeywordBatchMatch.Hit::getOffset).toList());
+        assertEquals("Eval", shifted.getSnippet().getTitle().substring(9, 13));
+        assertEquals("Eval", shifted.getSnippet().getCode().substring(6, 10));
+        assertThrows(SnippetException.class, () -> manager.searchKeywords(List.of()));
+        assertThrows(SnippetException.class, () -> manager.searchKeywords(List.of("ok", " ")));
+    }
+
+    @Test
+    void testStreamMatchesCarryExcerpts() {
+        manager.addSnippet("Loop", "Java", "int i = 0;\nwhile (i < 10) {\n    i++;\n}", Set.of(), "");
+        manager.addSnippet("While loops", "Java", "do { } until (done);", Set.of(), "");
+
+        List<KeywordMatch> matches = manager.streamMatches("WHILE").toList();
+
+        assertEquals(2, matches.size());
+        assertEquals(List.of(2), matches.get(0).getLineNumbers());
+        assertEquals("1: int i = 0;\n2: [[while]] (i < 10) {\n3:     i++;\n", matches.get(0).excerpt(1));
+        assertEquals("", matches.get(1).excerpt(1));
+        assertThrows(SnippetException.class, () -> manager.streamMatches(null));
+    }
+
+    @Test
+    void testNearDuplicatesFollowEdits() {
+        String code = "for (int i = 0; i < items.size(); i++) {\n    process(items.get(i));\n}";
+        manager.addSnippet("Loop", "Java", code, Set.of(), "");
+        manager.addSnippet("Loop copy", "Java", code.replace("    ", "\t"), Set.of(), "");
+        manager.addSnippet("Query", "SQL", "SELECT id, name FROM users ORDER BY name", Set.of(), "");
+
+        List<ScoredSnippet> duplicates = manager.findNearDuplicates(1, 0.8);
+        assertEquals(List.of(2), duplicates.stream().map(result -> result.getSnippet().getId()).toList());
+        assertEquals(List.of(List.of(1, 2)), manager.findDuplicateClusters(0.8).stream()
+            .map(cluster -> cluster.stream().map(Snippet::getId).toList()).toList());
+
+        manager.editSnippet(2, "Loop copy", "Java", "System.exit(0);");
+        assertTrue(manager.findNearDuplicates(1, 0.8).isEmpty());
+        manager.editSnippet(3, "Query", "SQL", code);
+        assertEquals(3, manager.findNearDuplicates(1, 0.8).get(0).getSnippet().getId());
+        manager.deleteSnippet(3);
+        assertTrue(manager.findDuplicateClusters(0.8).isEmpty());
+        assertThrows(SnippetException.class, () -> manager.findNearDuplicates(42, 0.8));
+    }
+
+    @Test
+    void testRegexSearchAgreesWithFullScan() {
+        manager.addSnippet("Greeting", "Java", "System.out.println(\"Hello World\");", Set.of(), "");
+        manager.addSnippet("Hex", "C", "char c = 'A'; // 0x41 ABCD", Set.of(), "");
+        manager.addSnippet("Lines", "Python", "first = 1\r\nsecond = 2\nthird = 3", Set.of(), "");
+        manager.addSnippet("Repeat", "Java", "int total = total + total;", Set.of(), "");
+
+        List<String> patterns = List.of("\\p{Lu}\\w+ World", "\\p{Alpha}+", "\\x41BCD", "\\u0041BCD",
+            "\\0101BCD", "first = 1\\R", "(?<word>total) = \\k<word>", "(tot)al = \\1al", "\\N{LATIN CAPITAL LETTER A}BCD",
+            "\\d{2} ABCD", "\\cJsecond");
+        for (String regex : patterns) {
+            Pattern pattern = Pattern.compile(regex);
+            List<Integer> expected = manager.getSnippetComponent().getAllSnippets().stream()
+                .filter(snippet -> pattern.matcher(snippet.getCode()).find())
+                .map(Snippet::getId).sorted().toList();
+            List<Integer> actual = manager.regexSearch(regex).stream()
+                .map(match -> match.getSnippet().getId()).sorted().toList();
+            assertEquals(expected, actual, regex);
+            assertFalse(expected.isEmpty(), regex);
+        }
+    }
+
+    @Test
+    void testStreamSearchIsLazy() {
+        for (int i = 1; i <= 5; i++) {
+            manager.addSnippet("Sorter " + i, "Java", "sort(values);", Set.of("sorting"), "");
+        }
+        Stream<Snippet> stream = manager.streamByKeyword("sort");
+        manager.deleteSnippet(2);
+
+        assertEquals(List.of(1, 3), stream.limit(2).map(Snippet::getId).toList());
+        assertEquals(List.of(4, 5), manager.streamByTag("sorting").skip(2).map(Snippet::getId).toList());
+        assertEquals(4, manager.streamByKeyword("so").count());
+        assertThrows(SnippetException.class, () -> manager.streamByKeyword(" "));
+        assertThrows(SnippetException.class, () -> manager.streamByTag(null));
+    }
+
+    @Test
+    void testCursorPagination() {
+        for (int i = 1; i <= 7; i++) {
+            manager.addSnippet("Snippet " + i, "Java", i % 2 == 0 ? "even()" : "odd()", Set.of(i % 2 == 0 ? "even" : "odd"), "");
+        }
+        SnippetPage first = manager.listSnippets(SnippetPage.FIRST, 3);
+        assertEquals(List.of(1, 2, 3), first.getSnippets().stream().map(Snippet::getId).toList());
+        assertTrue(first.hasMore());
+
+        // Mutations before the cursor do not shift the next page
+        manager.deleteSnippet(1);
+        manager.addSnippet("Snippet 8", "Java", "even()", Set.of("even"), "");
+        SnippetPage second = manager.listSnippets(first.getNextCursor(), 3);
+        assertEquals(List.of(4, 5, 6), second.getSnippets().stream().map(Snippet::getId).toList());
+        SnippetPage third = manager.listSnippets(second.getNextCursor(), 3);
+        assertEquals(List.of(7, 8), third.getSnippets().stream().map(Snippet::getId).toList());
+        assertFalse(third.hasMore());
+
+        SnippetPage even = manager.searchSnippets("even", 4, 2);
+        assertEquals(List.of(6, 8), even.getSnippets().stream().map(Snippet::getId).toList());
+        assertFalse(even.hasMore());
+        assertEquals(List.of(3, 5), manager.searchSnippets("od", 1, 2).getSnippets().stream().map(Snippet::getId).toList());
+        assertEquals(List.of(3), manager.findByTag("odd", SnippetPage.FIRST, 1).getSnippets().stream().map(Snippet::getId).toList());
+        assertThrows(SnippetException.class, () -> manager.listSnippets(SnippetPage.FIRST, 0));
+    }
+
+    @Test
+    void testQueryCacheInvalidatesOnMutation() {
+        manager.addSnippet("Sort", "Java", "sort();", Set.of("algo"), "");
+        manager.addSnippet("Search", "Python", "find()", Set.of("algo"), "");
+
+        assertEquals(2, manager.findByTag("algo").size());
+        assertEquals(2, manager.findByTag("ALGO").size());
+        assertEquals(1, manager.findByLanguage("java").size());
+        assertEquals(1, manager.getQueryCacheStats().getHits());
+
+        Snippet search = manager.findById(2);
+        search.removeTag("algo");
+        manager.updateSnippet(search);
+        manager.editSnippet(2, "Search", "Java", "find()");
+
+        assertEquals(1, manager.findByTag("algo").size());
+        assertEquals(2, manager.findByLanguage("JAVA").size());
+        assertEquals(2, manager.getQueryCacheStats().getInvalidations());
+        assertThrows(UnsupportedOperationException.class, () -> manager.findByTag("algo").clear());
+    }
+
+    @Test
+    void testQueryCacheOnlyInvalidatesAffectedKeys() {
+        manager.addSnippet("Sort", "Java", "sort();", Set.of("algo"), "");
+        manager.addSnippet("Query", "SQL", "SELECT 1", Set.of("db"), "");
+        manager.findByTag("algo");
+        manager.findByLanguage("java");
+        manager.findByTag("db");
+
+        // Other tags and languages, and fields no lookup depends on, keep the cached results
+        manager.addSnippet("Script", "Python", "run()", Set.of("tools"), "");
+        manager.editSnippet(1, "Sort renamed", "Java", "sort(values);");
+        manager.findByTag("algo");
+        manager.findByLanguage("java");
+        assertEquals(2, manager.getQueryCacheStats().getHits());
+        assertEquals(0, manager.getQueryCacheStats().getInvalidations());
+
+        manager.deleteSnippet(2);
+        assertTrue(manager.findByTag("db").isEmpty());
+        assertEquals(1, manager.findByTag("algo").size());
+        assertEquals(1, manager.getQueryCacheStats().getInvalidations());
+    }
 }
@@ -0,0 +1,118 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.core.SnippetQuery;
+import com.snippetorganizer.exception.SnippetException;
+
+/**
+ * Test suite for the SnippetQuery class and SnippetManager.query.
+ */
+class SnippetQueryTest {
+
+    private SnippetManager manager;
+    private Path tempFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFile = Files.createTempFile("snippets_query_", ".json");
+        manager = new SnippetManager(tempFile.toString());
+        manager.addSnippet("Thread Pool", "Java", "ExecutorService pool = Executors.newFixedThreadPool(4);",
+            Set.of("concurrency", "java"), "Fixed size pool");
+        manager.addSnippet("Thread Pool Test", "Java", "assertNotNull(pool);",
+            Set.of("concurrency", "test"), "");
+        manager.addSnippet("Async Sleep", "Python", "await asyncio.sleep(1)",
+            Set.of("concurrency", "python"), "Non-blocking sleep");
+        manager.addSnippet("Vector", "C++", "std::vector<int> values;", Set.of("stl"), "");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testParsesOperatorsAndFields() {
+        assertEquals("(lang:java AND tag:concurrency AND NOT title:test)",
+            SnippetQuery.parse("lang:java AND tag:concurrency NOT title:test").toString());
+        assertEquals("((tag:a AND tag:b) OR tag:c)", SnippetQuery.parse("tag:a tag:b OR tag:c").toString());
+        assertEquals("(tag:a AND (tag:b OR tag:c))", SnippetQuery.parse("tag:a (tag:b OR tag:c)").toString());
+        assertEquals("title:\"thread pool\"", SnippetQuery.parse("title:\"Thread Pool\"").toString());
+        assertEquals("len:10..20", SnippetQuery.parse("length:10..20").toString());
+        assertEquals("len:11.." + Long.MAX_VALUE, SnippetQuery.parse("len:>10").toString());
+        assertEquals("\"std::vector\"", SnippetQuery.parse("std::vector").toString());
+    }
+
+    @Test
+    void testQueryCombinesIndexedAndScannedPredicates() {
+        assertEquals(List.of("Thread Pool"), titles(manager.query("lang:java AND tag:concurrency NOT title:test")));
+        assertEquals(List.of("Thread Pool", "Thread Pool Test"), titles(manager.query("\"thread pool\"")));
+        assertEquals(List.of("Async Sleep", "Vector"), titles(manager.query("tag:python OR tag:stl")));
+        assertEquals(List.of("Vector"), titles(manager.query("std::vector")));
+        assertEquals(List.of("Thread Pool Test", "Async Sleep"), titles(manager.query("tag:concurrency len:<25")));
+        assertEquals(List.of("Async Sleep"), titles(manager.query("desc:blocking")));
+        assertEquals(List.of("Vector"), titles(manager.query("NOT tag:concurrency")));
+        assertEquals(List.of("Thread Pool Test"), titles(manager.query("id:2")));
+        assertTrue(manager.query("tag:missing OR tag:absent").isEmpty());
+    }
+
+    @Test
+    void testLanguageTermsUseTheLanguageIndex() {
+        assertEquals(List.of("Thread Pool", "Thread Pool Test"), titles(manager.query("lang:JAVA")));
+        assertEquals(List.of("Async Sleep"), titles(manager.query("lang:python tag:concurrency")));
+        assertTrue(manager.query("lang:rust").isEmpty());
+        manager.editSnippet(4, "Vector", "Rust", "let values: Vec<i32> = Vec::new();");
+        assertEquals(List.of("Vector"), titles(manager.query("lang:rust")));
+        assertTrue(manager.query("lang:c++").isEmpty());
+        manager.deleteSnippet(4);
+        assertTrue(manager.query("lang:rust").isEmpty());
+    }
+
+    @Test
+    void testQueryFollowsEdits() {
+        manager.editSnippet(4, "Dynamic Array", "C++", "std::vector<int> values;");
+        assertEquals(List.of("Dynamic Array"), titles(manager.query("title:array")));
+        manager.deleteSnippet(4);
+        assertTrue(manager.query("title:array").isEmpty());
+    }
+
+    @Test
+    void testMatchesSingleSnippet() {
+        SnippetQuery query = SnippetQuery.parse("tag:java AND code:class");
+        assertTrue(query.matches(TestDataUtil.javaSnippet(1)));
+        assertFalse(query.matches(TestDataUtil.pythonSnippet(2)));
+        assertThrows(SnippetException.class, () -> query.matches(null));
+    }
+
+    @Test
+    void testInvalidQueries() {
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse(null));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("  "));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("(tag:a"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("tag:a)"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("tag:"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("AND tag:a"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("tag:a NOT"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("title:\"open"));
+        assertThrows(SnippetException.class, () -> SnippetQuery.parse("len:abc"));
+        assertThrows(SnippetException.class, () -> manager.query((SnippetQuery) null));
+    }
+
+    private static List<String> titles(List<Snippet> snippets) {
+        return snippets.stream().map(Snippet::getTitle).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Set;
+
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.persistence.StorageMode;
+
+/**
+ * Throughput comparison harness for the SnippetStore implementations.
+ * Not a unit test: run it manually, e.g.
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.snippetorganizer.SnippetStoreBenchmark -Dexec.args=2000}
+ *
+ * For every storage mode it measures adds, edits and a cold reload through SnippetManager.
+ */
+public class SnippetStoreBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int snippetCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int editCount = Math.max(1, snippetCount / 4);
+
+        System.out.printf("%-26s %12s %12s %14s%n", "store", "adds/sec", "edits/sec", "reload ms");
+        for (StorageMode mode : StorageMode.values()) {
+            Path dir = Files.createTempDirectory("snippet_store_bench_");
+            try {
+                Path dataFile = dir.resolve(mode == StorageMode.BINARY ? "snippets.snpb" : "snippets.json");
+                SnippetManager manager = new SnippetManager(mode.createStore(dataFile));
+
+                long start = System.nanoTime();
+                for (int i = 0; i < snippetCount; i++) {
+                    manager.addSnippet("Snippet " + i, i % 2 == 0 ? "Java" : "Python",
+                        "int value" + i + " = " + i + ";\nSystem.out.println(value" + i + ");",
+                        Set.of("bench", "tag" + (i % 50)), "Benchmark snippet number " + i);
+                }
+                double addsPerSecond = snippetCount * 1e9 / (System.nanoTime() - start);
+
+                start = System.nanoTime();
+                for (int i = 0; i < editCount; i++) {
+                    int id = 1 + (i * 7919) % snippetCount;
+                    manager.editSnippet(id, "Edited " + i, "Java", "return " + i + ";");
+                }
+                double editsPerSecond = editCount * 1e9 / (System.nanoTime() - start);
+                manager.getStore().close();
+
+                start = System.nanoTime();
+                SnippetManager reloaded = new SnippetManager(mode.createStore(dataFile));
+                double reloadMillis = (System.nanoTime() - start) / 1e6;
+                reloaded.getStore().close();
+
+                System.out.printf("%-26s %12.0f %12.0f %14.1f%n",
+                    mode.getDisplayName(), addsPerSecond, editsPerSecond, reloadMillis);
+            } finally {
+                try (var files = Files.walk(dir)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.composite.SnippetCollection;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.SnippetMutation;
+import com.snippetorganizer.persistence.SnippetStore;
+
+/**
+ * Conformance suite every SnippetStore implementation must pass.
+ * Subclasses only provide the store under test.
+ */
+abstract class SnippetStoreConformanceTest {
+
+    protected Path tempDir;
+
+    /**
+     * Creates a store rooted in the given directory. Calling it twice with the same
+     * directory must return a store that sees the data persisted by the first one.
+     */
+    protected abstract SnippetStore createStore(Path dir);
+
+    /** Whether the store keeps data across instances. */
+    protected boolean isPersistent() {
+        return true;
+    }
+
+    @BeforeEach
+    void setUpStore() throws IOException {
+        tempDir = Files.createTempDirectory("snippet_store_test_");
+    }
+
+    @AfterEach
+    void tearDownStore() throws IOException {
+        try (var files = Files.walk(tempDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private List<Snippet> reload() {
+        List<Snippet> loaded = new ArrayList<>();
+        try (SnippetStore store = createStore(tempDir)) {
+            store.load(loaded::add, null);
+        }
+        return loaded;
+    }
+
+    @Test
+    void testNewStoreIsEmpty() {
+        assertTrue(reload().isEmpty());
+    }
+
+    @Test
+    void testNameIsPresent() {
+        try (SnippetStore store = createStore(tempDir)) {
+            assertNotNull(store.getName());
+            assertFalse(store.getName().isBlank());
+        }
+    }
+
+    @Test
+    void testLoadRejectsNullSink() {
+        try (SnippetStore store = createStore(tempDir)) {
+            assertThrows(SnippetException.class, () -> store.load(null, null));
+        }
+    }
+
+    @Test
+    void testRecordAddUpdateDelete() {
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (SnippetStore store = createStore(tempDir)) {
+            Snippet java = TestDataUtil.javaSnippet(1);
+            Snippet python = TestDataUtil.pythonSnippet(2);
+            contents.addSnippet(java);
+            store.record(SnippetMutation.added(java), contents);
+            contents.addSnippet(python);
+            store.record(SnippetMutation.added(python), contents);
+
+            java.setTitle("Renamed");
+            java.addTag("renamed");
+            store.record(SnippetMutation.updated(java), contents);
+
+            contents.removeSnippet(python);
+            store.record(SnippetMutation.deleted(2), contents);
+            store.flush();
+        }
+
+        List<Snippet> loaded = reload();
+        if (!isPersistent()) {
+            assertTrue(loaded.isEmpty());
+            return;
+        }
+        assertEquals(1, loaded.size());
+        assertEquals(1, loaded.get(0).getId());
+        assertEquals("Renamed", loaded.get(0).getTitle());
+        assertEquals(Set.of("java", "oop", "renamed"), loaded.get(0).getTags());
+        assertEquals("A Java class", loaded.get(0).getDescription());
+    }
+
+    @Test
+    void testRecordAllBatch() {
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        List<SnippetMutation> batch = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            Snippet snippet = TestDataUtil.jsSnippet(i);
+            contents.addSnippet(snippet);
+            batch.add(SnippetMutation.added(snippet));
+        }
+        try (SnippetStore store = createStore(tempDir)) {
+            store.recordAll(batch, contents);
+        }
+
+        List<Snippet> loaded = reload();
+        assertEquals(isPersistent() ? 20 : 0, loaded.size());
+        if (isPersistent()) {
+            for (int i = 0; i < loaded.size(); i++) {
+                assertEquals(i + 1, loaded.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    void testCheckpointPersistsFullContents() {
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        contents.addSnippet(TestDataUtil.longSnippet(1));
+        contents.addSnippet(TestDataUtil.shortSnippet(2));
+        try (SnippetStore store = createStore(tempDir)) {
+            store.checkpoint(contents);
+        }
+
+        assertEquals(isPersistent() ? 2 : 0, reload().size());
+    }
+
+    @Test
+    void testLoadReportsStats() {
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        contents.addSnippet(TestDataUtil.javaSnippet(1));
+        try (SnippetStore store = createStore(tempDir)) {
+            store.checkpoint(contents);
+        }
+
+        List<Long> reported = new ArrayList<>();
+        try (SnippetStore store = createStore(tempDir)) {
+            long count = store.load(snippet -> { }, (loaded, bytesRead, totalBytes) -> reported.add(loaded))
+                .getSnippetCount();
+            assertEquals(isPersistent() ? 1 : 0, count);
+        }
+        assertFalse(reported.isEmpty());
+    }
+
+    @Test
+    void testManagerRoundTrip() throws IOException {
+        SnippetManager manager = new SnippetManager(createStore(tempDir));
+        manager.addSnippet("Title1", "Java", "code1", Set.of("java"), "first");
+        manager.addSnippet("Title2", "Python", "code2");
+        manager.addSnippet("Title3", "C", "code3");
+        manager.editSnippet(1, "Edited", "Java", "new code");
+        manager.deleteSnippet(2);
+        manager.close();
+
+        SnippetManager reloaded = new SnippetManager(createStore(tempDir));
+        if (!isPersistent()) {
+            assertEquals(0, reloaded.getSnippetCount());
+            return;
+        }
+        List<Snippet> snippets = reloaded.getAllSnippets();
+        assertEquals(2, snippets.size());
+        assertEquals("Edited", snippets.get(0).getTitle());
+        assertEquals("new code", snippets.get(0).getCode());
+        assertTrue(snippets.get(0).hasTag("java"));
+        assertEquals(3, snippets.get(1).getId());
+    }
+}
@@ -153,4 +153,22 @@ class SnippetTest {
         assertTrue(result.contains("Java"));
         assertTrue(result.contains("public class Test {}"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testFoldedFieldsFollowSetters() {
+        basicSnippet.setTitle("Quick SORT");
+        basicSnippet.setCode("List.Of()");
+        basicSnippet.setDescription("Sorts An Array");
+        basicSnippet.addTag("Algorithms");
+
+        assertEquals("quick sort", basicSnippet.getFoldedTitle());
+        assertEquals("java", basicSnippet.getFoldedLanguage());
+        assertEquals("list.of()", basicSnippet.getFoldedCode());
+        assertEquals("sorts an array", basicSnippet.getFoldedDescription());
+        assertTrue(basicSnippet.anyTagContains("algo"));
+        assertFalse(basicSnippet.anyTagContains("xyz"));
+
+        basicSnippet.setDescription(null);
+        assertNull(basicSnippet.getFoldedDescription());
+    }
+}
@@ -0,0 +1,127 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.LoadStats;
+import com.snippetorganizer.persistence.StorageMode;
+import com.snippetorganizer.persistence.StreamingSnippetLoader;
+
+/**
+ * Test suite for the StreamingSnippetLoader class.
+ */
+class StreamingSnippetLoaderTest {
+
+    private Path tempFile;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        tempFile = Files.createTempFile("snippets_stream_test_", ".json");
+        objectMapper = new ObjectMapper();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    void testLoadStreamsAllSnippetsInOrder() throws IOException {
+        objectMapper.writeValue(tempFile.toFile(), List.of(
+            TestDataUtil.javaSnippet(1), TestDataUtil.pythonSnippet(2), TestDataUtil.jsSnippet(3)));
+
+        List<Snippet> loaded = new ArrayList<>();
+        LoadStats stats = new StreamingSnippetLoader().load(tempFile.toFile(), loaded::add, null);
+
+        assertEquals(3, stats.getSnippetCount());
+        assertEquals(Files.size(tempFile), stats.getBytesRead());
+        assertEquals(3, loaded.size());
+        assertEquals(1, loaded.get(0).getId());
+        assertEquals("JS Function", loaded.get(2).getTitle());
+        assertTrue(loaded.get(1).hasTag("python"));
+    }
+
+    @Test
+    void testLoadReportsProgress() throws IOException {
+        List<Snippet> snippets = new ArrayList<>();
+        for (int i = 1; i <= 25; i++) {
+            snippets.add(TestDataUtil.javaSnippet(i));
+        }
+        objectMapper.writeValue(tempFile.toFile(), snippets);
+
+        List<Long> reported = new ArrayList<>();
+        long[] lastBytes = {0};
+        new StreamingSnippetLoader(objectMapper, 10).load(tempFile.toFile(), snippet -> { },
+            (loaded, bytesRead, totalBytes) -> {
+                reported.add(loaded);
+                assertTrue(bytesRead >= lastBytes[0]);
+                assertTrue(bytesRead <= totalBytes);
+                lastBytes[0] = bytesRead;
+            });
+
+        assertEquals(List.of(10L, 20L, 25L), reported);
+    }
+
+    @Test
+    void testLoadEmptyOrMissingFile() throws IOException {
+        List<Snippet> loaded = new ArrayList<>();
+        assertEquals(0, new StreamingSnippetLoader().load(tempFile.toFile(), loaded::add, null).getSnippetCount());
+
+        Files.delete(tempFile);
+        assertEquals(0, new StreamingSnippetLoader().load(tempFile.toFile(), loaded::add, null).getSnippetCount());
+        assertTrue(loaded.isEmpty());
+    }
+
+    @Test
+    void testLoadRejectsNonArray() throws IOException {
+        Files.writeString(tempFile, "{\"id\": 1}");
+        SnippetException exception = assertThrows(SnippetException.class, () ->
+            new StreamingSnippetLoader().load(tempFile.toFile(), snippet -> { }, null));
+        assertEquals(SnippetException.ErrorType.IO_ERROR, exception.getErrorType());
+    }
+
+    @Test
+    void testLoadRejectsInvalidSnippet() throws IOException {
+        Files.writeString(tempFile, "[{\"id\": 1, \"title\": \"\", \"language\": \"Java\", \"code\": \"x\"}]");
+        assertThrows(SnippetException.class, () ->
+            new StreamingSnippetLoader().load(tempFile.toFile(), snippet -> { }, null));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new StreamingSnippetLoader(null, 10));
+        assertThrows(SnippetException.class, () -> new StreamingSnippetLoader(objectMapper, 0));
+        assertThrows(SnippetException.class, () -> new StreamingSnippetLoader().load(null, snippet -> { }, null));
+        assertThrows(SnippetException.class, () -> new StreamingSnippetLoader().load(tempFile.toFile(), null, null));
+    }
+
+    @Test
+    void testManagerReportsLoadStats() {
+        SnippetManager manager = new SnippetManager(tempFile.toString());
+        manager.addSnippet("Title1", "Java", "code1");
+        manager.addSnippet("Title2", "Python", "code2");
+
+        List<Long> reported = new ArrayList<>();
+        SnippetManager reloaded = new SnippetManager(tempFile.toString(), StorageMode.JSON,
+            (loaded, bytesRead, totalBytes) -> reported.add(loaded));
+
+        assertEquals(2, reloaded.getLoadStats().getSnippetCount());
+        assertEquals(2, reloaded.getSnippetCount());
+        assertEquals(List.of(2L), reported);
+    }
+}
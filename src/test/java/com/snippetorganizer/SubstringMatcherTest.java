@@ -0,0 +1,73 @@
+package com.snippetorganizer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.ScalarSubstringMatcher;
+import com.snippetorganizer.core.ScanEngine;
+import com.snippetorganizer.core.SubstringMatcher;
+
+/**
+ * Test suite for the substring matchers behind {@link ScanEngine#VECTOR}. Runs against the
+ * Vector API matcher when built and tested with the {@code vector} profile.
+ */
+class SubstringMatcherTest {
+
+    private static final SubstringMatcher[] MATCHERS = { ScalarSubstringMatcher.INSTANCE, ScanEngine.byteMatcher() };
+
+    @Test
+    void testFindsPatternsAtEveryPosition() {
+        String text = "for (int i = 0; i < values.length; i++) { total += values[i]; } // sum of the values array";
+        byte[] bytes = latin1(text);
+        for (SubstringMatcher matcher : MATCHERS) {
+            for (int start = 0; start < text.length(); start++) {
+                for (int end = start + 1; end <= Math.min(text.length(), start + 12); end++) {
+                    assertTrue(matcher.contains(bytes, latin1(text.substring(start, end))), text.substring(start, end));
+                }
+            }
+            assertFalse(matcher.contains(bytes, latin1("valuez")));
+            assertFalse(matcher.contains(bytes, latin1(text + "!")));
+            assertFalse(matcher.contains(new byte[0], latin1("a")));
+        }
+    }
+
+    @Test
+    void testAgreesWithStringContains() {
+        Random random = new Random(42);
+        for (int round = 0; round < 2_000; round++) {
+            String text = randomText(random, random.nextInt(300));
+            String pattern = random.nextInt(3) == 0 && text.length() > 4
+                ? text.substring(random.nextInt(text.length() - 4)).substring(0, 1 + random.nextInt(4))
+                : randomText(random, 1 + random.nextInt(4));
+            for (SubstringMatcher matcher : MATCHERS) {
+                assertEquals(text.contains(pattern), matcher.contains(latin1(text), latin1(pattern)), text + " / " + pattern);
+            }
+        }
+    }
+
+    @Test
+    void testLatin1Encoding() {
+        assertArrayEquals("café".getBytes(StandardCharsets.ISO_8859_1), SubstringMatcher.latin1("café"));
+        assertNull(SubstringMatcher.latin1("☺"));
+        assertNull(SubstringMatcher.latin1(null));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append("abc(){};é".charAt(random.nextInt(9)));
+        }
+        return text.toString();
+    }
+
+    private static byte[] latin1(String text) {
+        return SubstringMatcher.latin1(text);
+    }
+}
@@ -0,0 +1,86 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import com.snippetorganizer.core.ScalarSubstringMatcher;
+import com.snippetorganizer.core.ScanEngine;
+import com.snippetorganizer.core.SubstringMatcher;
+
+/**
+ * Comparison harness for the substring matchers behind ScanEngine.VECTOR and String.contains.
+ * Not a unit test: run it manually, with and without the Vector API, e.g.
+ * {@code mvn -Pvector test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java -Dexec.args="--add-modules jdk.incubator.vector -cp %classpath com.snippetorganizer.SubstringScanBenchmark"}
+ *
+ * For code of 200 bytes, 2 KB and 20 KB built from a realistic Java method, it searches a
+ * keyword that does not occur (so every position is checked) and one that occurs once near
+ * the end, and reports the nanoseconds per search of each matcher.
+ */
+public class SubstringScanBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private static final String METHOD = "    public List<Snippet> findByLanguage(String language) {\n"
+        + "        List<Snippet> result = new ArrayList<>();\n"
+        + "        for (Snippet snippet : snippets) {\n"
+        + "            if (snippet.getLanguage().equalsIgnoreCase(language)) {\n"
+        + "                result.add(snippet); // keep collection order\n"
+        + "            }\n"
+        + "        }\n"
+        + "        return result;\n"
+        + "    }\n";
+
+    public static void main(String[] args) {
+        System.out.println("Vector API matcher: " + (ScanEngine.isVectorAccelerated() ? "in use" : "not available"));
+        System.out.printf("%-8s %-10s %14s %14s %14s%n", "size", "keyword", "String ns", "scalar ns", "engine ns");
+        for (int size : new int[] {200, 2_000, 20_000}) {
+            String code = code(size);
+            for (String keyword : new String[] {"hashmap", "needle();"}) {
+                String text = keyword.equals("needle();") ? code.substring(0, size - 20) + "needle();" : code;
+                byte[] textBytes = SubstringMatcher.latin1(text);
+                byte[] keywordBytes = SubstringMatcher.latin1(keyword);
+                long string = time(text, keyword, String::contains);
+                long scalar = time(textBytes, keywordBytes, ScalarSubstringMatcher.INSTANCE::contains);
+                long engine = time(textBytes, keywordBytes, ScanEngine.byteMatcher()::contains);
+                System.out.printf("%-8d %-10s %14d %14d %14d%n", size, keyword, string, scalar, engine);
+            }
+        }
+    }
+
+    private static String code(int size) {
+        StringBuilder code = new StringBuilder(size + METHOD.length());
+        while (code.length() < size) {
+            code.append(METHOD.toLowerCase());
+        }
+        return code.substring(0, size);
+    }
+
+    /**
+     * Measures the best average time of a search over several rounds.
+     *
+     * @return nanoseconds per search
+     */
+    private static <T> long time(T text, T keyword, BiPredicate<T, T> search) {
+        int iterations = 20_000_000 / Math.max(1, lengthOf(text));
+        List<Long> rounds = new ArrayList<>();
+        boolean sink = false;
+        for (int round = 0; round <= ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink ^= search.test(text, keyword);
+            }
+            if (round > 0) { // the first round is warm-up
+                rounds.add((System.nanoTime() - start) / iterations);
+            }
+        }
+        if (sink && rounds.isEmpty()) {
+            System.out.println();
+        }
+        return rounds.stream().mapToLong(Long::longValue).min().orElse(0);
+    }
+
+    private static int lengthOf(Object text) {
+        return text instanceof byte[] bytes ? bytes.length : ((String) text).length();
+    }
+}
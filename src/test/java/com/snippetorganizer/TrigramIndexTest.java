@@ -0,0 +1,97 @@
+package com.snippetorganizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.index.TrigramIndex;
+
+/**
+ * Test suite for the TrigramIndex class.
+ */
+class TrigramIndexTest {
+
+    @Test
+    void testCandidatesCoverEveryIndexedField() {
+        TrigramIndex index = new TrigramIndex();
+        index.add(TestDataUtil.javaSnippet(1));
+        index.add(TestDataUtil.pythonSnippet(2));
+        index.add(TestDataUtil.jsSnippet(3));
+
+        assertArrayEquals(new int[] {1}, index.candidates("java class"));
+        assertArrayEquals(new int[] {2}, index.candidates("def test"));
+        assertArrayEquals(new int[] {1, 3}, index.candidates("java"));
+        assertArrayEquals(new int[] {2}, index.candidates("scripting"));
+        assertArrayEquals(new int[] {2, 3}, index.candidates("fun"));
+        assertArrayEquals(new int[0], index.candidates("rust"));
+        assertNull(index.candidates("py"));
+    }
+
+    @Test
+    void testAddReplacesAndRemoveUnindexes() {
+        TrigramIndex index = new TrigramIndex();
+        Snippet snippet = TestDataUtil.javaSnippet(1);
+        index.add(snippet);
+
+        snippet.setTitle("Renamed");
+        snippet.setCode("int x = 0;");
+        index.add(snippet);
+        assertEquals(1, index.size());
+        assertArrayEquals(new int[0], index.candidates("public"));
+        assertArrayEquals(new int[] {1}, index.candidates("renamed"));
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(0, index.size());
+        assertEquals(0, index.getTrigramCount());
+    }
+
+    @Test
+    void testCandidatesAreSupersetOfMatches() {
+        TrigramIndex index = new TrigramIndex();
+        List<Snippet> snippets = new ArrayList<>();
+        Random random = new Random(7);
+        String alphabet = "abcXYZ ";
+        for (int id = 0; id < 500; id++) {
+            StringBuilder code = new StringBuilder();
+            for (int i = 0; i < 40; i++) {
+                code.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            Snippet snippet = new Snippet(id, "T" + id, "Lang", code.toString(), Set.of(), null);
+            snippets.add(snippet);
+            index.add(snippet);
+        }
+
+        for (int query = 0; query < 200; query++) {
+            StringBuilder keyword = new StringBuilder();
+            for (int i = 0; i < 3 + random.nextInt(3); i++) {
+                keyword.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String lowerKeyword = keyword.toString().toLowerCase();
+            int[] candidates = index.candidates(lowerKeyword);
+            for (Snippet snippet : snippets) {
+                if (snippet.getCode().toLowerCase().contains(lowerKeyword)) {
+                    assertTrue(Arrays.binarySearch(candidates, snippet.getId()) >= 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new TrigramIndex().add(null));
+        assertThrows(SnippetException.class, () -> new TrigramIndex().candidates(null));
+    }
+}
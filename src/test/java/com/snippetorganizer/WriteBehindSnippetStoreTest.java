@@ -0,0 +1,190 @@
+package com.snippetorganizer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.snippetorganizer.composite.SnippetCollection;
+import com.snippetorganizer.composite.SnippetComponent;
+import com.snippetorganizer.core.Snippet;
+import com.snippetorganizer.core.SnippetManager;
+import com.snippetorganizer.exception.SnippetException;
+import com.snippetorganizer.persistence.JournaledSnippetStore;
+import com.snippetorganizer.persistence.JsonSnippetStore;
+import com.snippetorganizer.persistence.LoadProgressListener;
+import com.snippetorganizer.persistence.LoadStats;
+import com.snippetorganizer.persistence.SnippetMutation;
+import com.snippetorganizer.persistence.SnippetStore;
+import com.snippetorganizer.persistence.WriteBehindSnippetStore;
+
+/**
+ * Runs the store conformance suite against WriteBehindSnippetStore and checks
+ * its batching behaviour.
+ */
+class WriteBehindSnippetStoreTest extends SnippetStoreConformanceTest {
+
+    @Override
+    protected SnippetStore createStore(Path dir) {
+        return new WriteBehindSnippetStore(new JsonSnippetStore(dir.resolve("snippets.json")), 20, 5);
+    }
+
+    @Test
+    void testBatchesAreBoundedBySize() {
+        CountingStore counting = new CountingStore();
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (WriteBehindSnippetStore store = new WriteBehindSnippetStore(counting, 60_000, 4)) {
+            for (int i = 1; i <= 10; i++) {
+                Snippet snippet = TestDataUtil.javaSnippet(i);
+                contents.addSnippet(snippet);
+                store.record(SnippetMutation.added(snippet), contents);
+            }
+            store.flush();
+            assertEquals(0, store.getPendingCount());
+        }
+
+        assertEquals(10, counting.mutations);
+        assertTrue(counting.batchSizes.stream().allMatch(size -> size <= 4));
+        assertTrue(counting.batchSizes.size() >= 3);
+    }
+
+    @Test
+    void testPendingChangesAreWrittenAfterDelay() throws InterruptedException {
+        CountingStore counting = new CountingStore();
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (WriteBehindSnippetStore store = new WriteBehindSnippetStore(counting, 10, 1000)) {
+            Snippet snippet = TestDataUtil.pythonSnippet(1);
+            contents.addSnippet(snippet);
+            store.record(SnippetMutation.added(snippet), contents);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (store.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, store.getPendingCount());
+            assertEquals(1, counting.mutations);
+        }
+    }
+
+    @Test
+    void testRecordAfterCloseFails() {
+        WriteBehindSnippetStore store = new WriteBehindSnippetStore(new CountingStore());
+        store.close();
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        assertThrows(SnippetException.class, () -> store.record(SnippetMutation.deleted(1), contents));
+    }
+
+    @Test
+    void testWriteFailureIsReportedAndRetried() {
+        CountingStore counting = new CountingStore();
+        counting.failing = true;
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        WriteBehindSnippetStore store = new WriteBehindSnippetStore(counting, 60_000, 1000);
+        store.record(SnippetMutation.deleted(1), contents);
+
+        assertThrows(SnippetException.class, store::flush);
+        assertEquals(1, store.getPendingCount());
+        store.record(SnippetMutation.deleted(2), contents);
+        assertEquals(2, store.getPendingCount());
+
+        counting.failing = false;
+        store.flush();
+        assertEquals(0, store.getPendingCount());
+        assertEquals(2, counting.mutations);
+        store.close();
+    }
+
+    @Test
+    void testFlusherRetriesAfterFailure() throws InterruptedException {
+        CountingStore counting = new CountingStore();
+        counting.failuresLeft = 1;
+        SnippetCollection contents = new SnippetCollection("Main Collection");
+        try (WriteBehindSnippetStore store = new WriteBehindSnippetStore(counting, 10, 1000)) {
+            store.record(SnippetMutation.deleted(1), contents);
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (counting.failuresLeft > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, counting.failuresLeft);
+
+            store.record(SnippetMutation.deleted(2), contents);
+            store.record(SnippetMutation.deleted(3), contents);
+            while (counting.mutations < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, store.getPendingCount());
+            assertEquals(3, counting.mutations);
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(SnippetException.class, () -> new WriteBehindSnippetStore(null));
+        assertThrows(SnippetException.class, () -> new WriteBehindSnippetStore(new CountingStore(), 0, 10));
+        assertThrows(SnippetException.class, () -> new WriteBehindSnippetStore(new CountingStore(), 10, 0));
+    }
+
+    @Test
+    void testManagerBulkAddThroughJournal() {
+        Path dataFile = tempDir.resolve("snippets.json");
+        try (SnippetManager manager = new SnippetManager(
+                new WriteBehindSnippetStore(new JournaledSnippetStore(dataFile)))) {
+            for (int i = 0; i < 1000; i++) {
+                manager.addSnippet("Title" + i, "Java", "code" + i);
+            }
+        }
+
+        SnippetManager reloaded = new SnippetManager(new JournaledSnippetStore(dataFile));
+        assertEquals(1000, reloaded.getSnippetCount());
+        assertEquals("Title999", reloaded.getAllSnippets().get(999).getTitle());
+    }
+
+    /**
+     * Store that only counts what it is asked to write.
+     */
+    private static final class CountingStore implements SnippetStore {
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private volatile int mutations;
+        private volatile boolean failing;
+        private volatile int failuresLeft;
+
+        @Override
+        public String getName() {
+            return "Counting";
+        }
+
+        @Override
+        public LoadStats load(Consumer<Snippet> sink, LoadProgressListener listener) {
+            return LoadStats.EMPTY;
+        }
+
+        @Override
+        public void record(SnippetMutation mutation, SnippetComponent contents) {
+            recordAll(List.of(mutation), contents);
+        }
+
+        @Override
+        public void recordAll(List<SnippetMutation> batch, SnippetComponent contents) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw SnippetException.ioError("Disk full", new IOException("Disk full"));
+            }
+            if (failing) {
+                throw SnippetException.ioError("Disk full", new IOException("Disk full"));
+            }
+            batchSizes.add(batch.size());
+            mutations += batch.size();
+        }
+
+        @Override
+        public void checkpoint(SnippetComponent contents) {
+        }
+    }
+}